@@ -0,0 +1,202 @@
+package com.exam.benchmark;
+
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.AnswerRecord;
+import com.exam.model.ExamRecord;
+import com.exam.model.Paper;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.StudentAchievementAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重建单个学生成绩聚合的内存开销：对比先物化考试记录、作答明细和题目对象图再累加，
+ * 与按窄投影逐行送入 StudentAchievementAccumulator 的流式累加。
+ * 结果集用预先生成的列数组模拟，两种方式都按 MyBatis 的映射方式每行新建对象；
+ * 看 gc.alloc.rate.norm 列比较每次操作的分配量，物化方式的对象在累加结束前全部存活，流式方式每行用完即可回收。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AchievementAccumulationBenchmark {
+    private static final String[] SUBJECTS = {"数学", "英语", "物理", "化学", "Java 程序设计"};
+    private static final QuestionType[] TYPES = QuestionType.values();
+    private static final int QUESTION_BANK_SIZE = 2000;
+
+    @Param({"500", "5000"})
+    public int recordCount;
+
+    @Param({"20"})
+    public int questionsPerRecord;
+
+    private int[] recordPaperIds;
+    private BigDecimal[] recordScores;
+    private LocalDateTime[] recordTimes;
+    private int[] answerQuestionIds;
+    private String[] answerTexts;
+    private boolean[] answerCorrect;
+    private String[] paperSubjects;
+    private Question[] questionBank;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int paperCount = 50;
+        paperSubjects = new String[paperCount];
+        for (int i = 0; i < paperCount; i++) {
+            paperSubjects[i] = SUBJECTS[i % SUBJECTS.length];
+        }
+        questionBank = new Question[QUESTION_BANK_SIZE];
+        for (int i = 0; i < QUESTION_BANK_SIZE; i++) {
+            Question question = new Question();
+            question.setQuestionId(i + 1);
+            question.setQuestionType(TYPES[i % TYPES.length]);
+            question.setContent("第 " + (i + 1) + " 题的题干内容，长度与真实题目大致相当，包含若干描述性文字。");
+            question.setOptionA("选项 A 的内容");
+            question.setOptionB("选项 B 的内容");
+            question.setOptionC("选项 C 的内容");
+            question.setOptionD("选项 D 的内容");
+            question.setCorrectAnswer("A");
+            question.setAnalysis("解析：这道题考查的知识点及推导过程。");
+            questionBank[i] = question;
+        }
+
+        int answerCount = recordCount * questionsPerRecord;
+        recordPaperIds = new int[recordCount];
+        recordScores = new BigDecimal[recordCount];
+        recordTimes = new LocalDateTime[recordCount];
+        answerQuestionIds = new int[answerCount];
+        answerTexts = new String[answerCount];
+        answerCorrect = new boolean[answerCount];
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 8, 0);
+        for (int r = 0; r < recordCount; r++) {
+            recordPaperIds[r] = random.nextInt(paperCount);
+            recordScores[r] = BigDecimal.valueOf(random.nextInt(101));
+            recordTimes[r] = base.plusHours(r);
+            for (int q = 0; q < questionsPerRecord; q++) {
+                int index = r * questionsPerRecord + q;
+                answerQuestionIds[index] = random.nextInt(QUESTION_BANK_SIZE) + 1;
+                answerTexts[index] = random.nextInt(10) == 0 ? "" : "ABCD".substring(random.nextInt(4), 4);
+                answerCorrect[index] = random.nextBoolean();
+            }
+        }
+    }
+
+    @Benchmark
+    public StudentAchievementAccumulator materializedObjectGraph() {
+        List<ExamRecord> records = new ArrayList<>(recordCount);
+        Map<Integer, List<AnswerRecord>> answersByRecord = new HashMap<>();
+        Set<Integer> questionIds = new LinkedHashSet<>();
+        for (int r = 0; r < recordCount; r++) {
+            ExamRecord record = new ExamRecord();
+            record.setRecordId(r + 1);
+            record.setPaperId(recordPaperIds[r]);
+            record.setScore(recordScores[r]);
+            record.setSubmitTime(recordTimes[r]);
+            Paper paper = new Paper();
+            paper.setPaperId(recordPaperIds[r]);
+            paper.setSubject(paperSubjects[recordPaperIds[r]]);
+            paper.setPassScore(60);
+            record.setPaper(paper);
+            records.add(record);
+
+            List<AnswerRecord> answers = new ArrayList<>(questionsPerRecord);
+            for (int q = 0; q < questionsPerRecord; q++) {
+                int index = r * questionsPerRecord + q;
+                AnswerRecord answer = new AnswerRecord();
+                answer.setAnswerId(index + 1);
+                answer.setRecordId(r + 1);
+                answer.setQuestionId(answerQuestionIds[index]);
+                answer.setStudentAnswer(answerTexts[index]);
+                answer.setIsCorrect(answerCorrect[index]);
+                answers.add(answer);
+                questionIds.add(answerQuestionIds[index]);
+            }
+            answersByRecord.put(r + 1, answers);
+        }
+        Map<Integer, Question> questionsById = new HashMap<>();
+        for (Integer questionId : questionIds) {
+            questionsById.put(questionId, copy(questionBank[questionId - 1]));
+        }
+
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(1);
+        for (ExamRecord record : records) {
+            List<AnswerRecord> answers = answersByRecord.get(record.getRecordId());
+            for (AnswerRecord answer : answers) {
+                AchievementAnswerRow row = new AchievementAnswerRow();
+                row.setRecordId(record.getRecordId());
+                row.setSubject(record.getPaper().getSubject());
+                row.setScore(record.getScore());
+                row.setPassScore(record.getPaper().getPassScore());
+                row.setRecordTime(record.getSubmitTime());
+                row.setAnswerId(answer.getAnswerId());
+                row.setQuestionType(questionsById.get(answer.getQuestionId()).getQuestionType().name());
+                row.setAnswered(answer.getStudentAnswer() != null && !answer.getStudentAnswer().trim().isEmpty());
+                row.setCorrect(Boolean.TRUE.equals(answer.getIsCorrect()));
+                accumulator.accept(row);
+            }
+        }
+        return accumulator;
+    }
+
+    @Benchmark
+    public StudentAchievementAccumulator streamingProjection() {
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(1);
+        for (int r = 0; r < recordCount; r++) {
+            for (int q = 0; q < questionsPerRecord; q++) {
+                int index = r * questionsPerRecord + q;
+                AchievementAnswerRow row = new AchievementAnswerRow();
+                row.setRecordId(r + 1);
+                row.setSubject(paperSubjects[recordPaperIds[r]]);
+                row.setScore(recordScores[r]);
+                row.setPassScore(60);
+                row.setRecordTime(recordTimes[r]);
+                row.setAnswerId(index + 1);
+                row.setQuestionType(TYPES[(answerQuestionIds[index] - 1) % TYPES.length].name());
+                row.setAnswered(!answerTexts[index].isEmpty());
+                row.setCorrect(answerCorrect[index]);
+                accumulator.accept(row);
+            }
+        }
+        return accumulator;
+    }
+
+    private static Question copy(Question source) {
+        Question question = new Question();
+        question.setQuestionId(source.getQuestionId());
+        question.setQuestionType(source.getQuestionType());
+        question.setContent(new String(source.getContent()));
+        question.setOptionA(new String(source.getOptionA()));
+        question.setOptionB(new String(source.getOptionB()));
+        question.setOptionC(new String(source.getOptionC()));
+        question.setOptionD(new String(source.getOptionD()));
+        question.setCorrectAnswer(new String(source.getCorrectAnswer()));
+        question.setAnalysis(new String(source.getAnalysis()));
+        return question;
+    }
+}
@@ -0,0 +1,138 @@
+package com.exam.benchmark;
+
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKey;
+import com.exam.service.GradingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比旧的字符串排序判分与位掩码判分引擎。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingEngineBenchmark {
+    private static final String[] LETTERS = {"A", "B", "C", "D"};
+
+    @Param({"50"})
+    private int questionCount;
+
+    @Param({"500"})
+    private int submissionCount;
+
+    private List<Question> questions;
+    private AnswerKey answerKey;
+    private List<Map<Integer, String>> answerMaps;
+    private List<String[]> alignedAnswers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            QuestionType type = i % 3 == 0 ? QuestionType.MULTIPLE : (i % 3 == 1 ? QuestionType.SINGLE : QuestionType.JUDGE);
+            Question question = new Question();
+            question.setQuestionId(i + 1);
+            question.setQuestionType(type);
+            question.setScore(2 + i % 4);
+            question.setCorrectAnswer(type == QuestionType.MULTIPLE ? "ACD" : type == QuestionType.JUDGE ? "T" : LETTERS[i % 4]);
+            questions.add(question);
+        }
+        answerKey = AnswerKey.compile(1, 1L, 0L, questions);
+
+        answerMaps = new ArrayList<>(submissionCount);
+        alignedAnswers = new ArrayList<>(submissionCount);
+        for (int s = 0; s < submissionCount; s++) {
+            Map<Integer, String> answerMap = new HashMap<>();
+            String[] aligned = new String[questionCount];
+            for (int i = 0; i < questionCount; i++) {
+                QuestionType type = questions.get(i).getQuestionType();
+                String answer = type == QuestionType.MULTIPLE
+                        ? (random.nextBoolean() ? "dca" : "AB")
+                        : type == QuestionType.JUDGE ? (random.nextBoolean() ? "T" : "F") : LETTERS[random.nextInt(4)];
+                answerMap.put(i + 1, answer);
+                aligned[i] = answer;
+            }
+            answerMaps.add(answerMap);
+            alignedAnswers.add(aligned);
+        }
+    }
+
+    @Benchmark
+    public long legacyStringSort() {
+        long sink = 0;
+        for (Map<Integer, String> answerMap : answerMaps) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (Question question : questions) {
+                if (legacyCheckAnswer(question, answerMap.get(question.getQuestionId()))) {
+                    total = total.add(BigDecimal.valueOf(question.getScore()));
+                }
+            }
+            sink += total.intValue();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public long bitmaskFromAnswerMap() {
+        long sink = 0;
+        for (Map<Integer, String> answerMap : answerMaps) {
+            String[] answers = new String[answerKey.size()];
+            for (int i = 0; i < answers.length; i++) {
+                answers[i] = answerMap.get(answerKey.getQuestionId(i));
+            }
+            sink += GradingEngine.grade(answerKey, answers, null);
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public int[] bitmaskBatch() {
+        return GradingEngine.gradeBatch(answerKey, alignedAnswers);
+    }
+
+    private static boolean legacyCheckAnswer(Question question, String studentAnswer) {
+        if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
+            return false;
+        }
+        String correctAnswer = question.getCorrectAnswer().toUpperCase().trim();
+        String answer = studentAnswer.toUpperCase().trim();
+        switch (question.getQuestionType()) {
+            case SINGLE:
+            case JUDGE:
+                return correctAnswer.equals(answer);
+            case MULTIPLE:
+                char[] correctChars = correctAnswer.toCharArray();
+                char[] answerChars = answer.toCharArray();
+                Arrays.sort(correctChars);
+                Arrays.sort(answerChars);
+                return Arrays.equals(correctChars, answerChars);
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.exam.benchmark;
+
+import com.exam.model.PaperAnswerRow;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKey;
+import com.exam.service.PaperItemAnalysis;
+import com.exam.service.PaperResponseMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 试卷题目分析的耗时：从逐行作答构建列式矩阵，以及在矩阵上并行计算各题指标。
+ * 默认规模为 2000 份答卷、50 道题，对应一次大课考试。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaperItemAnalysisBenchmark {
+    @Param({"2000"})
+    public int respondentCount;
+
+    @Param({"50"})
+    public int questionCount;
+
+    private AnswerKey answerKey;
+    private List<PaperAnswerRow> rows;
+    private PaperResponseMatrix matrix;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question();
+            question.setQuestionId(i + 1);
+            boolean multiple = i % 5 == 0;
+            question.setQuestionType(multiple ? QuestionType.MULTIPLE : QuestionType.SINGLE);
+            question.setCorrectAnswer(multiple ? "AC" : String.valueOf((char) ('A' + i % 4)));
+            question.setScore(2);
+            questions.add(question);
+        }
+        answerKey = AnswerKey.compile(1, 1L, 0L, questions);
+
+        rows = new ArrayList<>(respondentCount * questionCount);
+        for (int r = 0; r < respondentCount; r++) {
+            BigDecimal score = BigDecimal.valueOf(random.nextInt(questionCount * 2 + 1));
+            for (int q = 0; q < questionCount; q++) {
+                PaperAnswerRow row = new PaperAnswerRow();
+                row.setRecordId(r + 1);
+                row.setQuestionId(q + 1);
+                row.setStudentAnswer(random.nextInt(20) == 0 ? "" : String.valueOf((char) ('A' + random.nextInt(4))));
+                row.setCorrect(random.nextBoolean());
+                row.setRecordScore(score);
+                rows.add(row);
+            }
+        }
+        matrix = buildMatrix();
+    }
+
+    @Benchmark
+    public PaperResponseMatrix buildMatrix() {
+        PaperResponseMatrix.Builder builder = PaperResponseMatrix.builder(answerKey);
+        for (PaperAnswerRow row : rows) {
+            builder.accept(row);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public PaperItemAnalysis.Result analyze() {
+        return PaperItemAnalysis.analyze(matrix);
+    }
+}
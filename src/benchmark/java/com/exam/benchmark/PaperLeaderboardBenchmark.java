@@ -0,0 +1,76 @@
+package com.exam.benchmark;
+
+import com.exam.service.ScoreRanking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 考试进行中一次排行榜刷新的耗时：对比每次把全部成绩排序后求名次和前 K 名，
+ * 与在 ScoreRanking 上先累加一条新成绩再做名次、百分位和前 K 名查询。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaperLeaderboardBenchmark {
+    private static final int TOP_SIZE = 20;
+
+    @Param({"1000", "20000"})
+    public int participantCount;
+
+    private BigDecimal[] scores;
+    private ScoreRanking ranking;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        scores = new BigDecimal[participantCount];
+        ranking = new ScoreRanking(100, TOP_SIZE);
+        for (int i = 0; i < participantCount; i++) {
+            scores[i] = BigDecimal.valueOf(random.nextInt(10001), 2);
+            ranking.record(i, scores[i]);
+        }
+    }
+
+    @Benchmark
+    public int sortPerRequest() {
+        int studentId = random.nextInt(participantCount);
+        List<Integer> order = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer id) -> scores[id]).reversed().thenComparing(Comparator.naturalOrder()));
+        int rank = 1;
+        while (scores[order.get(rank - 1)].compareTo(scores[studentId]) > 0) {
+            rank++;
+        }
+        return rank + order.subList(0, TOP_SIZE).size();
+    }
+
+    @Benchmark
+    public int rankingStructure() {
+        int studentId = random.nextInt(participantCount);
+        ranking.record(random.nextInt(participantCount), BigDecimal.valueOf(random.nextInt(10001), 2));
+        return ranking.rankOf(studentId) + ranking.percentileOf(studentId).intValue() + ranking.top(TOP_SIZE).size();
+    }
+}
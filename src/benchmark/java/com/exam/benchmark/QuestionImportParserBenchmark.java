@@ -0,0 +1,148 @@
+package com.exam.benchmark;
+
+import com.exam.model.Question;
+import com.exam.model.enums.Difficulty;
+import com.exam.model.enums.QuestionType;
+import com.exam.util.QuestionImportUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入内容的解析耗时：对比原先逐行 split 加 valueOf/parseInt 的解析，
+ * 与 QuestionLineParser 的单次扫描（顺序读取和按行边界并行两种方式）。
+ * 输入由 src/main/resources/data 下的示例题库重复拼接而成，其中含有暂不支持的题型行，错误路径也计入耗时。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionImportParserBenchmark {
+    private static final String[] SAMPLE_BANKS = {
+            "data/操作系统/操作系统.txt",
+            "data/数据结构/数据结构.txt",
+            "data/马克思主义/马克思主义.txt",
+            "data/品牌与营销/品牌与营销.txt",
+            "data/品牌与营销/品牌与营销多选.txt",
+            "data/英语/英语.txt",
+            "data/测试导入-包含新题型.txt"
+    };
+
+    @Param({"1", "200"})
+    public int copies;
+
+    private String sourceText;
+
+    @Setup
+    public void setUp() {
+        StringBuilder bank = new StringBuilder();
+        for (String resource : SAMPLE_BANKS) {
+            try (InputStream in = QuestionImportParserBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Sample bank not found on classpath: " + resource);
+                }
+                bank.append(new String(in.readAllBytes(), StandardCharsets.UTF_8)).append('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        sourceText = bank.toString().repeat(copies);
+    }
+
+    @Benchmark
+    public int splitPerLine() throws IOException {
+        int parsed = 0;
+        try (BufferedReader reader = new BufferedReader(new StringReader(sourceText))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) {
+                    continue;
+                }
+                if (splitParse(line) != null) {
+                    parsed++;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public int tokenizerSequential() throws IOException {
+        int[] parsed = new int[1];
+        QuestionImportUtil.parse(new StringReader(sourceText), 1, new QuestionImportUtil.LineHandler() {
+            @Override
+            public void onQuestion(int lineNumber, Question question) {
+                parsed[0]++;
+            }
+
+            @Override
+            public void onError(int lineNumber, String message) {
+            }
+        });
+        return parsed[0];
+    }
+
+    @Benchmark
+    public int tokenizerParallel() {
+        return QuestionImportUtil.parseText(sourceText, 1).questions().size();
+    }
+
+    private static Question splitParse(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 8) {
+            return null;
+        }
+        Question question = new Question();
+        try {
+            question.setQuestionType(QuestionType.valueOf(parts[0].trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!question.getQuestionType().isSupportedForAutoExam()) {
+            return null;
+        }
+        question.setSubject(parts[1].trim());
+        question.setContent(parts[2].trim());
+        question.setOptionA(parts.length > 3 ? parts[3].trim() : null);
+        question.setOptionB(parts.length > 4 ? parts[4].trim() : null);
+        question.setOptionC(parts.length > 5 ? parts[5].trim() : null);
+        question.setOptionD(parts.length > 6 ? parts[6].trim() : null);
+        question.setCorrectAnswer(parts[7].trim().toUpperCase());
+        try {
+            question.setScore(parts.length > 8 && !parts[8].trim().isEmpty() ? Integer.parseInt(parts[8].trim()) : 5);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        try {
+            question.setDifficulty(parts.length > 9 && !parts[9].trim().isEmpty()
+                    ? Difficulty.valueOf(parts[9].trim().toUpperCase())
+                    : Difficulty.MEDIUM);
+        } catch (IllegalArgumentException e) {
+            question.setDifficulty(Difficulty.MEDIUM);
+        }
+        question.setAnalysis(parts.length > 10 ? parts[10].trim() : "");
+        return question;
+    }
+}
@@ -0,0 +1,147 @@
+package com.exam.benchmark;
+
+import com.exam.dao.QuestionDao;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.QuestionSearchIndex;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 题库关键字检索一页加计数的耗时：对比逐条判断题干是否包含关键字（相当于 LIKE '%关键字%' 的全表扫描），
+ * 与 QuestionSearchIndex 先按字组求交集再确认候选。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionSearchIndexBenchmark {
+    private static final String ALPHABET = "函数导数极限积分方程不等式集合概率统计数列向量三角几何圆椭双曲线抛物求证明值域定义最大小";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000"})
+    public int questionCount;
+
+    private List<Question> questions;
+    private QuestionSearchIndex index;
+    private String[] keywords;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        questions = new ArrayList<>(questionCount);
+        for (int i = 1; i <= questionCount; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j < 60; j++) {
+                content.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            Question question = new Question();
+            question.setQuestionId(i);
+            question.setSubject("数学");
+            question.setQuestionType(QuestionType.SINGLE);
+            question.setContent(content.toString());
+            questions.add(question);
+        }
+        keywords = new String[64];
+        for (int i = 0; i < keywords.length; i++) {
+            String content = questions.get(random.nextInt(questionCount)).getContent();
+            int start = random.nextInt(content.length() - 3);
+            keywords[i] = content.substring(start, start + 2 + random.nextInt(2));
+        }
+        index = new QuestionSearchIndex(scanningDao(questions), true);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String keyword = nextKeyword();
+        int total = 0;
+        List<Integer> page = new ArrayList<>(PAGE_SIZE);
+        for (Question question : questions) {
+            if (question.getContent().contains(keyword)) {
+                if (page.size() < PAGE_SIZE) {
+                    page.add(question.getQuestionId());
+                }
+                total++;
+            }
+        }
+        return total + page.size();
+    }
+
+    @Benchmark
+    public int invertedIndex() {
+        String keyword = nextKeyword();
+        QuestionSearchIndex.Page page = index.search(keyword, null, null, null, 0, PAGE_SIZE, false);
+        return index.search(keyword, null, null, null, 0, 0, false).getTotal() + page.getQuestionIds().size();
+    }
+
+    private String nextKeyword() {
+        cursor = (cursor + 1) & (keywords.length - 1);
+        return keywords[cursor];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QuestionDao scanningDao(List<Question> rows) {
+        return (QuestionDao) Proxy.newProxyInstance(
+                QuestionDao.class.getClassLoader(),
+                new Class<?>[]{QuestionDao.class},
+                (proxy, method, args) -> {
+                    if ("scanSearchRows".equals(method.getName())) {
+                        ResultHandler<Question> handler = (ResultHandler<Question>) args[0];
+                        for (Question row : rows) {
+                            handler.handleResult(new SingleRowContext(row));
+                        }
+                    }
+                    return null;
+                }
+        );
+    }
+
+    private static final class SingleRowContext implements ResultContext<Question> {
+        private final Question row;
+
+        private SingleRowContext(Question row) {
+            this.row = row;
+        }
+
+        @Override
+        public Question getResultObject() {
+            return row;
+        }
+
+        @Override
+        public int getResultCount() {
+            return 1;
+        }
+
+        @Override
+        public boolean isStopped() {
+            return false;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.exam.benchmark;
+
+import com.exam.service.ExamService;
+import com.exam.service.SubmissionPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 截止时刻集中交卷的压测：200 个并发交卷线程争用 20 个连接，
+ * 对比逐份事务直接交卷与组提交通道的持续吞吐。
+ * 数据库用固定往返耗时模拟：逐份交卷 5 次往返，组提交每组 5 次往返外加按行的传输开销。
+ * 运行：mvn -Pbenchmark compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(200)
+@Fork(1)
+public class SubmissionPipelineBenchmark {
+    private static final int POOL_SIZE = 20;
+    private static final int QUESTIONS_PER_PAPER = 50;
+
+    @Param({"500"})
+    public long roundTripMicros;
+
+    private SimulatedExamService examService;
+    private SubmissionPipeline pipeline;
+    private final AtomicInteger nextRecordId = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        examService = new SimulatedExamService(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        pipeline = new SubmissionPipeline(examService, true, 2000, 4, 100, 30_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Benchmark
+    public ExamService.SubmissionReport directTransactionPerSubmission() {
+        return examService.submitExamWithReport(nextRecordId.incrementAndGet(), Map.of());
+    }
+
+    @Benchmark
+    public ExamService.SubmissionReport groupCommitPipeline() {
+        return pipeline.submit(nextRecordId.incrementAndGet(), Map.of());
+    }
+
+    static final class SimulatedExamService extends ExamService {
+        private final Semaphore connections = new Semaphore(POOL_SIZE, true);
+        private final long roundTripNanos;
+
+        SimulatedExamService(long roundTripNanos) {
+            super(null, null, null, null, null, null, null, null, null, null);
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public SubmissionReport submitExamWithReport(Integer recordId, Map<Integer, String> answers) {
+            // 加锁查询、答题插入、状态更新、删除草稿、提交
+            holdConnection(5 * roundTripNanos + QUESTIONS_PER_PAPER * 2_000L);
+            return new SubmissionReport(null, BigDecimal.ZERO, List.of());
+        }
+
+        @Override
+        public List<SubmissionOutcome> submitExamsBatch(List<SubmissionRequest> submissions) {
+            holdConnection(5 * roundTripNanos + submissions.size() * QUESTIONS_PER_PAPER * 2_000L);
+            List<SubmissionOutcome> outcomes = new ArrayList<>(submissions.size());
+            for (int i = 0; i < submissions.size(); i++) {
+                outcomes.add(SubmissionOutcome.success(new SubmissionReport(null, BigDecimal.ZERO, List.of())));
+            }
+            return outcomes;
+        }
+
+        private void holdConnection(long nanos) {
+            connections.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(nanos);
+            } finally {
+                connections.release();
+            }
+        }
+    }
+}
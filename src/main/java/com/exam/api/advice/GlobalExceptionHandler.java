@@ -1,9 +1,11 @@
 package com.exam.api.advice;
 
 import com.exam.api.common.ApiResponse;
+import com.exam.api.dto.TeacherWorkspaceDtos;
 import com.exam.exception.AuthenticationException;
 import com.exam.exception.BusinessException;
 import com.exam.exception.DatabaseException;
+import com.exam.exception.QuestionImportException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.failure(ex.getMessage()));
     }
 
+    @ExceptionHandler(QuestionImportException.class)
+    public ResponseEntity<ApiResponse<TeacherWorkspaceDtos.ImportErrorReport>> handleQuestionImport(QuestionImportException ex) {
+        TeacherWorkspaceDtos.ImportErrorReport report = new TeacherWorkspaceDtos.ImportErrorReport(
+                ex.getErrorCount(),
+                ex.getErrors().stream()
+                        .map(error -> new TeacherWorkspaceDtos.ImportLineErrorItem(error.lineNumber(), error.message()))
+                        .toList()
+        );
+        return ResponseEntity.badRequest().body(ApiResponse.failure(ex.getMessage(), report));
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiResponse<Void>> handleBusiness(BusinessException ex) {
         return ResponseEntity.badRequest().body(ApiResponse.failure(ex.getMessage()));
@@ -24,6 +24,21 @@ public class ExamRecordStatisticsAssembler {
         return new RecordSummary(safeRecords.size(), submittedCount, averageScore);
     }
 
+    /**
+     * 优先使用结算时写在考试记录上的统计；尚未回填统计的历史记录才按作答明细现算。
+     */
+    public AnswerSummary summarizeRecord(ExamRecord record, List<AnswerRecord> fallbackAnswerRecords) {
+        if (record != null && record.hasAnswerCounters()) {
+            return new AnswerSummary(
+                    record.getQuestionCount(),
+                    record.getAnsweredCount(),
+                    record.getCorrectCount(),
+                    record.getWrongCount()
+            );
+        }
+        return summarizeAnswers(fallbackAnswerRecords);
+    }
+
     public AnswerSummary summarizeAnswers(List<AnswerRecord> answerRecords) {
         List<AnswerRecord> safeAnswers = answerRecords == null ? List.of() : answerRecords;
         long answeredCount = safeAnswers.stream()
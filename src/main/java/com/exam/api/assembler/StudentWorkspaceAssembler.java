@@ -1,19 +1,26 @@
 package com.exam.api.assembler;
 
 import com.exam.api.dto.StudentWorkspaceDtos;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.Question;
+import com.exam.model.User;
 import com.exam.model.enums.ExamStatus;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.ScoreRanking;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class StudentWorkspaceAssembler {
@@ -100,7 +107,7 @@ public class StudentWorkspaceAssembler {
     }
 
     public StudentWorkspaceDtos.StudentScoreRecordItem toStudentScoreRecordItem(ExamRecord record, List<AnswerRecord> answerRecords) {
-        ExamRecordStatisticsAssembler.AnswerSummary answerSummary = statisticsAssembler.summarizeAnswers(answerRecords);
+        ExamRecordStatisticsAssembler.AnswerSummary answerSummary = statisticsAssembler.summarizeRecord(record, answerRecords);
         return new StudentWorkspaceDtos.StudentScoreRecordItem(
                 record.getRecordId(),
                 record.getPaperId(),
@@ -163,6 +170,16 @@ public class StudentWorkspaceAssembler {
         );
     }
 
+    public List<StudentWorkspaceDtos.DraftAnswerItem> toDraftAnswerItems(Map<Integer, String> drafts) {
+        if (drafts == null || drafts.isEmpty()) {
+            return List.of();
+        }
+        return drafts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new StudentWorkspaceDtos.DraftAnswerItem(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
     public StudentWorkspaceDtos.AnswerRecordItem toAnswerRecordItem(AnswerRecord answerRecord) {
         Question question = answerRecord.getQuestion();
         return new StudentWorkspaceDtos.AnswerRecordItem(
@@ -229,6 +246,38 @@ public class StudentWorkspaceAssembler {
         );
     }
 
+    public StudentWorkspaceDtos.LeaderboardStandingItem toLeaderboardStandingItem(PaperLeaderboard.Standings standings) {
+        if (standings.getRank() == null) {
+            return null;
+        }
+        Double percentile = standings.getPercentile() == null
+                ? null
+                : BigDecimal.valueOf(standings.getPercentile()).setScale(1, RoundingMode.HALF_UP).doubleValue();
+        return new StudentWorkspaceDtos.LeaderboardStandingItem(standings.getBestScore(), standings.getRank(), percentile);
+    }
+
+    /**
+     * 学生端榜单只展示姓名，不展示学号。
+     */
+    public List<StudentWorkspaceDtos.LeaderboardEntryItem> toLeaderboardEntryItems(
+            PaperLeaderboardService.LeaderboardView view,
+            Integer currentStudentId
+    ) {
+        List<ScoreRanking.RankedEntry> top = view.getStandings().getTop();
+        List<StudentWorkspaceDtos.LeaderboardEntryItem> items = new ArrayList<>(top.size());
+        for (ScoreRanking.RankedEntry entry : top) {
+            User student = view.getUsersById().get(entry.getStudentId());
+            items.add(new StudentWorkspaceDtos.LeaderboardEntryItem(
+                    entry.getRank(),
+                    entry.getStudentId(),
+                    student != null ? student.getRealName() : null,
+                    entry.getScore(),
+                    entry.getStudentId().equals(currentStudentId)
+            ));
+        }
+        return items;
+    }
+
     public Map<Integer, ExamRecord> resolveLatestRecordByPaperId(List<ExamRecord> records) {
         Map<Integer, ExamRecord> latest = new LinkedHashMap<>();
         for (ExamRecord record : records) {
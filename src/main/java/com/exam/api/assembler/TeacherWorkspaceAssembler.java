@@ -1,17 +1,28 @@
 package com.exam.api.assembler;
 
 import com.exam.api.dto.TeacherWorkspaceDtos;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.Question;
+import com.exam.model.StudentRecordStats;
 import com.exam.model.User;
+import com.exam.service.PaperAnalysisService;
+import com.exam.service.PaperItemAnalysis;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperScoreDistribution;
+import com.exam.service.QuestionRegradeService;
+import com.exam.service.ScoreRanking;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class TeacherWorkspaceAssembler {
@@ -55,6 +66,26 @@ public class TeacherWorkspaceAssembler {
         );
     }
 
+    /**
+     * 学生名单使用数据库端汇总的统计，stats 为 null 表示该学生没有考试记录。
+     */
+    public TeacherWorkspaceDtos.TeacherStudentItem toTeacherStudentItem(User student, StudentRecordStats stats) {
+        return new TeacherWorkspaceDtos.TeacherStudentItem(
+                student.getUserId(),
+                student.getRealName(),
+                student.getLoginId(),
+                student.getEmail(),
+                student.getPhone(),
+                student.getGender(),
+                student.getStatus(),
+                student.getCreateTime(),
+                student.getUpdateTime(),
+                stats == null ? 0 : stats.getRecordCount(),
+                stats == null ? 0 : stats.getSubmittedCount(),
+                stats == null || stats.getAverageScore() == null ? 0 : stats.getAverageScore()
+        );
+    }
+
     public TeacherWorkspaceDtos.TeacherStudentRecordItem toTeacherStudentRecordItem(ExamRecord record) {
         return new TeacherWorkspaceDtos.TeacherStudentRecordItem(
                 record.getRecordId(),
@@ -165,6 +196,114 @@ public class TeacherWorkspaceAssembler {
         );
     }
 
+    public TeacherWorkspaceDtos.PaperLeaderboardPayload toPaperLeaderboardPayload(PaperLeaderboardService.LeaderboardView view) {
+        PaperLeaderboard.Standings standings = view.getStandings();
+        List<TeacherWorkspaceDtos.LeaderboardEntryItem> top = new ArrayList<>(standings.getTop().size());
+        for (ScoreRanking.RankedEntry entry : standings.getTop()) {
+            User student = view.getUsersById().get(entry.getStudentId());
+            top.add(new TeacherWorkspaceDtos.LeaderboardEntryItem(
+                    entry.getRank(),
+                    entry.getStudentId(),
+                    student != null ? student.getRealName() : null,
+                    student != null ? student.getStudentNumber() : null,
+                    entry.getScore()
+            ));
+        }
+        return new TeacherWorkspaceDtos.PaperLeaderboardPayload(standings.getPaperId(), standings.getParticipantCount(), top);
+    }
+
+    public TeacherWorkspaceDtos.QuestionRegradePayload toQuestionRegradePayload(
+            Integer questionId,
+            QuestionRegradeService.RegradeProgress progress
+    ) {
+        if (progress == null) {
+            return new TeacherWorkspaceDtos.QuestionRegradePayload(questionId, null);
+        }
+        return new TeacherWorkspaceDtos.QuestionRegradePayload(
+                questionId,
+                new TeacherWorkspaceDtos.RegradeProgressItem(
+                        progress.getState().name(),
+                        progress.getQueuedAt(),
+                        progress.getStartedAt(),
+                        progress.getFinishedAt(),
+                        progress.getScannedAnswers(),
+                        progress.getChangedAnswers(),
+                        progress.getRecomputedRecords(),
+                        progress.getFailureMessage()
+                )
+        );
+    }
+
+    public TeacherWorkspaceDtos.PaperAnalysisPayload toPaperAnalysisPayload(PaperAnalysisService.PaperAnalysis analysis) {
+        Paper paper = analysis.getPaper();
+        PaperItemAnalysis.Result result = analysis.getResult();
+        List<Question> questions = paper.getQuestions() == null ? List.of() : paper.getQuestions();
+        List<TeacherWorkspaceDtos.ItemAnalysisItem> items = new ArrayList<>(result.getItems().size());
+        for (PaperItemAnalysis.ItemStatistics item : result.getItems()) {
+            Question question = item.getIndex() < questions.size() ? questions.get(item.getIndex()) : null;
+            items.add(new TeacherWorkspaceDtos.ItemAnalysisItem(
+                    item.getIndex() + 1,
+                    item.getQuestionId(),
+                    item.getQuestionType() == null ? null : item.getQuestionType().name(),
+                    question != null ? question.getContent() : null,
+                    question != null ? question.getCorrectAnswer() : item.getCorrectAnswer(),
+                    question != null ? question.getScore() : null,
+                    item.getCorrectCount(),
+                    item.getBlankCount(),
+                    item.getUnrecognizedCount(),
+                    roundIndex(item.getDifficulty()),
+                    roundIndex(item.getDiscrimination()),
+                    roundIndex(item.getPointBiserial()),
+                    item.getOptions().stream()
+                            .map(option -> new TeacherWorkspaceDtos.OptionDistributionItem(
+                                    option.getOption(),
+                                    option.getCount(),
+                                    option.getUpperCount(),
+                                    option.getLowerCount(),
+                                    option.isCorrect()
+                            ))
+                            .collect(Collectors.toList())
+            ));
+        }
+        return new TeacherWorkspaceDtos.PaperAnalysisPayload(
+                toTeacherPaperItem(paper),
+                new TeacherWorkspaceDtos.PaperAnalysisSummary(
+                        result.getRespondentCount(),
+                        roundIndex(result.getMeanScore()),
+                        roundIndex(result.getScoreStdDev()),
+                        result.getGroupSize()
+                ),
+                items
+        );
+    }
+
+    /**
+     * 及格率为百分比，保留一位小数；没有已结算成绩或未设置及格线时为 null。
+     */
+    public TeacherWorkspaceDtos.ScoreDistributionItem toScoreDistributionItem(PaperScoreDistribution distribution) {
+        if (distribution == null) {
+            return null;
+        }
+        Double passRate = distribution.getPassCount() == null || distribution.getRecordCount() == 0
+                ? null
+                : BigDecimal.valueOf(distribution.getPassCount() * 100D / distribution.getRecordCount())
+                        .setScale(1, RoundingMode.HALF_UP)
+                        .doubleValue();
+        return new TeacherWorkspaceDtos.ScoreDistributionItem(
+                distribution.getRecordCount(),
+                distribution.getAverageScore(),
+                distribution.getMinScore(),
+                distribution.getMaxScore(),
+                distribution.getPassCount(),
+                passRate,
+                distribution.getMedianScore(),
+                distribution.getP90Score(),
+                distribution.getBins().stream()
+                        .map(bin -> new TeacherWorkspaceDtos.ScoreBinItem(bin.getLower(), bin.getUpper(), bin.getCount()))
+                        .collect(Collectors.toList())
+        );
+    }
+
     public TeacherWorkspaceDtos.StudentRecordSummary buildStudentSummary(List<ExamRecord> records) {
         ExamRecordStatisticsAssembler.RecordSummary recordSummary = statisticsAssembler.summarizeRecords(records);
         return new TeacherWorkspaceDtos.StudentRecordSummary(
@@ -174,6 +313,15 @@ public class TeacherWorkspaceAssembler {
         );
     }
 
+    private Double roundIndex(Double value) {
+        if (value == null) {
+            return null;
+        }
+        return BigDecimal.valueOf(value)
+                .setScale(4, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
     private int resolveQuestionCount(Paper paper) {
         int optimizedCount = paper.getSingleCount() + paper.getMultipleCount() + paper.getJudgeCount() + paper.getBlankCount();
         if (optimizedCount > 0) {
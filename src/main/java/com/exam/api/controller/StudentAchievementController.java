@@ -6,11 +6,13 @@ import com.exam.api.dto.AuthUserResponse;
 import com.exam.api.dto.StudentAchievementDtos;
 import com.exam.api.service.StudentAchievementService;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.model.User;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/student")
@@ -18,20 +20,34 @@ public class StudentAchievementController {
     private final StudentAchievementService studentAchievementService;
     private final StudentAchievementAssembler assembler;
     private final UserRoleGuard userRoleGuard;
+    private final WorkspaceEtags workspaceEtags;
 
     public StudentAchievementController(
             StudentAchievementService studentAchievementService,
             StudentAchievementAssembler assembler,
-            UserRoleGuard userRoleGuard
+            UserRoleGuard userRoleGuard,
+            WorkspaceEtags workspaceEtags
     ) {
         this.studentAchievementService = studentAchievementService;
         this.assembler = assembler;
         this.userRoleGuard = userRoleGuard;
+        this.workspaceEtags = workspaceEtags;
     }
 
     @GetMapping("/{userId}/achievement")
-    public ApiResponse<StudentAchievementDtos.StudentAchievementPayload> getStudentAchievement(@PathVariable("userId") Integer userId) {
+    public ApiResponse<StudentAchievementDtos.StudentAchievementPayload> getStudentAchievement(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
         StudentAchievementService.StudentAchievementSnapshot snapshot = studentAchievementService.buildSnapshot(userId);
         return ApiResponse.success(
                 "学生成绩数据加载成功",
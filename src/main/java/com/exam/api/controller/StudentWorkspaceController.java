@@ -3,10 +3,16 @@ package com.exam.api.controller;
 import com.exam.api.assembler.StudentWorkspaceAssembler;
 import com.exam.api.common.ApiResponse;
 import com.exam.api.dto.AuthUserResponse;
+import com.exam.api.dto.StudentSaveDraftRequest;
 import com.exam.api.dto.StudentSubmitExamRequest;
 import com.exam.api.dto.StudentWorkspaceDtos;
+import com.exam.api.security.AuthInterceptor;
+import com.exam.api.security.AuthenticatedUser;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.api.support.ExamAccessGuard;
+import com.exam.api.support.ExamPaperViewCache;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.exception.BusinessException;
 import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
@@ -14,16 +20,21 @@ import com.exam.model.Paper;
 import com.exam.model.User;
 import com.exam.model.enums.ExamStatus;
 import com.exam.service.ExamService;
+import com.exam.service.PaperLeaderboard;
 import com.exam.service.PaperService;
+import com.exam.service.SubmissionPipeline;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,24 +48,47 @@ public class StudentWorkspaceController {
     private final StudentWorkspaceAssembler assembler;
     private final UserRoleGuard userRoleGuard;
     private final ExamAccessGuard examAccessGuard;
+    private final SubmissionPipeline submissionPipeline;
+    private final ExamPaperViewCache examPaperViewCache;
+    private final WorkspaceEtags workspaceEtags;
+    private final PaperLeaderboardService paperLeaderboardService;
 
     public StudentWorkspaceController(
             PaperService paperService,
             ExamService examService,
             StudentWorkspaceAssembler assembler,
             UserRoleGuard userRoleGuard,
-            ExamAccessGuard examAccessGuard
+            ExamAccessGuard examAccessGuard,
+            SubmissionPipeline submissionPipeline,
+            ExamPaperViewCache examPaperViewCache,
+            WorkspaceEtags workspaceEtags,
+            PaperLeaderboardService paperLeaderboardService
     ) {
         this.paperService = paperService;
         this.examService = examService;
         this.assembler = assembler;
         this.userRoleGuard = userRoleGuard;
         this.examAccessGuard = examAccessGuard;
+        this.submissionPipeline = submissionPipeline;
+        this.examPaperViewCache = examPaperViewCache;
+        this.workspaceEtags = workspaceEtags;
+        this.paperLeaderboardService = paperLeaderboardService;
     }
 
     @GetMapping("/{userId}/papers")
-    public ApiResponse<StudentWorkspaceDtos.StudentPapersPayload> getStudentPapers(@PathVariable("userId") Integer userId) {
+    public ApiResponse<StudentWorkspaceDtos.StudentPapersPayload> getStudentPapers(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.paperCatalog(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
         List<Paper> papers = paperService.getAllPublishedPapersOptimized();
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(userId);
         Map<Integer, ExamRecord> latestRecordByPaperId = assembler.resolveLatestRecordByPaperId(records);
@@ -72,30 +106,78 @@ public class StudentWorkspaceController {
     @GetMapping("/{userId}/papers/{paperId}")
     public ApiResponse<StudentWorkspaceDtos.StudentPaperDetailPayload> getStudentPaperDetail(
             @PathVariable("userId") Integer userId,
-            @PathVariable("paperId") Integer paperId
+            @PathVariable("paperId") Integer paperId,
+            WebRequest webRequest
     ) {
         User student = userRoleGuard.requireStudent(userId);
-        Paper paper = examAccessGuard.requirePublishedPaper(paperId);
+        ExamPaperViewCache.ExamPaperView view = examPaperViewCache.get(paperId).requirePublished();
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                view.isSupported() ? workspaceEtags.paperView(view) : workspaceEtags.paper(paperId),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
+        Paper paper = view.getPaper();
+        List<StudentWorkspaceDtos.QuestionExamItem> questions = view.isSupported()
+                ? view.getQuestions()
+                : examAccessGuard.requirePublishedPaper(paperId).getQuestions().stream()
+                        .map(assembler::toQuestionExamItem)
+                        .collect(Collectors.toList());
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(userId);
         ExamRecord latestRecord = assembler.resolveLatestRecordByPaperId(records).get(paperId);
 
         StudentWorkspaceDtos.StudentPaperDetailPayload payload = new StudentWorkspaceDtos.StudentPaperDetailPayload(
                 AuthUserResponse.from(student),
                 assembler.toStudentPaperItem(paper, latestRecord),
-                paper.getQuestions().stream().map(assembler::toQuestionExamItem).collect(Collectors.toList())
+                questions
         );
         return ApiResponse.success("考试详情加载成功", payload);
     }
 
+    /**
+     * 试卷排行榜：本人最高分的名次、百分位和前 limit 名，名次与前 K 名由内存榜单直接给出。
+     */
+    @GetMapping("/{userId}/papers/{paperId}/leaderboard")
+    public ApiResponse<StudentWorkspaceDtos.StudentLeaderboardPayload> getStudentPaperLeaderboard(
+            @PathVariable("userId") Integer userId,
+            @PathVariable("paperId") Integer paperId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            WebRequest webRequest
+    ) {
+        User student = userRoleGuard.requireStudent(userId);
+        examPaperViewCache.get(paperId).requirePublished();
+        PaperLeaderboard.Standings standings = paperLeaderboardService.getStandings(paperId, userId, limit);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.students(),
+                workspaceEtags.leaderboard(standings)
+        )) {
+            return null;
+        }
+        PaperLeaderboardService.LeaderboardView view = paperLeaderboardService.buildView(standings);
+
+        StudentWorkspaceDtos.StudentLeaderboardPayload payload = new StudentWorkspaceDtos.StudentLeaderboardPayload(
+                AuthUserResponse.from(student),
+                paperId,
+                standings.getParticipantCount(),
+                assembler.toLeaderboardStandingItem(standings),
+                assembler.toLeaderboardEntryItems(view, userId)
+        );
+        return ApiResponse.success("试卷排行榜加载成功", payload);
+    }
+
     @PostMapping("/{userId}/papers/{paperId}/start")
     public ApiResponse<StudentWorkspaceDtos.StartExamPayload> startExam(
             @PathVariable("userId") Integer userId,
             @PathVariable("paperId") Integer paperId
     ) {
         User student = userRoleGuard.requireStudent(userId);
-        Paper paper = examAccessGuard.requirePublishedPaper(paperId);
-        examService.validatePaperSupportsAutoExam(paperId);
-        ExamService.ExamStartResult startResult = examService.startOrResumeExam(userId, paperId);
+        ExamPaperViewCache.ExamPaperView view = examPaperViewCache.get(paperId).requirePublished().requireSupported();
+        Paper paper = view.getPaper();
+        ExamService.ExamStartResult startResult = examService.startOrResumeExam(userId, paper);
         ExamRecord record = startResult.getRecord();
         boolean resumed = startResult.isResumed();
 
@@ -103,23 +185,31 @@ public class StudentWorkspaceController {
                 AuthUserResponse.from(student),
                 assembler.toExamLifecycleRecordItem(record),
                 assembler.toStudentPaperItem(paper, record),
-                paper.getQuestions().stream().map(assembler::toQuestionExamItem).collect(Collectors.toList()),
+                view.getQuestions(),
                 assembler.calculateRemainingSeconds(record, paper),
                 assembler.calculateDeadlineTime(record, paper),
-                resumed
+                resumed,
+                resumed ? assembler.toDraftAnswerItems(examService.getAnswerDrafts(record.getRecordId())) : List.of()
         );
         return ApiResponse.success(resumed ? "已恢复进行中的考试" : "考试开始成功", payload);
     }
 
     @GetMapping("/{userId}/records")
-    public ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> getStudentRecords(@PathVariable("userId") Integer userId) {
+    public ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> getStudentRecords(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(userId);
-        List<Integer> recordIds = records.stream()
-                .map(ExamRecord::getRecordId)
-                .filter(id -> id != null)
-                .collect(Collectors.toList());
-        Map<Integer, List<AnswerRecord>> answerRecordsMap = examService.getAnswerRecordsBatch(recordIds);
+        Map<Integer, List<AnswerRecord>> answerRecordsMap = loadAnswerRecordsWithoutCounters(records);
 
         StudentWorkspaceDtos.StudentRecordsPayload payload = new StudentWorkspaceDtos.StudentRecordsPayload(
                 AuthUserResponse.from(student),
@@ -131,12 +221,54 @@ public class StudentWorkspaceController {
         return ApiResponse.success("学生成绩中心加载成功", payload);
     }
 
+    /**
+     * 成绩记录的分页版本：cursor 为上一页返回的 nextCursor，不传时返回最新的一页。
+     */
+    @GetMapping("/{userId}/records/page")
+    public ApiResponse<StudentWorkspaceDtos.StudentRecordsPagePayload> getStudentRecordsPage(
+            @PathVariable("userId") Integer userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            WebRequest webRequest
+    ) {
+        User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
+        ExamService.ExamRecordPage page = examService.getStudentExamRecordsPage(userId, cursor, size);
+        Map<Integer, List<AnswerRecord>> answerRecordsMap = loadAnswerRecordsWithoutCounters(page.getRecords());
+
+        StudentWorkspaceDtos.StudentRecordsPagePayload payload = new StudentWorkspaceDtos.StudentRecordsPagePayload(
+                AuthUserResponse.from(student),
+                page.getRecords().stream()
+                        .map(record -> assembler.toStudentScoreRecordItem(record, answerRecordsMap.get(record.getRecordId())))
+                        .collect(Collectors.toList()),
+                page.getNextCursor(),
+                page.hasMore()
+        );
+        return ApiResponse.success("学生成绩记录加载成功", payload);
+    }
+
     @GetMapping("/{userId}/records/{recordId}")
     public ApiResponse<StudentWorkspaceDtos.StudentRecordDetailPayload> getStudentRecordDetail(
             @PathVariable("userId") Integer userId,
-            @PathVariable("recordId") Integer recordId
+            @PathVariable("recordId") Integer recordId,
+            WebRequest webRequest
     ) {
         User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
         ExamRecord record = examAccessGuard.requireOwnedRecord(userId, recordId);
         Paper paper = examAccessGuard.resolvePaper(record);
         List<AnswerRecord> answerRecords = examService.getAnswerRecords(recordId);
@@ -156,20 +288,40 @@ public class StudentWorkspaceController {
     ) {
         User student = userRoleGuard.requireStudent(userId);
         ExamRecord record = examAccessGuard.requireOwnedRecord(userId, recordId);
-        examService.validatePaperSupportsAutoExam(record.getPaperId());
-        Paper paper = examAccessGuard.resolvePaper(record);
+        ExamPaperViewCache.ExamPaperView view = examPaperViewCache.get(record.getPaperId()).requireSupported();
+        Paper paper = record.getPaper() != null ? record.getPaper() : view.getPaper();
 
         StudentWorkspaceDtos.StudentExamSessionPayload payload = new StudentWorkspaceDtos.StudentExamSessionPayload(
                 AuthUserResponse.from(student),
                 assembler.toExamLifecycleRecordItem(record),
                 assembler.toStudentPaperItem(paper, record),
-                paper.getQuestions().stream().map(assembler::toQuestionExamItem).collect(Collectors.toList()),
+                view.getQuestions(),
                 assembler.calculateRemainingSeconds(record, paper),
-                assembler.calculateDeadlineTime(record, paper)
+                assembler.calculateDeadlineTime(record, paper),
+                record.getStatus() == ExamStatus.IN_PROGRESS
+                        ? assembler.toDraftAnswerItems(examService.getAnswerDrafts(recordId))
+                        : List.of()
         );
         return ApiResponse.success("考试作答页加载成功", payload);
     }
 
+    /**
+     * 作答自动保存走高频路径：角色取自登录会话；考试记录仅在首次保存时加载并校验，
+     * 之后由草稿缓冲按缓存的归属与截止时间校验，不再逐次查库。
+     */
+    @PutMapping("/{userId}/records/{recordId}/drafts")
+    public ApiResponse<StudentWorkspaceDtos.SaveDraftPayload> saveAnswerDrafts(
+            @PathVariable("userId") Integer userId,
+            @PathVariable("recordId") Integer recordId,
+            @RequestAttribute(AuthInterceptor.AUTHENTICATED_USER_ATTRIBUTE) AuthenticatedUser authenticatedUser,
+            @Valid @RequestBody StudentSaveDraftRequest request
+    ) {
+        userRoleGuard.requireStudent(authenticatedUser);
+        Map<Integer, String> answers = toAnswerMap(request.getAnswers());
+        int savedCount = examService.saveAnswerDrafts(userId, recordId, answers);
+        return ApiResponse.success("作答草稿已暂存", new StudentWorkspaceDtos.SaveDraftPayload(recordId, savedCount));
+    }
+
     @PostMapping("/{userId}/records/{recordId}/submit")
     public ApiResponse<StudentWorkspaceDtos.StudentSubmitResultPayload> submitExam(
             @PathVariable("userId") Integer userId,
@@ -183,9 +335,35 @@ public class StudentWorkspaceController {
             throw new BusinessException("当前考试不处于可提交状态");
         }
 
-        Map<Integer, String> answers = request.getAnswers() == null
-                ? new LinkedHashMap<>()
-                : request.getAnswers().stream()
+        Map<Integer, String> answers = toAnswerMap(request.getAnswers());
+
+        ExamService.SubmissionReport report = submissionPipeline.submit(recordId, answers);
+        Paper paper = report.getPaper() != null ? report.getPaper() : examAccessGuard.resolvePaper(record);
+
+        StudentWorkspaceDtos.StudentSubmitResultPayload payload = new StudentWorkspaceDtos.StudentSubmitResultPayload(
+                AuthUserResponse.from(student),
+                assembler.toSubmitResultItem(report.getRecord(), paper, report.getScore(), report.getAnswerRecords())
+        );
+        return ApiResponse.success("考试提交成功", payload);
+    }
+
+    /**
+     * 列表只需要每份答卷的统计数字：已结算的记录在交卷时写好了统计，只有尚未回填的历史记录才读取作答明细。
+     */
+    private Map<Integer, List<AnswerRecord>> loadAnswerRecordsWithoutCounters(List<ExamRecord> records) {
+        List<Integer> recordIds = records.stream()
+                .filter(record -> record.getRecordId() != null)
+                .filter(record -> !record.hasAnswerCounters() && record.getStatus() != ExamStatus.IN_PROGRESS)
+                .map(ExamRecord::getRecordId)
+                .collect(Collectors.toList());
+        return recordIds.isEmpty() ? Map.of() : examService.getAnswerRecordsBatch(recordIds);
+    }
+
+    private Map<Integer, String> toAnswerMap(List<StudentSubmitExamRequest.AnswerItem> items) {
+        if (items == null) {
+            return new LinkedHashMap<>();
+        }
+        return items.stream()
                 .filter(item -> item.getQuestionId() != null)
                 .collect(Collectors.toMap(
                         StudentSubmitExamRequest.AnswerItem::getQuestionId,
@@ -193,17 +371,6 @@ public class StudentWorkspaceController {
                         (left, right) -> right,
                         LinkedHashMap::new
                 ));
-
-        BigDecimal score = examService.submitExam(recordId, answers);
-        ExamRecord submittedRecord = examService.getExamRecordById(recordId);
-        Paper paper = examAccessGuard.resolvePaper(submittedRecord);
-        List<AnswerRecord> answerRecords = examService.getAnswerRecords(recordId);
-
-        StudentWorkspaceDtos.StudentSubmitResultPayload payload = new StudentWorkspaceDtos.StudentSubmitResultPayload(
-                AuthUserResponse.from(student),
-                assembler.toSubmitResultItem(submittedRecord, paper, score, answerRecords)
-        );
-        return ApiResponse.success("考试提交成功", payload);
     }
 
     private String normalizeBlank(String value) {
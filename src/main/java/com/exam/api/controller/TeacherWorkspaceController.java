@@ -4,22 +4,29 @@ import com.exam.api.assembler.TeacherWorkspaceAssembler;
 import com.exam.api.common.ApiResponse;
 import com.exam.api.dto.AuthUserResponse;
 import com.exam.api.dto.TeacherImportPaperRequest;
+import com.exam.api.dto.TeacherStreamImportPaperRequest;
 import com.exam.api.dto.TeacherUpdatePaperRequest;
 import com.exam.api.dto.TeacherWorkspaceDtos;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.api.support.ExamAccessGuard;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.exception.BusinessException;
 import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.Question;
+import com.exam.model.StudentRecordStats;
 import com.exam.model.User;
 import com.exam.service.ExamService;
+import com.exam.service.PaperAnalysisService;
+import com.exam.service.PaperLeaderboard;
 import com.exam.service.PaperService;
 import com.exam.service.QuestionService;
 import com.exam.service.UserService;
 import com.exam.util.QuestionImportUtil;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,9 +34,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -39,31 +54,46 @@ public class TeacherWorkspaceController {
     private final PaperService paperService;
     private final ExamService examService;
     private final QuestionService questionService;
+    private final PaperAnalysisService paperAnalysisService;
+    private final PaperLeaderboardService paperLeaderboardService;
     private final TeacherWorkspaceAssembler assembler;
     private final UserRoleGuard userRoleGuard;
     private final ExamAccessGuard examAccessGuard;
+    private final WorkspaceEtags workspaceEtags;
 
     public TeacherWorkspaceController(
             UserService userService,
             PaperService paperService,
             ExamService examService,
             QuestionService questionService,
+            PaperAnalysisService paperAnalysisService,
+            PaperLeaderboardService paperLeaderboardService,
             TeacherWorkspaceAssembler assembler,
             UserRoleGuard userRoleGuard,
-            ExamAccessGuard examAccessGuard
+            ExamAccessGuard examAccessGuard,
+            WorkspaceEtags workspaceEtags
     ) {
         this.userService = userService;
         this.paperService = paperService;
         this.examService = examService;
         this.questionService = questionService;
+        this.paperAnalysisService = paperAnalysisService;
+        this.paperLeaderboardService = paperLeaderboardService;
         this.assembler = assembler;
         this.userRoleGuard = userRoleGuard;
         this.examAccessGuard = examAccessGuard;
+        this.workspaceEtags = workspaceEtags;
     }
 
     @GetMapping("/{userId}/papers")
-    public ApiResponse<TeacherWorkspaceDtos.TeacherPapersPayload> getTeacherPapers(@PathVariable("userId") Integer userId) {
+    public ApiResponse<TeacherWorkspaceDtos.TeacherPapersPayload> getTeacherPapers(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User teacher = userRoleGuard.requireTeacher(userId);
+        if (workspaceEtags.notModified(webRequest, workspaceEtags.user(teacher), workspaceEtags.paperCatalog())) {
+            return null;
+        }
         List<Paper> papers = paperService.getAllPapersOptimized();
         long publishedCount = papers.stream()
                 .filter(paper -> Boolean.TRUE.equals(paper.getIsPublished()))
@@ -116,18 +146,68 @@ public class TeacherWorkspaceController {
     @GetMapping("/{userId}/papers/{paperId}")
     public ApiResponse<TeacherWorkspaceDtos.TeacherPaperDetailPayload> getTeacherPaperDetail(
             @PathVariable("userId") Integer userId,
-            @PathVariable("paperId") Integer paperId
+            @PathVariable("paperId") Integer paperId,
+            WebRequest webRequest
     ) {
         userRoleGuard.requireTeacher(userId);
+        if (workspaceEtags.notModified(webRequest, workspaceEtags.paper(paperId), workspaceEtags.paperRecords(paperId))) {
+            return null;
+        }
         Paper paper = paperService.getPaperById(paperId);
 
         TeacherWorkspaceDtos.TeacherPaperDetailPayload payload = new TeacherWorkspaceDtos.TeacherPaperDetailPayload(
                 assembler.toTeacherPaperItem(paper),
-                paper.getQuestions().stream().map(assembler::toQuestionDetailItem).collect(Collectors.toList())
+                paper.getQuestions().stream().map(assembler::toQuestionDetailItem).collect(Collectors.toList()),
+                assembler.toScoreDistributionItem(examService.getPaperScoreDistribution(paper))
         );
         return ApiResponse.success("试卷详情加载成功", payload);
     }
 
+    @GetMapping("/{userId}/papers/{paperId}/analysis")
+    public ApiResponse<TeacherWorkspaceDtos.PaperAnalysisPayload> getPaperAnalysis(
+            @PathVariable("userId") Integer userId,
+            @PathVariable("paperId") Integer paperId,
+            WebRequest webRequest
+    ) {
+        userRoleGuard.requireTeacher(userId);
+        if (workspaceEtags.notModified(webRequest, workspaceEtags.paper(paperId), workspaceEtags.paperRecords(paperId))) {
+            return null;
+        }
+        PaperAnalysisService.PaperAnalysis analysis = paperAnalysisService.analyzePaper(paperId);
+        return ApiResponse.success("试卷题目分析加载成功", assembler.toPaperAnalysisPayload(analysis));
+    }
+
+    @GetMapping("/{userId}/papers/{paperId}/leaderboard")
+    public ApiResponse<TeacherWorkspaceDtos.PaperLeaderboardPayload> getPaperLeaderboard(
+            @PathVariable("userId") Integer userId,
+            @PathVariable("paperId") Integer paperId,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            WebRequest webRequest
+    ) {
+        userRoleGuard.requireTeacher(userId);
+        PaperLeaderboard.Standings standings = paperLeaderboardService.getStandings(paperId, null, limit);
+        if (workspaceEtags.notModified(webRequest, workspaceEtags.students(), workspaceEtags.leaderboard(standings))) {
+            return null;
+        }
+        PaperLeaderboardService.LeaderboardView view = paperLeaderboardService.buildView(standings);
+        return ApiResponse.success("试卷排行榜加载成功", assembler.toPaperLeaderboardPayload(view));
+    }
+
+    @GetMapping("/{userId}/questions/{questionId}/regrade")
+    public ApiResponse<TeacherWorkspaceDtos.QuestionRegradePayload> getQuestionRegradeProgress(
+            @PathVariable("userId") Integer userId,
+            @PathVariable("questionId") Integer questionId
+    ) {
+        userRoleGuard.requireTeacher(userId);
+        if (questionService.getQuestionById(questionId) == null) {
+            throw new BusinessException("题目不存在");
+        }
+        return ApiResponse.success(
+                "题目重判进度加载成功",
+                assembler.toQuestionRegradePayload(questionId, questionService.getRegradeProgress(questionId))
+        );
+    }
+
     @PutMapping("/{userId}/papers/{paperId}")
     public ApiResponse<TeacherWorkspaceDtos.TeacherPaperDetailPayload> updateTeacherPaper(
             @PathVariable("userId") Integer userId,
@@ -146,41 +226,97 @@ public class TeacherWorkspaceController {
         Paper updatedPaper = paperService.getPaperById(paperId);
         TeacherWorkspaceDtos.TeacherPaperDetailPayload payload = new TeacherWorkspaceDtos.TeacherPaperDetailPayload(
                 assembler.toTeacherPaperItem(updatedPaper),
-                updatedPaper.getQuestions().stream().map(assembler::toQuestionDetailItem).collect(Collectors.toList())
+                updatedPaper.getQuestions().stream().map(assembler::toQuestionDetailItem).collect(Collectors.toList()),
+                assembler.toScoreDistributionItem(examService.getPaperScoreDistribution(updatedPaper))
         );
         return ApiResponse.success("试卷更新成功", payload);
     }
 
     @GetMapping("/{userId}/students")
-    public ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPayload> getTeacherStudents(@PathVariable("userId") Integer userId) {
+    public ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPayload> getTeacherStudents(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User teacher = userRoleGuard.requireTeacher(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(teacher),
+                workspaceEtags.students(),
+                workspaceEtags.papers(),
+                workspaceEtags.allRecords()
+        )) {
+            return null;
+        }
         List<User> students = userService.getStudents();
-        List<Integer> studentIds = students.stream()
-                .map(User::getUserId)
-                .filter(id -> id != null)
-                .collect(Collectors.toList());
-        var recordsByStudentId = examService.getStudentExamRecordsByStudentIds(studentIds);
+        Map<Integer, StudentRecordStats> statsByStudentId = examService.getStudentRecordStats(null);
 
         TeacherWorkspaceDtos.TeacherStudentsPayload payload = new TeacherWorkspaceDtos.TeacherStudentsPayload(
                 AuthUserResponse.from(teacher),
                 new TeacherWorkspaceDtos.StudentListSummary(students.size()),
                 students.stream()
-                        .map(student -> assembler.toTeacherStudentItem(
-                                student,
-                                recordsByStudentId.getOrDefault(student.getUserId(), List.of())
-                        ))
+                        .map(student -> assembler.toTeacherStudentItem(student, statsByStudentId.get(student.getUserId())))
                         .collect(Collectors.toList())
         );
         return ApiResponse.success("教师学生中心加载成功", payload);
     }
 
+    /**
+     * 学生名单的分页版本：cursor 为上一页返回的 nextCursor，keyword 按姓名或学号前缀搜索。
+     */
+    @GetMapping("/{userId}/students/page")
+    public ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPagePayload> getTeacherStudentsPage(
+            @PathVariable("userId") Integer userId,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            WebRequest webRequest
+    ) {
+        User teacher = userRoleGuard.requireTeacher(userId);
+        // 名单版本先于分页查询取得；记录版本只探测本页学生，并在汇总统计之前取得
+        String studentsVersion = workspaceEtags.students();
+        UserService.StudentPage page = userService.getStudentsPage(keyword, cursor, size);
+        List<Integer> studentIds = page.getStudents().stream()
+                .map(User::getUserId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(teacher),
+                studentsVersion,
+                workspaceEtags.studentsRecords(studentIds)
+        )) {
+            return null;
+        }
+        Map<Integer, StudentRecordStats> statsByStudentId = examService.getStudentRecordStats(studentIds);
+
+        TeacherWorkspaceDtos.TeacherStudentsPagePayload payload = new TeacherWorkspaceDtos.TeacherStudentsPagePayload(
+                AuthUserResponse.from(teacher),
+                new TeacherWorkspaceDtos.StudentListSummary(page.getTotalCount()),
+                page.getStudents().stream()
+                        .map(student -> assembler.toTeacherStudentItem(student, statsByStudentId.get(student.getUserId())))
+                        .collect(Collectors.toList()),
+                page.getNextCursor(),
+                page.hasMore()
+        );
+        return ApiResponse.success("教师学生中心加载成功", payload);
+    }
+
     @GetMapping("/{userId}/students/{studentId}/records")
     public ApiResponse<TeacherWorkspaceDtos.TeacherStudentRecordsPayload> getStudentRecords(
             @PathVariable("userId") Integer userId,
-            @PathVariable("studentId") Integer studentId
+            @PathVariable("studentId") Integer studentId,
+            WebRequest webRequest
     ) {
         userRoleGuard.requireTeacher(userId);
         User student = userRoleGuard.requireStudent(studentId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(studentId)
+        )) {
+            return null;
+        }
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(studentId);
 
         TeacherWorkspaceDtos.TeacherStudentRecordsPayload payload = new TeacherWorkspaceDtos.TeacherStudentRecordsPayload(
@@ -194,10 +330,19 @@ public class TeacherWorkspaceController {
     @GetMapping("/{userId}/students/{studentId}")
     public ApiResponse<TeacherWorkspaceDtos.TeacherStudentDetailPayload> getTeacherStudentDetail(
             @PathVariable("userId") Integer userId,
-            @PathVariable("studentId") Integer studentId
+            @PathVariable("studentId") Integer studentId,
+            WebRequest webRequest
     ) {
         userRoleGuard.requireTeacher(userId);
         User student = userRoleGuard.requireStudent(studentId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(studentId)
+        )) {
+            return null;
+        }
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(studentId);
 
         TeacherWorkspaceDtos.TeacherStudentDetailPayload payload = new TeacherWorkspaceDtos.TeacherStudentDetailPayload(
@@ -212,10 +357,19 @@ public class TeacherWorkspaceController {
     public ApiResponse<TeacherWorkspaceDtos.TeacherStudentRecordDetailPayload> getTeacherStudentRecordDetail(
             @PathVariable("userId") Integer userId,
             @PathVariable("studentId") Integer studentId,
-            @PathVariable("recordId") Integer recordId
+            @PathVariable("recordId") Integer recordId,
+            WebRequest webRequest
     ) {
         userRoleGuard.requireTeacher(userId);
         User student = userRoleGuard.requireStudent(studentId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(studentId)
+        )) {
+            return null;
+        }
         List<ExamRecord> studentRecords = examService.getStudentExamRecordsOptimized(studentId);
         ExamRecord record = examAccessGuard.requireOwnedRecord(studentId, recordId);
         Paper paper = examAccessGuard.resolvePaper(record);
@@ -252,13 +406,14 @@ public class TeacherWorkspaceController {
             throw new BusinessException(ex.getMessage(), ex);
         }
 
-        Paper paper = new Paper();
-        paper.setPaperName(request.getPaperName().trim());
-        paper.setSubject(request.getSubject().trim());
-        paper.setPassScore(request.getPassScore());
-        paper.setDuration(request.getDuration());
-        paper.setDescription(normalizeBlank(request.getDescription()));
-        paper.setCreatorId(userId);
+        Paper paper = buildImportedPaper(
+                userId,
+                request.getPaperName(),
+                request.getSubject(),
+                request.getPassScore(),
+                request.getDuration(),
+                request.getDescription()
+        );
 
         PaperService.ImportPaperResult importResult = paperService.importPaper(paper, importedQuestions);
         Paper createdPaper = paperService.getPaperById(importResult.getPaperId());
@@ -276,6 +431,83 @@ public class TeacherWorkspaceController {
         return ApiResponse.success("导题建卷成功", payload);
     }
 
+    @PostMapping(value = "/{userId}/import-paper/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiResponse<TeacherWorkspaceDtos.StreamImportPaperPayload> importPaperFromFile(
+            @PathVariable("userId") Integer userId,
+            @Valid TeacherStreamImportPaperRequest request,
+            @RequestParam("file") MultipartFile file
+    ) {
+        userRoleGuard.requireTeacher(userId);
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("导入文件不能为空");
+        }
+        try (InputStream source = file.getInputStream()) {
+            return importPaperStreaming(userId, request, source);
+        } catch (IOException ex) {
+            throw new BusinessException("读取导入文件失败", ex);
+        }
+    }
+
+    @PostMapping(value = "/{userId}/import-paper/stream", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ApiResponse<TeacherWorkspaceDtos.StreamImportPaperPayload> importPaperFromBody(
+            @PathVariable("userId") Integer userId,
+            @Valid TeacherStreamImportPaperRequest request,
+            InputStream body
+    ) {
+        userRoleGuard.requireTeacher(userId);
+        return importPaperStreaming(userId, request, body);
+    }
+
+    private ApiResponse<TeacherWorkspaceDtos.StreamImportPaperPayload> importPaperStreaming(
+            Integer userId,
+            TeacherStreamImportPaperRequest request,
+            InputStream source
+    ) {
+        Paper paper = buildImportedPaper(
+                userId,
+                request.getPaperName(),
+                request.getSubject(),
+                request.getPassScore(),
+                request.getDuration(),
+                request.getDescription()
+        );
+        PaperService.ImportPaperResult importResult = paperService.importPaperStreaming(
+                paper,
+                new InputStreamReader(source, StandardCharsets.UTF_8),
+                userId
+        );
+        Paper createdPaper = paperService.getPaperWithQuestionStats(importResult.getPaperId());
+
+        TeacherWorkspaceDtos.StreamImportPaperPayload payload = new TeacherWorkspaceDtos.StreamImportPaperPayload(
+                assembler.toTeacherPaperItem(createdPaper),
+                new TeacherWorkspaceDtos.ImportPaperSummary(
+                        importResult.getSourceQuestionCount(),
+                        importResult.getLinkedQuestionCount(),
+                        importResult.getCreatedQuestionCount(),
+                        importResult.getReusedQuestionCount()
+                )
+        );
+        return ApiResponse.success("导题建卷成功", payload);
+    }
+
+    private Paper buildImportedPaper(
+            Integer userId,
+            String paperName,
+            String subject,
+            Integer passScore,
+            Integer duration,
+            String description
+    ) {
+        Paper paper = new Paper();
+        paper.setPaperName(paperName.trim());
+        paper.setSubject(subject.trim());
+        paper.setPassScore(passScore);
+        paper.setDuration(duration);
+        paper.setDescription(normalizeBlank(description));
+        paper.setCreatorId(userId);
+        return paper;
+    }
+
     private String normalizeBlank(String value) {
         if (value == null) {
             return null;
@@ -6,6 +6,7 @@ import com.exam.api.dto.AuthUserResponse;
 import com.exam.api.dto.StudentWorkspaceDtos;
 import com.exam.api.dto.WorkbenchDtos;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.User;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Comparator;
 import java.util.List;
@@ -29,24 +31,38 @@ public class WorkbenchController {
     private final ExamService examService;
     private final StudentWorkspaceAssembler studentWorkspaceAssembler;
     private final UserRoleGuard userRoleGuard;
+    private final WorkspaceEtags workspaceEtags;
 
     public WorkbenchController(
             UserService userService,
             PaperService paperService,
             ExamService examService,
             StudentWorkspaceAssembler studentWorkspaceAssembler,
-            UserRoleGuard userRoleGuard
+            UserRoleGuard userRoleGuard,
+            WorkspaceEtags workspaceEtags
     ) {
         this.userService = userService;
         this.paperService = paperService;
         this.examService = examService;
         this.studentWorkspaceAssembler = studentWorkspaceAssembler;
         this.userRoleGuard = userRoleGuard;
+        this.workspaceEtags = workspaceEtags;
     }
 
     @GetMapping("/teacher/{userId}")
-    public ApiResponse<WorkbenchDtos.TeacherWorkbenchPayload> teacherWorkbench(@PathVariable("userId") Integer userId) {
+    public ApiResponse<WorkbenchDtos.TeacherWorkbenchPayload> teacherWorkbench(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User teacher = userRoleGuard.requireTeacher(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(teacher),
+                workspaceEtags.paperCatalog(),
+                workspaceEtags.students()
+        )) {
+            return null;
+        }
         List<Paper> papers = paperService.getAllPapersOptimized();
         List<User> students = userService.getStudents();
         long publishedCount = papers.stream()
@@ -61,8 +77,20 @@ public class WorkbenchController {
     }
 
     @GetMapping("/student/{userId}")
-    public ApiResponse<WorkbenchDtos.StudentWorkbenchPayload> studentWorkbench(@PathVariable("userId") Integer userId) {
+    public ApiResponse<WorkbenchDtos.StudentWorkbenchPayload> studentWorkbench(
+            @PathVariable("userId") Integer userId,
+            WebRequest webRequest
+    ) {
         User student = userRoleGuard.requireStudent(userId);
+        if (workspaceEtags.notModified(
+                webRequest,
+                workspaceEtags.user(student),
+                workspaceEtags.paperCatalog(),
+                workspaceEtags.papers(),
+                workspaceEtags.studentRecords(userId)
+        )) {
+            return null;
+        }
         List<Paper> publishedPapers = paperService.getAllPublishedPapersOptimized();
         List<ExamRecord> records = examService.getStudentExamRecordsOptimized(userId);
         StudentWorkspaceDtos.RecordSummary recordSummary = studentWorkspaceAssembler.buildRecordSummary(records);
@@ -0,0 +1,21 @@
+package com.exam.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StudentSaveDraftRequest {
+    @NotNull(message = "草稿列表不能为空")
+    @Valid
+    private List<StudentSubmitExamRequest.AnswerItem> answers = new ArrayList<>();
+
+    public List<StudentSubmitExamRequest.AnswerItem> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<StudentSubmitExamRequest.AnswerItem> answers) {
+        this.answers = answers;
+    }
+}
@@ -149,6 +149,22 @@ public final class StudentWorkspaceDtos {
     ) {
     }
 
+    public record LeaderboardStandingItem(
+            BigDecimal bestScore,
+            Integer rank,
+            Double percentile
+    ) {
+    }
+
+    public record LeaderboardEntryItem(
+            int rank,
+            Integer studentId,
+            String realName,
+            BigDecimal score,
+            boolean self
+    ) {
+    }
+
     public record StudentPapersPayload(
             AuthUserResponse user,
             PaperSummary summary,
@@ -170,7 +186,17 @@ public final class StudentWorkspaceDtos {
             List<QuestionExamItem> questions,
             long remainingSeconds,
             LocalDateTime deadlineTime,
-            boolean resumed
+            boolean resumed,
+            List<DraftAnswerItem> draftAnswers
+    ) {
+    }
+
+    public record StudentLeaderboardPayload(
+            AuthUserResponse user,
+            Integer paperId,
+            int participantCount,
+            LeaderboardStandingItem standing,
+            List<LeaderboardEntryItem> top
     ) {
     }
 
@@ -181,6 +207,14 @@ public final class StudentWorkspaceDtos {
     ) {
     }
 
+    public record StudentRecordsPagePayload(
+            AuthUserResponse user,
+            List<StudentScoreRecordItem> records,
+            String nextCursor,
+            boolean hasMore
+    ) {
+    }
+
     public record StudentRecordDetailPayload(
             AuthUserResponse user,
             StudentRecordDetailItem record,
@@ -194,7 +228,20 @@ public final class StudentWorkspaceDtos {
             StudentPaperItem paper,
             List<QuestionExamItem> questions,
             long remainingSeconds,
-            LocalDateTime deadlineTime
+            LocalDateTime deadlineTime,
+            List<DraftAnswerItem> draftAnswers
+    ) {
+    }
+
+    public record DraftAnswerItem(
+            Integer questionId,
+            String answer
+    ) {
+    }
+
+    public record SaveDraftPayload(
+            Integer recordId,
+            int savedCount
     ) {
     }
 
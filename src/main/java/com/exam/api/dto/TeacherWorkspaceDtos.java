@@ -135,6 +135,61 @@ public final class TeacherWorkspaceDtos {
     ) {
     }
 
+    public record PaperAnalysisSummary(
+            int respondentCount,
+            double averageScore,
+            double scoreStdDev,
+            int groupSize
+    ) {
+    }
+
+    public record OptionDistributionItem(
+            String option,
+            int count,
+            int upperCount,
+            int lowerCount,
+            boolean correct
+    ) {
+    }
+
+    public record ItemAnalysisItem(
+            int index,
+            Integer questionId,
+            String questionType,
+            String content,
+            String correctAnswer,
+            Integer score,
+            int correctCount,
+            int blankCount,
+            int unrecognizedCount,
+            Double difficulty,
+            Double discrimination,
+            Double pointBiserial,
+            List<OptionDistributionItem> options
+    ) {
+    }
+
+    public record LeaderboardEntryItem(
+            int rank,
+            Integer studentId,
+            String realName,
+            String studentNumber,
+            BigDecimal score
+    ) {
+    }
+
+    public record RegradeProgressItem(
+            String state,
+            LocalDateTime queuedAt,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt,
+            long scannedAnswers,
+            long changedAnswers,
+            long recomputedRecords,
+            String failureMessage
+    ) {
+    }
+
     public record TeacherPapersPayload(
             AuthUserResponse user,
             PaperSummary summary,
@@ -152,9 +207,50 @@ public final class TeacherWorkspaceDtos {
     ) {
     }
 
+    public record ScoreBinItem(
+            int lower,
+            int upper,
+            int count
+    ) {
+    }
+
+    public record ScoreDistributionItem(
+            int recordCount,
+            BigDecimal averageScore,
+            BigDecimal minScore,
+            BigDecimal maxScore,
+            Integer passCount,
+            Double passRate,
+            BigDecimal medianScore,
+            BigDecimal p90Score,
+            List<ScoreBinItem> bins
+    ) {
+    }
+
     public record TeacherPaperDetailPayload(
             TeacherPaperItem paper,
-            List<QuestionDetailItem> questions
+            List<QuestionDetailItem> questions,
+            ScoreDistributionItem scoreDistribution
+    ) {
+    }
+
+    public record PaperAnalysisPayload(
+            TeacherPaperItem paper,
+            PaperAnalysisSummary summary,
+            List<ItemAnalysisItem> items
+    ) {
+    }
+
+    public record PaperLeaderboardPayload(
+            Integer paperId,
+            int participantCount,
+            List<LeaderboardEntryItem> top
+    ) {
+    }
+
+    public record QuestionRegradePayload(
+            Integer questionId,
+            RegradeProgressItem regrade
     ) {
     }
 
@@ -165,6 +261,15 @@ public final class TeacherWorkspaceDtos {
     ) {
     }
 
+    public record TeacherStudentsPagePayload(
+            AuthUserResponse user,
+            StudentListSummary summary,
+            List<TeacherStudentItem> students,
+            String nextCursor,
+            boolean hasMore
+    ) {
+    }
+
     public record TeacherStudentRecordsPayload(
             AuthUserResponse student,
             StudentRecordSummary summary,
@@ -206,4 +311,22 @@ public final class TeacherWorkspaceDtos {
             ImportPaperSummary summary
     ) {
     }
+
+    public record StreamImportPaperPayload(
+            TeacherPaperItem paper,
+            ImportPaperSummary summary
+    ) {
+    }
+
+    public record ImportLineErrorItem(
+            int lineNumber,
+            String message
+    ) {
+    }
+
+    public record ImportErrorReport(
+            int errorCount,
+            List<ImportLineErrorItem> errors
+    ) {
+    }
 }
@@ -0,0 +1,192 @@
+package com.exam.api.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * auth_session 前的进程内会话缓存，按令牌摘要保存已查到的会话和短时间内查不到的摘要。
+ * 会话在 expiresAt 到期，查不到的摘要只缓存 negativeTtl；两类条目各有容量上限，满了先清掉到期条目。
+ * 读不加锁；写入与失效互斥，写入时带上查库前取的 stamp，期间发生过失效的查询结果不会写进缓存，
+ * 避免刚注销或被挤掉的会话被并发请求重新放回。
+ * 多节点部署时，其他节点删除的会话由 AuthTokenService 读取注销记录后调用 invalidate / invalidateAll 同步；
+ * maxStaleness 限定缓存的会话最多这么久之后重新查库，作为注销记录未及时同步时的兜底。
+ */
+public class AuthSessionCache {
+    private final int capacity;
+    private final int negativeCapacity;
+    private final Duration negativeTtl;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> missing = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile long generation;
+
+    /**
+     * @param maxStaleness 为零时不缓存会话，每次都查库；查无此会话的结果仍按 negativeTtl 缓存
+     */
+    public AuthSessionCache(int capacity, int negativeCapacity, Duration negativeTtl, Duration maxStaleness, Clock clock) {
+        this.capacity = Math.max(1, capacity);
+        this.negativeCapacity = Math.max(0, negativeCapacity);
+        this.negativeTtl = negativeTtl == null || negativeTtl.isNegative() ? Duration.ZERO : negativeTtl;
+        this.maxStaleness = maxStaleness == null || maxStaleness.isNegative() ? Duration.ZERO : maxStaleness;
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+    }
+
+    /**
+     * 查缓存：命中有效会话或未过期的“查无此会话”时返回结果（后者 getUser 为 null），否则返回 null，需要查库。
+     */
+    public Lookup get(String tokenHash) {
+        LocalDateTime now = now();
+        Entry entry = sessions.get(tokenHash);
+        if (entry != null) {
+            if (entry.freshUntil.isAfter(now)) {
+                return entry.lookup;
+            }
+            sessions.remove(tokenHash, entry);
+        }
+        LocalDateTime missingUntil = missing.get(tokenHash);
+        if (missingUntil != null) {
+            if (missingUntil.isAfter(now)) {
+                return Lookup.MISSING;
+            }
+            missing.remove(tokenHash, missingUntil);
+        }
+        return null;
+    }
+
+    /**
+     * 查库前取的版本号，写入时用来判断查询期间是否有会话被失效。
+     */
+    public long stamp() {
+        return generation;
+    }
+
+    public void putSession(long stamp, String tokenHash, AuthenticatedUser user) {
+        if (maxStaleness.isZero()) {
+            return;
+        }
+        LocalDateTime now = now();
+        LocalDateTime freshUntil = user.getExpiresAt();
+        if (now.plus(maxStaleness).isBefore(freshUntil)) {
+            freshUntil = now.plus(maxStaleness);
+        }
+        if (!freshUntil.isAfter(now)) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (stamp != generation) {
+                return;
+            }
+            if (sessions.size() >= capacity && !sessions.containsKey(tokenHash)) {
+                makeRoom(now);
+            }
+            missing.remove(tokenHash);
+            sessions.put(tokenHash, new Entry(new Lookup(user), freshUntil));
+        }
+    }
+
+    public void putMissing(long stamp, String tokenHash) {
+        if (negativeCapacity == 0 || negativeTtl.isZero()) {
+            return;
+        }
+        LocalDateTime now = now();
+        synchronized (writeLock) {
+            if (stamp != generation) {
+                return;
+            }
+            if (missing.size() >= negativeCapacity) {
+                missing.values().removeIf(until -> !until.isAfter(now));
+                if (missing.size() >= negativeCapacity) {
+                    missing.clear();
+                }
+            }
+            missing.put(tokenHash, now.plus(negativeTtl));
+        }
+    }
+
+    /**
+     * 会话被注销、挤掉或在其他节点被删除后调用。
+     */
+    public void invalidate(String tokenHash) {
+        if (tokenHash == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            generation++;
+            sessions.remove(tokenHash);
+            missing.remove(tokenHash);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (writeLock) {
+            generation++;
+            sessions.clear();
+            missing.clear();
+        }
+    }
+
+    /**
+     * 清掉已到期的条目，返回清掉的会话数。
+     */
+    public int purgeExpired() {
+        LocalDateTime now = now();
+        synchronized (writeLock) {
+            missing.values().removeIf(until -> !until.isAfter(now));
+            int before = sessions.size();
+            sessions.values().removeIf(entry -> !entry.freshUntil.isAfter(now));
+            return before - sessions.size();
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 先清掉到期会话；仍然满时去掉最早到期的一条，它被再次访问时会重新查库。
+     */
+    private void makeRoom(LocalDateTime now) {
+        sessions.values().removeIf(entry -> !entry.freshUntil.isAfter(now));
+        if (sessions.size() < capacity) {
+            return;
+        }
+        String earliestKey = null;
+        LocalDateTime earliest = null;
+        for (Map.Entry<String, Entry> candidate : sessions.entrySet()) {
+            if (earliest == null || candidate.getValue().freshUntil.isBefore(earliest)) {
+                earliestKey = candidate.getKey();
+                earliest = candidate.getValue().freshUntil;
+            }
+        }
+        sessions.remove(earliestKey);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private record Entry(Lookup lookup, LocalDateTime freshUntil) {
+    }
+
+    public static final class Lookup {
+        private static final Lookup MISSING = new Lookup(null);
+
+        private final AuthenticatedUser user;
+
+        private Lookup(AuthenticatedUser user) {
+            this.user = user;
+        }
+
+        /**
+         * 缓存确认没有该会话时为 null。
+         */
+        public AuthenticatedUser getUser() {
+            return user;
+        }
+    }
+}
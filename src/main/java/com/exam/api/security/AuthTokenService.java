@@ -2,6 +2,7 @@ package com.exam.api.security;
 
 import com.exam.dao.AuthSessionDao;
 import com.exam.model.AuthSession;
+import com.exam.model.AuthSessionRevocation;
 import com.exam.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,30 +17,73 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
 
 @Service
 public class AuthTokenService {
+    private static final Duration DEFAULT_NEGATIVE_CACHE_TTL = Duration.ofSeconds(5);
+    private static final int DEFAULT_NEGATIVE_CACHE_CAPACITY = 1024;
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofSeconds(30);
+    private static final int REVOCATION_BATCH_SIZE = 500;
+    private static final Duration REVOCATION_RETENTION = Duration.ofHours(1);
+    private static final HexFormat HEX = HexFormat.of();
+
     private final AuthSessionDao authSessionDao;
+    private final AuthSessionCache sessionCache;
     private final Duration tokenTtl;
     private final int maxActiveSessions;
     private final Clock clock;
     private final SecureRandom secureRandom = new SecureRandom();
     private final Object sessionMutationLock = new Object();
+    private final Object revocationLock = new Object();
+    private long lastRevocationId = -1;
 
     @Autowired
     public AuthTokenService(
             AuthSessionDao authSessionDao,
             @Value("${exam.api.auth.token-ttl-hours:12}") long tokenTtlHours,
-            @Value("${exam.api.auth.max-active-sessions:2048}") int maxActiveSessions
+            @Value("${exam.api.auth.max-active-sessions:2048}") int maxActiveSessions,
+            @Value("${exam.api.auth.session-cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+            @Value("${exam.api.auth.session-cache.max-staleness-seconds:30}") long maxStalenessSeconds
     ) {
-        this(authSessionDao, Duration.ofHours(Math.max(1, tokenTtlHours)), maxActiveSessions, Clock.systemDefaultZone());
+        this(
+                authSessionDao,
+                Duration.ofHours(Math.max(1, tokenTtlHours)),
+                maxActiveSessions,
+                Clock.systemDefaultZone(),
+                new AuthSessionCache(
+                        maxActiveSessions,
+                        DEFAULT_NEGATIVE_CACHE_CAPACITY,
+                        Duration.ofSeconds(Math.max(0, negativeTtlSeconds)),
+                        Duration.ofSeconds(Math.max(0, maxStalenessSeconds)),
+                        Clock.systemDefaultZone()
+                )
+        );
     }
 
     public AuthTokenService(AuthSessionDao authSessionDao, Duration tokenTtl, int maxActiveSessions, Clock clock) {
+        this(
+                authSessionDao,
+                tokenTtl,
+                maxActiveSessions,
+                clock,
+                new AuthSessionCache(maxActiveSessions, DEFAULT_NEGATIVE_CACHE_CAPACITY, DEFAULT_NEGATIVE_CACHE_TTL, DEFAULT_MAX_STALENESS, clock)
+        );
+    }
+
+    public AuthTokenService(
+            AuthSessionDao authSessionDao,
+            Duration tokenTtl,
+            int maxActiveSessions,
+            Clock clock,
+            AuthSessionCache sessionCache
+    ) {
         this.authSessionDao = authSessionDao;
         this.tokenTtl = tokenTtl == null || tokenTtl.isZero() || tokenTtl.isNegative() ? Duration.ofHours(12) : tokenTtl;
         this.maxActiveSessions = Math.max(1, maxActiveSessions);
         this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+        this.sessionCache = sessionCache;
     }
 
     public String issueToken(User user) {
@@ -58,7 +102,9 @@ public class AuthTokenService {
             session.setRole(user.getRole());
             session.setIssuedAt(issuedAt);
             session.setExpiresAt(issuedAt.plus(tokenTtl));
+            long stamp = sessionCache.stamp();
             authSessionDao.insert(session);
+            sessionCache.putSession(stamp, session.getTokenHash(), toAuthenticatedUser(session));
             return token;
         }
     }
@@ -68,8 +114,16 @@ public class AuthTokenService {
             return null;
         }
 
-        AuthSession session = authSessionDao.findByTokenHash(hashToken(token.trim()));
+        String tokenHash = hashToken(token.trim());
+        AuthSessionCache.Lookup cached = sessionCache.get(tokenHash);
+        if (cached != null) {
+            return cached.getUser();
+        }
+
+        long stamp = sessionCache.stamp();
+        AuthSession session = authSessionDao.findByTokenHash(tokenHash);
         if (session == null) {
+            sessionCache.putMissing(stamp, tokenHash);
             return null;
         }
 
@@ -78,7 +132,9 @@ public class AuthTokenService {
             return null;
         }
 
-        return new AuthenticatedUser(session.getUserId(), session.getRole(), session.getExpiresAt());
+        AuthenticatedUser authenticatedUser = toAuthenticatedUser(session);
+        sessionCache.putSession(stamp, tokenHash, authenticatedUser);
+        return authenticatedUser;
     }
 
     public void invalidateToken(String token) {
@@ -86,7 +142,51 @@ public class AuthTokenService {
             return;
         }
 
-        authSessionDao.deleteByTokenHash(hashToken(token.trim()));
+        revoke(hashToken(token.trim()));
+    }
+
+    /**
+     * 读取其他节点写入的注销记录，丢掉本节点缓存的对应会话。首次运行只记下当前位置并清空缓存；
+     * 一次积压超过一批时直接清空缓存。
+     *
+     * @return 本次丢掉的会话数
+     */
+    @Scheduled(fixedDelayString = "${exam.api.auth.session-cache.revocation-poll-ms:2000}")
+    public int syncRevocations() {
+        synchronized (revocationLock) {
+            if (lastRevocationId < 0) {
+                Long latest = authSessionDao.findLatestRevocationId();
+                lastRevocationId = latest == null ? 0 : latest;
+                evictAllCachedSessions();
+                return 0;
+            }
+            List<AuthSessionRevocation> revocations = authSessionDao.findRevocationsAfter(lastRevocationId, REVOCATION_BATCH_SIZE);
+            if (revocations.isEmpty()) {
+                return 0;
+            }
+            if (revocations.size() >= REVOCATION_BATCH_SIZE) {
+                Long latest = authSessionDao.findLatestRevocationId();
+                lastRevocationId = latest == null ? lastRevocationId : latest;
+                evictAllCachedSessions();
+                return revocations.size();
+            }
+            for (AuthSessionRevocation revocation : revocations) {
+                evictCachedSession(revocation.getTokenHash());
+            }
+            lastRevocationId = revocations.get(revocations.size() - 1).getRevocationId();
+            return revocations.size();
+        }
+    }
+
+    /**
+     * 丢掉本节点缓存的该会话，由 syncRevocations 在读到其他节点的注销记录时调用。
+     */
+    public void evictCachedSession(String tokenHash) {
+        sessionCache.invalidate(tokenHash);
+    }
+
+    public void evictAllCachedSessions() {
+        sessionCache.invalidateAll();
     }
 
     @Scheduled(fixedDelayString = "${exam.api.auth.cleanup-interval-ms:300000}")
@@ -115,9 +215,21 @@ public class AuthTokenService {
     }
 
     private int cleanupExpiredSessionsInternal() {
+        sessionCache.purgeExpired();
+        authSessionDao.deleteRevocationsBefore(now().minus(REVOCATION_RETENTION));
         return authSessionDao.deleteExpiredSessions(now());
     }
 
+    /**
+     * 删除会话并写入注销记录，其他节点据此丢掉缓存；会话已不存在时不写记录。
+     */
+    private void revoke(String tokenHash) {
+        if (authSessionDao.deleteByTokenHash(tokenHash) > 0) {
+            authSessionDao.insertRevocation(tokenHash, now());
+        }
+        sessionCache.invalidate(tokenHash);
+    }
+
     private void evictOldestSessionIfNecessary() {
         if (authSessionDao.countSessions() < maxActiveSessions) {
             return;
@@ -125,7 +237,7 @@ public class AuthTokenService {
 
         String oldestTokenHash = authSessionDao.findOldestTokenHash();
         if (oldestTokenHash != null && !oldestTokenHash.isEmpty()) {
-            authSessionDao.deleteByTokenHash(oldestTokenHash);
+            revoke(oldestTokenHash);
         }
     }
 
@@ -138,17 +250,16 @@ public class AuthTokenService {
     private String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
-            StringBuilder builder = new StringBuilder(bytes.length * 2);
-            for (byte value : bytes) {
-                builder.append(String.format("%02x", value));
-            }
-            return builder.toString();
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
         } catch (NoSuchAlgorithmException ex) {
             throw new IllegalStateException("SHA-256 algorithm is not available", ex);
         }
     }
 
+    private AuthenticatedUser toAuthenticatedUser(AuthSession session) {
+        return new AuthenticatedUser(session.getUserId(), session.getRole(), session.getExpiresAt());
+    }
+
     private LocalDateTime now() {
         return LocalDateTime.now(clock);
     }
@@ -0,0 +1,59 @@
+package com.exam.api.service;
+
+import com.exam.model.User;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.ScoreRanking;
+import com.exam.service.UserService;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 试卷排行榜接口数据：名次和前 K 名来自内存中的 {@link PaperLeaderboard}，
+ * 只为榜上这几名学生按主键补查姓名，不扫描考试记录。
+ */
+@Service
+public class PaperLeaderboardService {
+    private final PaperLeaderboard leaderboard;
+    private final UserService userService;
+
+    public PaperLeaderboardService(PaperLeaderboard leaderboard, UserService userService) {
+        this.leaderboard = leaderboard;
+        this.userService = userService;
+    }
+
+    /**
+     * 读取榜单快照；快照自带版本，控制器可先用它做条件请求判断，命中时不再补查姓名。
+     */
+    public PaperLeaderboard.Standings getStandings(Integer paperId, Integer studentId, int limit) {
+        return leaderboard.getStandings(paperId, studentId, limit);
+    }
+
+    public LeaderboardView buildView(PaperLeaderboard.Standings standings) {
+        List<Integer> studentIds = new ArrayList<>(standings.getTop().size());
+        for (ScoreRanking.RankedEntry entry : standings.getTop()) {
+            studentIds.add(entry.getStudentId());
+        }
+        return new LeaderboardView(standings, userService.getUsersByIds(studentIds));
+    }
+
+    public static class LeaderboardView {
+        private final PaperLeaderboard.Standings standings;
+        private final Map<Integer, User> usersById;
+
+        public LeaderboardView(PaperLeaderboard.Standings standings, Map<Integer, User> usersById) {
+            this.standings = standings;
+            this.usersById = usersById;
+        }
+
+        public PaperLeaderboard.Standings getStandings() {
+            return standings;
+        }
+
+        public Map<Integer, User> getUsersById() {
+            return usersById;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.exam.api.service;
 
-import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
-import com.exam.model.Question;
-import com.exam.model.enums.ExamStatus;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
 import com.exam.model.enums.QuestionType;
 import com.exam.service.ExamService;
+import com.exam.service.StudentAchievementStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -14,141 +17,76 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * 学生成绩页数据。汇总、科目和题型统计读取结算时维护的成绩聚合，
+ * 成绩走势只取最近若干次已结算考试，读取代价与学生的考试总数无关。
+ */
 @Service
 public class StudentAchievementService {
     private static final String OTHER_TYPE_KEY = "OTHER";
     private static final String OTHER_TYPE_LABEL = "其他题型";
-    private static final String UNKNOWN_SUBJECT = "未分类科目";
 
     private final ExamService examService;
-
-    public StudentAchievementService(ExamService examService) {
+    private final StudentAchievementStore achievementStore;
+    private final int trendSize;
+
+    @Autowired
+    public StudentAchievementService(
+            ExamService examService,
+            StudentAchievementStore achievementStore,
+            @Value("${exam.achievement.trend-size:100}") int trendSize
+    ) {
         this.examService = examService;
+        this.achievementStore = achievementStore;
+        this.trendSize = Math.max(1, trendSize);
     }
 
     public StudentAchievementSnapshot buildSnapshot(Integer userId) {
-        List<ExamRecord> allRecords = examService.getStudentExamRecordsOptimized(userId);
-        List<ExamRecord> completedRecords = allRecords.stream()
-                .filter(this::isCompletedRecord)
-                .sorted(buildRecordTimeComparator())
-                .collect(Collectors.toList());
-
-        List<Integer> completedRecordIds = completedRecords.stream()
-                .map(ExamRecord::getRecordId)
-                .filter(recordId -> recordId != null)
-                .collect(Collectors.toList());
-        Map<Integer, List<AnswerRecord>> answerRecordsMap = examService.getAnswerRecordsBatch(completedRecordIds);
-
-        Map<String, SubjectAccumulator> subjectAccumulators = new LinkedHashMap<>();
-        Map<String, TypeAccumulator> typeAccumulators = new LinkedHashMap<>();
-
-        long totalQuestionCount = 0;
-        long totalAnsweredCount = 0;
-        long totalCorrectCount = 0;
-        int passCount = 0;
-        double totalScore = 0;
-        int scoredCount = 0;
-        BigDecimal bestScore = null;
-
-        for (ExamRecord record : completedRecords) {
-            Paper paper = record.getPaper();
-            String subject = normalizeCategory(paper != null ? paper.getSubject() : null, UNKNOWN_SUBJECT);
-            SubjectAccumulator subjectAccumulator = subjectAccumulators.computeIfAbsent(subject, SubjectAccumulator::new);
-            subjectAccumulator.recordCount++;
-            subjectAccumulator.latestSubmitTime = resolveRecordTime(record);
-
-            if (record.getScore() != null) {
-                double numericScore = record.getScore().doubleValue();
-                totalScore += numericScore;
-                scoredCount++;
-                subjectAccumulator.scoreSum += numericScore;
-                subjectAccumulator.scoredCount++;
-                if (bestScore == null || record.getScore().compareTo(bestScore) > 0) {
-                    bestScore = record.getScore();
-                }
-            }
-
-            boolean passed = isPassed(record, paper);
-            if (passed) {
-                passCount++;
-                subjectAccumulator.passCount++;
-            } else {
-                subjectAccumulator.failCount++;
-            }
-
-            List<AnswerRecord> answerRecords = answerRecordsMap.getOrDefault(record.getRecordId(), Collections.emptyList());
-            for (AnswerRecord answerRecord : answerRecords) {
-                totalQuestionCount++;
-                subjectAccumulator.totalQuestionCount++;
-
-                if (isAnswered(answerRecord)) {
-                    totalAnsweredCount++;
-                    subjectAccumulator.answeredCount++;
-                }
-
-                if (Boolean.TRUE.equals(answerRecord.getIsCorrect())) {
-                    totalCorrectCount++;
-                    subjectAccumulator.correctCount++;
-                }
-
-                Question question = answerRecord.getQuestion();
-                QuestionType questionType = question == null ? null : question.getQuestionType();
-                String typeKey = questionType == null ? OTHER_TYPE_KEY : questionType.name();
-                String typeLabel = questionType == null ? OTHER_TYPE_LABEL : questionType.getDescription();
-
-                TypeAccumulator typeAccumulator = typeAccumulators.computeIfAbsent(typeKey, key -> new TypeAccumulator(typeKey, typeLabel));
-                typeAccumulator.totalCount++;
-                if (isAnswered(answerRecord)) {
-                    typeAccumulator.answeredCount++;
-                }
-                if (Boolean.TRUE.equals(answerRecord.getIsCorrect())) {
-                    typeAccumulator.correctCount++;
-                }
-            }
-        }
+        StudentAchievementStore.Aggregate aggregate = achievementStore.load(userId);
+        StudentAchievement achievement = aggregate == null ? new StudentAchievement() : aggregate.getSummary();
+        int completedCount = achievement.getCompletedCount();
 
         AchievementSummary summary = new AchievementSummary(
-                allRecords.size(),
-                completedRecords.size(),
-                allRecords.stream().filter(record -> record.getStatus() == ExamStatus.IN_PROGRESS).count(),
-                roundDouble(scoredCount == 0 ? 0 : totalScore / scoredCount),
-                bestScore,
-                passCount,
-                Math.max(0, completedRecords.size() - passCount),
-                totalQuestionCount,
-                totalAnsweredCount,
-                totalCorrectCount,
-                roundDouble(totalQuestionCount == 0 ? 0 : totalCorrectCount * 100.0 / totalQuestionCount)
+                examService.getStudentExamRecordCount(userId),
+                completedCount,
+                examService.getStudentInProgressCount(userId),
+                roundDouble(average(achievement.getScoreSum(), achievement.getScoredCount())),
+                achievement.getBestScore(),
+                achievement.getPassCount(),
+                Math.max(0, completedCount - achievement.getPassCount()),
+                achievement.getQuestionCount(),
+                achievement.getAnsweredCount(),
+                achievement.getCorrectCount(),
+                roundDouble(ratio(achievement.getCorrectCount(), achievement.getQuestionCount()))
         );
 
-        List<ScoreTrendItem> scoreTrend = completedRecords.stream()
+        List<ScoreTrendItem> scoreTrend = examService.getRecentSettledRecords(userId, trendSize).stream()
+                .sorted(buildRecordTimeComparator())
                 .map(this::toScoreTrendItem)
                 .collect(Collectors.toList());
 
-        List<TypeAccuracyItem> questionTypeAccuracy = typeAccumulators.values().stream()
-                .sorted(Comparator.comparingLong((TypeAccumulator item) -> item.totalCount).reversed())
-                .map(this::toTypeAccuracyItem)
-                .collect(Collectors.toList());
-
-        List<SubjectPerformanceItem> subjectPerformance = subjectAccumulators.values().stream()
-                .sorted(Comparator
-                        .comparingInt((SubjectAccumulator item) -> item.recordCount).reversed()
-                        .thenComparing(item -> item.subject))
-                .map(this::toSubjectPerformanceItem)
-                .collect(Collectors.toList());
+        List<TypeAccuracyItem> questionTypeAccuracy = aggregate == null
+                ? Collections.emptyList()
+                : aggregate.getTypes().stream()
+                        .sorted(Comparator.comparingLong(StudentTypeAchievement::getTotalCount).reversed())
+                        .map(this::toTypeAccuracyItem)
+                        .collect(Collectors.toList());
+
+        List<SubjectPerformanceItem> subjectPerformance = aggregate == null
+                ? Collections.emptyList()
+                : aggregate.getSubjects().stream()
+                        .sorted(Comparator
+                                .comparingInt(StudentSubjectAchievement::getRecordCount).reversed()
+                                .thenComparing(StudentSubjectAchievement::getSubject))
+                        .map(this::toSubjectPerformanceItem)
+                        .collect(Collectors.toList());
 
         return new StudentAchievementSnapshot(summary, scoreTrend, questionTypeAccuracy, subjectPerformance, currentTime());
     }
 
-    private boolean isCompletedRecord(ExamRecord record) {
-        return record.getStatus() == ExamStatus.SUBMITTED || record.getStatus() == ExamStatus.TIMEOUT;
-    }
-
     private Comparator<ExamRecord> buildRecordTimeComparator() {
         return Comparator
                 .comparing(this::resolveRecordTime, Comparator.nullsLast(LocalDateTime::compareTo))
@@ -172,16 +110,12 @@ public class StudentAchievementService {
                 && record.getScore().compareTo(BigDecimal.valueOf(paper.getPassScore())) >= 0;
     }
 
-    private boolean isAnswered(AnswerRecord answerRecord) {
-        return answerRecord.getStudentAnswer() != null && !answerRecord.getStudentAnswer().trim().isEmpty();
+    private double average(BigDecimal sum, int count) {
+        return count == 0 || sum == null ? 0 : sum.doubleValue() / count;
     }
 
-    private String normalizeCategory(String value, String fallback) {
-        if (value == null) {
-            return fallback;
-        }
-        String trimmed = value.trim();
-        return trimmed.isEmpty() ? fallback : trimmed;
+    private double ratio(long correctCount, long totalCount) {
+        return totalCount == 0 ? 0 : correctCount * 100.0 / totalCount;
     }
 
     private double roundDouble(double value) {
@@ -207,29 +141,41 @@ public class StudentAchievementService {
         );
     }
 
-    private TypeAccuracyItem toTypeAccuracyItem(TypeAccumulator typeAccumulator) {
+    private TypeAccuracyItem toTypeAccuracyItem(StudentTypeAchievement typeAchievement) {
+        QuestionType questionType = resolveQuestionType(typeAchievement.getQuestionType());
         return new TypeAccuracyItem(
-                typeAccumulator.type,
-                typeAccumulator.label,
-                typeAccumulator.totalCount,
-                typeAccumulator.answeredCount,
-                typeAccumulator.correctCount,
-                roundDouble(typeAccumulator.totalCount == 0 ? 0 : typeAccumulator.correctCount * 100.0 / typeAccumulator.totalCount)
+                questionType == null ? OTHER_TYPE_KEY : questionType.name(),
+                questionType == null ? OTHER_TYPE_LABEL : questionType.getDescription(),
+                typeAchievement.getTotalCount(),
+                typeAchievement.getAnsweredCount(),
+                typeAchievement.getCorrectCount(),
+                roundDouble(ratio(typeAchievement.getCorrectCount(), typeAchievement.getTotalCount()))
         );
     }
 
-    private SubjectPerformanceItem toSubjectPerformanceItem(SubjectAccumulator subjectAccumulator) {
+    private QuestionType resolveQuestionType(String typeName) {
+        if (typeName == null) {
+            return null;
+        }
+        try {
+            return QuestionType.valueOf(typeName);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private SubjectPerformanceItem toSubjectPerformanceItem(StudentSubjectAchievement subjectAchievement) {
         return new SubjectPerformanceItem(
-                subjectAccumulator.subject,
-                subjectAccumulator.recordCount,
-                roundDouble(subjectAccumulator.scoredCount == 0 ? 0 : subjectAccumulator.scoreSum / subjectAccumulator.scoredCount),
-                subjectAccumulator.passCount,
-                subjectAccumulator.failCount,
-                subjectAccumulator.totalQuestionCount,
-                subjectAccumulator.answeredCount,
-                subjectAccumulator.correctCount,
-                roundDouble(subjectAccumulator.totalQuestionCount == 0 ? 0 : subjectAccumulator.correctCount * 100.0 / subjectAccumulator.totalQuestionCount),
-                subjectAccumulator.latestSubmitTime
+                subjectAchievement.getSubject(),
+                subjectAchievement.getRecordCount(),
+                roundDouble(average(subjectAchievement.getScoreSum(), subjectAchievement.getScoredCount())),
+                subjectAchievement.getPassCount(),
+                subjectAchievement.getFailCount(),
+                subjectAchievement.getQuestionCount(),
+                subjectAchievement.getAnsweredCount(),
+                subjectAchievement.getCorrectCount(),
+                roundDouble(ratio(subjectAchievement.getCorrectCount(), subjectAchievement.getQuestionCount())),
+                subjectAchievement.getLatestSubmitTime()
         );
     }
 
@@ -572,34 +518,4 @@ public class StudentAchievementService {
             return latestSubmitTime;
         }
     }
-
-    private static class SubjectAccumulator {
-        private final String subject;
-        private int recordCount;
-        private double scoreSum;
-        private int scoredCount;
-        private int passCount;
-        private int failCount;
-        private long totalQuestionCount;
-        private long answeredCount;
-        private long correctCount;
-        private LocalDateTime latestSubmitTime;
-
-        private SubjectAccumulator(String subject) {
-            this.subject = subject;
-        }
-    }
-
-    private static class TypeAccumulator {
-        private final String type;
-        private final String label;
-        private long totalCount;
-        private long answeredCount;
-        private long correctCount;
-
-        private TypeAccumulator(String type, String label) {
-            this.type = type;
-            this.label = label;
-        }
-    }
 }
@@ -0,0 +1,137 @@
+package com.exam.api.support;
+
+import com.exam.api.assembler.StudentWorkspaceAssembler;
+import com.exam.api.dto.StudentWorkspaceDtos;
+import com.exam.exception.BusinessException;
+import com.exam.model.Paper;
+import com.exam.service.AnswerKey;
+import com.exam.service.ExamService;
+import com.exam.service.PaperCatalogCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 学生作答页使用的试卷视图缓存：试卷、自动判分题型校验结果和不含答案的题目列表。
+ * 视图只由试卷目录快照和答案 key 两个内存缓存拼装，命中时不查库；
+ * 试卷或题目变更会替换对应的目录试卷或答案 key，下次访问发现来源已换即重建视图。
+ * 不支持自动判分的试卷也缓存校验结论，直到目录中的试卷被替换（编辑、发布状态变化或快照过期）。
+ */
+@Component
+public class ExamPaperViewCache {
+    private final PaperCatalogCache catalogCache;
+    private final ExamService examService;
+    private final StudentWorkspaceAssembler assembler;
+    private final Map<Integer, ExamPaperView> views = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public ExamPaperViewCache(PaperCatalogCache catalogCache, ExamService examService, StudentWorkspaceAssembler assembler) {
+        this.catalogCache = catalogCache;
+        this.examService = examService;
+        this.assembler = assembler;
+    }
+
+    public ExamPaperView get(Integer paperId) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        Paper paper = catalogCache.findPaper(paperId);
+        if (paper == null) {
+            views.remove(paperId);
+            throw new BusinessException("Paper does not exist");
+        }
+
+        ExamPaperView cached = views.get(paperId);
+        if (cached != null && cached.paper == paper && !cached.isSupported()) {
+            return cached;
+        }
+
+        AnswerKey answerKey;
+        try {
+            answerKey = examService.validatePaperSupportsAutoExam(paperId);
+        } catch (BusinessException ex) {
+            ExamPaperView unsupported = new ExamPaperView(versions.incrementAndGet(), paper, null, List.of(), ex.getMessage());
+            views.put(paperId, unsupported);
+            return unsupported;
+        }
+        if (cached != null && cached.paper == paper && cached.answerKey == answerKey) {
+            return cached;
+        }
+
+        ExamPaperView view = new ExamPaperView(versions.incrementAndGet(), paper, answerKey, renderQuestions(answerKey), null);
+        views.put(paperId, view);
+        return view;
+    }
+
+    private List<StudentWorkspaceDtos.QuestionExamItem> renderQuestions(AnswerKey answerKey) {
+        if (answerKey == null) {
+            return List.of();
+        }
+        List<StudentWorkspaceDtos.QuestionExamItem> items = new ArrayList<>(answerKey.size());
+        for (int i = 0; i < answerKey.size(); i++) {
+            items.add(assembler.toQuestionExamItem(answerKey.getQuestion(i)));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    public static final class ExamPaperView {
+        private final long version;
+        private final Paper paper;
+        private final AnswerKey answerKey;
+        private final List<StudentWorkspaceDtos.QuestionExamItem> questions;
+        private final String unsupportedMessage;
+
+        private ExamPaperView(
+                long version,
+                Paper paper,
+                AnswerKey answerKey,
+                List<StudentWorkspaceDtos.QuestionExamItem> questions,
+                String unsupportedMessage
+        ) {
+            this.version = version;
+            this.paper = paper;
+            this.answerKey = answerKey;
+            this.questions = questions;
+            this.unsupportedMessage = unsupportedMessage;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Paper getPaper() {
+            return paper;
+        }
+
+        public List<StudentWorkspaceDtos.QuestionExamItem> getQuestions() {
+            return questions;
+        }
+
+        public boolean isSupported() {
+            return unsupportedMessage == null;
+        }
+
+        public boolean isPublished() {
+            return Boolean.TRUE.equals(paper.getIsPublished());
+        }
+
+        public ExamPaperView requirePublished() {
+            if (!isPublished()) {
+                throw new BusinessException("该试卷尚未发布");
+            }
+            return this;
+        }
+
+        public ExamPaperView requireSupported() {
+            if (!isSupported()) {
+                throw new BusinessException(unsupportedMessage);
+            }
+            return this;
+        }
+    }
+}
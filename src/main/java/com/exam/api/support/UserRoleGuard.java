@@ -1,5 +1,6 @@
 package com.exam.api.support;
 
+import com.exam.api.security.AuthenticatedUser;
 import com.exam.exception.BusinessException;
 import com.exam.model.User;
 import com.exam.model.enums.UserRole;
@@ -22,6 +23,15 @@ public class UserRoleGuard {
         return requireRole(userId, UserRole.STUDENT, "当前用户不是学生角色");
     }
 
+    /**
+     * 按登录会话中的角色校验学生身份，不查询用户表，供高频接口使用。
+     */
+    public void requireStudent(AuthenticatedUser authenticatedUser) {
+        if (authenticatedUser == null || authenticatedUser.getRole() != UserRole.STUDENT) {
+            throw new BusinessException("当前用户不是学生角色");
+        }
+    }
+
     public User requireRole(Integer userId, UserRole expectedRole, String mismatchMessage) {
         User user = userService.getUserById(userId);
         if (user.getRole() != expectedRole) {
@@ -0,0 +1,109 @@
+package com.exam.api.support;
+
+import com.exam.model.DataVersion;
+import com.exam.model.User;
+import com.exam.service.ExamService;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperService;
+import com.exam.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 工作台 GET 接口的条件请求支持。
+ * ETag 由数据版本拼成（数据库版本探针或内存快照版本），客户端带回相同的 If-None-Match 时返回 304，不再组装响应。
+ * 版本必须在读取数据之前取得：并发修改最多让客户端多拉一次，不会把旧数据和新版本绑在一起。
+ * 内存快照的版本只在本实例内有意义，因此带上实例标识。
+ */
+@Component
+public class WorkspaceEtags {
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final PaperService paperService;
+    private final ExamService examService;
+    private final UserService userService;
+    private final String instanceId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    public WorkspaceEtags(PaperService paperService, ExamService examService, UserService userService) {
+        this.paperService = paperService;
+        this.examService = examService;
+        this.userService = userService;
+    }
+
+    /**
+     * 用各版本片段拼出 ETag 并与请求比对；返回 true 时响应已置为 304，控制器应直接返回 null。
+     */
+    public boolean notModified(WebRequest request, String... versionParts) {
+        if (request == null) {
+            return false;
+        }
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+        return request.checkNotModified("\"" + String.join("-", versionParts) + "\"");
+    }
+
+    public String user(User user) {
+        if (user == null) {
+            return "u0";
+        }
+        long updatedMillis = user.getUpdateTime() == null
+                ? 0L
+                : user.getUpdateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return "u" + user.getUserId() + "." + updatedMillis;
+    }
+
+    public String paperCatalog() {
+        return "c" + instanceId + "." + paperService.getCatalogVersion();
+    }
+
+    public String paperView(ExamPaperViewCache.ExamPaperView view) {
+        return "v" + instanceId + "." + view.getVersion();
+    }
+
+    public String leaderboard(PaperLeaderboard.Standings standings) {
+        return "l" + instanceId + "." + standings.getPaperId() + "." + standings.getVersion();
+    }
+
+    public String papers() {
+        return "p" + tag(paperService.getPapersVersion());
+    }
+
+    public String paper(Integer paperId) {
+        return "q" + paperId + "." + tag(paperService.getPaperVersion(paperId));
+    }
+
+    public String studentRecords(Integer studentId) {
+        return "r" + studentId + "." + tag(examService.getStudentRecordVersion(studentId));
+    }
+
+    public String studentsRecords(Collection<Integer> studentIds) {
+        return "r" + tag(examService.getStudentsRecordVersion(studentIds));
+    }
+
+    public String paperRecords(Integer paperId) {
+        return "r" + paperId + "." + tag(examService.getPaperRecordVersion(paperId));
+    }
+
+    public String allRecords() {
+        return "r" + tag(examService.getRecordVersion());
+    }
+
+    public String students() {
+        return "s" + tag(userService.getStudentsVersion());
+    }
+
+    private String tag(DataVersion version) {
+        return version == null ? "0" : version.toTag();
+    }
+}
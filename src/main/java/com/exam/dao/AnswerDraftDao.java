@@ -0,0 +1,26 @@
+package com.exam.dao;
+
+import com.exam.model.AnswerDraft;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface AnswerDraftDao {
+    int upsertBatch(@Param("drafts") List<AnswerDraft> drafts);
+
+    /**
+     * 给定考试记录中已不处于进行中（或已不存在）的记录 ID。
+     */
+    List<Integer> findClosedRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+
+    List<AnswerDraft> findByRecordId(@Param("recordId") Integer recordId);
+
+    List<AnswerDraft> findByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+
+    int deleteByRecordId(@Param("recordId") Integer recordId);
+
+    int deleteByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+}
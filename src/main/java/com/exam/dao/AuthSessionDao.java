@@ -1,10 +1,12 @@
 package com.exam.dao;
 
 import com.exam.model.AuthSession;
+import com.exam.model.AuthSessionRevocation;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface AuthSessionDao {
@@ -19,4 +21,12 @@ public interface AuthSessionDao {
     int countSessions();
 
     String findOldestTokenHash();
+
+    int insertRevocation(@Param("tokenHash") String tokenHash, @Param("revokedAt") LocalDateTime revokedAt);
+
+    List<AuthSessionRevocation> findRevocationsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    Long findLatestRevocationId();
+
+    int deleteRevocationsBefore(@Param("before") LocalDateTime before);
 }
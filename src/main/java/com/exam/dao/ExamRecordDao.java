@@ -1,11 +1,17 @@
 package com.exam.dao;
 
 import com.exam.model.AnswerRecord;
+import com.exam.model.DataVersion;
 import com.exam.model.ExamRecord;
+import com.exam.model.PaperAnswerRow;
+import com.exam.model.StudentRecordStats;
 import com.exam.model.enums.ExamStatus;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -18,6 +24,16 @@ public interface ExamRecordDao {
 
     ExamRecord findByIdForUpdate(@Param("recordId") Integer recordId);
 
+    /**
+     * 锁定考试记录并带回试卷，只锁 exam_record 行。
+     */
+    ExamRecord findByIdWithPaperForUpdate(@Param("recordId") Integer recordId);
+
+    /**
+     * 按 record_id 顺序锁定多条记录并带回试卷，固定加锁顺序避免并发批次互相死锁。
+     */
+    List<ExamRecord> findByIdsWithPaperForUpdate(@Param("recordIds") Collection<Integer> recordIds);
+
     ExamRecord findByIdWithPaper(@Param("recordId") Integer recordId);
 
     List<ExamRecord> findByStudentId(@Param("studentId") Integer studentId);
@@ -30,20 +46,100 @@ public interface ExamRecordDao {
 
     int countByStudentId(@Param("studentId") Integer studentId);
 
+    int countInProgressByStudentId(@Param("studentId") Integer studentId);
+
+    List<ExamRecord> findRecentSettledByStudentIdWithPaper(@Param("studentId") Integer studentId, @Param("limit") int limit);
+
+    /**
+     * 学生全部考试记录的版本水位，走 (student_id, update_time) 索引。
+     */
+    DataVersion findStudentRecordVersion(@Param("studentId") Integer studentId);
+
+    /**
+     * 一组学生考试记录的版本水位，走 (student_id, update_time) 索引。
+     */
+    DataVersion findStudentsRecordVersion(@Param("studentIds") Collection<Integer> studentIds);
+
+    /**
+     * 试卷全部考试记录的版本水位，走 (paper_id, update_time) 索引。
+     */
+    DataVersion findPaperRecordVersion(@Param("paperId") Integer paperId);
+
+    DataVersion findRecordVersion();
+
     List<ExamRecord> findByStudentIdWithPaper(@Param("studentId") Integer studentId);
 
     List<StudentExamRecordRelation> findByStudentIdsWithPaperFlat(@Param("studentIds") Collection<Integer> studentIds);
 
+    /**
+     * 按学生分组统计考试记录；studentIds 为 null 时统计全部学生，没有记录的学生不返回。
+     */
+    List<StudentRecordStats> summarizeByStudentIds(@Param("studentIds") Collection<Integer> studentIds);
+
     List<ExamRecord> findByStudentIdWithPaperPaginated(
             @Param("studentId") Integer studentId,
             @Param("offset") int offset,
             @Param("pageSize") int pageSize
     );
 
+    /**
+     * 按 (create_time, record_id) 倒序的键集分页：取排在游标之后的 limit 条，游标为空时从最新一条开始。
+     */
+    List<ExamRecord> findByStudentIdWithPaperAfter(
+            @Param("studentId") Integer studentId,
+            @Param("afterCreateTime") LocalDateTime afterCreateTime,
+            @Param("afterRecordId") Integer afterRecordId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 已结算但尚未写入作答统计的历史记录，按 record_id 升序。
+     */
+    List<Integer> findRecordIdsMissingAnswerCounters(
+            @Param("afterRecordId") int afterRecordId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 由 answer_record 回填作答统计，已有统计的记录不受影响。
+     */
+    int backfillAnswerCounters(@Param("recordIds") List<Integer> recordIds);
+
     List<ExamRecord> findByPaperId(@Param("paperId") Integer paperId);
 
+    List<ExamRecord> findByStatusWithPaper(@Param("status") ExamStatus status);
+
+    /**
+     * 开考时间加试卷时长不晚于 cutoff 的进行中记录，只取 record_id 大于 afterRecordId 的部分，按 record_id 升序。
+     */
+    List<Integer> findOverdueInProgressRecordIds(
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("afterRecordId") int afterRecordId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 锁定给定记录中已超时且仍在进行中的记录，被其他事务锁住的行直接跳过。
+     */
+    List<ExamRecord> lockOverdueInProgressRecords(
+            @Param("recordIds") Collection<Integer> recordIds,
+            @Param("cutoff") LocalDateTime cutoff
+    );
+
+    int markTimedOutBatch(
+            @Param("records") List<ExamRecord> records,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    int markSubmittedBatch(@Param("records") List<ExamRecord> records);
+
     int insert(ExamRecord record);
 
+    /**
+     * 仅当试卷在数据库中仍为已发布时插入，返回 0 表示试卷不存在或已取消发布。
+     */
+    int insertIfPaperPublished(ExamRecord record);
+
     int update(ExamRecord record);
 
     void insertAnswerRecord(AnswerRecord answerRecord);
@@ -54,6 +150,30 @@ public interface ExamRecordDao {
 
     List<RecordAnswerRelation> findAnswerRecordsByRecordIdsFlat(@Param("recordIds") List<Integer> recordIds);
 
+    /**
+     * 按 answer_id 顺序流式读取某题的作答记录，调用方必须在同一事务内遍历并关闭游标。
+     */
+    Cursor<AnswerRecord> streamAnswerRecordsByQuestionId(
+            @Param("questionId") Integer questionId,
+            @Param("afterAnswerId") Integer afterAnswerId
+    );
+
+    /**
+     * 按 record_id 顺序把试卷已结算记录的作答逐行交给 handler，不在内存中组装结果列表。
+     */
+    void scanPaperAnswerRows(@Param("paperId") Integer paperId, ResultHandler<PaperAnswerRow> handler);
+
+    /**
+     * 把试卷每名学生已结算记录的最高分逐行交给 handler，结果只填充 studentId 和 score。
+     */
+    void scanPaperBestScores(@Param("paperId") Integer paperId, ResultHandler<ExamRecord> handler);
+
+    int updateAnswerGrades(@Param("answerRecords") List<AnswerRecord> answerRecords);
+
+    int recomputeScoresByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+
+    List<Integer> findPaperIdsByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+
     default Map<Integer, List<ExamRecord>> findByStudentIdsWithPaper(Collection<Integer> studentIds) {
         Map<Integer, List<ExamRecord>> result = new HashMap<>();
         if (studentIds == null || studentIds.isEmpty()) {
@@ -1,5 +1,6 @@
 package com.exam.dao;
 
+import com.exam.model.DataVersion;
 import com.exam.model.Paper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -18,6 +19,10 @@ public interface PaperDao {
 
     List<Paper> findAllPublishedWithQuestionStats();
 
+    List<Paper> findAllWithQuestionStats();
+
+    Paper findWithQuestionStatsById(@Param("paperId") Integer paperId);
+
     int insert(Paper paper);
 
     void addPaperQuestion(
@@ -31,6 +36,19 @@ public interface PaperDao {
             @Param("questionIds") List<Integer> questionIds
     );
 
+    /**
+     * 追加一批题目到试卷末尾，题目顺序从 startOrder 起递增；试卷中已有的题目跳过。
+     *
+     * @return 实际新增的关联数
+     */
+    int appendPaperQuestions(
+            @Param("paperId") Integer paperId,
+            @Param("questionIds") List<Integer> questionIds,
+            @Param("startOrder") int startOrder
+    );
+
+    int sumQuestionScores(@Param("paperId") Integer paperId);
+
     void deletePaperQuestions(@Param("paperId") Integer paperId);
 
     List<Paper> findPapersUsingQuestion(@Param("questionId") Integer questionId);
@@ -42,4 +60,11 @@ public interface PaperDao {
     int delete(@Param("paperId") Integer paperId);
 
     List<Paper> findAllWithQuestionCount();
+
+    DataVersion findPapersVersion();
+
+    /**
+     * 单张试卷及其题目的版本，试卷不存在时返回 null。
+     */
+    DataVersion findPaperVersion(@Param("paperId") Integer paperId);
 }
@@ -0,0 +1,46 @@
+package com.exam.dao;
+
+import com.exam.model.PaperScoreBucket;
+import com.exam.model.PaperScoreStamp;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface PaperScoreStatsDao {
+    Integer findMarker(@Param("paperId") Integer paperId);
+
+    List<PaperScoreBucket> findBuckets(@Param("paperId") Integer paperId);
+
+    /**
+     * @return 分数桶尚未建立或已失效时为 null
+     */
+    PaperScoreStamp findStamp(@Param("paperId") Integer paperId);
+
+    /**
+     * 把一批刚结算的考试记录按分数桶累加；标记行不存在的试卷会被跳过，由读取时重建。
+     */
+    int foldBuckets(@Param("recordIds") Collection<Integer> recordIds);
+
+    int lockPaperRecords(@Param("paperId") Integer paperId);
+
+    /**
+     * 试卷存在时确保其标记行存在并加排他锁，试卷不存在时不插入。
+     */
+    int claimMarker(@Param("paperId") Integer paperId);
+
+    /**
+     * @return 标记行不存在时为 null，否则为分数桶是否已建立
+     */
+    Boolean lockMarker(@Param("paperId") Integer paperId);
+
+    int deleteBucketsByPaperId(@Param("paperId") Integer paperId);
+
+    int insertBucketsFromRecords(@Param("paperId") Integer paperId);
+
+    int markBuilt(@Param("paperId") Integer paperId);
+
+    int invalidateByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+}
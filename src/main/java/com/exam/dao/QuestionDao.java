@@ -1,11 +1,14 @@
 package com.exam.dao;
 
 import com.exam.model.Question;
+import com.exam.model.QuestionBankStamp;
 import com.exam.model.enums.Difficulty;
 import com.exam.model.enums.QuestionType;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -31,10 +34,20 @@ public interface QuestionDao {
             @Param("correctAnswer") String correctAnswer
     );
 
+    /**
+     * 按查重签名批量查找题目，按题目 ID 升序；签名相同的多道旧题目都会返回，由调用方取第一道。
+     */
+    List<Question> findBySignatureHashes(@Param("signatureHashes") Collection<String> signatureHashes);
+
     List<QuestionPaperRelation> findByPaperIdsFlat(@Param("paperIds") Collection<Integer> paperIds);
 
     int insert(Question question);
 
+    /**
+     * 多行插入，生成的题目 ID 回写到各个 Question。
+     */
+    int insertBatch(@Param("questions") List<Question> questions);
+
     int update(Question question);
 
     int delete(@Param("questionId") Integer questionId);
@@ -55,6 +68,22 @@ public interface QuestionDao {
             @Param("difficulty") Difficulty difficulty
     );
 
+    List<Question> findQuestionsMissingSignature(@Param("afterQuestionId") int afterQuestionId, @Param("limit") int limit);
+
+    int backfillSignatureHashes(@Param("questions") List<Question> questions);
+
+    /**
+     * 按题目 ID 顺序流式读出建立检索索引所需的列（ID、题型、科目、难度、题干）。
+     */
+    void scanSearchRows(ResultHandler<Question> handler);
+
+    /**
+     * 与 scanSearchRows 相同的列，只读出 update_time 不早于 since 的题目。
+     */
+    void scanSearchRowsUpdatedSince(@Param("since") LocalDateTime since, ResultHandler<Question> handler);
+
+    QuestionBankStamp probeBankStamp();
+
     default Map<Integer, Question> findByIds(Collection<Integer> questionIds) {
         Map<Integer, Question> result = new HashMap<>();
         if (questionIds == null || questionIds.isEmpty()) {
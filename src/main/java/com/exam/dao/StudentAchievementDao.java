@@ -0,0 +1,60 @@
+package com.exam.dao;
+
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface StudentAchievementDao {
+    StudentAchievement findSummary(@Param("studentId") Integer studentId);
+
+    List<StudentSubjectAchievement> findSubjects(@Param("studentId") Integer studentId);
+
+    List<StudentTypeAchievement> findTypes(@Param("studentId") Integer studentId);
+
+    /**
+     * 把一批刚结算的考试记录累加进已有的汇总；汇总行不存在的学生会被跳过，由读取时重建。
+     */
+    int foldSummary(@Param("recordIds") Collection<Integer> recordIds);
+
+    int foldSubjects(@Param("recordIds") Collection<Integer> recordIds);
+
+    int foldTypes(@Param("recordIds") Collection<Integer> recordIds);
+
+    Integer lockStudent(@Param("studentId") Integer studentId);
+
+    int lockStudentRecords(@Param("studentId") Integer studentId);
+
+    /**
+     * 按 record_id 顺序流式读取学生已结算记录的作答行，调用方必须在同一事务内遍历并关闭游标，
+     * 游标关闭前同一连接上不能执行其它语句。
+     */
+    Cursor<AchievementAnswerRow> streamSettledAnswerRows(@Param("studentId") Integer studentId);
+
+    int insertSummary(@Param("summary") StudentAchievement summary);
+
+    int insertSubjects(@Param("subjects") List<StudentSubjectAchievement> subjects);
+
+    int insertTypes(@Param("types") List<StudentTypeAchievement> types);
+
+    int deleteByStudentId(@Param("studentId") Integer studentId);
+
+    int deleteSubjectsByStudentId(@Param("studentId") Integer studentId);
+
+    int deleteTypesByStudentId(@Param("studentId") Integer studentId);
+
+    int invalidateByRecordIds(@Param("recordIds") Collection<Integer> recordIds);
+
+    int invalidateByPaperId(@Param("paperId") Integer paperId);
+
+    int invalidateByQuestionId(@Param("questionId") Integer questionId);
+
+    List<Integer> findStudentIdsAfter(@Param("afterStudentId") int afterStudentId, @Param("limit") int limit);
+}
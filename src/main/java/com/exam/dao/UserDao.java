@@ -1,9 +1,11 @@
 package com.exam.dao;
 
+import com.exam.model.DataVersion;
 import com.exam.model.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -16,8 +18,23 @@ public interface UserDao {
 
     User findByLoginId(@Param("loginId") String loginId);
 
+    List<User> findByIds(@Param("userIds") Collection<Integer> userIds);
+
     List<User> findAllStudents();
 
+    DataVersion findStudentsVersion();
+
+    /**
+     * 按 user_id 升序读取 afterUserId 之后的学生；prefix 为已转义 LIKE 通配符的姓名或学号前缀，可为 null。
+     */
+    List<User> findStudentsAfter(
+            @Param("afterUserId") Integer afterUserId,
+            @Param("prefix") String prefix,
+            @Param("limit") int limit
+    );
+
+    int countStudents(@Param("prefix") String prefix);
+
     int insert(User user);
 
     int update(User user);
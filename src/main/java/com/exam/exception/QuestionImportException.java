@@ -0,0 +1,31 @@
+package com.exam.exception;
+
+import java.util.List;
+
+/**
+ * 导入内容存在无效行，整份导入被拒绝；携带逐行错误报告。
+ */
+public class QuestionImportException extends BusinessException {
+    private final int errorCount;
+    private final List<LineError> errors;
+
+    public QuestionImportException(String message, int errorCount, List<LineError> errors) {
+        super(message);
+        this.errorCount = errorCount;
+        this.errors = List.copyOf(errors);
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * 按行号排列的错误，最多保留前若干条，总数见 getErrorCount。
+     */
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public record LineError(int lineNumber, String message) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.exam.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 进行中考试的单题作答草稿
+ */
+public class AnswerDraft {
+    private Integer recordId;
+    private Integer questionId;
+    private String draftAnswer;
+    private LocalDateTime updatedAt;
+
+    public AnswerDraft() {
+    }
+
+    public AnswerDraft(Integer recordId, Integer questionId, String draftAnswer, LocalDateTime updatedAt) {
+        this.recordId = recordId;
+        this.questionId = questionId;
+        this.draftAnswer = draftAnswer;
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Integer recordId) {
+        this.recordId = recordId;
+    }
+
+    public Integer getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Integer questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getDraftAnswer() {
+        return draftAnswer;
+    }
+
+    public void setDraftAnswer(String draftAnswer) {
+        this.draftAnswer = draftAnswer;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
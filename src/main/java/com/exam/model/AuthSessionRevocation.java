@@ -0,0 +1,36 @@
+package com.exam.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会话被注销或挤掉的记录，供其他节点丢掉本地缓存的该会话
+ */
+public class AuthSessionRevocation {
+    private long revocationId;
+    private String tokenHash;
+    private LocalDateTime revokedAt;
+
+    public long getRevocationId() {
+        return revocationId;
+    }
+
+    public void setRevocationId(long revocationId) {
+        this.revocationId = revocationId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.exam.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 一组数据行的版本探针：行数、最大主键与最近修改时间，任一变化即视为数据已变。
+ */
+public class DataVersion {
+    private long rowCount;
+    private Integer maxId;
+    private LocalDateTime lastModified;
+
+    public DataVersion() {
+    }
+
+    public DataVersion(long rowCount, Integer maxId, LocalDateTime lastModified) {
+        this.rowCount = rowCount;
+        this.maxId = maxId;
+        this.lastModified = lastModified;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public Integer getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(Integer maxId) {
+        this.maxId = maxId;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * 紧凑的版本标记，用于拼接 ETag。
+     */
+    public String toTag() {
+        long modifiedMillis = lastModified == null
+                ? 0L
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return rowCount + "." + (maxId == null ? 0 : maxId) + "." + modifiedMillis;
+    }
+}
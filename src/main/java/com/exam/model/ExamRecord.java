@@ -20,6 +20,12 @@ public class ExamRecord {
     private BigDecimal score;
     private ExamStatus status;
     private LocalDateTime createTime;
+
+    // 结算时写入的作答统计，未结算或尚未回填的历史记录为 null
+    private Integer questionCount;
+    private Integer answeredCount;
+    private Integer correctCount;
+    private Integer wrongCount;
     
     // 学生答案（题目ID -> 学生答案）
     private Map<Integer, String> studentAnswers;
@@ -130,6 +136,42 @@ public class ExamRecord {
         this.createTime = createTime;
     }
 
+    public Integer getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(Integer questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public Integer getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(Integer answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public Integer getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(Integer correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public Integer getWrongCount() {
+        return wrongCount;
+    }
+
+    public void setWrongCount(Integer wrongCount) {
+        this.wrongCount = wrongCount;
+    }
+
+    public boolean hasAnswerCounters() {
+        return questionCount != null && answeredCount != null && correctCount != null && wrongCount != null;
+    }
+
     public Map<Integer, String> getStudentAnswers() {
         return studentAnswers;
     }
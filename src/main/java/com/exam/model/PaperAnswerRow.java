@@ -0,0 +1,54 @@
+package com.exam.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 试卷作答分析读取的窄投影：一行一道作答，附带所属考试记录的总分。
+ */
+public class PaperAnswerRow {
+    private Integer recordId;
+    private Integer questionId;
+    private String studentAnswer;
+    private boolean correct;
+    private BigDecimal recordScore;
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Integer recordId) {
+        this.recordId = recordId;
+    }
+
+    public Integer getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Integer questionId) {
+        this.questionId = questionId;
+    }
+
+    public String getStudentAnswer() {
+        return studentAnswer;
+    }
+
+    public void setStudentAnswer(String studentAnswer) {
+        this.studentAnswer = studentAnswer;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(boolean correct) {
+        this.correct = correct;
+    }
+
+    public BigDecimal getRecordScore() {
+        return recordScore;
+    }
+
+    public void setRecordScore(BigDecimal recordScore) {
+        this.recordScore = recordScore;
+    }
+}
@@ -0,0 +1,63 @@
+package com.exam.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 试卷成绩分布的一个分数桶：成绩向下取整后落在 bucket 的已结算记录的数量、总和与桶内最低、最高分
+ */
+public class PaperScoreBucket {
+    private Integer paperId;
+    private int bucket;
+    private int recordCount;
+    private BigDecimal scoreSum;
+    private BigDecimal minScore;
+    private BigDecimal maxScore;
+
+    public Integer getPaperId() {
+        return paperId;
+    }
+
+    public void setPaperId(Integer paperId) {
+        this.paperId = paperId;
+    }
+
+    public int getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(int bucket) {
+        this.bucket = bucket;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public BigDecimal getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(BigDecimal scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public BigDecimal getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(BigDecimal minScore) {
+        this.minScore = minScore;
+    }
+
+    public BigDecimal getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(BigDecimal maxScore) {
+        this.maxScore = maxScore;
+    }
+}
@@ -0,0 +1,25 @@
+package com.exam.model;
+
+/**
+ * 试卷成绩分布的持久化版本：标记行的重建次数与分数桶内的已结算记录数，任一结算、重判后的重建都会让它变化
+ */
+public class PaperScoreStamp {
+    private long version;
+    private long recordCount;
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(long recordCount) {
+        this.recordCount = recordCount;
+    }
+}
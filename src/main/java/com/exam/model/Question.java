@@ -2,6 +2,7 @@ package com.exam.model;
 
 import com.exam.model.enums.QuestionType;
 import com.exam.model.enums.Difficulty;
+import com.exam.util.QuestionSignature;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -24,6 +25,7 @@ public class Question {
     private Integer creatorId;
     private LocalDateTime createTime;
     private LocalDateTime updateTime;
+    private String signatureHash;
 
     public Question() {
     }
@@ -53,6 +55,7 @@ public class Question {
 
     public void setQuestionType(QuestionType questionType) {
         this.questionType = questionType;
+        this.signatureHash = null;
     }
 
     public String getSubject() {
@@ -61,6 +64,7 @@ public class Question {
 
     public void setSubject(String subject) {
         this.subject = subject;
+        this.signatureHash = null;
     }
 
     public String getContent() {
@@ -69,6 +73,7 @@ public class Question {
 
     public void setContent(String content) {
         this.content = content;
+        this.signatureHash = null;
     }
 
     public String getOptionA() {
@@ -109,6 +114,7 @@ public class Question {
 
     public void setCorrectAnswer(String correctAnswer) {
         this.correctAnswer = correctAnswer;
+        this.signatureHash = null;
     }
 
     public Integer getScore() {
@@ -159,6 +165,16 @@ public class Question {
         this.updateTime = updateTime;
     }
 
+    /**
+     * 查重签名，由科目、题型、题干和正确答案计算，写入题库时一并保存；首次读取时计算，上述字段被修改后重新计算
+     */
+    public String getSignatureHash() {
+        if (signatureHash == null) {
+            signatureHash = QuestionSignature.hash(subject, questionType, content, correctAnswer);
+        }
+        return signatureHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,56 @@
+package com.exam.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 题库表的探测结果：最近更新时间、最大题目 ID 与题目总数，三者都不变时认为题库没有变化
+ */
+public class QuestionBankStamp {
+    private LocalDateTime maxUpdateTime;
+    private Integer maxQuestionId;
+    private int questionCount;
+
+    public LocalDateTime getMaxUpdateTime() {
+        return maxUpdateTime;
+    }
+
+    public void setMaxUpdateTime(LocalDateTime maxUpdateTime) {
+        this.maxUpdateTime = maxUpdateTime;
+    }
+
+    public Integer getMaxQuestionId() {
+        return maxQuestionId;
+    }
+
+    public void setMaxQuestionId(Integer maxQuestionId) {
+        this.maxQuestionId = maxQuestionId;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(int questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QuestionBankStamp that = (QuestionBankStamp) o;
+        return questionCount == that.questionCount
+                && Objects.equals(maxUpdateTime, that.maxUpdateTime)
+                && Objects.equals(maxQuestionId, that.maxQuestionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxUpdateTime, maxQuestionId, questionCount);
+    }
+}
@@ -0,0 +1,109 @@
+package com.exam.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学生成绩汇总（已结算考试的累计值），交卷/超时结算时在同一事务内累加。
+ */
+public class StudentAchievement {
+    private Integer studentId;
+    private int completedCount;
+    private int scoredCount;
+    private BigDecimal scoreSum;
+    private BigDecimal bestScore;
+    private int passCount;
+    private int failCount;
+    private long questionCount;
+    private long answeredCount;
+    private long correctCount;
+    private LocalDateTime updateTime;
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(int completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public int getScoredCount() {
+        return scoredCount;
+    }
+
+    public void setScoredCount(int scoredCount) {
+        this.scoredCount = scoredCount;
+    }
+
+    public BigDecimal getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(BigDecimal scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public BigDecimal getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(BigDecimal bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public void setPassCount(int passCount) {
+        this.passCount = passCount;
+    }
+
+    public int getFailCount() {
+        return failCount;
+    }
+
+    public void setFailCount(int failCount) {
+        this.failCount = failCount;
+    }
+
+    public long getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(long questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public long getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(long answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public long getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(long correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(LocalDateTime updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,46 @@
+package com.exam.model;
+
+/**
+ * 按学生聚合的考试记录统计：记录数、已提交（含超时）数和有成绩记录的平均分
+ */
+public class StudentRecordStats {
+    private Integer studentId;
+    private int recordCount;
+    private long submittedCount;
+    private Double averageScore;
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public void setSubmittedCount(long submittedCount) {
+        this.submittedCount = submittedCount;
+    }
+
+    /**
+     * 没有任何有成绩的记录时为 null
+     */
+    public Double getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Double averageScore) {
+        this.averageScore = averageScore;
+    }
+}
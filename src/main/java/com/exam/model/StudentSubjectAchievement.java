@@ -0,0 +1,109 @@
+package com.exam.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学生按科目累计的成绩统计
+ */
+public class StudentSubjectAchievement {
+    private Integer studentId;
+    private String subject;
+    private int recordCount;
+    private int scoredCount;
+    private BigDecimal scoreSum;
+    private int passCount;
+    private int failCount;
+    private long questionCount;
+    private long answeredCount;
+    private long correctCount;
+    private LocalDateTime latestSubmitTime;
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public int getScoredCount() {
+        return scoredCount;
+    }
+
+    public void setScoredCount(int scoredCount) {
+        this.scoredCount = scoredCount;
+    }
+
+    public BigDecimal getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(BigDecimal scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public void setPassCount(int passCount) {
+        this.passCount = passCount;
+    }
+
+    public int getFailCount() {
+        return failCount;
+    }
+
+    public void setFailCount(int failCount) {
+        this.failCount = failCount;
+    }
+
+    public long getQuestionCount() {
+        return questionCount;
+    }
+
+    public void setQuestionCount(long questionCount) {
+        this.questionCount = questionCount;
+    }
+
+    public long getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(long answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public long getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(long correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public LocalDateTime getLatestSubmitTime() {
+        return latestSubmitTime;
+    }
+
+    public void setLatestSubmitTime(LocalDateTime latestSubmitTime) {
+        this.latestSubmitTime = latestSubmitTime;
+    }
+}
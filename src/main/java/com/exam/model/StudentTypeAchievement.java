@@ -0,0 +1,52 @@
+package com.exam.model;
+
+/**
+ * 学生按题型累计的作答统计，questionType 为题型枚举名，题目已不存在时为 OTHER
+ */
+public class StudentTypeAchievement {
+    private Integer studentId;
+    private String questionType;
+    private long totalCount;
+    private long answeredCount;
+    private long correctCount;
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getQuestionType() {
+        return questionType;
+    }
+
+    public void setQuestionType(String questionType) {
+        this.questionType = questionType;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public long getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public void setAnsweredCount(long answeredCount) {
+        this.answeredCount = answeredCount;
+    }
+
+    public long getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(long correctCount) {
+        this.correctCount = correctCount;
+    }
+}
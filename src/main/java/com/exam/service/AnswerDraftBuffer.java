@@ -0,0 +1,278 @@
+package com.exam.service;
+
+import com.exam.dao.AnswerDraftDao;
+import com.exam.model.AnswerDraft;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 作答草稿的写后缓冲。
+ * 自动保存只写入按考试记录分段加锁的内存表，同一题的多次修改在内存中合并为最后一次；
+ * 定时把各分段整体换出，用多行 upsert 分批写入 answer_draft。
+ * 正在写库的草稿在写完前仍可读到，写库失败时放回缓冲（不覆盖期间的新修改）等待下次重试。
+ * 写库语句只写入仍在进行中的考试记录，交卷后才落库的缓冲草稿会被丢弃；
+ * 每次刷新后再用一条语句找出本批中已结束的记录（例如在其他实例交卷或超时），丢弃其登记和缓冲，之后的保存会重新校验考试状态。
+ * 缓冲只在本实例内可见，多实例部署时其他实例最多晚一个刷新周期看到草稿。
+ */
+@Component
+public class AnswerDraftBuffer {
+    private static final Logger log = LoggerFactory.getLogger(AnswerDraftBuffer.class);
+    private static final int STRIPES = 16;
+    private static final long ACTIVE_IDLE_MILLIS = 30L * 60L * 1000L;
+
+    private final AnswerDraftDao answerDraftDao;
+    private final int batchSize;
+    private final Clock clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<Integer, ActiveRecord> activeRecords = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AnswerDraftBuffer(
+            AnswerDraftDao answerDraftDao,
+            @Value("${exam.draft.flush-batch-size:500}") int batchSize
+    ) {
+        this(answerDraftDao, batchSize, Clock.systemDefaultZone());
+    }
+
+    public AnswerDraftBuffer(AnswerDraftDao answerDraftDao, int batchSize, Clock clock) {
+        this.answerDraftDao = answerDraftDao;
+        this.batchSize = Math.max(1, batchSize);
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 返回已确认可自动保存的进行中考试记录，未登记或闲置过久时返回 null。
+     */
+    public ActiveRecord getActiveRecord(Integer recordId) {
+        if (recordId == null) {
+            return null;
+        }
+        ActiveRecord active = activeRecords.get(recordId);
+        if (active != null) {
+            active.lastTouchedMillis = clock.millis();
+        }
+        return active;
+    }
+
+    public ActiveRecord activate(Integer recordId, Integer studentId, Integer paperId) {
+        return activate(recordId, studentId, paperId, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param deadlineMillis 草稿截止时间（含宽限期），此后不再接受自动保存
+     */
+    public ActiveRecord activate(Integer recordId, Integer studentId, Integer paperId, long deadlineMillis) {
+        ActiveRecord active = new ActiveRecord(studentId, paperId, deadlineMillis, clock.millis());
+        activeRecords.put(recordId, active);
+        return active;
+    }
+
+    public boolean isPastDeadline(ActiveRecord active) {
+        return active != null && clock.millis() >= active.deadlineMillis;
+    }
+
+    /**
+     * 暂存一组作答，同一题的旧草稿直接被覆盖。
+     */
+    public void stage(Integer recordId, Map<Integer, String> answers) {
+        if (recordId == null || answers == null || answers.isEmpty()) {
+            return;
+        }
+        Stripe stripe = stripeOf(recordId);
+        synchronized (stripe) {
+            stripe.pending.computeIfAbsent(recordId, key -> new HashMap<>()).putAll(answers);
+        }
+    }
+
+    /**
+     * 尚未落库的草稿快照，包括正在写库的部分。
+     */
+    public Map<Integer, String> pending(Integer recordId) {
+        if (recordId == null) {
+            return Collections.emptyMap();
+        }
+        Stripe stripe = stripeOf(recordId);
+        synchronized (stripe) {
+            Map<Integer, String> flushing = stripe.flushing.get(recordId);
+            Map<Integer, String> pending = stripe.pending.get(recordId);
+            if (flushing == null && pending == null) {
+                return Collections.emptyMap();
+            }
+            Map<Integer, String> snapshot = new HashMap<>();
+            if (flushing != null) {
+                snapshot.putAll(flushing);
+            }
+            if (pending != null) {
+                snapshot.putAll(pending);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 考试结束后丢弃该记录的缓冲草稿，之后的自动保存会重新校验考试状态。
+     */
+    public void discard(Integer recordId) {
+        if (recordId == null) {
+            return;
+        }
+        activeRecords.remove(recordId);
+        Stripe stripe = stripeOf(recordId);
+        synchronized (stripe) {
+            stripe.pending.remove(recordId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exam.draft.flush-interval-ms:2000}", initialDelayString = "${exam.draft.flush-interval-ms:2000}")
+    public synchronized int flush() {
+        evictIdleRecords();
+        List<Map<Integer, Map<Integer, String>>> swappedByStripe = new ArrayList<>(STRIPES);
+        boolean empty = true;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Map<Integer, Map<Integer, String>> swapped = stripe.pending;
+                if (!swapped.isEmpty()) {
+                    stripe.pending = new HashMap<>();
+                    stripe.flushing = swapped;
+                    empty = false;
+                }
+                swappedByStripe.add(swapped.isEmpty() ? Collections.emptyMap() : swapped);
+            }
+        }
+        if (empty) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<AnswerDraft> batch = new ArrayList<>(batchSize);
+        List<Integer> flushedRecordIds = new ArrayList<>();
+        int written = 0;
+        try {
+            for (Map<Integer, Map<Integer, String>> swapped : swappedByStripe) {
+                for (Map.Entry<Integer, Map<Integer, String>> entry : swapped.entrySet()) {
+                    if (!activeRecords.containsKey(entry.getKey())) {
+                        continue;
+                    }
+                    flushedRecordIds.add(entry.getKey());
+                    for (Map.Entry<Integer, String> answer : entry.getValue().entrySet()) {
+                        batch.add(new AnswerDraft(entry.getKey(), answer.getKey(), answer.getValue(), now));
+                        if (batch.size() >= batchSize) {
+                            written += writeBatch(batch);
+                        }
+                    }
+                }
+            }
+            written += writeBatch(batch);
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush answer drafts, will retry on next flush", ex);
+            for (int i = 0; i < STRIPES; i++) {
+                restore(stripes[i], swappedByStripe.get(i));
+            }
+            return written;
+        } finally {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.flushing = Collections.emptyMap();
+                }
+            }
+        }
+        discardClosedRecords(flushedRecordIds);
+        return written;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void restore(Stripe stripe, Map<Integer, Map<Integer, String>> swapped) {
+        synchronized (stripe) {
+            for (Map.Entry<Integer, Map<Integer, String>> entry : swapped.entrySet()) {
+                if (!activeRecords.containsKey(entry.getKey())) {
+                    continue;
+                }
+                Map<Integer, String> pending = stripe.pending.computeIfAbsent(entry.getKey(), key -> new HashMap<>());
+                entry.getValue().forEach(pending::putIfAbsent);
+            }
+        }
+    }
+
+    private void discardClosedRecords(List<Integer> recordIds) {
+        if (recordIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < recordIds.size(); from += batchSize) {
+                List<Integer> chunk = recordIds.subList(from, Math.min(recordIds.size(), from + batchSize));
+                for (Integer recordId : answerDraftDao.findClosedRecordIds(chunk)) {
+                    discard(recordId);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to check finished exam records after draft flush, will check on next flush", ex);
+        }
+    }
+
+    private int writeBatch(List<AnswerDraft> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        answerDraftDao.upsertBatch(new ArrayList<>(batch));
+        batch.clear();
+        return size;
+    }
+
+    private void evictIdleRecords() {
+        long threshold = clock.millis() - ACTIVE_IDLE_MILLIS;
+        activeRecords.entrySet().removeIf(entry -> entry.getValue().lastTouchedMillis < threshold && pending(entry.getKey()).isEmpty());
+    }
+
+    private Stripe stripeOf(Integer recordId) {
+        return stripes[Math.floorMod(recordId.hashCode(), STRIPES)];
+    }
+
+    private static final class Stripe {
+        private Map<Integer, Map<Integer, String>> pending = new HashMap<>();
+        private Map<Integer, Map<Integer, String>> flushing = Collections.emptyMap();
+    }
+
+    public static final class ActiveRecord {
+        private final Integer studentId;
+        private final Integer paperId;
+        private final long deadlineMillis;
+        private volatile long lastTouchedMillis;
+
+        private ActiveRecord(Integer studentId, Integer paperId, long deadlineMillis, long lastTouchedMillis) {
+            this.studentId = studentId;
+            this.paperId = paperId;
+            this.deadlineMillis = deadlineMillis;
+            this.lastTouchedMillis = lastTouchedMillis;
+        }
+
+        public Integer getStudentId() {
+            return studentId;
+        }
+
+        public Integer getPaperId() {
+            return paperId;
+        }
+    }
+}
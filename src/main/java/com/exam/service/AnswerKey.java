@@ -0,0 +1,153 @@
+package com.exam.service;
+
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单张试卷的预编译答案：题目顺序、标准化后的正确答案与分值，并保留对应的题目对象。
+ * 实例不可变，可在并发判分线程间共享。
+ */
+public final class AnswerKey {
+    private final Integer paperId;
+    private final long version;
+    private final long builtAtMillis;
+    private final int[] questionIds;
+    private final Question[] questions;
+    private final QuestionType[] questionTypes;
+    private final String[] normalizedAnswers;
+    private final int[] expectedMasks;
+    private final int[] scores;
+    private final BigDecimal[] scoreValues;
+    private final int totalScore;
+    private final Map<Integer, Integer> indexByQuestionId;
+
+    private AnswerKey(Integer paperId, long version, long builtAtMillis, List<Question> questions) {
+        int size = questions.size();
+        this.paperId = paperId;
+        this.version = version;
+        this.builtAtMillis = builtAtMillis;
+        this.questionIds = new int[size];
+        this.questions = questions.toArray(new Question[0]);
+        this.questionTypes = new QuestionType[size];
+        this.normalizedAnswers = new String[size];
+        this.expectedMasks = new int[size];
+        this.scores = new int[size];
+        this.scoreValues = new BigDecimal[size];
+
+        Map<Integer, Integer> indexes = new HashMap<>(size * 2);
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            Question question = questions.get(i);
+            questionIds[i] = question.getQuestionId();
+            questionTypes[i] = question.getQuestionType();
+            normalizedAnswers[i] = normalize(question.getQuestionType(), question.getCorrectAnswer());
+            expectedMasks[i] = GradingEngine.encodeExpected(question.getQuestionType(), question.getCorrectAnswer());
+            scores[i] = question.getScore() == null ? 0 : question.getScore();
+            scoreValues[i] = BigDecimal.valueOf(scores[i]);
+            total += scores[i];
+            indexes.put(question.getQuestionId(), i);
+        }
+        this.totalScore = total;
+        this.indexByQuestionId = Collections.unmodifiableMap(indexes);
+    }
+
+    public static AnswerKey compile(Integer paperId, long version, long builtAtMillis, List<Question> questions) {
+        return new AnswerKey(paperId, version, builtAtMillis, questions == null ? List.of() : questions);
+    }
+
+    /**
+     * 与建 key 时相同的规则标准化学生答案：去空白、转大写；多选题按字母排序。
+     */
+    public static String normalize(QuestionType type, String answer) {
+        if (answer == null) {
+            return null;
+        }
+        String normalized = answer.trim().toUpperCase();
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        if (type == QuestionType.MULTIPLE) {
+            char[] chars = normalized.toCharArray();
+            Arrays.sort(chars);
+            return new String(chars);
+        }
+        return normalized;
+    }
+
+    public boolean isCorrect(int index, String studentAnswer) {
+        return GradingEngine.isCorrect(this, index, studentAnswer);
+    }
+
+    public Integer getPaperId() {
+        return paperId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBuiltAtMillis() {
+        return builtAtMillis;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public int getQuestionId(int index) {
+        return questionIds[index];
+    }
+
+    /**
+     * 建 key 时的题目对象，供组装作答结果使用，调用方不得修改。
+     */
+    public Question getQuestion(int index) {
+        return questions[index];
+    }
+
+    public QuestionType getQuestionType(int index) {
+        return questionTypes[index];
+    }
+
+    public String getNormalizedAnswer(int index) {
+        return normalizedAnswers[index];
+    }
+
+    /**
+     * @return 标准答案的选项位掩码，无法编码时为 {@link GradingEngine#NO_MASK}
+     */
+    public int getExpectedMask(int index) {
+        return expectedMasks[index];
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public BigDecimal getScoreValue(int index) {
+        return scoreValues[index];
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    /**
+     * @return 题目在 key 中的下标，不属于本试卷时返回 -1
+     */
+    public int indexOf(Integer questionId) {
+        Integer index = questionId == null ? null : indexByQuestionId.get(questionId);
+        return index == null ? -1 : index;
+    }
+
+    public boolean containsQuestion(Integer questionId) {
+        return indexOf(questionId) >= 0;
+    }
+}
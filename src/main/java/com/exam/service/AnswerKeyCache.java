@@ -0,0 +1,105 @@
+package com.exam.service;
+
+import com.exam.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 按试卷缓存 {@link AnswerKey}。同一试卷的并发未命中只会加载一次；
+ * 题目或试卷变更后通过 invalidate 系列方法（事务提交后）丢弃旧 key。
+ */
+@Component
+public class AnswerKeyCache {
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Map<Integer, AnswerKey> keys = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object[] loadLocks = createLoadLocks();
+
+    @Autowired
+    public AnswerKeyCache(@Value("${exam.grading.answer-key.max-age-seconds:300}") long maxAgeSeconds) {
+        this(Duration.ofSeconds(Math.max(1, maxAgeSeconds)), Clock.systemDefaultZone());
+    }
+
+    public AnswerKeyCache(Duration maxAge, Clock clock) {
+        this.maxAge = maxAge == null || maxAge.isZero() || maxAge.isNegative() ? Duration.ofMinutes(5) : maxAge;
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+    }
+
+    /**
+     * 返回试卷的答案 key；未命中或已过期时用 loader 加载题目并编译。
+     * loader 抛出的异常原样传播，且不会缓存任何结果。
+     */
+    public AnswerKey get(Integer paperId, Function<Integer, List<Question>> loader) {
+        AnswerKey cached = keys.get(paperId);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        synchronized (loadLocks[Math.floorMod(paperId.hashCode(), loadLocks.length)]) {
+            cached = keys.get(paperId);
+            if (cached != null && !isExpired(cached)) {
+                return cached;
+            }
+
+            long loadGeneration = generation.get();
+            AnswerKey loaded = AnswerKey.compile(paperId, loadGeneration, clock.millis(), loader.apply(paperId));
+            if (generation.get() == loadGeneration) {
+                keys.put(paperId, loaded);
+                if (generation.get() != loadGeneration) {
+                    keys.remove(paperId, loaded);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    public AnswerKey peek(Integer paperId) {
+        return paperId == null ? null : keys.get(paperId);
+    }
+
+    public void invalidatePaper(Integer paperId) {
+        if (paperId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        keys.remove(paperId);
+    }
+
+    /**
+     * 丢弃所有包含该题目的 key；题目答案、题型或分值变化后调用。
+     */
+    public void invalidateQuestion(Integer questionId) {
+        if (questionId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        keys.values().removeIf(key -> key.containsQuestion(questionId));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        keys.clear();
+    }
+
+    private boolean isExpired(AnswerKey key) {
+        return clock.millis() - key.getBuiltAtMillis() >= maxAge.toMillis();
+    }
+
+    private Object[] createLoadLocks() {
+        Object[] locks = new Object[64];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,167 @@
+package com.exam.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 进行中考试的截止时间索引，基于分层时间轮（每层 64 格，最底层 1 秒一格，共 4 层）。
+ * 登记与取消为 O(1)，推进时只处理到期格子；已取消或重新登记的条目在出轮时按截止时间比对丢弃。
+ */
+@Component
+public class ExamDeadlineRegistry {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long TICK_MILLIS = 1000L;
+    private static final long MAX_SPAN_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private final Duration grace;
+    private final Clock clock;
+    private final List<List<ArrayDeque<Entry>>> wheels;
+    private final Map<Integer, Long> deadlineByRecordId = new HashMap<>();
+    private long currentTick;
+
+    @Autowired
+    public ExamDeadlineRegistry(@Value("${exam.timeout.grace-seconds:30}") long graceSeconds) {
+        this(Duration.ofSeconds(Math.max(0, graceSeconds)), Clock.systemDefaultZone());
+    }
+
+    public ExamDeadlineRegistry(Duration grace, Clock clock) {
+        this.grace = grace == null || grace.isNegative() ? Duration.ZERO : grace;
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+        this.wheels = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; level++) {
+            List<ArrayDeque<Entry>> slots = new ArrayList<>(WHEEL_SIZE);
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                slots.add(new ArrayDeque<>());
+            }
+            wheels.add(slots);
+        }
+        this.currentTick = this.clock.millis() / TICK_MILLIS;
+    }
+
+    /**
+     * 按开考时间与考试时长（分钟）登记截止时间，截止时间已含宽限期；重复登记以最后一次为准。
+     */
+    public void scheduleExam(Integer recordId, LocalDateTime startTime, Integer durationMinutes) {
+        if (recordId == null || startTime == null || durationMinutes == null) {
+            return;
+        }
+        schedule(recordId, deadlineMillis(startTime, durationMinutes));
+    }
+
+    /**
+     * 开考时间加考试时长再加宽限期，即超时结算的截止时刻。
+     */
+    public long deadlineMillis(LocalDateTime startTime, int durationMinutes) {
+        long startMillis = startTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+        return startMillis + Duration.ofMinutes(durationMinutes).plus(grace).toMillis();
+    }
+
+    public synchronized void schedule(Integer recordId, long deadlineMillis) {
+        if (recordId == null) {
+            return;
+        }
+        deadlineByRecordId.put(recordId, deadlineMillis);
+        place(new Entry(recordId, deadlineMillis), null);
+    }
+
+    public synchronized void cancel(Integer recordId) {
+        if (recordId != null) {
+            deadlineByRecordId.remove(recordId);
+        }
+    }
+
+    /**
+     * 把时间轮推进到当前时刻，取出已到期的考试记录 ID；取出的记录不再被跟踪。
+     */
+    public synchronized List<Integer> pollExpired() {
+        List<Entry> due = new ArrayList<>();
+        long targetTick = clock.millis() / TICK_MILLIS;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1, due);
+            ArrayDeque<Entry> bucket = bucket(0, currentTick & WHEEL_MASK);
+            due.addAll(bucket);
+            bucket.clear();
+        }
+
+        List<Integer> expired = new ArrayList<>(due.size());
+        for (Entry entry : due) {
+            Long deadline = deadlineByRecordId.get(entry.recordId);
+            if (deadline != null && deadline == entry.deadlineMillis) {
+                deadlineByRecordId.remove(entry.recordId);
+                expired.add(entry.recordId);
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return deadlineByRecordId.size();
+    }
+
+    public Duration getGrace() {
+        return grace;
+    }
+
+    private void cascade(int level, List<Entry> due) {
+        if (level >= LEVELS || (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1, due);
+        ArrayDeque<Entry> bucket = bucket(level, (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        List<Entry> moved = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry entry : moved) {
+            place(entry, due);
+        }
+    }
+
+    private void place(Entry entry, List<Entry> due) {
+        long deadlineTick = Math.floorDiv(entry.deadlineMillis + TICK_MILLIS - 1, TICK_MILLIS);
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            if (due != null) {
+                due.add(entry);
+            } else {
+                bucket(0, (currentTick + 1) & WHEEL_MASK).add(entry);
+            }
+            return;
+        }
+        if (delta >= MAX_SPAN_TICKS) {
+            deadlineTick = currentTick + MAX_SPAN_TICKS - 1;
+            delta = MAX_SPAN_TICKS - 1;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        bucket(level, (deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK).add(entry);
+    }
+
+    private ArrayDeque<Entry> bucket(int level, long slot) {
+        return wheels.get(level).get((int) slot);
+    }
+
+    private static final class Entry {
+        private final Integer recordId;
+        private final long deadlineMillis;
+
+        private Entry(Integer recordId, long deadlineMillis) {
+            this.recordId = recordId;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
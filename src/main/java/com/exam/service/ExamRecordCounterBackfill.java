@@ -0,0 +1,42 @@
+package com.exam.service;
+
+import com.exam.dao.ExamRecordDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为升级前已结算的考试记录回填作答统计（题数、作答数、答对数、答错数）。
+ * 统计完全由库内的作答记录聚合得出，因此每批只取 record_id，由一条 UPDATE ... LEFT JOIN 聚合语句在库内写回，
+ * 作答记录不读进应用，没有作答记录的考试记为 0；交卷/超时结算时已写入统计的记录不会被重算。
+ */
+@Component
+public class ExamRecordCounterBackfill {
+    private final KeysetBackfill<Integer> backfill;
+
+    @Autowired
+    public ExamRecordCounterBackfill(
+            ExamRecordDao examRecordDao,
+            @Value("${exam.record-counters.backfill-batch-size:500}") int batchSize,
+            @Value("${exam.record-counters.backfill-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.backfill = new KeysetBackfill<>(
+                "Answer counter",
+                batchSize,
+                maxBatchesPerRun,
+                examRecordDao::findRecordIdsMissingAnswerCounters,
+                examRecordDao::backfillAnswerCounters,
+                recordId -> recordId
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${exam.record-counters.backfill-interval-ms:5000}", initialDelayString = "${exam.record-counters.backfill-initial-delay-ms:30000}")
+    public int backfill() {
+        return backfill.run();
+    }
+
+    public boolean isCompleted() {
+        return backfill.isCompleted();
+    }
+}
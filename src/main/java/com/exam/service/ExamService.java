@@ -1,23 +1,32 @@
 package com.exam.service;
 
+import com.exam.dao.AnswerDraftDao;
 import com.exam.dao.ExamRecordDao;
 import com.exam.dao.PaperDao;
 import com.exam.dao.QuestionDao;
 import com.exam.exception.BusinessException;
+import com.exam.model.AnswerDraft;
 import com.exam.model.AnswerRecord;
+import com.exam.model.DataVersion;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.Question;
+import com.exam.model.StudentRecordStats;
 import com.exam.model.enums.ExamStatus;
 import com.exam.model.enums.QuestionType;
+import com.exam.util.TransactionUtil;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -30,12 +39,36 @@ public class ExamService {
     private final ExamRecordDao examRecordDao;
     private final PaperDao paperDao;
     private final QuestionDao questionDao;
-    private final Object[] startExamLocks = createStartExamLocks();
-
-    public ExamService(ExamRecordDao examRecordDao, PaperDao paperDao, QuestionDao questionDao) {
+    private final AnswerKeyCache answerKeyCache;
+    private final ExamDeadlineRegistry deadlineRegistry;
+    private final AnswerDraftDao answerDraftDao;
+    private final AnswerDraftBuffer answerDraftBuffer;
+    private final StudentAchievementStore achievementStore;
+    private final PaperLeaderboard leaderboard;
+    private final PaperScoreStatsStore scoreStatsStore;
+
+    public ExamService(
+            ExamRecordDao examRecordDao,
+            PaperDao paperDao,
+            QuestionDao questionDao,
+            AnswerKeyCache answerKeyCache,
+            ExamDeadlineRegistry deadlineRegistry,
+            AnswerDraftDao answerDraftDao,
+            AnswerDraftBuffer answerDraftBuffer,
+            StudentAchievementStore achievementStore,
+            PaperLeaderboard leaderboard,
+            PaperScoreStatsStore scoreStatsStore
+    ) {
         this.examRecordDao = examRecordDao;
         this.paperDao = paperDao;
         this.questionDao = questionDao;
+        this.answerKeyCache = answerKeyCache;
+        this.deadlineRegistry = deadlineRegistry;
+        this.answerDraftDao = answerDraftDao;
+        this.answerDraftBuffer = answerDraftBuffer;
+        this.achievementStore = achievementStore;
+        this.leaderboard = leaderboard;
+        this.scoreStatsStore = scoreStatsStore;
     }
 
     public ExamRecord startExam(Integer studentId, Integer paperId) {
@@ -54,70 +87,171 @@ public class ExamService {
         if (paper == null) {
             throw new BusinessException("Paper does not exist");
         }
-        requireSupportedQuestions(paperId);
+        return startOrResume(studentId, paper, false);
+    }
+
+    /**
+     * 使用调用方已持有的试卷开考或恢复考试，不再查询试卷。
+     * 试卷可能来自各实例各自的目录缓存，发布状态由插入语句按数据库当前值再确认一次：
+     * 其他实例已取消发布的试卷不能开考，也不能恢复进行中的考试。
+     */
+    public ExamStartResult startOrResumeExam(Integer studentId, Paper paper) {
+        return startOrResume(studentId, paper, true);
+    }
 
-        synchronized (resolveStartExamLock(studentId, paperId)) {
+    private ExamStartResult startOrResume(Integer studentId, Paper paper, boolean requirePublished) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        if (paper == null || paper.getPaperId() == null) {
+            throw new BusinessException("Paper does not exist");
+        }
+        Integer paperId = paper.getPaperId();
+        requireAnswerKey(paperId);
+
+        // 同一学生同一试卷至多一条进行中记录由唯一索引 uk_active_attempt 保证，插入冲突即表示已在考试中
+        ExamRecord record = new ExamRecord(studentId, paperId);
+        record.startExam();
+        record.setPaper(paper);
+        try {
+            int inserted = requirePublished ? examRecordDao.insertIfPaperPublished(record) : examRecordDao.insert(record);
+            if (requirePublished && inserted == 0) {
+                throw new BusinessException("Paper is not published");
+            }
+        } catch (DuplicateKeyException ex) {
             ExamRecord existingRecord = findExistingInProgressRecord(studentId, paperId);
-            if (existingRecord != null) {
-                existingRecord.setPaper(paper);
-                return new ExamStartResult(existingRecord, true);
+            if (existingRecord == null) {
+                throw new BusinessException("Exam start conflicted with another request, please retry");
             }
-
-            ExamRecord record = new ExamRecord(studentId, paperId);
-            record.startExam();
-            record.setPaper(paper);
-
-            int recordId = examRecordDao.insert(record);
-            record.setRecordId(recordId);
-
-            return new ExamStartResult(record, false);
+            existingRecord.setPaper(paper);
+            deadlineRegistry.scheduleExam(existingRecord.getRecordId(), existingRecord.getStartTime(), paper.getDuration());
+            return new ExamStartResult(existingRecord, true);
         }
+        deadlineRegistry.scheduleExam(record.getRecordId(), record.getStartTime(), paper.getDuration());
+        return new ExamStartResult(record, false);
     }
 
     @Transactional
     public BigDecimal submitExam(Integer recordId, Map<Integer, String> answers) {
+        return submitExamWithReport(recordId, answers).getScore();
+    }
+
+    /**
+     * 交卷并返回判分时已在内存中的完整结果（记录、试卷、带题目的作答明细），调用方无需再查库。
+     */
+    @Transactional
+    public SubmissionReport submitExamWithReport(Integer recordId, Map<Integer, String> answers) {
         if (recordId == null) {
             throw new BusinessException("Exam record ID cannot be null");
         }
 
         Map<Integer, String> answerMap = answers == null ? Collections.emptyMap() : answers;
 
-        ExamRecord record = examRecordDao.findByIdForUpdate(recordId);
+        ExamRecord record = examRecordDao.findByIdWithPaperForUpdate(recordId);
         requireRecordForSubmit(record);
 
-        List<Question> questions = requireSupportedQuestions(record.getPaperId());
-        SettlementResult settlement = buildSettlementResult(recordId, questions, answerMap);
+        AnswerKey answerKey = requireAnswerKey(record.getPaperId());
+        SettlementResult settlement = buildSettlementResult(recordId, answerKey, answerMap);
         examRecordDao.insertAnswerRecordsBatch(settlement.getAnswerRecords());
 
         record.submitExam();
-        record.setScore(settlement.getTotalScore());
+        settlement.applyTo(record);
         record.setEndTime(LocalDateTime.now());
         examRecordDao.update(record);
-
-        return settlement.getTotalScore();
+        achievementStore.foldSettledRecords(List.of(recordId));
+        scoreStatsStore.foldSettledRecords(List.of(recordId));
+        answerDraftDao.deleteByRecordId(recordId);
+        TransactionUtil.afterCommit(() -> {
+            deadlineRegistry.cancel(recordId);
+            answerDraftBuffer.discard(recordId);
+            leaderboard.recordSettled(List.of(record));
+        });
+
+        return new SubmissionReport(record, settlement.getTotalScore(), settlement.getAnswerRecords());
     }
 
-    private boolean checkAnswer(Question question, String studentAnswer) {
-        if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
-            return false;
+    /**
+     * 在一个事务内提交一组答卷：一次按序加锁、一条多行答题插入、一条批量状态更新。
+     * 单份答卷校验失败只影响该份答卷；同一记录在组内重复出现时按先后顺序处理，后者视为重复提交。
+     *
+     * @return 与入参顺序一致的逐份结果
+     */
+    @Transactional
+    public List<SubmissionOutcome> submitExamsBatch(List<SubmissionRequest> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> recordIds = new LinkedHashSet<>();
+        for (SubmissionRequest submission : submissions) {
+            if (submission.getRecordId() != null) {
+                recordIds.add(submission.getRecordId());
+            }
+        }
+        Map<Integer, ExamRecord> lockedRecords = new HashMap<>();
+        if (!recordIds.isEmpty()) {
+            for (ExamRecord record : examRecordDao.findByIdsWithPaperForUpdate(recordIds)) {
+                lockedRecords.put(record.getRecordId(), record);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, AnswerKey> answerKeys = new HashMap<>();
+        List<SubmissionOutcome> outcomes = new ArrayList<>(submissions.size());
+        List<ExamRecord> submittedRecords = new ArrayList<>();
+        List<AnswerRecord> answerRecords = new ArrayList<>();
+        for (SubmissionRequest submission : submissions) {
+            try {
+                Integer recordId = submission.getRecordId();
+                if (recordId == null) {
+                    throw new BusinessException("Exam record ID cannot be null");
+                }
+                ExamRecord record = lockedRecords.get(recordId);
+                requireRecordForSubmit(record);
+
+                AnswerKey answerKey = answerKeys.computeIfAbsent(record.getPaperId(), this::requireAnswerKey);
+                Map<Integer, String> answerMap = submission.getAnswers() == null
+                        ? Collections.emptyMap()
+                        : submission.getAnswers();
+                SettlementResult settlement = buildSettlementResult(recordId, answerKey, answerMap);
+                answerRecords.addAll(settlement.getAnswerRecords());
+
+                record.setStatus(ExamStatus.SUBMITTED);
+                record.setSubmitTime(now);
+                record.setEndTime(now);
+                settlement.applyTo(record);
+                submittedRecords.add(record);
+                outcomes.add(SubmissionOutcome.success(
+                        new SubmissionReport(record, settlement.getTotalScore(), settlement.getAnswerRecords())
+                ));
+            } catch (BusinessException ex) {
+                outcomes.add(SubmissionOutcome.failure(ex.getMessage()));
+            }
         }
 
-        String correctAnswer = question.getCorrectAnswer().toUpperCase().trim();
-        String answer = studentAnswer.toUpperCase().trim();
+        if (submittedRecords.isEmpty()) {
+            return outcomes;
+        }
+        if (!answerRecords.isEmpty()) {
+            examRecordDao.insertAnswerRecordsBatch(answerRecords);
+        }
+        examRecordDao.markSubmittedBatch(submittedRecords);
 
-        switch (question.getQuestionType()) {
-            case SINGLE:
-            case JUDGE:
-                return correctAnswer.equals(answer);
-            case MULTIPLE:
-                char[] correctChars = correctAnswer.toCharArray();
-                char[] answerChars = answer.toCharArray();
-                java.util.Arrays.sort(correctChars);
-                java.util.Arrays.sort(answerChars);
-                return java.util.Arrays.equals(correctChars, answerChars);
-            default:
-                return false;
+        List<Integer> submittedIds = new ArrayList<>(submittedRecords.size());
+        for (ExamRecord record : submittedRecords) {
+            submittedIds.add(record.getRecordId());
         }
+        achievementStore.foldSettledRecords(submittedIds);
+        scoreStatsStore.foldSettledRecords(submittedIds);
+        answerDraftDao.deleteByRecordIds(submittedIds);
+        TransactionUtil.afterCommit(() -> {
+            submittedIds.forEach(recordId -> {
+                deadlineRegistry.cancel(recordId);
+                answerDraftBuffer.discard(recordId);
+            });
+            leaderboard.recordSettled(submittedRecords);
+        });
+        return outcomes;
     }
 
     public List<ExamRecord> getStudentExamRecords(Integer studentId) {
@@ -131,6 +265,31 @@ public class ExamService {
         return examRecordDao.findByStudentIdWithPaper(studentId);
     }
 
+    public DataVersion getStudentRecordVersion(Integer studentId) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        return examRecordDao.findStudentRecordVersion(studentId);
+    }
+
+    public DataVersion getStudentsRecordVersion(Collection<Integer> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return null;
+        }
+        return examRecordDao.findStudentsRecordVersion(studentIds);
+    }
+
+    public DataVersion getPaperRecordVersion(Integer paperId) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        return examRecordDao.findPaperRecordVersion(paperId);
+    }
+
+    public DataVersion getRecordVersion() {
+        return examRecordDao.findRecordVersion();
+    }
+
     public Map<Integer, List<ExamRecord>> getStudentExamRecordsByStudentIds(Collection<Integer> studentIds) {
         if (studentIds == null || studentIds.isEmpty()) {
             return new java.util.HashMap<>();
@@ -143,6 +302,27 @@ public class ExamService {
         return examRecordDao.findByStudentIdsWithPaper(studentIds);
     }
 
+    /**
+     * 在数据库端按学生汇总记录数、提交数和平均分，不读取记录明细。studentIds 为 null 时汇总全部学生。
+     */
+    public Map<Integer, StudentRecordStats> getStudentRecordStats(Collection<Integer> studentIds) {
+        if (studentIds != null) {
+            if (studentIds.isEmpty()) {
+                return new HashMap<>();
+            }
+            for (Integer studentId : studentIds) {
+                if (studentId == null) {
+                    throw new BusinessException("Student ID cannot be null");
+                }
+            }
+        }
+        Map<Integer, StudentRecordStats> statsByStudentId = new HashMap<>();
+        for (StudentRecordStats stats : examRecordDao.summarizeByStudentIds(studentIds)) {
+            statsByStudentId.put(stats.getStudentId(), stats);
+        }
+        return statsByStudentId;
+    }
+
     public List<ExamRecord> getStudentExamRecordsPaginated(Integer studentId, int pageNum, int pageSize) {
         if (studentId == null) {
             throw new BusinessException("Student ID cannot be null");
@@ -157,6 +337,36 @@ public class ExamService {
         return examRecordDao.findByStudentIdWithPaperPaginated(studentId, offset, pageSize);
     }
 
+    /**
+     * 键集分页读取学生考试记录（按创建时间、记录 ID 倒序）。
+     * cursor 为上一页返回的续页令牌，为空时读取第一页；任意一页都只扫描 pageSize + 1 行索引。
+     */
+    public ExamRecordPage getStudentExamRecordsPage(Integer studentId, String cursor, int pageSize) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        if (pageSize <= 0 || pageSize > 200) {
+            throw new BusinessException("Page size must be between 1 and 200");
+        }
+        LocalDateTime afterCreateTime = null;
+        Integer afterRecordId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterCreateTime = LocalDateTime.parse(parts[0]);
+            afterRecordId = Integer.valueOf(parts[1]);
+        }
+
+        List<ExamRecord> fetched = examRecordDao.findByStudentIdWithPaperAfter(studentId, afterCreateTime, afterRecordId, pageSize + 1);
+        boolean hasMore = fetched.size() > pageSize;
+        List<ExamRecord> records = hasMore ? new ArrayList<>(fetched.subList(0, pageSize)) : fetched;
+        String nextCursor = null;
+        if (hasMore) {
+            ExamRecord last = records.get(records.size() - 1);
+            nextCursor = encodeCursor(last.getCreateTime(), last.getRecordId());
+        }
+        return new ExamRecordPage(records, nextCursor);
+    }
+
     public int getStudentExamRecordCount(Integer studentId) {
         if (studentId == null) {
             throw new BusinessException("Student ID cannot be null");
@@ -164,6 +374,26 @@ public class ExamService {
         return examRecordDao.countByStudentId(studentId);
     }
 
+    public int getStudentInProgressCount(Integer studentId) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        return examRecordDao.countInProgressByStudentId(studentId);
+    }
+
+    /**
+     * 学生最近的若干条已结算记录（含试卷），按创建时间倒序。
+     */
+    public List<ExamRecord> getRecentSettledRecords(Integer studentId, int limit) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        return examRecordDao.findRecentSettledByStudentIdWithPaper(studentId, limit);
+    }
+
     public ExamRecord getExamRecordById(Integer recordId) {
         if (recordId == null) {
             throw new BusinessException("Exam record ID cannot be null");
@@ -241,6 +471,13 @@ public class ExamService {
         return examRecordDao.findByPaperId(paperId);
     }
 
+    /**
+     * 试卷已结算成绩的分布，读取预先累加的分数桶，不扫描考试记录。
+     */
+    public PaperScoreDistribution getPaperScoreDistribution(Paper paper) {
+        return scoreStatsStore.load(paper);
+    }
+
     @Transactional
     public void timeoutSubmit(Integer recordId) {
         if (recordId == null) {
@@ -255,14 +492,172 @@ public class ExamService {
             return;
         }
 
-        List<Question> questions = requireSupportedQuestions(record.getPaperId());
-        SettlementResult settlement = buildSettlementResult(recordId, questions, Collections.emptyMap());
+        AnswerKey answerKey = requireAnswerKey(record.getPaperId());
+        Map<Integer, String> drafts = loadMergedDrafts(List.of(recordId)).getOrDefault(recordId, Collections.emptyMap());
+        SettlementResult settlement = buildSettlementResult(recordId, answerKey, drafts);
         examRecordDao.insertAnswerRecordsBatch(settlement.getAnswerRecords());
 
         record.setStatus(ExamStatus.TIMEOUT);
-        record.setScore(settlement.getTotalScore());
+        settlement.applyTo(record);
         record.setEndTime(LocalDateTime.now());
         examRecordDao.update(record);
+        achievementStore.foldSettledRecords(List.of(recordId));
+        scoreStatsStore.foldSettledRecords(List.of(recordId));
+        answerDraftDao.deleteByRecordId(recordId);
+        TransactionUtil.afterCommit(() -> {
+            deadlineRegistry.cancel(recordId);
+            answerDraftBuffer.discard(recordId);
+            leaderboard.recordSettled(List.of(record));
+        });
+    }
+
+    /**
+     * 批量结算已超时的进行中考试：一次加锁查询（跳过已被其他事务锁住的记录）、
+     * 一条多行答题插入和一条状态更新。试卷题目不支持自动判分的记录会被跳过。
+     *
+     * @param cutoff 开考时间加考试时长不晚于该时刻才视为超时
+     * @return 本次实际结算的记录 ID
+     */
+    @Transactional
+    public List<Integer> settleExpiredExams(Collection<Integer> recordIds, LocalDateTime cutoff) {
+        if (recordIds == null || recordIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (cutoff == null) {
+            throw new BusinessException("Timeout cutoff cannot be null");
+        }
+
+        List<ExamRecord> lockedRecords = examRecordDao.lockOverdueInProgressRecords(recordIds, cutoff);
+        if (lockedRecords.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> lockedIds = new ArrayList<>(lockedRecords.size());
+        for (ExamRecord record : lockedRecords) {
+            lockedIds.add(record.getRecordId());
+        }
+        Map<Integer, Map<Integer, String>> draftsByRecordId = loadMergedDrafts(lockedIds);
+
+        Map<Integer, AnswerKey> answerKeys = new HashMap<>();
+        Set<Integer> unsupportedPaperIds = new HashSet<>();
+        List<ExamRecord> settledRecords = new ArrayList<>(lockedRecords.size());
+        List<AnswerRecord> answerRecords = new ArrayList<>();
+        for (ExamRecord record : lockedRecords) {
+            Integer paperId = record.getPaperId();
+            if (unsupportedPaperIds.contains(paperId)) {
+                continue;
+            }
+            AnswerKey answerKey = answerKeys.get(paperId);
+            if (answerKey == null) {
+                try {
+                    answerKey = requireAnswerKey(paperId);
+                } catch (BusinessException ex) {
+                    unsupportedPaperIds.add(paperId);
+                    continue;
+                }
+                answerKeys.put(paperId, answerKey);
+            }
+
+            SettlementResult settlement = buildSettlementResult(
+                    record.getRecordId(),
+                    answerKey,
+                    draftsByRecordId.getOrDefault(record.getRecordId(), Collections.emptyMap())
+            );
+            answerRecords.addAll(settlement.getAnswerRecords());
+            settlement.applyTo(record);
+            settledRecords.add(record);
+        }
+
+        if (settledRecords.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!answerRecords.isEmpty()) {
+            examRecordDao.insertAnswerRecordsBatch(answerRecords);
+        }
+        examRecordDao.markTimedOutBatch(settledRecords, LocalDateTime.now());
+
+        List<Integer> settledIds = new ArrayList<>(settledRecords.size());
+        for (ExamRecord record : settledRecords) {
+            settledIds.add(record.getRecordId());
+        }
+        achievementStore.foldSettledRecords(settledIds);
+        scoreStatsStore.foldSettledRecords(settledIds);
+        answerDraftDao.deleteByRecordIds(settledIds);
+        TransactionUtil.afterCommit(() -> {
+            settledIds.forEach(recordId -> {
+                deadlineRegistry.cancel(recordId);
+                answerDraftBuffer.discard(recordId);
+            });
+            leaderboard.recordSettled(settledRecords);
+        });
+        return settledIds;
+    }
+
+    /**
+     * 自动保存作答草稿。草稿只进入内存缓冲，由缓冲定时批量落库。
+     * 考试记录的归属和截止时间在首次保存时查库确认后缓存，之后的保存不再查库，超过截止时间（含宽限期）的保存被拒绝。
+     * 记录在其他实例交卷或超时结算后，缓冲下次刷新时会发现并丢弃该记录，之后的保存重新查库并被拒绝。
+     *
+     * @return 实际暂存的题目数，不属于该试卷的题目会被忽略
+     */
+    public int saveAnswerDrafts(Integer studentId, Integer recordId, Map<Integer, String> answers) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        if (recordId == null) {
+            throw new BusinessException("Exam record ID cannot be null");
+        }
+
+        AnswerDraftBuffer.ActiveRecord active = answerDraftBuffer.getActiveRecord(recordId);
+        if (active == null) {
+            ExamRecord record = examRecordDao.findByIdWithPaper(recordId);
+            requireRecordForSubmit(record);
+            active = answerDraftBuffer.activate(recordId, record.getStudentId(), record.getPaperId(), draftDeadlineMillis(record));
+        }
+        if (!studentId.equals(active.getStudentId())) {
+            throw new BusinessException("Exam record does not belong to student");
+        }
+        if (answerDraftBuffer.isPastDeadline(active)) {
+            throw new BusinessException("Exam time is over");
+        }
+        if (answers == null || answers.isEmpty()) {
+            return 0;
+        }
+
+        AnswerKey answerKey = requireAnswerKey(active.getPaperId());
+        Map<Integer, String> accepted = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : answers.entrySet()) {
+            if (entry.getKey() != null && answerKey.containsQuestion(entry.getKey())) {
+                accepted.put(entry.getKey(), entry.getValue());
+            }
+        }
+        answerDraftBuffer.stage(recordId, accepted);
+        return accepted.size();
+    }
+
+    /**
+     * 已落库草稿与缓冲中尚未落库的草稿合并，缓冲中的较新。
+     */
+    public Map<Integer, String> getAnswerDrafts(Integer recordId) {
+        if (recordId == null) {
+            throw new BusinessException("Exam record ID cannot be null");
+        }
+        return loadMergedDrafts(List.of(recordId)).getOrDefault(recordId, Collections.emptyMap());
+    }
+
+    private Map<Integer, Map<Integer, String>> loadMergedDrafts(List<Integer> recordIds) {
+        Map<Integer, Map<Integer, String>> result = new HashMap<>();
+        for (AnswerDraft draft : answerDraftDao.findByRecordIds(recordIds)) {
+            result.computeIfAbsent(draft.getRecordId(), key -> new HashMap<>())
+                    .put(draft.getQuestionId(), draft.getDraftAnswer());
+        }
+        for (Integer recordId : recordIds) {
+            Map<Integer, String> pending = answerDraftBuffer.pending(recordId);
+            if (!pending.isEmpty()) {
+                result.computeIfAbsent(recordId, key -> new HashMap<>()).putAll(pending);
+            }
+        }
+        return result;
     }
 
     private ExamRecord findExistingInProgressRecord(Integer studentId, Integer paperId) {
@@ -273,18 +668,36 @@ public class ExamService {
         if (record == null) {
             throw new BusinessException("Exam record does not exist");
         }
-        if (record.getStatus() == ExamStatus.IN_PROGRESS) {
+        requireInProgress(record.getStatus());
+    }
+
+    private void requireInProgress(ExamStatus status) {
+        if (status == ExamStatus.IN_PROGRESS) {
             return;
         }
-        if (record.getStatus() == ExamStatus.SUBMITTED) {
+        if (status == null) {
+            throw new BusinessException("Exam record does not exist");
+        }
+        if (status == ExamStatus.SUBMITTED) {
             throw new BusinessException("Exam already submitted");
         }
-        if (record.getStatus() == ExamStatus.TIMEOUT) {
+        if (status == ExamStatus.TIMEOUT) {
             throw new BusinessException("Exam already timed out");
         }
         throw new BusinessException("Exam is not in progress");
     }
 
+    /**
+     * 与超时结算使用同一截止时间：开考时间加考试时长再加宽限期；缺少时长时不限制。
+     */
+    private long draftDeadlineMillis(ExamRecord record) {
+        Paper paper = record.getPaper();
+        if (record.getStartTime() == null || paper == null || paper.getDuration() == null) {
+            return Long.MAX_VALUE;
+        }
+        return deadlineRegistry.deadlineMillis(record.getStartTime(), paper.getDuration());
+    }
+
     private List<Question> requireQuestions(Integer paperId) {
         List<Question> questions = questionDao.findByPaperId(paperId);
         if (questions.isEmpty()) {
@@ -293,8 +706,38 @@ public class ExamService {
         return questions;
     }
 
-    public void validatePaperSupportsAutoExam(Integer paperId) {
-        requireSupportedQuestions(paperId);
+    /**
+     * 校验试卷题型均支持自动判分，返回（缓存的）答案 key。
+     */
+    public AnswerKey validatePaperSupportsAutoExam(Integer paperId) {
+        return requireAnswerKey(paperId);
+    }
+
+    private String encodeCursor(LocalDateTime createTime, Integer recordId) {
+        if (createTime == null || recordId == null) {
+            throw new IllegalStateException("Exam record " + recordId + " has no create_time, cannot build page cursor");
+        }
+        String raw = createTime + "|" + recordId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            LocalDateTime.parse(parts[0]);
+            Integer.parseInt(parts[1]);
+            return parts;
+        } catch (RuntimeException ex) {
+            throw new BusinessException("Invalid page cursor");
+        }
+    }
+
+    private AnswerKey requireAnswerKey(Integer paperId) {
+        return answerKeyCache.get(paperId, this::requireSupportedQuestions);
     }
 
     private List<Question> requireSupportedQuestions(Integer paperId) {
@@ -323,40 +766,39 @@ public class ExamService {
         );
     }
 
-    private SettlementResult buildSettlementResult(Integer recordId, List<Question> questions, Map<Integer, String> answerMap) {
-        BigDecimal totalScore = BigDecimal.ZERO;
-        List<AnswerRecord> answerRecords = new ArrayList<>();
-
-        for (Question question : questions) {
-            String studentAnswer = answerMap.get(question.getQuestionId());
-            boolean isCorrect = checkAnswer(question, studentAnswer);
-
-            BigDecimal score = BigDecimal.ZERO;
-            if (isCorrect) {
-                score = BigDecimal.valueOf(question.getScore());
-                totalScore = totalScore.add(score);
-            }
-
-            AnswerRecord answerRecord = new AnswerRecord(recordId, question.getQuestionId(), studentAnswer);
-            answerRecord.setIsCorrect(isCorrect);
-            answerRecord.setScore(score);
+    private SettlementResult buildSettlementResult(Integer recordId, AnswerKey answerKey, Map<Integer, String> answerMap) {
+        int size = answerKey.size();
+        String[] answers = new String[size];
+        for (int i = 0; i < size; i++) {
+            answers[i] = answerMap.get(answerKey.getQuestionId(i));
+        }
+
+        boolean[] correct = new boolean[size];
+        int totalScore = GradingEngine.grade(answerKey, answers, correct);
+
+        List<AnswerRecord> answerRecords = new ArrayList<>(size);
+        int answeredCount = 0;
+        int correctCount = 0;
+        int wrongCount = 0;
+        for (int i = 0; i < size; i++) {
+            AnswerRecord answerRecord = new AnswerRecord(recordId, answerKey.getQuestionId(i), answers[i]);
+            answerRecord.setQuestion(answerKey.getQuestion(i));
+            answerRecord.setIsCorrect(correct[i]);
+            answerRecord.setScore(correct[i] ? answerKey.getScoreValue(i) : BigDecimal.ZERO);
             answerRecords.add(answerRecord);
-        }
-
-        return new SettlementResult(totalScore, answerRecords);
-    }
 
-    private Object[] createStartExamLocks() {
-        Object[] locks = new Object[64];
-        for (int i = 0; i < locks.length; i++) {
-            locks[i] = new Object();
+            boolean answered = answers[i] != null && !answers[i].trim().isEmpty();
+            if (answered) {
+                answeredCount++;
+            }
+            if (correct[i]) {
+                correctCount++;
+            } else if (answered) {
+                wrongCount++;
+            }
         }
-        return locks;
-    }
 
-    private Object resolveStartExamLock(Integer studentId, Integer paperId) {
-        int hash = 31 * studentId.hashCode() + paperId.hashCode();
-        return startExamLocks[Math.floorMod(hash, startExamLocks.length)];
+        return new SettlementResult(BigDecimal.valueOf(totalScore), answerRecords, answeredCount, correctCount, wrongCount);
     }
 
     public static class ExamStartResult {
@@ -377,13 +819,141 @@ public class ExamService {
         }
     }
 
+    public static class ExamRecordPage {
+        private final List<ExamRecord> records;
+        private final String nextCursor;
+
+        public ExamRecordPage(List<ExamRecord> records, String nextCursor) {
+            this.records = records;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<ExamRecord> getRecords() {
+            return records;
+        }
+
+        /**
+         * 下一页的续页令牌，已是最后一页时为 null。
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    public static class SubmissionRequest {
+        private final Integer recordId;
+        private final Map<Integer, String> answers;
+
+        public SubmissionRequest(Integer recordId, Map<Integer, String> answers) {
+            this.recordId = recordId;
+            this.answers = answers;
+        }
+
+        public Integer getRecordId() {
+            return recordId;
+        }
+
+        public Map<Integer, String> getAnswers() {
+            return answers;
+        }
+    }
+
+    public static class SubmissionReport {
+        private final ExamRecord record;
+        private final BigDecimal score;
+        private final List<AnswerRecord> answerRecords;
+
+        public SubmissionReport(ExamRecord record, BigDecimal score, List<AnswerRecord> answerRecords) {
+            this.record = record;
+            this.score = score;
+            this.answerRecords = answerRecords;
+        }
+
+        public ExamRecord getRecord() {
+            return record;
+        }
+
+        public Paper getPaper() {
+            return record.getPaper();
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public List<AnswerRecord> getAnswerRecords() {
+            return answerRecords;
+        }
+    }
+
+    public static class SubmissionOutcome {
+        private final SubmissionReport report;
+        private final String failureMessage;
+
+        private SubmissionOutcome(SubmissionReport report, String failureMessage) {
+            this.report = report;
+            this.failureMessage = failureMessage;
+        }
+
+        public static SubmissionOutcome success(SubmissionReport report) {
+            return new SubmissionOutcome(report, null);
+        }
+
+        public static SubmissionOutcome failure(String failureMessage) {
+            return new SubmissionOutcome(null, failureMessage);
+        }
+
+        public boolean isSuccess() {
+            return failureMessage == null;
+        }
+
+        public SubmissionReport getReport() {
+            return report;
+        }
+
+        public BigDecimal getScore() {
+            return report == null ? null : report.getScore();
+        }
+
+        public String getFailureMessage() {
+            return failureMessage;
+        }
+    }
+
     private static class SettlementResult {
         private final BigDecimal totalScore;
         private final List<AnswerRecord> answerRecords;
-
-        private SettlementResult(BigDecimal totalScore, List<AnswerRecord> answerRecords) {
+        private final int answeredCount;
+        private final int correctCount;
+        private final int wrongCount;
+
+        private SettlementResult(
+                BigDecimal totalScore,
+                List<AnswerRecord> answerRecords,
+                int answeredCount,
+                int correctCount,
+                int wrongCount
+        ) {
             this.totalScore = totalScore;
             this.answerRecords = answerRecords;
+            this.answeredCount = answeredCount;
+            this.correctCount = correctCount;
+            this.wrongCount = wrongCount;
+        }
+
+        /**
+         * 把总分和作答统计写到考试记录上，随状态更新一起落库。
+         */
+        private void applyTo(ExamRecord record) {
+            record.setScore(totalScore);
+            record.setQuestionCount(answerRecords.size());
+            record.setAnsweredCount(answeredCount);
+            record.setCorrectCount(correctCount);
+            record.setWrongCount(wrongCount);
         }
 
         private BigDecimal getTotalScore() {
@@ -0,0 +1,168 @@
+package com.exam.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.model.ExamRecord;
+import com.exam.model.enums.ExamStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自动结算超时未交卷的考试。
+ * 本机时间轮给出到期记录；另外定期用数据库兜底扫描，覆盖其他实例开考或本机重启前遗漏的记录。
+ * 兜底扫描按 record_id 游标分段推进，扫到末尾后从头开始，
+ * 无法结算的记录（例如试卷不支持自动判分）不会在每次扫描中占住前面的名额。
+ * 结算按批加锁并跳过已锁行，多实例同时运行不会重复结算也不会互相阻塞。
+ * 扫描跑在自己的单线程调度器上，不占用 Spring @Scheduled 共用的单线程池，
+ * 截止时间的精度不受会话清理、草稿落库等其他定时任务耗时的影响。
+ */
+@Component
+public class ExamTimeoutSweeper {
+    private static final Logger log = LoggerFactory.getLogger(ExamTimeoutSweeper.class);
+
+    private final ExamRecordDao examRecordDao;
+    private final ExamService examService;
+    private final ExamDeadlineRegistry deadlineRegistry;
+    private final Clock clock;
+    private final int batchSize;
+    private final long dbScanIntervalMillis;
+    private final long sweepIntervalMillis;
+    private ScheduledExecutorService scheduler;
+    private long lastDbScanMillis;
+    private int dbScanCursor;
+
+    @Autowired
+    public ExamTimeoutSweeper(
+            ExamRecordDao examRecordDao,
+            ExamService examService,
+            ExamDeadlineRegistry deadlineRegistry,
+            @Value("${exam.timeout.batch-size:200}") int batchSize,
+            @Value("${exam.timeout.db-scan-interval-ms:60000}") long dbScanIntervalMillis,
+            @Value("${exam.timeout.sweep-interval-ms:1000}") long sweepIntervalMillis
+    ) {
+        this(examRecordDao, examService, deadlineRegistry, batchSize, dbScanIntervalMillis, sweepIntervalMillis, Clock.systemDefaultZone());
+    }
+
+    public ExamTimeoutSweeper(
+            ExamRecordDao examRecordDao,
+            ExamService examService,
+            ExamDeadlineRegistry deadlineRegistry,
+            int batchSize,
+            long dbScanIntervalMillis,
+            long sweepIntervalMillis,
+            Clock clock
+    ) {
+        this.examRecordDao = examRecordDao;
+        this.examService = examService;
+        this.deadlineRegistry = deadlineRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.dbScanIntervalMillis = Math.max(1000L, dbScanIntervalMillis);
+        this.sweepIntervalMillis = Math.max(100L, sweepIntervalMillis);
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+        this.lastDbScanMillis = Long.MIN_VALUE / 2;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInProgressDeadlines() {
+        List<ExamRecord> inProgress = examRecordDao.findByStatusWithPaper(ExamStatus.IN_PROGRESS);
+        for (ExamRecord record : inProgress) {
+            Integer duration = record.getPaper() == null ? null : record.getPaper().getDuration();
+            deadlineRegistry.scheduleExam(record.getRecordId(), record.getStartTime(), duration);
+        }
+        log.info("Seeded {} in-progress exam deadlines", inProgress.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startSweeping() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "exam-timeout-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public synchronized int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(deadlineRegistry.getGrace());
+        Set<Integer> dueRecordIds = new LinkedHashSet<>(deadlineRegistry.pollExpired());
+
+        long nowMillis = clock.millis();
+        if (nowMillis - lastDbScanMillis >= dbScanIntervalMillis) {
+            lastDbScanMillis = nowMillis;
+            dueRecordIds.addAll(scanOverdueRecords(cutoff));
+        }
+        if (dueRecordIds.isEmpty()) {
+            return 0;
+        }
+
+        int settled = 0;
+        List<Integer> batch = new ArrayList<>(batchSize);
+        for (Integer recordId : dueRecordIds) {
+            batch.add(recordId);
+            if (batch.size() >= batchSize) {
+                settled += settleBatch(batch, cutoff);
+                batch.clear();
+            }
+        }
+        settled += settleBatch(batch, cutoff);
+        if (settled > 0) {
+            log.info("Settled {} timed-out exam records", settled);
+        }
+        return settled;
+    }
+
+    private List<Integer> scanOverdueRecords(LocalDateTime cutoff) {
+        int limit = batchSize * 10;
+        List<Integer> overdue = examRecordDao.findOverdueInProgressRecordIds(cutoff, dbScanCursor, limit);
+        // 不足一段说明已扫到末尾，下次从头开始
+        dbScanCursor = overdue.size() < limit ? 0 : overdue.get(overdue.size() - 1);
+        return overdue;
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException ex) {
+            // 抛出的异常会让调度器取消后续执行，这里只记录，下次照常扫描
+            log.error("Exam timeout sweep failed", ex);
+        }
+    }
+
+    private int settleBatch(List<Integer> recordIds, LocalDateTime cutoff) {
+        if (recordIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            return examService.settleExpiredExams(new ArrayList<>(recordIds), cutoff).size();
+        } catch (RuntimeException ex) {
+            log.error("Failed to settle timed-out exam records {}", recordIds, ex);
+            return 0;
+        }
+    }
+}
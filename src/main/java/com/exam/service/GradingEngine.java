@@ -0,0 +1,118 @@
+package com.exam.service;
+
+import com.exam.model.enums.QuestionType;
+
+import java.util.List;
+
+/**
+ * 客观题判分引擎。选项集合编码为 int 位掩码（A 为第 0 位，最多 26 个字母选项），
+ * 整份答卷在一个基本类型循环里完成判分，分数用 int 累加。
+ * 无法编码的答案（多字母单选、重复选项、非字母内容等）回退到与原实现一致的字符串比较。
+ */
+public final class GradingEngine {
+    /**
+     * 答案无法编码为位掩码，需要走字符串比较。
+     */
+    public static final int NO_MASK = -1;
+
+    private GradingEngine() {
+    }
+
+    /**
+     * 把答案编码为选项位掩码：忽略首尾空白，字母不区分大小写。
+     *
+     * @return 空白答案返回 0；包含非字母、重复字母时返回 {@link #NO_MASK}
+     */
+    public static int encodeOptions(CharSequence answer) {
+        if (answer == null) {
+            return 0;
+        }
+        int start = 0;
+        int end = answer.length();
+        while (start < end && answer.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && answer.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int mask = 0;
+        for (int i = start; i < end; i++) {
+            char c = answer.charAt(i);
+            int bit;
+            if (c >= 'A' && c <= 'Z') {
+                bit = 1 << (c - 'A');
+            } else if (c >= 'a' && c <= 'z') {
+                bit = 1 << (c - 'a');
+            } else {
+                return NO_MASK;
+            }
+            if ((mask & bit) != 0) {
+                return NO_MASK;
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * 编译标准答案的位掩码。单选、判断题只有单个字母时才使用掩码，否则保留原来的有序字符串比较语义。
+     */
+    public static int encodeExpected(QuestionType type, String correctAnswer) {
+        int mask = encodeOptions(correctAnswer);
+        if (mask <= 0) {
+            return NO_MASK;
+        }
+        if (type == QuestionType.MULTIPLE) {
+            return mask;
+        }
+        return Integer.bitCount(mask) == 1 ? mask : NO_MASK;
+    }
+
+    public static boolean isCorrect(AnswerKey answerKey, int index, String studentAnswer) {
+        int expectedMask = answerKey.getExpectedMask(index);
+        if (expectedMask != NO_MASK) {
+            int actualMask = encodeOptions(studentAnswer);
+            if (actualMask != NO_MASK) {
+                return actualMask == expectedMask;
+            }
+        }
+        String expected = answerKey.getNormalizedAnswer(index);
+        return expected != null && expected.equals(AnswerKey.normalize(answerKey.getQuestionType(index), studentAnswer));
+    }
+
+    /**
+     * 按 key 的题目顺序判一份答卷。
+     *
+     * @param answers 与 key 下标对齐的学生答案，可含 null
+     * @param correct 判分结果输出，可为 null；非 null 时长度不得小于 key 的题目数
+     * @return 总得分
+     */
+    public static int grade(AnswerKey answerKey, String[] answers, boolean[] correct) {
+        int size = answerKey.size();
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            boolean matched = i < answers.length && isCorrect(answerKey, i, answers[i]);
+            if (matched) {
+                total += answerKey.getScore(i);
+            }
+            if (correct != null) {
+                correct[i] = matched;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 用同一份 key 批量判分，适用于重新判分与离线判分。
+     *
+     * @return 与 submissions 顺序一致的总得分
+     */
+    public static int[] gradeBatch(AnswerKey answerKey, List<String[]> submissions) {
+        int[] totals = new int[submissions.size()];
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = grade(answerKey, submissions.get(i), null);
+        }
+        return totals;
+    }
+}
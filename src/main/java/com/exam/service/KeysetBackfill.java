@@ -0,0 +1,88 @@
+package com.exam.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 按自增主键键集分批的一次性回填。
+ * 每次运行最多处理 maxBatchesPerRun 批，每批先查出主键大于游标的待回填行，再写回并把游标移到本批最后一行；
+ * 某次查不到待回填的行即视为完成，之后的运行直接返回。写回失败时游标不动，下次运行从同一批重试。
+ * 写回语句须只作用于仍待回填的行，多实例同时运行时才不会互相覆盖。
+ *
+ * @param <T> 一行待回填数据
+ */
+public final class KeysetBackfill<T> {
+    private static final Logger log = LoggerFactory.getLogger(KeysetBackfill.class);
+
+    private final String name;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final PendingFinder<T> finder;
+    private final ToIntFunction<List<T>> writer;
+    private final ToIntFunction<T> keyOf;
+    private int afterKey;
+    private long backfilled;
+    private volatile boolean completed;
+
+    /**
+     * @param name   日志中的回填名称
+     * @param finder 查询主键大于游标的待回填行，按主键升序
+     * @param writer 写回一批，返回实际更新的行数
+     * @param keyOf  取一行的主键
+     */
+    public KeysetBackfill(
+            String name,
+            int batchSize,
+            int maxBatchesPerRun,
+            PendingFinder<T> finder,
+            ToIntFunction<List<T>> writer,
+            ToIntFunction<T> keyOf
+    ) {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.finder = finder;
+        this.writer = writer;
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * @return 本次运行更新的行数
+     */
+    public synchronized int run() {
+        if (completed) {
+            return 0;
+        }
+        int updated = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                List<T> rows = finder.find(afterKey, batchSize);
+                if (rows.isEmpty()) {
+                    completed = true;
+                    if (backfilled + updated > 0) {
+                        log.info("{} backfill finished, {} rows updated", name, backfilled + updated);
+                    }
+                    break;
+                }
+                updated += writer.applyAsInt(rows);
+                afterKey = keyOf.applyAsInt(rows.get(rows.size() - 1));
+            }
+        } catch (RuntimeException ex) {
+            log.error("{} backfill failed after key {}, will retry on next run", name, afterKey, ex);
+        }
+        backfilled += updated;
+        return updated;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @FunctionalInterface
+    public interface PendingFinder<T> {
+        List<T> find(int afterKey, int limit);
+    }
+}
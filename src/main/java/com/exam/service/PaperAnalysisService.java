@@ -0,0 +1,57 @@
+package com.exam.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.model.Paper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 教师端试卷题目分析。作答明细以窄投影逐行读入列式矩阵，不组装 AnswerRecord / Question 对象，
+ * 再由 {@link PaperItemAnalysis} 并行计算各题指标。
+ */
+@Service
+public class PaperAnalysisService {
+    private final PaperService paperService;
+    private final ExamRecordDao examRecordDao;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public PaperAnalysisService(PaperService paperService, ExamRecordDao examRecordDao) {
+        this(paperService, examRecordDao, ForkJoinPool.commonPool());
+    }
+
+    public PaperAnalysisService(PaperService paperService, ExamRecordDao examRecordDao, ForkJoinPool pool) {
+        this.paperService = paperService;
+        this.examRecordDao = examRecordDao;
+        this.pool = pool;
+    }
+
+    public PaperAnalysis analyzePaper(Integer paperId) {
+        Paper paper = paperService.getPaperById(paperId);
+        AnswerKey answerKey = AnswerKey.compile(paperId, 0L, 0L, paper.getQuestions());
+
+        PaperResponseMatrix.Builder builder = PaperResponseMatrix.builder(answerKey);
+        examRecordDao.scanPaperAnswerRows(paperId, context -> builder.accept(context.getResultObject()));
+        return new PaperAnalysis(paper, PaperItemAnalysis.analyze(builder.build(), pool));
+    }
+
+    public static class PaperAnalysis {
+        private final Paper paper;
+        private final PaperItemAnalysis.Result result;
+
+        public PaperAnalysis(Paper paper, PaperItemAnalysis.Result result) {
+            this.paper = paper;
+            this.result = result;
+        }
+
+        public Paper getPaper() {
+            return paper;
+        }
+
+        public PaperItemAnalysis.Result getResult() {
+            return result;
+        }
+    }
+}
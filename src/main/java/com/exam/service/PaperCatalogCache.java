@@ -0,0 +1,194 @@
+package com.exam.service;
+
+import com.exam.dao.PaperDao;
+import com.exam.model.Paper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 试卷目录的只读快照（含题型统计），写时复制。
+ * 快照中的 Paper 对象为共享实例，调用方只能读取，不能修改。
+ */
+@Component
+public class PaperCatalogCache {
+    private static final Comparator<Paper> CATALOG_ORDER = Comparator.comparing(
+            Paper::getPaperId,
+            Comparator.nullsLast(Comparator.reverseOrder())
+    );
+
+    private final PaperDao paperDao;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Object reloadLock = new Object();
+
+    @Autowired
+    public PaperCatalogCache(
+            PaperDao paperDao,
+            @Value("${exam.paper.catalog.max-age-seconds:60}") long maxAgeSeconds
+    ) {
+        this(paperDao, Duration.ofSeconds(Math.max(1, maxAgeSeconds)), Clock.systemDefaultZone());
+    }
+
+    public PaperCatalogCache(PaperDao paperDao, Duration maxAge, Clock clock) {
+        this.paperDao = paperDao;
+        this.maxAge = maxAge == null || maxAge.isZero() || maxAge.isNegative() ? Duration.ofSeconds(60) : maxAge;
+        this.clock = clock == null ? Clock.systemDefaultZone() : clock;
+    }
+
+    public List<Paper> getAllPapers() {
+        return current().allPapers;
+    }
+
+    public List<Paper> getPublishedPapers() {
+        return current().publishedPapers;
+    }
+
+    public Paper findPaper(Integer paperId) {
+        if (paperId == null) {
+            return null;
+        }
+        return current().papersById.get(paperId);
+    }
+
+    public long getGeneration() {
+        return current().generation;
+    }
+
+    /**
+     * 当前快照的版本标记：写入会推进代数，过期重载会更新加载时间，二者组合可区分同一实例上的每个快照。
+     */
+    public String getVersionTag() {
+        Snapshot existing = current();
+        return existing.generation + "." + existing.loadedAtMillis;
+    }
+
+    /**
+     * 用数据库中的最新一行替换快照中的试卷；试卷已不存在时从快照中移除。
+     */
+    public void refreshPaper(Integer paperId) {
+        if (paperId == null) {
+            return;
+        }
+        long claimedGeneration = generation.incrementAndGet();
+        Paper latest = paperDao.findWithQuestionStatsById(paperId);
+        while (true) {
+            Snapshot existing = snapshot.get();
+            if (existing == null) {
+                return;
+            }
+            if (existing.generation > claimedGeneration) {
+                return;
+            }
+            Map<Integer, Paper> papersById = new LinkedHashMap<>(existing.papersById);
+            if (latest == null) {
+                papersById.remove(paperId);
+            } else {
+                papersById.put(paperId, latest);
+            }
+            Snapshot patched = new Snapshot(claimedGeneration, papersById.values(), existing.loadedAtMillis);
+            if (snapshot.compareAndSet(existing, patched)) {
+                return;
+            }
+        }
+    }
+
+    public void removePaper(Integer paperId) {
+        if (paperId == null) {
+            return;
+        }
+        long claimedGeneration = generation.incrementAndGet();
+        while (true) {
+            Snapshot existing = snapshot.get();
+            if (existing == null || existing.generation > claimedGeneration) {
+                return;
+            }
+            Map<Integer, Paper> papersById = new LinkedHashMap<>(existing.papersById);
+            papersById.remove(paperId);
+            Snapshot patched = new Snapshot(claimedGeneration, papersById.values(), existing.loadedAtMillis);
+            if (snapshot.compareAndSet(existing, patched)) {
+                return;
+            }
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    private Snapshot current() {
+        Snapshot existing = snapshot.get();
+        if (existing != null && !isExpired(existing)) {
+            return existing;
+        }
+
+        synchronized (reloadLock) {
+            existing = snapshot.get();
+            if (existing != null && !isExpired(existing)) {
+                return existing;
+            }
+
+            long loadGeneration = generation.get();
+            Snapshot loaded = new Snapshot(loadGeneration, paperDao.findAllWithQuestionStats(), clock.millis());
+            if (generation.get() == loadGeneration) {
+                snapshot.compareAndSet(existing, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    private boolean isExpired(Snapshot existing) {
+        return clock.millis() - existing.loadedAtMillis >= maxAge.toMillis();
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final long loadedAtMillis;
+        private final List<Paper> allPapers;
+        private final List<Paper> publishedPapers;
+        private final Map<Integer, Paper> papersById;
+
+        private Snapshot(long generation, Iterable<Paper> papers, long loadedAtMillis) {
+            List<Paper> all = new ArrayList<>();
+            if (papers != null) {
+                for (Paper paper : papers) {
+                    if (paper != null) {
+                        all.add(paper);
+                    }
+                }
+            }
+            all.sort(CATALOG_ORDER);
+
+            List<Paper> published = new ArrayList<>();
+            Map<Integer, Paper> byId = new LinkedHashMap<>();
+            for (Paper paper : all) {
+                if (Boolean.TRUE.equals(paper.getIsPublished())) {
+                    published.add(paper);
+                }
+                if (paper.getPaperId() != null) {
+                    byId.put(paper.getPaperId(), paper);
+                }
+            }
+
+            this.generation = generation;
+            this.loadedAtMillis = loadedAtMillis;
+            this.allPapers = Collections.unmodifiableList(all);
+            this.publishedPapers = Collections.unmodifiableList(published);
+            this.papersById = Collections.unmodifiableMap(byId);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.exam.service;
+
+import com.exam.model.enums.QuestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 试卷题目分析：难度（答对率）、高低分组区分度、选项分布与点二列相关。
+ * 先按总分排序划出高分组和低分组（各占 27%），再把题目切成小段交给 fork-join 并行统计，
+ * 每段只顺序扫描自己那几列基本类型数组，结果写入互不重叠的下标，无需同步。
+ */
+public final class PaperItemAnalysis {
+    static final double GROUP_RATIO = 0.27;
+    private static final int QUESTIONS_PER_TASK = 4;
+    private static final byte UPPER = 1;
+    private static final byte LOWER = -1;
+
+    private PaperItemAnalysis() {
+    }
+
+    public static Result analyze(PaperResponseMatrix matrix) {
+        return analyze(matrix, ForkJoinPool.commonPool());
+    }
+
+    public static Result analyze(PaperResponseMatrix matrix, ForkJoinPool pool) {
+        int respondentCount = matrix.getRespondentCount();
+        double[] totals = matrix.totals();
+
+        double sum = 0D;
+        for (double total : totals) {
+            sum += total;
+        }
+        double mean = respondentCount == 0 ? 0D : sum / respondentCount;
+        double squares = 0D;
+        for (double total : totals) {
+            squares += (total - mean) * (total - mean);
+        }
+        double stdDev = respondentCount == 0 ? 0D : Math.sqrt(squares / respondentCount);
+
+        int groupSize = (int) Math.round(respondentCount * GROUP_RATIO);
+        byte[] groups = assignGroups(totals, groupSize);
+
+        ItemStatistics[] items = new ItemStatistics[matrix.getQuestionCount()];
+        if (items.length > 0) {
+            pool.invoke(new ItemTask(matrix, groups, groupSize, sum, stdDev, items, 0, items.length));
+        }
+        return new Result(respondentCount, mean, stdDev, groupSize, Arrays.asList(items));
+    }
+
+    /**
+     * 总分按分（0.01）取整后与下标拼成 long 排序，同分按下标先后归组，结果可复现。
+     */
+    private static byte[] assignGroups(double[] totals, int groupSize) {
+        byte[] groups = new byte[totals.length];
+        if (groupSize == 0) {
+            return groups;
+        }
+        long[] keys = new long[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            long cents = Math.max(0L, Math.round(totals[i] * 100D));
+            keys[i] = (cents << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+        for (int i = 0; i < groupSize; i++) {
+            groups[(int) keys[i]] = LOWER;
+            groups[(int) keys[keys.length - 1 - i]] = UPPER;
+        }
+        return groups;
+    }
+
+    private static ItemStatistics analyzeItem(
+            PaperResponseMatrix matrix,
+            byte[] groups,
+            int groupSize,
+            double totalSum,
+            double stdDev,
+            int question
+    ) {
+        int respondentCount = matrix.getRespondentCount();
+        int[] masks = matrix.masks();
+        boolean[] correct = matrix.correct();
+        double[] totals = matrix.totals();
+        AnswerKey answerKey = matrix.getAnswerKey();
+
+        int[] optionCounts = new int[26];
+        int[] upperCounts = new int[26];
+        int[] lowerCounts = new int[26];
+        int correctCount = 0;
+        int upperCorrect = 0;
+        int lowerCorrect = 0;
+        int blankCount = 0;
+        int unrecognizedCount = 0;
+        int seenOptions = 0;
+        double correctTotalSum = 0D;
+
+        int base = question * respondentCount;
+        for (int r = 0; r < respondentCount; r++) {
+            byte group = groups[r];
+            if (correct[base + r]) {
+                correctCount++;
+                correctTotalSum += totals[r];
+                if (group == UPPER) {
+                    upperCorrect++;
+                } else if (group == LOWER) {
+                    lowerCorrect++;
+                }
+            }
+
+            int mask = masks[base + r];
+            if (mask == 0) {
+                blankCount++;
+                continue;
+            }
+            if (mask == GradingEngine.NO_MASK) {
+                unrecognizedCount++;
+                continue;
+            }
+            seenOptions |= mask;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int option = Integer.numberOfTrailingZeros(bits);
+                optionCounts[option]++;
+                if (group == UPPER) {
+                    upperCounts[option]++;
+                } else if (group == LOWER) {
+                    lowerCounts[option]++;
+                }
+            }
+        }
+
+        QuestionType type = answerKey.getQuestionType(question);
+        int expectedMask = answerKey.getExpectedMask(question);
+        int listedOptions = seenOptions | defaultOptions(type);
+        if (expectedMask != GradingEngine.NO_MASK) {
+            listedOptions |= expectedMask;
+        }
+        List<OptionStatistics> options = new ArrayList<>(Integer.bitCount(listedOptions));
+        for (int bits = listedOptions; bits != 0; bits &= bits - 1) {
+            int option = Integer.numberOfTrailingZeros(bits);
+            options.add(new OptionStatistics(
+                    String.valueOf((char) ('A' + option)),
+                    optionCounts[option],
+                    upperCounts[option],
+                    lowerCounts[option],
+                    expectedMask != GradingEngine.NO_MASK && (expectedMask & (1 << option)) != 0
+            ));
+        }
+
+        Double difficulty = respondentCount == 0 ? null : (double) correctCount / respondentCount;
+        Double discrimination = groupSize == 0 ? null : (double) (upperCorrect - lowerCorrect) / groupSize;
+        Double pointBiserial = null;
+        int wrongCount = respondentCount - correctCount;
+        if (correctCount > 0 && wrongCount > 0 && stdDev > 0D) {
+            double correctMean = correctTotalSum / correctCount;
+            double wrongMean = (totalSum - correctTotalSum) / wrongCount;
+            double p = difficulty;
+            pointBiserial = (correctMean - wrongMean) / stdDev * Math.sqrt(p * (1D - p));
+        }
+
+        return new ItemStatistics(
+                question,
+                answerKey.getQuestionId(question),
+                type,
+                answerKey.getNormalizedAnswer(question),
+                respondentCount,
+                correctCount,
+                blankCount,
+                unrecognizedCount,
+                difficulty,
+                discrimination,
+                pointBiserial,
+                options
+        );
+    }
+
+    private static int defaultOptions(QuestionType type) {
+        if (type == QuestionType.SINGLE || type == QuestionType.MULTIPLE) {
+            return 0b1111;
+        }
+        if (type == QuestionType.JUDGE) {
+            return 0b11;
+        }
+        return 0;
+    }
+
+    private static final class ItemTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PaperResponseMatrix matrix;
+        private final byte[] groups;
+        private final int groupSize;
+        private final double totalSum;
+        private final double stdDev;
+        private final ItemStatistics[] items;
+        private final int from;
+        private final int to;
+
+        private ItemTask(
+                PaperResponseMatrix matrix,
+                byte[] groups,
+                int groupSize,
+                double totalSum,
+                double stdDev,
+                ItemStatistics[] items,
+                int from,
+                int to
+        ) {
+            this.matrix = matrix;
+            this.groups = groups;
+            this.groupSize = groupSize;
+            this.totalSum = totalSum;
+            this.stdDev = stdDev;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= QUESTIONS_PER_TASK) {
+                for (int question = from; question < to; question++) {
+                    items[question] = analyzeItem(matrix, groups, groupSize, totalSum, stdDev, question);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ItemTask(matrix, groups, groupSize, totalSum, stdDev, items, from, middle),
+                    new ItemTask(matrix, groups, groupSize, totalSum, stdDev, items, middle, to)
+            );
+        }
+    }
+
+    public static final class Result {
+        private final int respondentCount;
+        private final double meanScore;
+        private final double scoreStdDev;
+        private final int groupSize;
+        private final List<ItemStatistics> items;
+
+        public Result(int respondentCount, double meanScore, double scoreStdDev, int groupSize, List<ItemStatistics> items) {
+            this.respondentCount = respondentCount;
+            this.meanScore = meanScore;
+            this.scoreStdDev = scoreStdDev;
+            this.groupSize = groupSize;
+            this.items = Collections.unmodifiableList(items);
+        }
+
+        public int getRespondentCount() {
+            return respondentCount;
+        }
+
+        public double getMeanScore() {
+            return meanScore;
+        }
+
+        public double getScoreStdDev() {
+            return scoreStdDev;
+        }
+
+        /**
+         * 高分组和低分组各自的人数
+         */
+        public int getGroupSize() {
+            return groupSize;
+        }
+
+        public List<ItemStatistics> getItems() {
+            return items;
+        }
+    }
+
+    public static final class ItemStatistics {
+        private final int index;
+        private final int questionId;
+        private final QuestionType questionType;
+        private final String correctAnswer;
+        private final int respondentCount;
+        private final int correctCount;
+        private final int blankCount;
+        private final int unrecognizedCount;
+        private final Double difficulty;
+        private final Double discrimination;
+        private final Double pointBiserial;
+        private final List<OptionStatistics> options;
+
+        public ItemStatistics(
+                int index,
+                int questionId,
+                QuestionType questionType,
+                String correctAnswer,
+                int respondentCount,
+                int correctCount,
+                int blankCount,
+                int unrecognizedCount,
+                Double difficulty,
+                Double discrimination,
+                Double pointBiserial,
+                List<OptionStatistics> options
+        ) {
+            this.index = index;
+            this.questionId = questionId;
+            this.questionType = questionType;
+            this.correctAnswer = correctAnswer;
+            this.respondentCount = respondentCount;
+            this.correctCount = correctCount;
+            this.blankCount = blankCount;
+            this.unrecognizedCount = unrecognizedCount;
+            this.difficulty = difficulty;
+            this.discrimination = discrimination;
+            this.pointBiserial = pointBiserial;
+            this.options = Collections.unmodifiableList(options);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getQuestionId() {
+            return questionId;
+        }
+
+        public QuestionType getQuestionType() {
+            return questionType;
+        }
+
+        public String getCorrectAnswer() {
+            return correctAnswer;
+        }
+
+        public int getRespondentCount() {
+            return respondentCount;
+        }
+
+        public int getCorrectCount() {
+            return correctCount;
+        }
+
+        public int getBlankCount() {
+            return blankCount;
+        }
+
+        public int getUnrecognizedCount() {
+            return unrecognizedCount;
+        }
+
+        /**
+         * 难度指数（答对率），没有答卷时为 null
+         */
+        public Double getDifficulty() {
+            return difficulty;
+        }
+
+        /**
+         * 高分组答对率减低分组答对率，答卷太少无法分组时为 null
+         */
+        public Double getDiscrimination() {
+            return discrimination;
+        }
+
+        /**
+         * 答对与否和总分的点二列相关，全对、全错或总分没有差异时为 null
+         */
+        public Double getPointBiserial() {
+            return pointBiserial;
+        }
+
+        public List<OptionStatistics> getOptions() {
+            return options;
+        }
+    }
+
+    public static final class OptionStatistics {
+        private final String option;
+        private final int count;
+        private final int upperCount;
+        private final int lowerCount;
+        private final boolean correct;
+
+        public OptionStatistics(String option, int count, int upperCount, int lowerCount, boolean correct) {
+            this.option = option;
+            this.count = count;
+            this.upperCount = upperCount;
+            this.lowerCount = lowerCount;
+            this.correct = correct;
+        }
+
+        public String getOption() {
+            return option;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getUpperCount() {
+            return upperCount;
+        }
+
+        public int getLowerCount() {
+            return lowerCount;
+        }
+
+        public boolean isCorrect() {
+            return correct;
+        }
+    }
+}
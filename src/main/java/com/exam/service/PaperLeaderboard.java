@@ -0,0 +1,249 @@
+package com.exam.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.dao.PaperDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.ExamRecord;
+import com.exam.model.Paper;
+import com.exam.model.PaperScoreStamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按试卷维护的实时排行榜。首次读取时用一条按学生分组取最高分的查询建立 {@link ScoreRanking}，
+ * 之后由结算在事务提交后逐条累加，读取名次和前 K 名不再访问考试记录。
+ * 重判可能降低已有成绩，此时整张榜单丢弃，下次读取时重新加载。
+ * 加载与累加、丢弃共用同一把分段锁：提交早于加载查询的成绩会被查询读到，晚于它的成绩会累加进已发布的榜单。
+ * 其他节点的结算和重判不会经过本实例，因此每次读取都会比对 {@link PaperScoreStatsStore} 的持久化版本：
+ * 重建次数或已结算记录数与榜单加载时（加上本实例累加的记录）不一致时重新加载。
+ */
+@Component
+public class PaperLeaderboard {
+    private final ExamRecordDao examRecordDao;
+    private final PaperDao paperDao;
+    private final PaperScoreStatsStore scoreStatsStore;
+    private final int topSize;
+    private final Map<Integer, Board> boards = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Object[] locks = createLocks();
+
+    @Autowired
+    public PaperLeaderboard(
+            ExamRecordDao examRecordDao,
+            PaperDao paperDao,
+            PaperScoreStatsStore scoreStatsStore,
+            @Value("${exam.leaderboard.top-size:100}") int topSize
+    ) {
+        this.examRecordDao = examRecordDao;
+        this.paperDao = paperDao;
+        this.scoreStatsStore = scoreStatsStore;
+        this.topSize = Math.max(1, topSize);
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    /**
+     * 读取试卷排行榜的前 limit 名；studentId 非空时一并返回该学生的名次和百分位。
+     */
+    public Standings getStandings(Integer paperId, Integer studentId, int limit) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        if (limit <= 0 || limit > topSize) {
+            throw new BusinessException("Leaderboard limit must be between 1 and " + topSize);
+        }
+        return load(paperId).snapshot(paperId, studentId, limit);
+    }
+
+    /**
+     * 把刚结算的记录计入已加载的榜单，须在结算事务提交后调用；尚未加载的试卷留待首次读取时从库中加载。
+     */
+    public void recordSettled(Collection<ExamRecord> records) {
+        if (records == null) {
+            return;
+        }
+        for (ExamRecord record : records) {
+            Integer paperId = record.getPaperId();
+            if (paperId == null || record.getScore() == null) {
+                continue;
+            }
+            synchronized (lockFor(paperId)) {
+                Board board = boards.get(paperId);
+                if (board != null) {
+                    board.record(record.getStudentId(), record.getScore());
+                }
+            }
+        }
+    }
+
+    public void invalidatePaper(Integer paperId) {
+        if (paperId == null) {
+            return;
+        }
+        synchronized (lockFor(paperId)) {
+            boards.remove(paperId);
+        }
+    }
+
+    public void invalidatePapers(Collection<Integer> paperIds) {
+        if (paperIds != null) {
+            paperIds.forEach(this::invalidatePaper);
+        }
+    }
+
+    private Board load(Integer paperId) {
+        // 先取版本再扫描成绩：两者之间提交的结算会让下次读取时版本不一致而重新加载
+        PaperScoreStamp stamp = scoreStatsStore.loadStamp(paperId);
+        Board board = boards.get(paperId);
+        if (board != null && board.matches(stamp)) {
+            return board;
+        }
+        synchronized (lockFor(paperId)) {
+            board = boards.get(paperId);
+            if (board != null && board.matches(stamp)) {
+                return board;
+            }
+            Paper paper = paperDao.findById(paperId);
+            if (paper == null) {
+                throw new BusinessException("Paper does not exist");
+            }
+            int maxScore = paper.getTotalScore() == null ? 100 : paper.getTotalScore();
+            ScoreRanking ranking = new ScoreRanking(maxScore, topSize);
+            examRecordDao.scanPaperBestScores(paperId, context -> {
+                ExamRecord row = context.getResultObject();
+                ranking.record(row.getStudentId(), row.getScore());
+            });
+            board = new Board(ranking, versions.incrementAndGet(), stamp);
+            boards.put(paperId, board);
+            return board;
+        }
+    }
+
+    private Object lockFor(Integer paperId) {
+        return locks[Math.floorMod(paperId.hashCode(), locks.length)];
+    }
+
+    private static Object[] createLocks() {
+        Object[] locks = new Object[64];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private final class Board {
+        private final ScoreRanking ranking;
+        private final Long stampVersion;
+        private long version;
+        private long settledCount;
+
+        private Board(ScoreRanking ranking, long version, PaperScoreStamp stamp) {
+            this.ranking = ranking;
+            this.version = version;
+            this.stampVersion = stamp == null ? null : stamp.getVersion();
+            this.settledCount = stamp == null ? 0 : stamp.getRecordCount();
+        }
+
+        private synchronized void record(Integer studentId, BigDecimal score) {
+            settledCount++;
+            if (ranking.record(studentId, score)) {
+                version = versions.incrementAndGet();
+            }
+        }
+
+        /**
+         * 版本缺失（分数桶刚被重判置为失效）时视为不一致，下次读取继续重新加载。
+         */
+        private synchronized boolean matches(PaperScoreStamp stamp) {
+            return stamp != null
+                    && stampVersion != null
+                    && stampVersion == stamp.getVersion()
+                    && settledCount == stamp.getRecordCount();
+        }
+
+        private synchronized Standings snapshot(Integer paperId, Integer studentId, int limit) {
+            boolean ranked = studentId != null && ranking.contains(studentId);
+            return new Standings(
+                    paperId,
+                    version,
+                    ranking.size(),
+                    ranking.top(limit),
+                    ranked ? ranking.bestScore(studentId) : null,
+                    ranked ? ranking.rankOf(studentId) : null,
+                    ranked ? ranking.percentileOf(studentId) : null
+            );
+        }
+    }
+
+    public static class Standings {
+        private final Integer paperId;
+        private final long version;
+        private final int participantCount;
+        private final List<ScoreRanking.RankedEntry> top;
+        private final BigDecimal bestScore;
+        private final Integer rank;
+        private final Double percentile;
+
+        public Standings(
+                Integer paperId,
+                long version,
+                int participantCount,
+                List<ScoreRanking.RankedEntry> top,
+                BigDecimal bestScore,
+                Integer rank,
+                Double percentile
+        ) {
+            this.paperId = paperId;
+            this.version = version;
+            this.participantCount = participantCount;
+            this.top = top;
+            this.bestScore = bestScore;
+            this.rank = rank;
+            this.percentile = percentile;
+        }
+
+        public Integer getPaperId() {
+            return paperId;
+        }
+
+        /**
+         * 榜单版本，任一学生的最高分变化或榜单重新加载后都会变化，仅在本实例内有意义。
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public int getParticipantCount() {
+            return participantCount;
+        }
+
+        public List<ScoreRanking.RankedEntry> getTop() {
+            return top;
+        }
+
+        /**
+         * 查询学生在该试卷上的最高分，没有已结算成绩时以下三项均为 null。
+         */
+        public BigDecimal getBestScore() {
+            return bestScore;
+        }
+
+        public Integer getRank() {
+            return rank;
+        }
+
+        public Double getPercentile() {
+            return percentile;
+        }
+    }
+}
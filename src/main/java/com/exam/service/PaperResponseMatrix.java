@@ -0,0 +1,129 @@
+package com.exam.service;
+
+import com.exam.model.PaperAnswerRow;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 一张试卷全部已结算作答的列式存储，供题目分析使用。
+ * 按题目分列：第 q 题第 r 份答卷位于下标 q * respondentCount + r，同一题的数据在数组里连续。
+ * 选项以 {@link GradingEngine#encodeOptions} 的位掩码保存，0 表示未作答，{@link GradingEngine#NO_MASK} 表示无法识别的答案。
+ */
+public final class PaperResponseMatrix {
+    private final AnswerKey answerKey;
+    private final int respondentCount;
+    private final double[] totals;
+    private final int[] masks;
+    private final boolean[] correct;
+
+    private PaperResponseMatrix(AnswerKey answerKey, int respondentCount, double[] totals, int[] masks, boolean[] correct) {
+        this.answerKey = answerKey;
+        this.respondentCount = respondentCount;
+        this.totals = totals;
+        this.masks = masks;
+        this.correct = correct;
+    }
+
+    public static Builder builder(AnswerKey answerKey) {
+        return new Builder(answerKey);
+    }
+
+    public AnswerKey getAnswerKey() {
+        return answerKey;
+    }
+
+    public int getRespondentCount() {
+        return respondentCount;
+    }
+
+    public int getQuestionCount() {
+        return answerKey.size();
+    }
+
+    public double getTotal(int respondent) {
+        return totals[respondent];
+    }
+
+    public int getMask(int question, int respondent) {
+        return masks[question * respondentCount + respondent];
+    }
+
+    public boolean isCorrect(int question, int respondent) {
+        return correct[question * respondentCount + respondent];
+    }
+
+    double[] totals() {
+        return totals;
+    }
+
+    int[] masks() {
+        return masks;
+    }
+
+    boolean[] correct() {
+        return correct;
+    }
+
+    /**
+     * 逐行接收按 record_id 排序的作答行。行先按到达顺序追加到基本类型数组，build 时再转成按题分列的布局。
+     */
+    public static final class Builder {
+        private final AnswerKey answerKey;
+        private double[] totals = new double[64];
+        private int respondentCount;
+        private Integer lastRecordId;
+        private int[] entryRespondents = new int[256];
+        private int[] entryQuestions = new int[256];
+        private int[] entryMasks = new int[256];
+        private boolean[] entryCorrect = new boolean[256];
+        private int entryCount;
+
+        private Builder(AnswerKey answerKey) {
+            this.answerKey = Objects.requireNonNull(answerKey, "answerKey");
+        }
+
+        public void accept(PaperAnswerRow row) {
+            if (respondentCount == 0 || !Objects.equals(row.getRecordId(), lastRecordId)) {
+                addRespondent(row.getRecordScore());
+                lastRecordId = row.getRecordId();
+            }
+            int question = answerKey.indexOf(row.getQuestionId());
+            if (question < 0) {
+                return;
+            }
+            if (entryCount == entryQuestions.length) {
+                int capacity = entryCount * 2;
+                entryRespondents = Arrays.copyOf(entryRespondents, capacity);
+                entryQuestions = Arrays.copyOf(entryQuestions, capacity);
+                entryMasks = Arrays.copyOf(entryMasks, capacity);
+                entryCorrect = Arrays.copyOf(entryCorrect, capacity);
+            }
+            entryRespondents[entryCount] = respondentCount - 1;
+            entryQuestions[entryCount] = question;
+            entryMasks[entryCount] = GradingEngine.encodeOptions(row.getStudentAnswer());
+            entryCorrect[entryCount] = row.isCorrect();
+            entryCount++;
+        }
+
+        public PaperResponseMatrix build() {
+            int questionCount = answerKey.size();
+            int[] masks = new int[questionCount * respondentCount];
+            boolean[] correct = new boolean[masks.length];
+            for (int i = 0; i < entryCount; i++) {
+                int index = entryQuestions[i] * respondentCount + entryRespondents[i];
+                masks[index] = entryMasks[i];
+                correct[index] = entryCorrect[i];
+            }
+            return new PaperResponseMatrix(answerKey, respondentCount, Arrays.copyOf(totals, respondentCount), masks, correct);
+        }
+
+        private void addRespondent(BigDecimal score) {
+            if (respondentCount == totals.length) {
+                totals = Arrays.copyOf(totals, respondentCount * 2);
+            }
+            totals[respondentCount++] = score == null ? 0D : score.doubleValue();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.exam.service;
+
+import com.exam.model.PaperScoreBucket;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 由一张试卷的分数桶推算成绩分布：人数、均值、最值、及格率、分位数和粗粒度直方图。
+ * 桶按 1 分划分并记录桶内最低、最高分，及格线为整数时及格人数是精确值；
+ * 分位数在所在桶的最低、最高分之间线性插值，误差不超过 1 分。
+ */
+public class PaperScoreDistribution {
+    private static final int BIN_COUNT = 10;
+
+    private final int recordCount;
+    private final BigDecimal averageScore;
+    private final BigDecimal minScore;
+    private final BigDecimal maxScore;
+    private final Integer passCount;
+    private final BigDecimal medianScore;
+    private final BigDecimal p90Score;
+    private final List<Bin> bins;
+
+    private PaperScoreDistribution(
+            int recordCount,
+            BigDecimal averageScore,
+            BigDecimal minScore,
+            BigDecimal maxScore,
+            Integer passCount,
+            BigDecimal medianScore,
+            BigDecimal p90Score,
+            List<Bin> bins
+    ) {
+        this.recordCount = recordCount;
+        this.averageScore = averageScore;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.passCount = passCount;
+        this.medianScore = medianScore;
+        this.p90Score = p90Score;
+        this.bins = bins;
+    }
+
+    /**
+     * @param buckets    按 bucket 升序排列的分数桶
+     * @param totalScore 试卷总分，决定直方图的区间宽度，为空时按 100 分处理
+     * @param passScore  及格线，为空时不统计及格人数
+     */
+    public static PaperScoreDistribution of(List<PaperScoreBucket> buckets, Integer totalScore, Integer passScore) {
+        List<PaperScoreBucket> rows = buckets == null ? List.of() : buckets;
+        int recordCount = 0;
+        int passCount = 0;
+        BigDecimal scoreSum = BigDecimal.ZERO;
+        BigDecimal minScore = null;
+        BigDecimal maxScore = null;
+        for (PaperScoreBucket bucket : rows) {
+            recordCount += bucket.getRecordCount();
+            scoreSum = scoreSum.add(bucket.getScoreSum());
+            if (minScore == null || bucket.getMinScore().compareTo(minScore) < 0) {
+                minScore = bucket.getMinScore();
+            }
+            if (maxScore == null || bucket.getMaxScore().compareTo(maxScore) > 0) {
+                maxScore = bucket.getMaxScore();
+            }
+            if (passScore != null && bucket.getBucket() >= passScore) {
+                passCount += bucket.getRecordCount();
+            }
+        }
+
+        List<Bin> bins = buildBins(rows, totalScore == null || totalScore <= 0 ? 100 : totalScore);
+        if (recordCount == 0) {
+            return new PaperScoreDistribution(0, null, null, null, passScore == null ? null : 0, null, null, bins);
+        }
+        return new PaperScoreDistribution(
+                recordCount,
+                scoreSum.divide(BigDecimal.valueOf(recordCount), 2, RoundingMode.HALF_UP),
+                minScore,
+                maxScore,
+                passScore == null ? null : passCount,
+                quantile(rows, recordCount, 0.5D),
+                quantile(rows, recordCount, 0.9D),
+                bins
+        );
+    }
+
+    /**
+     * 把第 position 个成绩（从 0 开始）视为在所在桶最低分到最高分之间均匀分布，前后两个位置再线性插值。
+     */
+    private static BigDecimal quantile(List<PaperScoreBucket> rows, int recordCount, double q) {
+        double position = q * (recordCount - 1);
+        int lower = (int) Math.floor(position);
+        double lowerValue = valueAt(rows, lower);
+        double upperValue = lower + 1 < recordCount ? valueAt(rows, lower + 1) : lowerValue;
+        double value = lowerValue + (position - lower) * (upperValue - lowerValue);
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static double valueAt(List<PaperScoreBucket> rows, int index) {
+        int remaining = index;
+        for (PaperScoreBucket bucket : rows) {
+            int count = bucket.getRecordCount();
+            if (remaining < count) {
+                double min = bucket.getMinScore().doubleValue();
+                double max = bucket.getMaxScore().doubleValue();
+                return count == 1 ? min : min + (max - min) * remaining / (count - 1);
+            }
+            remaining -= count;
+        }
+        return rows.get(rows.size() - 1).getMaxScore().doubleValue();
+    }
+
+    /**
+     * 按总分切成至多 10 个等宽区间，最后一个区间包含满分及超出总分的成绩。
+     */
+    private static List<Bin> buildBins(List<PaperScoreBucket> rows, int totalScore) {
+        int width = Math.max(1, (totalScore + BIN_COUNT - 1) / BIN_COUNT);
+        int binCount = Math.max(1, (totalScore + width - 1) / width);
+        int[] counts = new int[binCount];
+        for (PaperScoreBucket bucket : rows) {
+            counts[Math.min(bucket.getBucket() / width, binCount - 1)] += bucket.getRecordCount();
+        }
+        List<Bin> bins = new ArrayList<>(binCount);
+        for (int i = 0; i < binCount; i++) {
+            int lower = i * width;
+            int upper = i == binCount - 1 ? totalScore : lower + width;
+            bins.add(new Bin(lower, upper, counts[i]));
+        }
+        return Collections.unmodifiableList(bins);
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 没有已结算成绩时以下各项均为 null，及格人数在设置了及格线时为 0。
+     */
+    public BigDecimal getAverageScore() {
+        return averageScore;
+    }
+
+    public BigDecimal getMinScore() {
+        return minScore;
+    }
+
+    public BigDecimal getMaxScore() {
+        return maxScore;
+    }
+
+    public Integer getPassCount() {
+        return passCount;
+    }
+
+    public BigDecimal getMedianScore() {
+        return medianScore;
+    }
+
+    public BigDecimal getP90Score() {
+        return p90Score;
+    }
+
+    public List<Bin> getBins() {
+        return bins;
+    }
+
+    /**
+     * 直方图区间 [lower, upper)，最后一个区间为 [lower, upper]。
+     */
+    public static class Bin {
+        private final int lower;
+        private final int upper;
+        private final int count;
+
+        public Bin(int lower, int upper, int count) {
+            this.lower = lower;
+            this.upper = upper;
+            this.count = count;
+        }
+
+        public int getLower() {
+            return lower;
+        }
+
+        public int getUpper() {
+            return upper;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.exam.service;
+
+import com.exam.dao.PaperScoreStatsDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.Paper;
+import com.exam.model.PaperScoreBucket;
+import com.exam.model.PaperScoreStamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 试卷成绩分布：每张试卷按 1 分一桶保存已结算成绩的数量、总和与桶内最值。
+ * 交卷与超时结算在各自事务内把本次结算的记录累加到对应的桶，读取只查至多 (总分 + 1) 行，与考试次数无关。
+ * 重判会把受影响试卷的标记行置为未建立；标记行缺失或未建立的试卷在下次读取时按考试记录整体重建。
+ * 重建与结算按同一顺序加锁：先是考试记录，再是标记行，不锁 paper 行。
+ */
+@Service
+public class PaperScoreStatsStore {
+    private final PaperScoreStatsDao statsDao;
+    private final TransactionTemplate rebuildTemplate;
+    private final TransactionTemplate readTemplate;
+
+    @Autowired
+    public PaperScoreStatsStore(PaperScoreStatsDao statsDao, PlatformTransactionManager transactionManager) {
+        this.statsDao = statsDao;
+
+        this.rebuildTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 读取试卷的成绩分布；尚未建立或已失效时先重建。及格人数按试卷当前的及格线统计。
+     */
+    public PaperScoreDistribution load(Paper paper) {
+        if (paper == null || paper.getPaperId() == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        Integer paperId = paper.getPaperId();
+        if (statsDao.findMarker(paperId) == null && !rebuild(paperId)) {
+            throw new BusinessException("Paper does not exist");
+        }
+        List<PaperScoreBucket> buckets = readTemplate.execute(status -> statsDao.findBuckets(paperId));
+        return PaperScoreDistribution.of(buckets, paper.getTotalScore(), paper.getPassScore());
+    }
+
+    /**
+     * 读取试卷成绩分布的持久化版本，尚未建立或已失效时先重建；其他节点的结算和重判也会让它变化。
+     *
+     * @return 重建后又被并发的重判置为失效时为 null
+     */
+    public PaperScoreStamp loadStamp(Integer paperId) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        PaperScoreStamp stamp = statsDao.findStamp(paperId);
+        if (stamp != null) {
+            return stamp;
+        }
+        if (!rebuild(paperId)) {
+            throw new BusinessException("Paper does not exist");
+        }
+        return statsDao.findStamp(paperId);
+    }
+
+    /**
+     * 在调用方事务内累加刚结算的考试记录，须在记录状态和成绩写入之后调用。
+     */
+    public void foldSettledRecords(Collection<Integer> recordIds) {
+        if (recordIds == null || recordIds.isEmpty()) {
+            return;
+        }
+        statsDao.foldBuckets(recordIds);
+    }
+
+    public void invalidateRecords(Collection<Integer> recordIds) {
+        if (recordIds == null || recordIds.isEmpty()) {
+            return;
+        }
+        statsDao.invalidateByRecordIds(recordIds);
+    }
+
+    /**
+     * 从考试记录重建单张试卷的分数桶。
+     *
+     * @return 试卷存在时返回 true
+     */
+    private boolean rebuild(Integer paperId) {
+        Boolean rebuilt = rebuildTemplate.execute(status -> {
+            statsDao.lockPaperRecords(paperId);
+            statsDao.claimMarker(paperId);
+            Boolean built = statsDao.lockMarker(paperId);
+            if (built == null) {
+                return false;
+            }
+            if (built) {
+                return true;
+            }
+            statsDao.deleteBucketsByPaperId(paperId);
+            statsDao.insertBucketsFromRecords(paperId);
+            statsDao.markBuilt(paperId);
+            return true;
+        });
+        return Boolean.TRUE.equals(rebuilt);
+    }
+}
@@ -3,26 +3,58 @@ package com.exam.service;
 import com.exam.dao.PaperDao;
 import com.exam.dao.QuestionDao;
 import com.exam.exception.BusinessException;
+import com.exam.exception.QuestionImportException;
+import com.exam.model.DataVersion;
 import com.exam.model.Paper;
 import com.exam.model.Question;
 import com.exam.model.enums.QuestionType;
+import com.exam.util.QuestionImportUtil;
+import com.exam.util.TransactionUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Service
 public class PaperService {
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+
     private final PaperDao paperDao;
     private final QuestionDao questionDao;
-
-    public PaperService(PaperDao paperDao, QuestionDao questionDao) {
+    private final PaperCatalogCache catalogCache;
+    private final AnswerKeyCache answerKeyCache;
+    private final StudentAchievementStore achievementStore;
+    private final PaperLeaderboard leaderboard;
+    private final QuestionSearchIndex searchIndex;
+    private final QuestionSignatureBackfill signatureBackfill;
+
+    public PaperService(
+            PaperDao paperDao,
+            QuestionDao questionDao,
+            PaperCatalogCache catalogCache,
+            AnswerKeyCache answerKeyCache,
+            StudentAchievementStore achievementStore,
+            PaperLeaderboard leaderboard,
+            QuestionSearchIndex searchIndex,
+            QuestionSignatureBackfill signatureBackfill
+    ) {
         this.paperDao = paperDao;
         this.questionDao = questionDao;
+        this.catalogCache = catalogCache;
+        this.answerKeyCache = answerKeyCache;
+        this.achievementStore = achievementStore;
+        this.leaderboard = leaderboard;
+        this.searchIndex = searchIndex;
+        this.signatureBackfill = signatureBackfill;
     }
 
     @Transactional
@@ -53,6 +85,7 @@ public class PaperService {
 
         int paperId = paperDao.insert(paper);
         paperDao.addPaperQuestionsBatch(paperId, uniqueQuestionIds);
+        TransactionUtil.afterCommit(catalogCache::invalidate);
         return paperId;
     }
 
@@ -63,6 +96,16 @@ public class PaperService {
         if (importedQuestions == null || importedQuestions.isEmpty()) {
             throw new BusinessException("Imported question list cannot be empty");
         }
+        for (Question importedQuestion : importedQuestions) {
+            validateImportedQuestion(importedQuestion);
+        }
+
+        Map<String, Question> resolvedBySignature = new HashMap<>();
+        List<Question> createdQuestions = new ArrayList<>();
+        for (int from = 0; from < importedQuestions.size(); from += IMPORT_CHUNK_SIZE) {
+            List<Question> chunk = importedQuestions.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, importedQuestions.size()));
+            resolveImportChunk(chunk, resolvedBySignature, createdQuestions);
+        }
 
         List<Integer> linkedQuestionIds = new ArrayList<>();
         Set<Integer> uniqueQuestionIds = new LinkedHashSet<>();
@@ -71,28 +114,14 @@ public class PaperService {
         int totalScore = 0;
 
         for (Question importedQuestion : importedQuestions) {
-            validateImportedQuestion(importedQuestion);
-
-            Question matched = questionDao.findByExactSignature(
-                    importedQuestion.getSubject().trim(),
-                    importedQuestion.getQuestionType(),
-                    importedQuestion.getContent().trim(),
-                    importedQuestion.getCorrectAnswer().trim()
-            );
-
-            Integer questionId;
-            Question resolvedQuestion;
-            if (matched == null) {
-                questionId = questionDao.insert(importedQuestion);
-                importedQuestion.setQuestionId(questionId);
-                resolvedQuestion = importedQuestion;
+            Question resolvedQuestion = resolvedBySignature.get(importedQuestion.getSignatureHash());
+            if (resolvedQuestion == importedQuestion) {
                 createdQuestionCount++;
             } else {
-                questionId = matched.getQuestionId();
-                resolvedQuestion = matched;
                 reusedQuestionCount++;
             }
 
+            Integer questionId = resolvedQuestion.getQuestionId();
             if (questionId != null && uniqueQuestionIds.add(questionId)) {
                 linkedQuestionIds.add(questionId);
                 totalScore += resolvedQuestion.getScore();
@@ -108,6 +137,10 @@ public class PaperService {
 
         int paperId = paperDao.insert(paper);
         paperDao.addPaperQuestionsBatch(paperId, linkedQuestionIds);
+        TransactionUtil.afterCommit(() -> {
+            catalogCache.invalidate();
+            createdQuestions.forEach(searchIndex::upsert);
+        });
 
         return new ImportPaperResult(
                 paperId,
@@ -118,20 +151,147 @@ public class PaperService {
         );
     }
 
+    /**
+     * 边读边导入：逐行解析导入内容，每满一段就查重、落库并追加到试卷，内存中只保留当前一段题目。
+     * 任一行无效时继续读完以收集逐行错误，随后整份导入回滚并抛出 QuestionImportException。
+     */
+    @Transactional
+    public ImportPaperResult importPaperStreaming(Paper paper, Reader source, Integer creatorId) {
+        validatePaper(paper);
+        if (source == null) {
+            throw new BusinessException("Imported question source cannot be null");
+        }
+
+        paper.setTotalScore(0);
+        paperDao.insert(paper);
+        StreamingImport streamingImport = new StreamingImport(paper.getPaperId());
+        int sourceQuestionCount;
+        try {
+            sourceQuestionCount = QuestionImportUtil.parse(source, creatorId, streamingImport);
+        } catch (IOException ex) {
+            throw new BusinessException("Failed to read imported questions", ex);
+        }
+        streamingImport.flush();
+
+        if (streamingImport.errorCount > 0) {
+            throw new QuestionImportException(
+                    "Imported content has " + streamingImport.errorCount + " invalid line(s)",
+                    streamingImport.errorCount,
+                    streamingImport.errors
+            );
+        }
+        if (streamingImport.linkedQuestionCount == 0) {
+            throw new BusinessException("No valid questions available for paper creation");
+        }
+
+        paper.setTotalScore(paperDao.sumQuestionScores(paper.getPaperId()));
+        validatePassScoreWithinTotalScore(paper);
+        paperDao.update(paper);
+
+        List<Integer> createdQuestionIds = streamingImport.createdQuestionIds;
+        TransactionUtil.afterCommit(() -> {
+            catalogCache.invalidate();
+            for (int from = 0; from < createdQuestionIds.size(); from += IMPORT_CHUNK_SIZE) {
+                List<Integer> ids = createdQuestionIds.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, createdQuestionIds.size()));
+                questionDao.findByIds(ids).values().forEach(searchIndex::upsert);
+            }
+        });
+
+        return new ImportPaperResult(
+                paper.getPaperId(),
+                sourceQuestionCount,
+                streamingImport.linkedQuestionCount,
+                streamingImport.createdQuestionCount,
+                streamingImport.reusedQuestionCount
+        );
+    }
+
+    /**
+     * 一段导入题目的查重与落库：先按签名一次批量查出已有题目，未命中的题目一次多行插入。
+     * 同一次导入中签名相同的题目只插入第一道，之后的按复用处理。
+     * 旧题目的签名回填完成前，批量未命中的题目再按原条件逐题补查一次。
+     */
+    private void resolveImportChunk(
+            List<Question> chunk,
+            Map<String, Question> resolvedBySignature,
+            List<Question> createdQuestions
+    ) {
+        Set<String> pendingSignatures = new LinkedHashSet<>();
+        for (Question importedQuestion : chunk) {
+            String signatureHash = importedQuestion.getSignatureHash();
+            if (!resolvedBySignature.containsKey(signatureHash)) {
+                pendingSignatures.add(signatureHash);
+            }
+        }
+        if (pendingSignatures.isEmpty()) {
+            return;
+        }
+        for (Question existing : questionDao.findBySignatureHashes(pendingSignatures)) {
+            // 以当前内容重新计算签名，保存的签名与内容不一致的行不参与复用
+            String signatureHash = existing.getSignatureHash();
+            if (pendingSignatures.contains(signatureHash)) {
+                resolvedBySignature.putIfAbsent(signatureHash, existing);
+            }
+        }
+
+        List<Question> misses = new ArrayList<>();
+        for (Question importedQuestion : chunk) {
+            String signatureHash = importedQuestion.getSignatureHash();
+            if (resolvedBySignature.containsKey(signatureHash)) {
+                continue;
+            }
+            Question matched = signatureBackfill.isCompleted() ? null : questionDao.findByExactSignature(
+                    importedQuestion.getSubject().trim(),
+                    importedQuestion.getQuestionType(),
+                    importedQuestion.getContent().trim(),
+                    importedQuestion.getCorrectAnswer().trim()
+            );
+            if (matched != null) {
+                resolvedBySignature.put(signatureHash, matched);
+            } else {
+                resolvedBySignature.put(signatureHash, importedQuestion);
+                misses.add(importedQuestion);
+            }
+        }
+        if (!misses.isEmpty()) {
+            questionDao.insertBatch(misses);
+            createdQuestions.addAll(misses);
+        }
+    }
+
+    @Transactional
     public int updatePaper(Paper paper) {
         if (paper.getPaperId() == null) {
             throw new BusinessException("Paper ID cannot be null");
         }
         validatePaper(paper);
         validatePassScoreWithinTotalScore(paper);
-        return paperDao.update(paper);
+        Paper previous = paperDao.findById(paper.getPaperId());
+        int updated = paperDao.update(paper);
+        Integer paperId = paper.getPaperId();
+        if (updated > 0 && (previous == null
+                || !Objects.equals(previous.getSubject(), paper.getSubject())
+                || !Objects.equals(previous.getPassScore(), paper.getPassScore()))) {
+            // 成绩聚合按试卷科目和及格线归类，二者变化后参加过该试卷的学生需要重建
+            achievementStore.invalidatePaper(paperId);
+        }
+        TransactionUtil.afterCommit(() -> catalogCache.refreshPaper(paperId));
+        return updated;
     }
 
+    @Transactional
     public int deletePaper(Integer paperId) {
         if (paperId == null) {
             throw new BusinessException("Paper ID cannot be null");
         }
-        return paperDao.delete(paperId);
+        achievementStore.invalidatePaper(paperId);
+        int deleted = paperDao.delete(paperId);
+        TransactionUtil.afterCommit(() -> {
+            catalogCache.removePaper(paperId);
+            answerKeyCache.invalidatePaper(paperId);
+            leaderboard.invalidatePaper(paperId);
+        });
+        return deleted;
     }
 
     public Paper getPaperById(Integer paperId) {
@@ -150,6 +310,21 @@ public class PaperService {
         return paper;
     }
 
+    /**
+     * 只含题型计数的试卷，不加载题目列表；用于题目很多的试卷。
+     */
+    public Paper getPaperWithQuestionStats(Integer paperId) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+
+        Paper paper = paperDao.findWithQuestionStatsById(paperId);
+        if (paper == null) {
+            throw new BusinessException("Paper does not exist");
+        }
+        return paper;
+    }
+
     public Paper getPaperByName(String paperName) {
         if (paperName == null || paperName.trim().isEmpty()) {
             throw new BusinessException("Paper name cannot be blank");
@@ -167,7 +342,7 @@ public class PaperService {
     }
 
     public List<Paper> getAllPapersOptimized() {
-        return paperDao.findAllWithQuestionCount();
+        return catalogCache.getAllPapers();
     }
 
     public List<Paper> getAllPapers() {
@@ -213,7 +388,25 @@ public class PaperService {
     }
 
     public List<Paper> getAllPublishedPapersOptimized() {
-        return paperDao.findAllPublishedWithQuestionStats();
+        return catalogCache.getPublishedPapers();
+    }
+
+    /**
+     * 当前试卷目录快照的版本，与 getAllPapersOptimized / getAllPublishedPapersOptimized 返回的数据一致。
+     */
+    public String getCatalogVersion() {
+        return catalogCache.getVersionTag();
+    }
+
+    public DataVersion getPapersVersion() {
+        return paperDao.findPapersVersion();
+    }
+
+    public DataVersion getPaperVersion(Integer paperId) {
+        if (paperId == null) {
+            throw new BusinessException("Paper ID cannot be null");
+        }
+        return paperDao.findPaperVersion(paperId);
     }
 
     public void publishPaper(Integer paperId) {
@@ -221,6 +414,7 @@ public class PaperService {
             throw new BusinessException("Paper ID cannot be null");
         }
         paperDao.updatePublishStatus(paperId, true);
+        TransactionUtil.afterCommit(() -> catalogCache.refreshPaper(paperId));
     }
 
     public void unpublishPaper(Integer paperId) {
@@ -228,6 +422,7 @@ public class PaperService {
             throw new BusinessException("Paper ID cannot be null");
         }
         paperDao.updatePublishStatus(paperId, false);
+        TransactionUtil.afterCommit(() -> catalogCache.refreshPaper(paperId));
     }
 
     private void validateImportedQuestion(Question question) {
@@ -295,6 +490,83 @@ public class PaperService {
         return paperDao;
     }
 
+    /**
+     * 流式导入的分段状态。跨段的查重由数据库完成：先前各段新建的题目在同一事务内可按签名查到，
+     * 重复关联由 paper_question 的唯一键跳过。
+     */
+    private final class StreamingImport implements QuestionImportUtil.LineHandler {
+        private final Integer paperId;
+        private final List<Question> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private final List<QuestionImportException.LineError> errors = new ArrayList<>();
+        private final List<Integer> createdQuestionIds = new ArrayList<>();
+        private int errorCount;
+        private int nextOrder = 1;
+        private int linkedQuestionCount;
+        private int createdQuestionCount;
+        private int reusedQuestionCount;
+
+        private StreamingImport(Integer paperId) {
+            this.paperId = paperId;
+        }
+
+        @Override
+        public void onQuestion(int lineNumber, Question question) {
+            try {
+                validateImportedQuestion(question);
+            } catch (BusinessException ex) {
+                onError(lineNumber, ex.getMessage());
+                return;
+            }
+            if (errorCount > 0) {
+                return;
+            }
+            chunk.add(question);
+            if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onError(int lineNumber, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_IMPORT_ERRORS) {
+                errors.add(new QuestionImportException.LineError(lineNumber, message));
+            }
+            // 整份导入终将回滚，不再落库后续题目，只继续收集错误
+            chunk.clear();
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<String, Question> resolvedBySignature = new HashMap<>();
+            List<Question> createdQuestions = new ArrayList<>();
+            resolveImportChunk(chunk, resolvedBySignature, createdQuestions);
+
+            Set<Integer> chunkQuestionIds = new LinkedHashSet<>();
+            for (Question importedQuestion : chunk) {
+                Question resolvedQuestion = resolvedBySignature.get(importedQuestion.getSignatureHash());
+                if (resolvedQuestion == importedQuestion) {
+                    createdQuestionCount++;
+                } else {
+                    reusedQuestionCount++;
+                }
+                if (resolvedQuestion.getQuestionId() != null) {
+                    chunkQuestionIds.add(resolvedQuestion.getQuestionId());
+                }
+            }
+            for (Question createdQuestion : createdQuestions) {
+                createdQuestionIds.add(createdQuestion.getQuestionId());
+            }
+            if (!chunkQuestionIds.isEmpty()) {
+                linkedQuestionCount += paperDao.appendPaperQuestions(paperId, new ArrayList<>(chunkQuestionIds), nextOrder);
+                nextOrder += chunkQuestionIds.size();
+            }
+            chunk.clear();
+        }
+    }
+
     public static class ImportPaperResult {
         private final int paperId;
         private final int sourceQuestionCount;
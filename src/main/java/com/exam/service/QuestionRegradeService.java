@@ -0,0 +1,324 @@
+package com.exam.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.dao.QuestionDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.AnswerRecord;
+import com.exam.model.Question;
+import jakarta.annotation.PreDestroy;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 题目答案、题型或分值变更后的历史作答重判。
+ * 用游标按 answer_id 流式扫描该题的作答记录，只把结果发生变化的行分块写回，
+ * 每块在独立的短事务里更新 answer_record 并重算相关 exam_record 的总分，内存占用与总行数无关。
+ */
+@Service
+public class QuestionRegradeService {
+    private static final Logger log = LoggerFactory.getLogger(QuestionRegradeService.class);
+
+    private final ExamRecordDao examRecordDao;
+    private final QuestionDao questionDao;
+    private final StudentAchievementStore achievementStore;
+    private final PaperLeaderboard leaderboard;
+    private final PaperScoreStatsStore scoreStatsStore;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate chunkTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Map<Integer, RegradeProgress> progressByQuestionId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QuestionRegradeService(
+            ExamRecordDao examRecordDao,
+            QuestionDao questionDao,
+            StudentAchievementStore achievementStore,
+            PaperLeaderboard leaderboard,
+            PaperScoreStatsStore scoreStatsStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.grading.regrade.chunk-size:500}") int chunkSize
+    ) {
+        this(examRecordDao, questionDao, achievementStore, leaderboard, scoreStatsStore, transactionManager, chunkSize, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-regrade");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public QuestionRegradeService(
+            ExamRecordDao examRecordDao,
+            QuestionDao questionDao,
+            StudentAchievementStore achievementStore,
+            PaperLeaderboard leaderboard,
+            PaperScoreStatsStore scoreStatsStore,
+            PlatformTransactionManager transactionManager,
+            int chunkSize,
+            ExecutorService executor
+    ) {
+        this.examRecordDao = examRecordDao;
+        this.questionDao = questionDao;
+        this.achievementStore = achievementStore;
+        this.leaderboard = leaderboard;
+        this.scoreStatsStore = scoreStatsStore;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.executor = executor;
+
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.chunkTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 异步排队重判；同一题目已在排队时不会重复入队。
+     */
+    public RegradeProgress regradeAsync(Integer questionId) {
+        if (questionId == null) {
+            throw new BusinessException("Question ID cannot be null");
+        }
+        RegradeProgress queued = new RegradeProgress(questionId);
+        RegradeProgress existing = progressByQuestionId.merge(
+                questionId,
+                queued,
+                (previous, next) -> previous.getState() == RegradeState.QUEUED ? previous : next
+        );
+        if (existing == queued) {
+            executor.execute(() -> run(queued));
+        }
+        return existing;
+    }
+
+    /**
+     * 在调用线程上同步重判，返回最终进度。该题已有排队或进行中的重判时拒绝，避免覆盖其进度。
+     */
+    public RegradeProgress regrade(Integer questionId) {
+        if (questionId == null) {
+            throw new BusinessException("Question ID cannot be null");
+        }
+        RegradeProgress progress = new RegradeProgress(questionId);
+        RegradeProgress current = progressByQuestionId.merge(
+                questionId,
+                progress,
+                (previous, next) -> previous.isActive() ? previous : next
+        );
+        if (current != progress) {
+            throw new BusinessException("Question regrade is already in progress");
+        }
+        run(progress);
+        return progress;
+    }
+
+    public RegradeProgress getProgress(Integer questionId) {
+        return questionId == null ? null : progressByQuestionId.get(questionId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(RegradeProgress progress) {
+        progress.start();
+        try {
+            Question question = questionDao.findById(progress.getQuestionId());
+            if (question == null) {
+                progress.complete();
+                return;
+            }
+            AnswerKey answerKey = AnswerKey.compile(null, 0L, 0L, List.of(question));
+
+            // 扫描期间仍可能有按旧答案结算的提交落库，继续从上次位置扫描直到没有新行
+            int afterAnswerId = 0;
+            while (true) {
+                int lastAnswerId = scanPass(progress, answerKey, afterAnswerId);
+                if (lastAnswerId == afterAnswerId) {
+                    break;
+                }
+                afterAnswerId = lastAnswerId;
+            }
+            progress.complete();
+            log.info(
+                    "Regraded question {}: scanned={}, changed={}, records={}",
+                    progress.getQuestionId(),
+                    progress.getScannedAnswers(),
+                    progress.getChangedAnswers(),
+                    progress.getRecomputedRecords()
+            );
+        } catch (RuntimeException ex) {
+            progress.fail(ex.getMessage());
+            log.error("Regrade failed for question {}", progress.getQuestionId(), ex);
+        }
+    }
+
+    private int scanPass(RegradeProgress progress, AnswerKey answerKey, int afterAnswerId) {
+        Integer lastAnswerId = readTemplate.execute(status -> {
+            int last = afterAnswerId;
+            List<AnswerRecord> changed = new ArrayList<>(chunkSize);
+            try (Cursor<AnswerRecord> cursor = examRecordDao.streamAnswerRecordsByQuestionId(
+                    progress.getQuestionId(),
+                    afterAnswerId
+            )) {
+                for (AnswerRecord answerRecord : cursor) {
+                    last = answerRecord.getAnswerId();
+                    progress.scanned();
+                    if (regradeInPlace(answerKey, answerRecord)) {
+                        changed.add(answerRecord);
+                        if (changed.size() >= chunkSize) {
+                            flush(progress, changed);
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to close answer record cursor", ex);
+            }
+            flush(progress, changed);
+            return last;
+        });
+        return lastAnswerId == null ? afterAnswerId : lastAnswerId;
+    }
+
+    private boolean regradeInPlace(AnswerKey answerKey, AnswerRecord answerRecord) {
+        boolean correct = GradingEngine.isCorrect(answerKey, 0, answerRecord.getStudentAnswer());
+        BigDecimal score = correct ? answerKey.getScoreValue(0) : BigDecimal.ZERO;
+        boolean unchanged = Boolean.valueOf(correct).equals(answerRecord.getIsCorrect())
+                && answerRecord.getScore() != null
+                && answerRecord.getScore().compareTo(score) == 0;
+        if (unchanged) {
+            return false;
+        }
+        answerRecord.setIsCorrect(correct);
+        answerRecord.setScore(score);
+        return true;
+    }
+
+    private void flush(RegradeProgress progress, List<AnswerRecord> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Integer> recordIds = new LinkedHashSet<>();
+        for (AnswerRecord answerRecord : changed) {
+            recordIds.add(answerRecord.getRecordId());
+        }
+        List<Integer> paperIds = chunkTemplate.execute(status -> {
+            examRecordDao.updateAnswerGrades(changed);
+            examRecordDao.recomputeScoresByRecordIds(recordIds);
+            achievementStore.invalidateRecords(recordIds);
+            scoreStatsStore.invalidateRecords(recordIds);
+            return examRecordDao.findPaperIdsByRecordIds(recordIds);
+        });
+        // 重判可能降低成绩，排行榜只能整张重新加载
+        leaderboard.invalidatePapers(paperIds);
+        progress.chunkWritten(changed.size(), recordIds.size());
+        changed.clear();
+    }
+
+    public enum RegradeState {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static class RegradeProgress {
+        private final Integer questionId;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private volatile RegradeState state = RegradeState.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long scannedAnswers;
+        private volatile long changedAnswers;
+        private volatile long recomputedRecords;
+        private volatile String failureMessage;
+
+        private RegradeProgress(Integer questionId) {
+            this.questionId = questionId;
+        }
+
+        private void start() {
+            startedAt = LocalDateTime.now();
+            state = RegradeState.RUNNING;
+        }
+
+        private void scanned() {
+            scannedAnswers++;
+        }
+
+        private void chunkWritten(int answers, int records) {
+            changedAnswers += answers;
+            recomputedRecords += records;
+        }
+
+        private void complete() {
+            finishedAt = LocalDateTime.now();
+            state = RegradeState.COMPLETED;
+        }
+
+        private void fail(String message) {
+            failureMessage = message;
+            finishedAt = LocalDateTime.now();
+            state = RegradeState.FAILED;
+        }
+
+        public Integer getQuestionId() {
+            return questionId;
+        }
+
+        public RegradeState getState() {
+            return state;
+        }
+
+        public LocalDateTime getQueuedAt() {
+            return queuedAt;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public long getScannedAnswers() {
+            return scannedAnswers;
+        }
+
+        public long getChangedAnswers() {
+            return changedAnswers;
+        }
+
+        public long getRecomputedRecords() {
+            return recomputedRecords;
+        }
+
+        public String getFailureMessage() {
+            return failureMessage;
+        }
+
+        public boolean isActive() {
+            return state == RegradeState.QUEUED || state == RegradeState.RUNNING;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.exam.service;
+
+import com.exam.dao.QuestionDao;
+import com.exam.model.Question;
+import com.exam.model.QuestionBankStamp;
+import com.exam.model.enums.Difficulty;
+import com.exam.model.enums.QuestionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 题库题干的内存倒排索引：按单字和相邻两字建立有序的题目 ID 列表，
+ * 关键字检索先对各字组的列表求交集得到候选，再逐条确认题干确实包含关键字，结果与计数都是精确的。
+ * 启动后从数据库流式建立，之后由题目的增删改在事务提交后逐条维护；建立完成前检索仍走数据库。
+ * 其他节点、导入工具或直接 SQL 写入的题目不经过本实例，因此定期探测题库的 MAX(update_time)、MAX(question_id) 和 COUNT(*)：
+ * 有变化时增量读入更新时间不早于上次水位的题目，读入后题目数仍与库中不一致（有题目在别处被删除）时整体重建。
+ * 重建在锁外读库、建好新表后整体换入；增量读入按小批加写锁应用，检索和题目维护不会被整次扫描阻塞。
+ * 同步期间本实例提交的题目变更会被记下，换入新表或应用扫描结果时以这些变更为准，不会被扫描读到的旧行覆盖。
+ * 匹配不区分大小写，关键字按字面匹配，不把 % 和 _ 当作通配符。
+ */
+@Component
+public class QuestionSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(QuestionSearchIndex.class);
+    /**
+     * 增量读取时水位向前回退的时长，覆盖 update_time 已赋值、但事务晚于探测才提交的写入
+     */
+    private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+    /**
+     * 增量读入时每次加写锁应用的行数
+     */
+    private static final int RECONCILE_BATCH_SIZE = 256;
+
+    private final QuestionDao questionDao;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Tables tables = new Tables();
+    /**
+     * 同步进行中本实例提交的题目变更，值为 null 表示删除；不在同步时为 null。读写都持有写锁
+     */
+    private Map<Integer, Question> changesDuringSync;
+    private volatile boolean ready;
+    private QuestionBankStamp stamp;
+
+    @Autowired
+    public QuestionSearchIndex(
+            QuestionDao questionDao,
+            @Value("${exam.question.search-index.enabled:true}") boolean enabled
+    ) {
+        this.questionDao = questionDao;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 从数据库重新建立索引。新表在锁外建立，建好后换入，期间检索仍使用旧表。
+     */
+    public synchronized void rebuild() {
+        beginSync();
+        try {
+            rebuildTables();
+        } finally {
+            endSync();
+        }
+    }
+
+    /**
+     * 探测题库是否在本实例之外发生过变化，并把变化同步进索引。
+     *
+     * @return 索引有更新时返回 true
+     */
+    @Scheduled(fixedDelayString = "${exam.question.search-index.reconcile-interval-ms:30000}", initialDelayString = "${exam.question.search-index.reconcile-interval-ms:30000}")
+    public synchronized boolean reconcile() {
+        if (!enabled || !ready) {
+            return false;
+        }
+        try {
+            QuestionBankStamp probe = questionDao.probeBankStamp();
+            if (probe == null || probe.equals(stamp)) {
+                return false;
+            }
+            beginSync();
+            try {
+                LocalDateTime watermark = stamp == null ? null : stamp.getMaxUpdateTime();
+                if (watermark == null) {
+                    rebuildTables();
+                    return true;
+                }
+                List<Question> batch = new ArrayList<>(RECONCILE_BATCH_SIZE);
+                questionDao.scanSearchRowsUpdatedSince(watermark.minus(WATERMARK_OVERLAP), context -> {
+                    batch.add(context.getResultObject());
+                    if (batch.size() >= RECONCILE_BATCH_SIZE) {
+                        applyScanned(batch);
+                        batch.clear();
+                    }
+                });
+                applyScanned(batch);
+                if (size() != probe.getQuestionCount()) {
+                    rebuildTables();
+                } else {
+                    stamp = probe;
+                }
+                return true;
+            } finally {
+                endSync();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Question search index reconcile failed, will retry on the next run", e);
+            return false;
+        }
+    }
+
+    /**
+     * 先探测再扫描：扫描期间提交的写入会让下次探测结果不同，由 reconcile 补上。
+     */
+    private void rebuildTables() {
+        QuestionBankStamp probe = questionDao.probeBankStamp();
+        Tables rebuilt = new Tables();
+        questionDao.scanSearchRows(context -> rebuilt.add(context.getResultObject()));
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, Question> change : changesDuringSync.entrySet()) {
+                rebuilt.remove(change.getKey());
+                rebuilt.add(change.getValue());
+            }
+            tables = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        stamp = probe;
+        ready = true;
+    }
+
+    private void applyScanned(List<Question> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Question question : rows) {
+                if (!changesDuringSync.containsKey(question.getQuestionId())) {
+                    tables.remove(question.getQuestionId());
+                    tables.add(question);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void beginSync() {
+        lock.writeLock().lock();
+        try {
+            changesDuringSync = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void endSync() {
+        lock.writeLock().lock();
+        try {
+            changesDuringSync = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tables.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写入或替换一道题目，须在题目落库的事务提交后调用。
+     */
+    public void upsert(Question question) {
+        if (question == null || question.getQuestionId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            tables.remove(question.getQuestionId());
+            tables.add(question);
+            recordChange(question.getQuestionId(), question);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer questionId) {
+        if (questionId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            tables.remove(questionId);
+            recordChange(questionId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordChange(Integer questionId, Question question) {
+        if (changesDuringSync != null) {
+            changesDuringSync.put(questionId, question);
+        }
+    }
+
+    /**
+     * 按题干关键字和可选的科目、题型、难度过滤，返回命中总数和 [offset, offset + limit) 范围内的题目 ID。
+     *
+     * @param relevance 为 true 时按关键字在题干中出现的位置和题干长度排序，否则按题目 ID 升序
+     */
+    public Page search(
+            String keyword,
+            String subject,
+            QuestionType type,
+            Difficulty difficulty,
+            int offset,
+            int limit,
+            boolean relevance
+    ) {
+        String needle = normalize(keyword);
+        int from = Math.max(0, offset);
+        int pageSize = Math.max(0, limit);
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = new ArrayList<>();
+            int total = 0;
+            List<Integer> pageIds = new ArrayList<>(Math.min(pageSize, 256));
+            for (int questionId : candidates(needle)) {
+                Entry entry = tables.entries.get(questionId);
+                if (entry == null || !entry.matches(needle, subject, type, difficulty)) {
+                    continue;
+                }
+                if (relevance) {
+                    matches.add(entry);
+                } else if (total >= from && pageIds.size() < pageSize) {
+                    pageIds.add(questionId);
+                }
+                total++;
+            }
+            if (relevance) {
+                matches.sort(Comparator
+                        .comparingInt((Entry entry) -> entry.content.indexOf(needle))
+                        .thenComparingInt(entry -> entry.content.length())
+                        .thenComparingInt(entry -> entry.questionId));
+                for (int i = from; i < matches.size() && pageIds.size() < pageSize; i++) {
+                    pageIds.add(matches.get(i).questionId);
+                }
+            }
+            return new Page(total, pageIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 关键字的全部字组都出现过的题目，按 ID 升序；只是候选，还需确认题干包含完整关键字。
+     */
+    private int[] candidates(String needle) {
+        if (needle.isEmpty()) {
+            return new int[0];
+        }
+        List<Postings> lists = new ArrayList<>();
+        if (needle.length() == 1) {
+            lists.add(tables.unigrams.get((int) needle.charAt(0)));
+        } else {
+            for (int gram : bigramsOf(needle)) {
+                lists.add(tables.bigrams.get(gram));
+            }
+        }
+        if (lists.contains(null)) {
+            return new int[0];
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = lists.get(i).retainIn(result, length);
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static void removePosting(Map<Integer, Postings> index, int gram, int questionId) {
+        Postings postings = index.get(gram);
+        if (postings != null && postings.remove(questionId) && postings.size == 0) {
+            index.remove(gram);
+        }
+    }
+
+    private static Set<Integer> unigramsOf(String text) {
+        Set<Integer> grams = new HashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            grams.add((int) text.charAt(i));
+        }
+        return grams;
+    }
+
+    private static Set<Integer> bigramsOf(String text) {
+        Set<Integer> grams = new HashSet<>();
+        for (int i = 0; i + 1 < text.length(); i++) {
+            grams.add((text.charAt(i) << 16) | text.charAt(i + 1));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一份完整的索引表；重建时另建一份，建好后整体替换。
+     */
+    private static final class Tables {
+        private final Map<Integer, Entry> entries = new HashMap<>();
+        private final Map<Integer, Postings> unigrams = new HashMap<>();
+        private final Map<Integer, Postings> bigrams = new HashMap<>();
+
+        private void add(Question question) {
+            if (question == null || question.getQuestionId() == null) {
+                return;
+            }
+            Entry entry = new Entry(question);
+            entries.put(entry.questionId, entry);
+            for (int gram : unigramsOf(entry.content)) {
+                unigrams.computeIfAbsent(gram, key -> new Postings()).add(entry.questionId);
+            }
+            for (int gram : bigramsOf(entry.content)) {
+                bigrams.computeIfAbsent(gram, key -> new Postings()).add(entry.questionId);
+            }
+        }
+
+        private void remove(Integer questionId) {
+            Entry entry = entries.remove(questionId);
+            if (entry == null) {
+                return;
+            }
+            for (int gram : unigramsOf(entry.content)) {
+                removePosting(unigrams, gram, questionId);
+            }
+            for (int gram : bigramsOf(entry.content)) {
+                removePosting(bigrams, gram, questionId);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final int questionId;
+        private final String content;
+        private final String subject;
+        private final QuestionType type;
+        private final Difficulty difficulty;
+
+        private Entry(Question question) {
+            this.questionId = question.getQuestionId();
+            this.content = normalize(question.getContent());
+            this.subject = question.getSubject();
+            this.type = question.getQuestionType();
+            // 与落库时一致：未指定难度的题目按中等保存
+            this.difficulty = question.getDifficulty() == null ? Difficulty.MEDIUM : question.getDifficulty();
+        }
+
+        private boolean matches(String needle, String subjectFilter, QuestionType typeFilter, Difficulty difficultyFilter) {
+            if (subjectFilter != null && !subjectFilter.trim().isEmpty() && !subjectFilter.equalsIgnoreCase(subject)) {
+                return false;
+            }
+            if (typeFilter != null && typeFilter != type) {
+                return false;
+            }
+            if (difficultyFilter != null && difficultyFilter != difficulty) {
+                return false;
+            }
+            return content.contains(needle);
+        }
+    }
+
+    /**
+     * 有序且不重复的题目 ID 列表。题目 ID 自增，新题通常追加在末尾。
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int questionId) {
+            if (size > 0 && ids[size - 1] >= questionId) {
+                int position = Arrays.binarySearch(ids, 0, size, questionId);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, questionId);
+                return;
+            }
+            insertAt(size, questionId);
+        }
+
+        private void insertAt(int position, int questionId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = questionId;
+            size++;
+        }
+
+        private boolean remove(int questionId) {
+            int position = Arrays.binarySearch(ids, 0, size, questionId);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * 只保留 target 前 length 个元素中同时出现在本列表里的 ID，返回保留后的长度。
+         */
+        private int retainIn(int[] target, int length) {
+            int kept = 0;
+            int cursor = 0;
+            for (int i = 0; i < length && cursor < size; i++) {
+                int questionId = target[i];
+                while (cursor < size && ids[cursor] < questionId) {
+                    cursor++;
+                }
+                if (cursor < size && ids[cursor] == questionId) {
+                    target[kept++] = questionId;
+                }
+            }
+            return kept;
+        }
+    }
+
+    public static class Page {
+        private final int total;
+        private final List<Integer> questionIds;
+
+        public Page(int total, List<Integer> questionIds) {
+            this.total = total;
+            this.questionIds = questionIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Integer> getQuestionIds() {
+            return questionIds;
+        }
+    }
+}
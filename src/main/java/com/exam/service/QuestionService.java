@@ -5,37 +5,92 @@ import com.exam.exception.BusinessException;
 import com.exam.model.Question;
 import com.exam.model.enums.Difficulty;
 import com.exam.model.enums.QuestionType;
+import com.exam.util.TransactionUtil;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class QuestionService {
     private final QuestionDao questionDao;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuestionRegradeService regradeService;
+    private final StudentAchievementStore achievementStore;
+    private final QuestionSearchIndex searchIndex;
 
-    public QuestionService(QuestionDao questionDao) {
+    public QuestionService(
+            QuestionDao questionDao,
+            AnswerKeyCache answerKeyCache,
+            QuestionRegradeService regradeService,
+            StudentAchievementStore achievementStore,
+            QuestionSearchIndex searchIndex
+    ) {
         this.questionDao = questionDao;
+        this.answerKeyCache = answerKeyCache;
+        this.regradeService = regradeService;
+        this.achievementStore = achievementStore;
+        this.searchIndex = searchIndex;
     }
 
     public int addQuestion(Question question) {
         validateQuestion(question);
-        return questionDao.insert(question);
+        int inserted = questionDao.insert(question);
+        TransactionUtil.afterCommit(() -> searchIndex.upsert(question));
+        return inserted;
     }
 
+    @Transactional
     public int updateQuestion(Question question) {
         if (question.getQuestionId() == null) {
             throw new BusinessException("题目ID不能为空");
         }
         validateQuestion(question);
-        return questionDao.update(question);
+        Question previous = questionDao.findById(question.getQuestionId());
+        int updated = questionDao.update(question);
+        Integer questionId = question.getQuestionId();
+        boolean regradeRequired = updated > 0 && previous != null && isGradingChanged(previous, question);
+        if (updated > 0 && previous != null && previous.getQuestionType() != question.getQuestionType()) {
+            // 题型统计按题目当前题型归类，题型变化后相关学生的成绩聚合需要重建
+            achievementStore.invalidateQuestion(questionId);
+        }
+        TransactionUtil.afterCommit(() -> {
+            answerKeyCache.invalidateQuestion(questionId);
+            if (updated > 0) {
+                searchIndex.upsert(question);
+            }
+            if (regradeRequired) {
+                regradeService.regradeAsync(questionId);
+            }
+        });
+        return updated;
     }
 
+    @Transactional
     public int deleteQuestion(Integer questionId) {
         if (questionId == null) {
             throw new BusinessException("题目ID不能为空");
         }
-        return questionDao.delete(questionId);
+        achievementStore.invalidateQuestion(questionId);
+        int deleted = questionDao.delete(questionId);
+        TransactionUtil.afterCommit(() -> {
+            answerKeyCache.invalidateQuestion(questionId);
+            searchIndex.remove(questionId);
+        });
+        return deleted;
+    }
+
+    /**
+     * 题目最近一次重判的进度；本节点没有该题的重判记录时返回 null。
+     */
+    public QuestionRegradeService.RegradeProgress getRegradeProgress(Integer questionId) {
+        if (questionId == null) {
+            throw new BusinessException("题目ID不能为空");
+        }
+        return regradeService.getProgress(questionId);
     }
 
     public Question getQuestionById(Integer questionId) {
@@ -72,6 +127,7 @@ public class QuestionService {
         for (Question question : questions) {
             validateQuestion(question);
             questionIds.add(questionDao.insert(question));
+            TransactionUtil.afterCommit(() -> searchIndex.upsert(question));
         }
         return questionIds;
     }
@@ -107,6 +163,18 @@ public class QuestionService {
         }
     }
 
+    private boolean isGradingChanged(Question previous, Question current) {
+        if (previous.getQuestionType() != current.getQuestionType()) {
+            return true;
+        }
+        if (!Objects.equals(previous.getScore(), current.getScore())) {
+            return true;
+        }
+        String previousAnswer = AnswerKey.normalize(previous.getQuestionType(), previous.getCorrectAnswer());
+        String currentAnswer = AnswerKey.normalize(current.getQuestionType(), current.getCorrectAnswer());
+        return !Objects.equals(previousAnswer, currentAnswer);
+    }
+
     private void validateQuestion(Question question) {
         if (question == null) {
             throw new BusinessException("题目信息不能为空");
@@ -150,10 +218,47 @@ public class QuestionService {
             int offset,
             int limit
     ) {
-        return questionDao.search(content, subject, type, difficulty, offset, limit);
+        return searchQuestions(content, subject, type, difficulty, offset, limit, false);
+    }
+
+    /**
+     * 有题干关键字且检索索引已建立时走内存索引，否则按原条件查询数据库。
+     *
+     * @param relevance 为 true 时按关键字出现位置和题干长度排序，只在走索引时生效
+     */
+    public List<Question> searchQuestions(
+            String content,
+            String subject,
+            QuestionType type,
+            Difficulty difficulty,
+            int offset,
+            int limit,
+            boolean relevance
+    ) {
+        if (!useSearchIndex(content)) {
+            return questionDao.search(content, subject, type, difficulty, offset, limit);
+        }
+        List<Integer> questionIds = searchIndex.search(content, subject, type, difficulty, offset, limit, relevance)
+                .getQuestionIds();
+        Map<Integer, Question> questionsById = questionDao.findByIds(questionIds);
+        List<Question> questions = new ArrayList<>(questionIds.size());
+        for (Integer questionId : questionIds) {
+            Question question = questionsById.get(questionId);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
     }
 
     public int countQuestions(String content, String subject, QuestionType type, Difficulty difficulty) {
-        return questionDao.countQuestions(content, subject, type, difficulty);
+        if (!useSearchIndex(content)) {
+            return questionDao.countQuestions(content, subject, type, difficulty);
+        }
+        return searchIndex.search(content, subject, type, difficulty, 0, 0, false).getTotal();
+    }
+
+    private boolean useSearchIndex(String content) {
+        return content != null && !content.trim().isEmpty() && searchIndex.isReady();
     }
 }
@@ -0,0 +1,47 @@
+package com.exam.service;
+
+import com.exam.dao.QuestionDao;
+import com.exam.model.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为升级前已有的题目回填查重签名。
+ * 签名的规范化规则只在应用内实现（{@link com.exam.util.QuestionSignature}），无法在库内计算，
+ * 因此每批读出科目、题型、题干和答案四列，由 {@link Question#getSignatureHash()} 算出签名后用一条 CASE 语句写回。
+ * 回填完成前库中仍有签名为空的题目，导题查重对签名未命中的题目还要按原文精确查找一次，见 {@link #isCompleted()}。
+ */
+@Component
+public class QuestionSignatureBackfill {
+    private final KeysetBackfill<Question> backfill;
+
+    @Autowired
+    public QuestionSignatureBackfill(
+            QuestionDao questionDao,
+            @Value("${exam.question.signature.backfill-batch-size:500}") int batchSize,
+            @Value("${exam.question.signature.backfill-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.backfill = new KeysetBackfill<>(
+                "Question signature",
+                batchSize,
+                maxBatchesPerRun,
+                questionDao::findQuestionsMissingSignature,
+                questionDao::backfillSignatureHashes,
+                Question::getQuestionId
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${exam.question.signature.backfill-interval-ms:5000}", initialDelayString = "${exam.question.signature.backfill-initial-delay-ms:10000}")
+    public int backfill() {
+        return backfill.run();
+    }
+
+    /**
+     * 回填完成后库中不再有签名为空的题目，按签名查找即可覆盖全部题目。
+     */
+    public boolean isCompleted() {
+        return backfill.isCompleted();
+    }
+}
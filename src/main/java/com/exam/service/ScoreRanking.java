@@ -0,0 +1,208 @@
+package com.exam.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 单张试卷的成绩排名，每名学生只计最高分。
+ * 分数按 0.01 分划桶存入树状数组，名次、百分位都是两次前缀和查询，O(log n)；
+ * 前 K 名另用容量为 K 的小顶堆维护，最高分只会上升，因此插入和替换堆顶足以保持正确。
+ * 非线程安全，由调用方加锁。
+ */
+public final class ScoreRanking {
+    private static final Comparator<Entry> WORST_FIRST = Comparator
+            .comparingInt(Entry::getCents)
+            .thenComparing(Entry::getStudentId, Comparator.reverseOrder());
+
+    private final int topSize;
+    private final Map<Integer, Integer> bestCents = new HashMap<>();
+    private final PriorityQueue<Entry> top;
+    private final Map<Integer, Entry> topByStudent = new HashMap<>();
+    private int[] tree;
+
+    /**
+     * @param maxScore 预期的最高分（试卷总分），超出时自动扩容
+     */
+    public ScoreRanking(int maxScore, int topSize) {
+        this.topSize = Math.max(1, topSize);
+        this.top = new PriorityQueue<>(this.topSize, WORST_FIRST);
+        this.tree = new int[Math.max(1, maxScore) * 100 + 2];
+    }
+
+    /**
+     * 记录学生的一次得分。
+     *
+     * @return 学生的最高分因此改变时返回 true
+     */
+    public boolean record(Integer studentId, BigDecimal score) {
+        if (studentId == null || score == null) {
+            return false;
+        }
+        int cents = toCents(score);
+        Integer previous = bestCents.get(studentId);
+        if (previous != null && previous >= cents) {
+            return false;
+        }
+        ensureCapacity(cents);
+        if (previous != null) {
+            add(previous, -1);
+        }
+        add(cents, 1);
+        bestCents.put(studentId, cents);
+        offerTop(new Entry(studentId, cents));
+        return true;
+    }
+
+    public int size() {
+        return bestCents.size();
+    }
+
+    public boolean contains(Integer studentId) {
+        return bestCents.containsKey(studentId);
+    }
+
+    public BigDecimal bestScore(Integer studentId) {
+        Integer cents = bestCents.get(studentId);
+        return cents == null ? null : toScore(cents);
+    }
+
+    /**
+     * 名次：最高分严格高于该学生的人数加一，同分同名次。学生没有成绩时返回 0。
+     */
+    public int rankOf(Integer studentId) {
+        Integer cents = bestCents.get(studentId);
+        return cents == null ? 0 : rankOfCents(cents);
+    }
+
+    /**
+     * 百分位：(低于该分的人数 + 同分人数 / 2) / 总人数 × 100。学生没有成绩时返回 null。
+     */
+    public Double percentileOf(Integer studentId) {
+        Integer cents = bestCents.get(studentId);
+        if (cents == null) {
+            return null;
+        }
+        int below = prefix(cents - 1);
+        int equal = prefix(cents) - below;
+        return (below + equal / 2D) * 100D / bestCents.size();
+    }
+
+    /**
+     * 前 limit 名，按分数从高到低、同分按学生 ID 升序；limit 不超过构造时的 topSize。
+     */
+    public List<RankedEntry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(top);
+        entries.sort(WORST_FIRST.reversed());
+        int count = Math.min(Math.max(0, limit), entries.size());
+        List<RankedEntry> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(i);
+            ranked.add(new RankedEntry(entry.getStudentId(), toScore(entry.getCents()), rankOfCents(entry.getCents())));
+        }
+        return ranked;
+    }
+
+    private int rankOfCents(int cents) {
+        return bestCents.size() - prefix(cents) + 1;
+    }
+
+    private void offerTop(Entry entry) {
+        Entry existing = topByStudent.remove(entry.getStudentId());
+        if (existing != null) {
+            top.remove(existing);
+        } else if (top.size() >= topSize) {
+            if (WORST_FIRST.compare(entry, top.peek()) <= 0) {
+                return;
+            }
+            topByStudent.remove(top.poll().getStudentId());
+        }
+        top.add(entry);
+        topByStudent.put(entry.getStudentId(), entry);
+    }
+
+    private void ensureCapacity(int cents) {
+        if (cents + 1 < tree.length) {
+            return;
+        }
+        tree = new int[Math.max(cents + 2, tree.length * 2)];
+        for (int existing : bestCents.values()) {
+            add(existing, 1);
+        }
+    }
+
+    /**
+     * 树状数组下标从 1 开始，分数为 c 分的桶位于 c + 1。
+     */
+    private void add(int cents, int delta) {
+        for (int i = cents + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 最高分不超过 cents 的人数
+     */
+    private int prefix(int cents) {
+        int count = 0;
+        for (int i = Math.min(cents + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private static int toCents(BigDecimal score) {
+        return Math.max(0, score.setScale(2, RoundingMode.HALF_UP).movePointRight(2).intValue());
+    }
+
+    private static BigDecimal toScore(int cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class Entry {
+        private final Integer studentId;
+        private final int cents;
+
+        private Entry(Integer studentId, int cents) {
+            this.studentId = studentId;
+            this.cents = cents;
+        }
+
+        private Integer getStudentId() {
+            return studentId;
+        }
+
+        private int getCents() {
+            return cents;
+        }
+    }
+
+    public static final class RankedEntry {
+        private final Integer studentId;
+        private final BigDecimal score;
+        private final int rank;
+
+        public RankedEntry(Integer studentId, BigDecimal score, int rank) {
+            this.studentId = studentId;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public Integer getStudentId() {
+            return studentId;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.exam.service;
+
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 单个学生成绩聚合的流式累加器。按 record_id 排好序的作答行逐行送入，
+ * 只保留汇总、各科目和各题型的计数，不持有行对象，占用内存只与科目数、题型数有关，与考试次数无关。
+ * 归类规则与 StudentAchievementDao.xml 中结算累加的 SQL 保持一致：科目按去空白后的小写形式合并，
+ * 与 (student_id, subject) 主键大小写不敏感的排序规则一致，显示名取首次出现的写法。
+ */
+public final class StudentAchievementAccumulator {
+    static final String UNKNOWN_SUBJECT = "未分类科目";
+    static final String OTHER_TYPE = "OTHER";
+
+    private final Integer studentId;
+    private final Map<String, SubjectAccumulator> subjects = new LinkedHashMap<>();
+    private final Map<String, TypeAccumulator> types = new LinkedHashMap<>();
+    private final SubjectAccumulator total = new SubjectAccumulator(null);
+    private BigDecimal bestScore;
+    private Integer currentRecordId;
+    private SubjectAccumulator currentSubject;
+
+    public StudentAchievementAccumulator(Integer studentId) {
+        this.studentId = studentId;
+    }
+
+    /**
+     * 送入一行。同一考试记录的行必须相邻，行对象送入后即可复用。
+     */
+    public void accept(AchievementAnswerRow row) {
+        if (!Objects.equals(row.getRecordId(), currentRecordId)) {
+            startRecord(row);
+        }
+        if (row.getAnswerId() == null) {
+            return;
+        }
+        total.addAnswer(row.isAnswered(), row.isCorrect());
+        currentSubject.addAnswer(row.isAnswered(), row.isCorrect());
+        String typeKey = row.getQuestionType() == null ? OTHER_TYPE : row.getQuestionType();
+        types.computeIfAbsent(typeKey, key -> new TypeAccumulator()).add(row.isAnswered(), row.isCorrect());
+    }
+
+    public StudentAchievement toSummary() {
+        StudentAchievement summary = new StudentAchievement();
+        summary.setStudentId(studentId);
+        summary.setCompletedCount(total.recordCount);
+        summary.setScoredCount(total.scoredCount);
+        summary.setScoreSum(total.scoreSum);
+        summary.setBestScore(bestScore);
+        summary.setPassCount(total.passCount);
+        summary.setFailCount(total.recordCount - total.passCount);
+        summary.setQuestionCount(total.questionCount);
+        summary.setAnsweredCount(total.answeredCount);
+        summary.setCorrectCount(total.correctCount);
+        return summary;
+    }
+
+    public List<StudentSubjectAchievement> toSubjects() {
+        List<StudentSubjectAchievement> result = new ArrayList<>(subjects.size());
+        for (Map.Entry<String, SubjectAccumulator> entry : subjects.entrySet()) {
+            SubjectAccumulator accumulator = entry.getValue();
+            StudentSubjectAchievement subject = new StudentSubjectAchievement();
+            subject.setStudentId(studentId);
+            subject.setSubject(accumulator.displayName);
+            subject.setRecordCount(accumulator.recordCount);
+            subject.setScoredCount(accumulator.scoredCount);
+            subject.setScoreSum(accumulator.scoreSum);
+            subject.setPassCount(accumulator.passCount);
+            subject.setFailCount(accumulator.recordCount - accumulator.passCount);
+            subject.setQuestionCount(accumulator.questionCount);
+            subject.setAnsweredCount(accumulator.answeredCount);
+            subject.setCorrectCount(accumulator.correctCount);
+            subject.setLatestSubmitTime(accumulator.latestTime);
+            result.add(subject);
+        }
+        return result;
+    }
+
+    public List<StudentTypeAchievement> toTypes() {
+        List<StudentTypeAchievement> result = new ArrayList<>(types.size());
+        for (Map.Entry<String, TypeAccumulator> entry : types.entrySet()) {
+            TypeAccumulator accumulator = entry.getValue();
+            StudentTypeAchievement type = new StudentTypeAchievement();
+            type.setStudentId(studentId);
+            type.setQuestionType(entry.getKey());
+            type.setTotalCount(accumulator.totalCount);
+            type.setAnsweredCount(accumulator.answeredCount);
+            type.setCorrectCount(accumulator.correctCount);
+            result.add(type);
+        }
+        return result;
+    }
+
+    private void startRecord(AchievementAnswerRow row) {
+        currentRecordId = row.getRecordId();
+        String subjectName = normalizeSubject(row.getSubject());
+        currentSubject = subjects.computeIfAbsent(
+                subjectName.toLowerCase(Locale.ROOT),
+                key -> new SubjectAccumulator(subjectName)
+        );
+
+        BigDecimal score = row.getScore();
+        boolean passed = score != null
+                && row.getPassScore() != null
+                && score.compareTo(BigDecimal.valueOf(row.getPassScore())) >= 0;
+        total.addRecord(score, passed, null);
+        currentSubject.addRecord(score, passed, row.getRecordTime());
+        if (score != null && (bestScore == null || score.compareTo(bestScore) > 0)) {
+            bestScore = score;
+        }
+    }
+
+    private static String normalizeSubject(String subject) {
+        if (subject == null || subject.trim().isEmpty()) {
+            return UNKNOWN_SUBJECT;
+        }
+        return subject.trim();
+    }
+
+    private static final class SubjectAccumulator {
+        private final String displayName;
+        private int recordCount;
+        private int scoredCount;
+        private BigDecimal scoreSum = BigDecimal.ZERO;
+        private int passCount;
+        private long questionCount;
+        private long answeredCount;
+        private long correctCount;
+        private LocalDateTime latestTime;
+
+        private SubjectAccumulator(String displayName) {
+            this.displayName = displayName;
+        }
+
+        private void addRecord(BigDecimal score, boolean passed, LocalDateTime recordTime) {
+            recordCount++;
+            if (score != null) {
+                scoredCount++;
+                scoreSum = scoreSum.add(score);
+            }
+            if (passed) {
+                passCount++;
+            }
+            if (recordTime != null && (latestTime == null || recordTime.isAfter(latestTime))) {
+                latestTime = recordTime;
+            }
+        }
+
+        private void addAnswer(boolean answered, boolean correct) {
+            questionCount++;
+            if (answered) {
+                answeredCount++;
+            }
+            if (correct) {
+                correctCount++;
+            }
+        }
+    }
+
+    private static final class TypeAccumulator {
+        private long totalCount;
+        private long answeredCount;
+        private long correctCount;
+
+        private void add(boolean answered, boolean correct) {
+            totalCount++;
+            if (answered) {
+                answeredCount++;
+            }
+            if (correct) {
+                correctCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.exam.service;
+
+import com.exam.dao.StudentAchievementDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 学生成绩聚合：汇总、科目和题型三张累计表。
+ * 交卷与超时结算在各自事务内把本次结算的记录累加进去，读取成绩页只查这三张表，与考试次数无关。
+ * 重判、试卷或题目变更会删除受影响学生的汇总行作为失效标记；汇总行缺失的学生在下次读取时整体重建。
+ * 重建用游标逐行读取该学生的作答窄投影，交给 StudentAchievementAccumulator 累加，
+ * 不在内存中物化考试记录、作答明细和题目对象，内存占用与历史长度无关。
+ */
+@Service
+public class StudentAchievementStore {
+    private static final Logger log = LoggerFactory.getLogger(StudentAchievementStore.class);
+
+    private final StudentAchievementDao achievementDao;
+    private final TransactionTemplate rebuildTemplate;
+    private final TransactionTemplate readTemplate;
+    private final boolean rebuildOnStartup;
+    private final int rebuildBatchSize;
+
+    @Autowired
+    public StudentAchievementStore(
+            StudentAchievementDao achievementDao,
+            PlatformTransactionManager transactionManager,
+            @Value("${exam.achievement.rebuild-on-startup:false}") boolean rebuildOnStartup,
+            @Value("${exam.achievement.rebuild-batch-size:200}") int rebuildBatchSize
+    ) {
+        this.achievementDao = achievementDao;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.rebuildBatchSize = Math.max(1, rebuildBatchSize);
+
+        this.rebuildTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 读取学生的成绩聚合；尚未建立或已失效时先重建。学生不存在时返回 null。
+     */
+    public Aggregate load(Integer studentId) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        if (achievementDao.findSummary(studentId) == null && !rebuild(studentId, false)) {
+            return null;
+        }
+        return readTemplate.execute(status -> {
+            StudentAchievement summary = achievementDao.findSummary(studentId);
+            if (summary == null) {
+                return null;
+            }
+            return new Aggregate(summary, achievementDao.findSubjects(studentId), achievementDao.findTypes(studentId));
+        });
+    }
+
+    /**
+     * 在调用方事务内累加刚结算的考试记录，须在记录状态和作答明细写入之后调用。
+     */
+    public void foldSettledRecords(Collection<Integer> recordIds) {
+        if (recordIds == null || recordIds.isEmpty()) {
+            return;
+        }
+        if (achievementDao.foldSummary(recordIds) == 0) {
+            return;
+        }
+        achievementDao.foldSubjects(recordIds);
+        achievementDao.foldTypes(recordIds);
+    }
+
+    public void invalidateRecords(Collection<Integer> recordIds) {
+        if (recordIds == null || recordIds.isEmpty()) {
+            return;
+        }
+        achievementDao.invalidateByRecordIds(recordIds);
+    }
+
+    public void invalidatePaper(Integer paperId) {
+        if (paperId != null) {
+            achievementDao.invalidateByPaperId(paperId);
+        }
+    }
+
+    public void invalidateQuestion(Integer questionId) {
+        if (questionId != null) {
+            achievementDao.invalidateByQuestionId(questionId);
+        }
+    }
+
+    /**
+     * 从考试记录重建单个学生的聚合。
+     *
+     * @return 学生存在时返回 true
+     */
+    public boolean rebuild(Integer studentId) {
+        if (studentId == null) {
+            throw new BusinessException("Student ID cannot be null");
+        }
+        return rebuild(studentId, true);
+    }
+
+    /**
+     * 按学生 ID 分批重建全部学生的聚合，每个学生一个短事务。
+     *
+     * @return 重建的学生数
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        int afterStudentId = 0;
+        while (true) {
+            List<Integer> studentIds = achievementDao.findStudentIdsAfter(afterStudentId, rebuildBatchSize);
+            if (studentIds.isEmpty()) {
+                break;
+            }
+            for (Integer studentId : studentIds) {
+                if (rebuild(studentId, true)) {
+                    rebuilt++;
+                }
+            }
+            afterStudentId = studentIds.get(studentIds.size() - 1);
+        }
+        log.info("Rebuilt achievement aggregates for {} students", rebuilt);
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAllOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    private boolean rebuild(Integer studentId, boolean force) {
+        Boolean rebuilt = rebuildTemplate.execute(status -> {
+            if (achievementDao.lockStudent(studentId) == null) {
+                return false;
+            }
+            if (!force && achievementDao.findSummary(studentId) != null) {
+                return true;
+            }
+            achievementDao.lockStudentRecords(studentId);
+            achievementDao.deleteTypesByStudentId(studentId);
+            achievementDao.deleteSubjectsByStudentId(studentId);
+            achievementDao.deleteByStudentId(studentId);
+
+            StudentAchievementAccumulator accumulator = accumulate(studentId);
+            achievementDao.insertSummary(accumulator.toSummary());
+            List<StudentSubjectAchievement> subjects = accumulator.toSubjects();
+            if (!subjects.isEmpty()) {
+                achievementDao.insertSubjects(subjects);
+            }
+            List<StudentTypeAchievement> types = accumulator.toTypes();
+            if (!types.isEmpty()) {
+                achievementDao.insertTypes(types);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(rebuilt);
+    }
+
+    /**
+     * 游标必须读完并关闭后才能在同一连接上写入聚合表。
+     */
+    private StudentAchievementAccumulator accumulate(Integer studentId) {
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(studentId);
+        try (Cursor<AchievementAnswerRow> rows = achievementDao.streamSettledAnswerRows(studentId)) {
+            for (AchievementAnswerRow row : rows) {
+                accumulator.accept(row);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to close achievement row cursor", ex);
+        }
+        return accumulator;
+    }
+
+    public static class Aggregate {
+        private final StudentAchievement summary;
+        private final List<StudentSubjectAchievement> subjects;
+        private final List<StudentTypeAchievement> types;
+
+        public Aggregate(
+                StudentAchievement summary,
+                List<StudentSubjectAchievement> subjects,
+                List<StudentTypeAchievement> types
+        ) {
+            this.summary = summary;
+            this.subjects = subjects;
+            this.types = types;
+        }
+
+        public StudentAchievement getSummary() {
+            return summary;
+        }
+
+        public List<StudentSubjectAchievement> getSubjects() {
+            return subjects;
+        }
+
+        public List<StudentTypeAchievement> getTypes() {
+            return types;
+        }
+    }
+}
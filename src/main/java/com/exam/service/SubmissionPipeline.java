@@ -0,0 +1,202 @@
+package com.exam.service;
+
+import com.exam.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 交卷的组提交通道，应对截止时刻的集中交卷。
+ * 启用后交卷请求先进入有界队列，由少量工作线程取出一组答卷在同一个事务里判分落库，
+ * 数据库连接占用从“每份答卷一个事务”降为“每组一个事务”；队列满时直接拒绝，由客户端稍后重试。
+ * 未启用时直接走 {@link ExamService#submitExamWithReport}。
+ */
+@Component
+public class SubmissionPipeline {
+    private static final Logger log = LoggerFactory.getLogger(SubmissionPipeline.class);
+    private static final long POLL_MILLIS = 100L;
+
+    private final ExamService examService;
+    private final boolean enabled;
+    private final int groupSize;
+    private final long awaitTimeoutMillis;
+    private final BlockingQueue<PendingSubmission> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public SubmissionPipeline(
+            ExamService examService,
+            @Value("${exam.submission.pipeline.enabled:false}") boolean enabled,
+            @Value("${exam.submission.pipeline.queue-capacity:2000}") int queueCapacity,
+            @Value("${exam.submission.pipeline.workers:4}") int workerCount,
+            @Value("${exam.submission.pipeline.group-size:100}") int groupSize,
+            @Value("${exam.submission.pipeline.await-timeout-ms:30000}") long awaitTimeoutMillis
+    ) {
+        this.examService = examService;
+        this.enabled = enabled;
+        this.groupSize = Math.max(1, groupSize);
+        this.awaitTimeoutMillis = Math.max(1L, awaitTimeoutMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (enabled) {
+            running = true;
+            for (int i = 0; i < Math.max(1, workerCount); i++) {
+                Thread worker = new Thread(this::runWorker, "submission-pipeline-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+    }
+
+    /**
+     * 交卷并等待结果；超过等待时间仍未处理完时答卷仍会落库，调用方应提示稍后查看成绩。
+     */
+    public ExamService.SubmissionReport submit(Integer recordId, Map<Integer, String> answers) {
+        if (!enabled) {
+            return examService.submitExamWithReport(recordId, answers);
+        }
+        CompletableFuture<ExamService.SubmissionReport> future = submitAsync(recordId, answers);
+        try {
+            return future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Submission failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new BusinessException("Submission is still being processed, please check the exam record later");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Submission was interrupted");
+        }
+    }
+
+    /**
+     * 交卷并立即返回完成句柄；队列已满时抛出 BusinessException，不会阻塞调用线程。
+     */
+    public CompletableFuture<ExamService.SubmissionReport> submitAsync(Integer recordId, Map<Integer, String> answers) {
+        if (recordId == null) {
+            throw new BusinessException("Exam record ID cannot be null");
+        }
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(examService.submitExamWithReport(recordId, answers));
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        PendingSubmission pending = new PendingSubmission(new ExamService.SubmissionRequest(recordId, answers));
+        if (!running || !queue.offer(pending)) {
+            throw new BusinessException("Submission queue is full, please retry shortly");
+        }
+        return pending.future;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                worker.join(awaitTimeoutMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        PendingSubmission pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new BusinessException("Submission service is shutting down, please retry"));
+        }
+    }
+
+    private void runWorker() {
+        List<PendingSubmission> group = new ArrayList<>(groupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSubmission first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, groupSize - 1);
+                process(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Submission pipeline worker failed", ex);
+                for (PendingSubmission pending : group) {
+                    pending.future.completeExceptionally(ex);
+                }
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingSubmission> group) {
+        List<ExamService.SubmissionRequest> requests = new ArrayList<>(group.size());
+        for (PendingSubmission pending : group) {
+            requests.add(pending.request);
+        }
+
+        List<ExamService.SubmissionOutcome> outcomes;
+        try {
+            outcomes = examService.submitExamsBatch(requests);
+        } catch (RuntimeException ex) {
+            // 整组事务失败时逐份重试，避免一份异常答卷拖垮同组其他答卷
+            log.warn("Group submission of {} exams failed, retrying one by one", group.size(), ex);
+            for (PendingSubmission pending : group) {
+                try {
+                    pending.future.complete(examService.submitExamWithReport(
+                            pending.request.getRecordId(),
+                            pending.request.getAnswers()
+                    ));
+                } catch (RuntimeException single) {
+                    pending.future.completeExceptionally(single);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            ExamService.SubmissionOutcome outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                group.get(i).future.complete(outcome.getReport());
+            } else {
+                group.get(i).future.completeExceptionally(new BusinessException(outcome.getFailureMessage()));
+            }
+        }
+    }
+
+    private static final class PendingSubmission {
+        private final ExamService.SubmissionRequest request;
+        private final CompletableFuture<ExamService.SubmissionReport> future = new CompletableFuture<>();
+
+        private PendingSubmission(ExamService.SubmissionRequest request) {
+            this.request = request;
+        }
+    }
+}
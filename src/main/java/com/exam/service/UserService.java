@@ -3,12 +3,19 @@ package com.exam.service;
 import com.exam.dao.UserDao;
 import com.exam.exception.AuthenticationException;
 import com.exam.exception.BusinessException;
+import com.exam.model.DataVersion;
 import com.exam.model.User;
 import com.exam.model.enums.UserRole;
 import com.exam.util.PasswordUtil;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService {
@@ -113,6 +120,20 @@ public class UserService {
         return user;
     }
 
+    /**
+     * 按 ID 批量读取用户，不存在的 ID 不会出现在结果中。
+     */
+    public Map<Integer, User> getUsersByIds(Collection<Integer> userIds) {
+        Map<Integer, User> usersById = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return usersById;
+        }
+        for (User user : userDao.findByIds(userIds)) {
+            usersById.put(user.getUserId(), user);
+        }
+        return usersById;
+    }
+
     public int deleteUser(Integer userId) {
         if (userId == null) {
             throw new BusinessException("用户ID不能为空");
@@ -161,4 +182,82 @@ public class UserService {
     public List<User> getStudents() {
         return userDao.findAllStudents();
     }
+
+    public DataVersion getStudentsVersion() {
+        return userDao.findStudentsVersion();
+    }
+
+    /**
+     * 按用户 ID 键集分页读取学生，keyword 非空时按姓名或学号前缀过滤。
+     * cursor 为上一页返回的续页令牌，为空时读取第一页；任意一页都只读取 pageSize + 1 行。
+     */
+    public StudentPage getStudentsPage(String keyword, String cursor, int pageSize) {
+        if (pageSize <= 0 || pageSize > 200) {
+            throw new BusinessException("每页数量应在1到200之间");
+        }
+        String prefix = toLikePrefix(keyword);
+        Integer afterUserId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        List<User> fetched = userDao.findStudentsAfter(afterUserId, prefix, pageSize + 1);
+        boolean hasMore = fetched.size() > pageSize;
+        List<User> students = hasMore ? new ArrayList<>(fetched.subList(0, pageSize)) : fetched;
+        String nextCursor = hasMore ? encodeCursor(students.get(students.size() - 1).getUserId()) : null;
+        return new StudentPage(students, nextCursor, userDao.countStudents(prefix));
+    }
+
+    private String toLikePrefix(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        return keyword.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private String encodeCursor(Integer userId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Integer decodeCursor(String cursor) {
+        try {
+            return Integer.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException ex) {
+            throw new BusinessException("分页令牌无效");
+        }
+    }
+
+    public static class StudentPage {
+        private final List<User> students;
+        private final String nextCursor;
+        private final int totalCount;
+
+        public StudentPage(List<User> students, String nextCursor, int totalCount) {
+            this.students = students;
+            this.nextCursor = nextCursor;
+            this.totalCount = totalCount;
+        }
+
+        public List<User> getStudents() {
+            return students;
+        }
+
+        /**
+         * 下一页的续页令牌，已是最后一页时为 null。
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+
+        /**
+         * 符合筛选条件的学生总数
+         */
+        public int getTotalCount() {
+            return totalCount;
+        }
+    }
 }
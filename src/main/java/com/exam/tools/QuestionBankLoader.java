@@ -0,0 +1,408 @@
+package com.exam.tools;
+
+import com.exam.exception.QuestionImportException;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.util.QuestionImportUtil;
+import com.exam.util.QuestionSignature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 离线批量导入题库：把 src/main/resources/data 下各科目目录中的题库文件直接写入数据库，用于新实例初始化。
+ * 文件通过内存映射读取，沿用导题建卷的解析规则（但接受题库的全部题型）和查重签名，与库中已有题目及本次已导入的题目重复的跳过，
+ * 其余按批次用 JDBC 批量插入，每批提交一次，中途失败后重新运行即可继续。
+ * 导入前先为库中缺少签名的旧题目补上签名，保证查重覆盖全部题目。
+ * 服务运行中导入的题目由题库检索索引的定期同步读入（默认每 30 秒一次），之后即可被关键字检索到，无需重启服务。
+ * <p>
+ * 用法：java -cp target/exam-desktop-api.jar com.exam.tools.QuestionBankLoader [选项] 目录或文件...
+ * <br>选项：--url= --user= --password=（默认取环境变量 DB_URL、DB_USERNAME、DB_PASSWORD），
+ * --creator-id=、--batch-size=（默认 1000）、--dry-run（只解析和查重，不连接数据库）
+ */
+public final class QuestionBankLoader {
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/exam_system?useSSL=false&serverTimezone=Asia/Shanghai&characterEncoding=utf8";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS_PER_FILE = 10;
+    private static final String INSERT_SQL = """
+            INSERT INTO question (question_type, subject, content, option_a, option_b, option_c, option_d,
+                                  correct_answer, score, difficulty, analysis, creator_id, signature_hash)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final Connection connection;
+    private final Integer creatorId;
+    private final int batchSize;
+    private final PrintStream out;
+
+    /**
+     * @param connection 为 null 时只解析和查重，不写库
+     */
+    public QuestionBankLoader(Connection connection, Integer creatorId, int batchSize, PrintStream out) {
+        this.connection = connection;
+        this.creatorId = creatorId;
+        this.batchSize = Math.max(1, batchSize);
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        String url = envOrDefault("DB_URL", DEFAULT_URL);
+        String user = envOrDefault("DB_USERNAME", "root");
+        String password = envOrDefault("DB_PASSWORD", "");
+        Integer creatorId = null;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        boolean dryRun = false;
+        List<Path> roots = new ArrayList<>();
+
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--url=")) {
+                    url = arg.substring("--url=".length());
+                } else if (arg.startsWith("--user=")) {
+                    user = arg.substring("--user=".length());
+                } else if (arg.startsWith("--password=")) {
+                    password = arg.substring("--password=".length());
+                } else if (arg.startsWith("--creator-id=")) {
+                    creatorId = Integer.valueOf(arg.substring("--creator-id=".length()));
+                } else if (arg.startsWith("--batch-size=")) {
+                    batchSize = Integer.parseInt(arg.substring("--batch-size=".length()));
+                } else if (arg.equals("--dry-run")) {
+                    dryRun = true;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("未知选项：" + arg);
+                } else {
+                    roots.add(Paths.get(arg));
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+        if (roots.isEmpty()) {
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        try {
+            if (dryRun) {
+                new QuestionBankLoader(null, creatorId, batchSize, System.out).load(roots);
+                return;
+            }
+            try (Connection connection = DriverManager.getConnection(withBatchRewrite(url), user, password)) {
+                new QuestionBankLoader(connection, creatorId, batchSize, System.out).load(roots);
+            }
+        } catch (IOException | SQLException ex) {
+            System.err.println("题库导入失败：" + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public Report load(List<Path> roots) throws IOException, SQLException {
+        long startedAt = System.nanoTime();
+        List<Path> files = collectBankFiles(roots);
+        Set<String> knownSignatures = new HashSet<>();
+        int backfilled = 0;
+        if (connection != null) {
+            connection.setAutoCommit(false);
+            backfilled = backfillMissingSignatures();
+        }
+
+        int dataLines = 0;
+        int inserted = 0;
+        int duplicates = 0;
+        int errors = 0;
+        for (Path file : files) {
+            QuestionImportUtil.ParseResult parsed = QuestionImportUtil.parseText(readBank(file), creatorId, false);
+
+            List<Question> pending = new ArrayList<>();
+            List<String> pendingSignatures = new ArrayList<>();
+            int fileInserted = 0;
+            for (Question question : parsed.questions()) {
+                String signatureHash = question.getSignatureHash();
+                if (!knownSignatures.add(signatureHash)) {
+                    continue;
+                }
+                pending.add(question);
+                pendingSignatures.add(signatureHash);
+                if (pending.size() >= batchSize) {
+                    fileInserted += insertNew(pending, pendingSignatures);
+                    pending.clear();
+                    pendingSignatures.clear();
+                }
+            }
+            fileInserted += insertNew(pending, pendingSignatures);
+
+            int fileDuplicates = parsed.questions().size() - fileInserted;
+            out.printf("[%s] 解析 %d 行，新增 %d 道，重复 %d 道，错误 %d 行%n",
+                    file, parsed.dataLines(), fileInserted, fileDuplicates, parsed.errors().size());
+            for (QuestionImportException.LineError error : parsed.errors().subList(0, Math.min(MAX_REPORTED_ERRORS_PER_FILE, parsed.errors().size()))) {
+                out.printf("    第 %d 行：%s%n", error.lineNumber(), error.message());
+            }
+            if (parsed.errors().size() > MAX_REPORTED_ERRORS_PER_FILE) {
+                out.printf("    ……另有 %d 行错误未列出%n", parsed.errors().size() - MAX_REPORTED_ERRORS_PER_FILE);
+            }
+
+            dataLines += parsed.dataLines();
+            inserted += fileInserted;
+            duplicates += fileDuplicates;
+            errors += parsed.errors().size();
+        }
+
+        Report report = new Report(files.size(), dataLines, inserted, duplicates, errors, backfilled, System.nanoTime() - startedAt);
+        out.printf(Locale.ROOT, "合计：%d 个文件，解析 %d 行，新增 %d 道，重复 %d 道，错误 %d 行，补签名 %d 道，耗时 %.2f s，约 %.0f 行/秒%s%n",
+                report.files(), report.dataLines(), report.inserted(), report.duplicates(), report.errors(),
+                report.backfilledSignatures(), report.elapsedNanos() / 1e9, report.rowsPerSecond(),
+                connection == null ? "（未写库）" : "");
+        return report;
+    }
+
+    /**
+     * 以内存映射方式读取整个题库文件，按 UTF-8 严格解码并去掉 BOM。
+     */
+    public static String readBank(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("题库文件过大：" + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CharBuffer chars;
+            try {
+                chars = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT)
+                        .decode(buffer);
+            } catch (CharacterCodingException ex) {
+                throw new IOException("不是有效的 UTF-8 文件：" + file, ex);
+            }
+            if (chars.length() > 0 && chars.charAt(0) == '\uFEFF') {
+                chars.position(1);
+            }
+            return chars.toString();
+        }
+    }
+
+    /**
+     * 展开目录下的全部 .txt 题库文件，按路径排序；直接给出的文件原样保留。
+     */
+    public static List<Path> collectBankFiles(List<Path> roots) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (Files.isRegularFile(root)) {
+                files.add(root);
+                continue;
+            }
+            if (!Files.isDirectory(root)) {
+                throw new IOException("路径不存在：" + root);
+            }
+            try (Stream<Path> stream = Files.walk(root)) {
+                stream.filter(Files::isRegularFile)
+                        .filter(path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".txt"))
+                        .sorted()
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    private int insertNew(List<Question> questions, List<String> signatures) throws SQLException {
+        if (questions.isEmpty()) {
+            return 0;
+        }
+        if (connection == null) {
+            return questions.size();
+        }
+
+        Set<String> existing = findExistingSignatures(signatures);
+        int inserted = 0;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < questions.size(); i++) {
+                if (existing.contains(signatures.get(i))) {
+                    continue;
+                }
+                bindQuestion(statement, questions.get(i), signatures.get(i));
+                statement.addBatch();
+                inserted++;
+            }
+            if (inserted > 0) {
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+        return inserted;
+    }
+
+    private Set<String> findExistingSignatures(List<String> signatures) throws SQLException {
+        String placeholders = String.join(",", Collections.nCopies(signatures.size(), "?"));
+        Set<String> existing = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT signature_hash FROM question WHERE signature_hash IN (" + placeholders + ")")) {
+            for (int i = 0; i < signatures.size(); i++) {
+                statement.setString(i + 1, signatures.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    existing.add(resultSet.getString(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private void bindQuestion(PreparedStatement statement, Question question, String signatureHash) throws SQLException {
+        statement.setString(1, question.getQuestionType().name());
+        statement.setString(2, question.getSubject());
+        statement.setString(3, question.getContent());
+        statement.setString(4, question.getOptionA());
+        statement.setString(5, question.getOptionB());
+        statement.setString(6, question.getOptionC());
+        statement.setString(7, question.getOptionD());
+        statement.setString(8, question.getCorrectAnswer());
+        statement.setInt(9, question.getScore());
+        statement.setString(10, question.getDifficulty().name());
+        statement.setString(11, question.getAnalysis());
+        if (question.getCreatorId() == null) {
+            statement.setNull(12, Types.INTEGER);
+        } else {
+            statement.setInt(12, question.getCreatorId());
+        }
+        statement.setString(13, signatureHash);
+    }
+
+    /**
+     * 与 QuestionSignatureBackfill 相同的键集分批回填，供服务未启动时使用。
+     * 题型无法识别的历史题目无法计算签名，跳过并逐条报告，不中断导入。
+     */
+    private int backfillMissingSignatures() throws SQLException {
+        int backfilled = 0;
+        int skipped = 0;
+        int afterQuestionId = 0;
+        while (true) {
+            List<Object[]> rows = new ArrayList<>();
+            int lastQuestionId = afterQuestionId;
+            try (PreparedStatement select = connection.prepareStatement("""
+                    SELECT question_id, subject, question_type, content, correct_answer
+                    FROM question
+                    WHERE signature_hash IS NULL AND question_id > ?
+                    ORDER BY question_id
+                    LIMIT ?
+                    """)) {
+                select.setInt(1, afterQuestionId);
+                select.setInt(2, batchSize);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastQuestionId = resultSet.getInt(1);
+                        QuestionType type = parseType(resultSet.getString(3));
+                        if (type == null) {
+                            out.printf("题目 %d 的题型 %s 无法识别，跳过补签名%n", lastQuestionId, resultSet.getString(3));
+                            skipped++;
+                            continue;
+                        }
+                        String signatureHash = QuestionSignature.hash(
+                                resultSet.getString(2),
+                                type,
+                                resultSet.getString(4),
+                                resultSet.getString(5)
+                        );
+                        rows.add(new Object[]{lastQuestionId, signatureHash});
+                    }
+                }
+            }
+            if (lastQuestionId == afterQuestionId) {
+                if (skipped > 0) {
+                    out.printf("补签名跳过 %d 道题型无法识别的题目%n", skipped);
+                }
+                return backfilled;
+            }
+            afterQuestionId = lastQuestionId;
+            if (rows.isEmpty()) {
+                continue;
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE question SET signature_hash = ? WHERE question_id = ? AND signature_hash IS NULL")) {
+                for (Object[] row : rows) {
+                    update.setString(1, (String) row[1]);
+                    update.setInt(2, (Integer) row[0]);
+                    update.addBatch();
+                }
+                update.executeBatch();
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+            backfilled += rows.size();
+        }
+    }
+
+    private static QuestionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return QuestionType.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String withBatchRewrite(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("rewriteBatchedStatements")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static void printUsage() {
+        System.err.println("用法：java -cp exam-desktop-api.jar com.exam.tools.QuestionBankLoader "
+                + "[--url=] [--user=] [--password=] [--creator-id=] [--batch-size=] [--dry-run] 目录或文件...");
+    }
+
+    public record Report(
+            int files,
+            int dataLines,
+            int inserted,
+            int duplicates,
+            int errors,
+            int backfilledSignatures,
+            long elapsedNanos
+    ) {
+        public double rowsPerSecond() {
+            return elapsedNanos <= 0 ? 0 : dataLines * 1e9 / elapsedNanos;
+        }
+    }
+}
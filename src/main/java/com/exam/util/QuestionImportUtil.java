@@ -1,8 +1,7 @@
 package com.exam.util;
 
+import com.exam.exception.QuestionImportException;
 import com.exam.model.Question;
-import com.exam.model.enums.Difficulty;
-import com.exam.model.enums.QuestionType;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -12,38 +11,36 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.StringReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 public class QuestionImportUtil {
-    private static final String SUPPORTED_TYPES = QuestionType.getAutoExamSupportedTypeNames();
+    private static final int PARALLEL_THRESHOLD = 256 * 1024;
+    private static final int PARALLEL_CHUNK_SIZE = 64 * 1024;
 
     public static List<Question> importFromTextFile(File file, Integer creatorId) throws Exception {
         List<Question> questions = new ArrayList<>();
+        List<QuestionImportException.LineError> errors = new ArrayList<>();
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
-
-            String line;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-
-                if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) {
-                    continue;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            parse(reader, creatorId, new LineHandler() {
+                @Override
+                public void onQuestion(int lineNumber, Question question) {
+                    questions.add(question);
                 }
 
-                try {
-                    questions.add(parseLine(line, creatorId));
-                } catch (Exception e) {
-                    throw new Exception("第 " + lineNumber + " 行解析错误：" + e.getMessage());
+                @Override
+                public void onError(int lineNumber, String message) {
+                    errors.add(new QuestionImportException.LineError(lineNumber, message));
                 }
-            }
+            });
         }
+        throwFirstError(errors);
 
         if (questions.isEmpty()) {
             throw new Exception("文件中没有有效的题目数据");
@@ -52,64 +49,90 @@ public class QuestionImportUtil {
         return questions;
     }
 
-    private static Question parseLine(String line, Integer creatorId) throws Exception {
-        String[] parts = line.split("\\|");
-        if (parts.length < 8) {
-            throw new Exception("数据格式不正确，至少需要 8 个字段（用 | 分隔）");
-        }
-
-        Question question = new Question();
-        try {
-            question.setQuestionType(QuestionType.valueOf(parts[0].trim().toUpperCase()));
-        } catch (IllegalArgumentException e) {
-            throw new Exception("题目类型无效：" + parts[0] + "，当前导题建卷仅支持 " + SUPPORTED_TYPES + " 题型");
-        }
-
-        if (!question.getQuestionType().isSupportedForAutoExam()) {
-            throw new Exception("导题建卷当前仅支持 " + SUPPORTED_TYPES + " 题型，暂不支持：" + question.getQuestionType().name());
-        }
-
-        question.setSubject(parts[1].trim());
-        if (question.getSubject().isEmpty()) {
-            throw new Exception("科目不能为空");
-        }
+    /**
+     * 逐行读取导入内容并逐题回调，不在内存中保留整份题库。
+     * 解析失败的行通过 onError 报告后继续读取后续行，由调用方决定是否中止。
+     *
+     * @return 读到的题目数据行数（不含空行和注释行）
+     */
+    public static int parse(Reader source, Integer creatorId, LineHandler handler) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader bufferedReader
+                ? bufferedReader
+                : new BufferedReader(source);
+        QuestionLineParser parser = new QuestionLineParser();
+        String line;
+        int lineNumber = 0;
+        int dataLines = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (QuestionLineParser.isBlankOrComment(line, 0, line.length())) {
+                continue;
+            }
 
-        question.setContent(parts[2].trim());
-        if (question.getContent().isEmpty()) {
-            throw new Exception("题目内容不能为空");
+            dataLines++;
+            Question question = parser.parse(line, 0, line.length(), creatorId);
+            if (question == null) {
+                handler.onError(lineNumber, parser.getError());
+            } else {
+                handler.onQuestion(lineNumber, question);
+            }
         }
+        return dataLines;
+    }
 
-        question.setOptionA(parts.length > 3 ? parts[3].trim() : null);
-        question.setOptionB(parts.length > 4 ? parts[4].trim() : null);
-        question.setOptionC(parts.length > 5 ? parts[5].trim() : null);
-        question.setOptionD(parts.length > 6 ? parts[6].trim() : null);
+    /**
+     * 解析整段导入内容。内容较大且有多个处理器时，按行边界切成若干段在 fork-join 公共线程池中并行解析，
+     * 结果中的题目和错误仍按原文的行序排列，错误的行号是整段内容中的行号。
+     */
+    public static ParseResult parseText(String sourceText, Integer creatorId) {
+        return parseText(sourceText, creatorId, true);
+    }
 
-        question.setCorrectAnswer(parts[7].trim().toUpperCase());
-        if (question.getCorrectAnswer().isEmpty()) {
-            throw new Exception("正确答案不能为空");
+    /**
+     * @param autoExamTypesOnly 见 QuestionLineParser，题库初始化等不组卷的场景传 false
+     */
+    public static ParseResult parseText(String sourceText, Integer creatorId, boolean autoExamTypesOnly) {
+        int length = sourceText.length();
+        if (length < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            Segment segment = new TextChunk(sourceText, 0, length, creatorId, autoExamTypesOnly).invoke();
+            return new ParseResult(segment.questions, segment.errors, segment.dataLines);
         }
 
-        try {
-            question.setScore(parts.length > 8 && !parts[8].trim().isEmpty()
-                    ? Integer.parseInt(parts[8].trim())
-                    : 5);
-        } catch (NumberFormatException e) {
-            throw new Exception("分值必须是数字");
+        List<TextChunk> chunks = new ArrayList<>();
+        int from = 0;
+        while (from < length) {
+            int to = Math.min(length, from + PARALLEL_CHUNK_SIZE);
+            if (to < length) {
+                int newline = sourceText.indexOf('\n', to - 1);
+                to = newline < 0 ? length : newline + 1;
+            }
+            chunks.add(new TextChunk(sourceText, from, to, creatorId, autoExamTypesOnly));
+            from = to;
         }
+        ForkJoinTask.invokeAll(chunks);
 
-        if (parts.length > 9 && !parts[9].trim().isEmpty()) {
-            try {
-                question.setDifficulty(Difficulty.valueOf(parts[9].trim().toUpperCase()));
-            } catch (IllegalArgumentException e) {
-                question.setDifficulty(Difficulty.MEDIUM);
+        List<Question> questions = new ArrayList<>();
+        List<QuestionImportException.LineError> errors = new ArrayList<>();
+        int lineOffset = 0;
+        int dataLines = 0;
+        for (TextChunk chunk : chunks) {
+            Segment segment = chunk.join();
+            questions.addAll(segment.questions);
+            for (QuestionImportException.LineError error : segment.errors) {
+                errors.add(new QuestionImportException.LineError(lineOffset + error.lineNumber(), error.message()));
             }
-        } else {
-            question.setDifficulty(Difficulty.MEDIUM);
+            lineOffset += segment.lines;
+            dataLines += segment.dataLines;
         }
+        return new ParseResult(questions, errors, dataLines);
+    }
 
-        question.setAnalysis(parts.length > 10 ? parts[10].trim() : "");
-        question.setCreatorId(creatorId);
-        return question;
+    private static void throwFirstError(List<QuestionImportException.LineError> errors) throws Exception {
+        if (!errors.isEmpty()) {
+            QuestionImportException.LineError first = errors.get(0);
+            throw new Exception("第 " + first.lineNumber() + " 行解析错误：" + first.message());
+        }
     }
 
     public static String buildTemplateContent() {
@@ -145,31 +168,84 @@ public class QuestionImportUtil {
             throw new Exception("导入内容不能为空");
         }
 
-        List<Question> questions = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new StringReader(sourceText))) {
-            String line;
-            int lineNumber = 0;
+        ParseResult result = parseText(sourceText, creatorId);
+        throwFirstError(result.errors());
 
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
+        if (result.questions().isEmpty()) {
+            throw new Exception("导入内容中没有有效题目");
+        }
+
+        return result.questions();
+    }
+
+    public interface LineHandler {
+        void onQuestion(int lineNumber, Question question);
+
+        void onError(int lineNumber, String message);
+    }
+
+    public record ParseResult(
+            List<Question> questions,
+            List<QuestionImportException.LineError> errors,
+            int dataLines
+    ) {
+    }
+
+    private static final class Segment {
+        private final List<Question> questions = new ArrayList<>();
+        private final List<QuestionImportException.LineError> errors = new ArrayList<>();
+        private int lines;
+        private int dataLines;
+    }
+
+    /**
+     * 解析 [start, end) 范围内的各行，行号从 1 起按段内计数。换行规则与 BufferedReader.readLine 一致。
+     */
+    private static final class TextChunk extends RecursiveTask<Segment> {
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+        private final int start;
+        private final int end;
+        private final Integer creatorId;
+        private final boolean autoExamTypesOnly;
+
+        private TextChunk(String text, int start, int end, Integer creatorId, boolean autoExamTypesOnly) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.creatorId = creatorId;
+            this.autoExamTypesOnly = autoExamTypesOnly;
+        }
 
-                if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) {
-                    continue;
+        @Override
+        protected Segment compute() {
+            Segment segment = new Segment();
+            QuestionLineParser parser = new QuestionLineParser(autoExamTypesOnly);
+            int position = start;
+            while (position < end) {
+                int lineEnd = position;
+                while (lineEnd < end && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+                    lineEnd++;
+                }
+                segment.lines++;
+
+                if (!QuestionLineParser.isBlankOrComment(text, position, lineEnd)) {
+                    segment.dataLines++;
+                    Question question = parser.parse(text, position, lineEnd, creatorId);
+                    if (question == null) {
+                        segment.errors.add(new QuestionImportException.LineError(segment.lines, parser.getError()));
+                    } else {
+                        segment.questions.add(question);
+                    }
                 }
 
-                try {
-                    questions.add(parseLine(line, creatorId));
-                } catch (Exception e) {
-                    throw new Exception("第 " + lineNumber + " 行解析错误：" + e.getMessage());
+                position = lineEnd + 1;
+                if (lineEnd < end && text.charAt(lineEnd) == '\r' && position < end && text.charAt(position) == '\n') {
+                    position++;
                 }
             }
+            return segment;
         }
-
-        if (questions.isEmpty()) {
-            throw new Exception("导入内容中没有有效题目");
-        }
-
-        return questions;
     }
 }
@@ -0,0 +1,214 @@
+package com.exam.util;
+
+import com.exam.model.Question;
+import com.exam.model.enums.Difficulty;
+import com.exam.model.enums.QuestionType;
+
+import java.util.Locale;
+
+/**
+ * 导入格式中单行题目的解析器：一次扫描记下各字段在原文中的起止位置，只为需要保存的文本字段截取字符串，
+ * 题型、分值、难度直接在原文上比较和计算，不用正则，格式错误也不靠抛异常判断。
+ * 字段划分与 String.split("\\|") 一致，末尾的空字段不计入字段数。
+ * 实例保存扫描状态，不是线程安全的，每个线程各用一个。
+ */
+public final class QuestionLineParser {
+    private static final int MIN_FIELDS = 8;
+    private static final int MAX_FIELDS = 11;
+    private static final int DEFAULT_SCORE = 5;
+    private static final QuestionType[] TYPES = QuestionType.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final String SUPPORTED_TYPES = QuestionType.getAutoExamSupportedTypeNames();
+
+    private final boolean autoExamTypesOnly;
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private String text;
+    private String error;
+
+    public QuestionLineParser() {
+        this(true);
+    }
+
+    /**
+     * @param autoExamTypesOnly 为 true 时按导题建卷的要求只接受自动组卷支持的题型，为 false 时接受题库的全部题型
+     */
+    public QuestionLineParser(boolean autoExamTypesOnly) {
+        this.autoExamTypesOnly = autoExamTypesOnly;
+    }
+
+    /**
+     * [start, end) 去除首尾空白后为空，或是以 # 、// 开头的注释行。
+     */
+    public static boolean isBlankOrComment(String text, int start, int end) {
+        int from = trimStart(text, start, end);
+        int to = trimEnd(text, from, end);
+        if (from == to) {
+            return true;
+        }
+        char first = text.charAt(from);
+        return first == '#' || (first == '/' && from + 1 < to && text.charAt(from + 1) == '/');
+    }
+
+    /**
+     * 解析 text 中 [start, end) 范围内的一行，失败时返回 null，原因见 getError。
+     */
+    public Question parse(String text, int start, int end, Integer creatorId) {
+        this.text = text;
+        this.error = null;
+        int from = trimStart(text, start, end);
+        int fieldCount = tokenize(from, trimEnd(text, from, end));
+        if (fieldCount < MIN_FIELDS) {
+            return fail("数据格式不正确，至少需要 8 个字段（用 | 分隔）");
+        }
+
+        Question question = new Question();
+        QuestionType type = match(TYPES, 0);
+        if (type == null) {
+            return fail("题目类型无效：" + text.substring(starts[0], ends[0]) + "，当前导题建卷仅支持 " + SUPPORTED_TYPES + " 题型");
+        }
+        if (autoExamTypesOnly && !type.isSupportedForAutoExam()) {
+            return fail("导题建卷当前仅支持 " + SUPPORTED_TYPES + " 题型，暂不支持：" + type.name());
+        }
+        question.setQuestionType(type);
+
+        question.setSubject(field(1));
+        if (question.getSubject().isEmpty()) {
+            return fail("科目不能为空");
+        }
+
+        question.setContent(field(2));
+        if (question.getContent().isEmpty()) {
+            return fail("题目内容不能为空");
+        }
+
+        question.setOptionA(fieldCount > 3 ? field(3) : null);
+        question.setOptionB(fieldCount > 4 ? field(4) : null);
+        question.setOptionC(fieldCount > 5 ? field(5) : null);
+        question.setOptionD(fieldCount > 6 ? field(6) : null);
+
+        question.setCorrectAnswer(field(7).toUpperCase(Locale.ROOT));
+        if (question.getCorrectAnswer().isEmpty()) {
+            return fail("正确答案不能为空");
+        }
+
+        if (fieldCount > 8 && !isBlank(8)) {
+            Integer score = parseInt(8);
+            if (score == null) {
+                return fail("分值必须是数字");
+            }
+            question.setScore(score);
+        } else {
+            question.setScore(DEFAULT_SCORE);
+        }
+
+        Difficulty difficulty = fieldCount > 9 ? match(DIFFICULTIES, 9) : null;
+        question.setDifficulty(difficulty == null ? Difficulty.MEDIUM : difficulty);
+
+        question.setAnalysis(fieldCount > 10 ? field(10) : "");
+        question.setCreatorId(creatorId);
+        return question;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 记录前 MAX_FIELDS 个字段的位置，返回按 split 规则计算的字段数；
+     * 超出部分只需知道是否还有非空字段，有则返回一个大于 MAX_FIELDS 的值。
+     */
+    private int tokenize(int from, int to) {
+        int fieldStart = from;
+        int index = 0;
+        int lastNonEmpty = -1;
+        for (int i = from; ; i++) {
+            if (i < to && text.charAt(i) != '|') {
+                continue;
+            }
+            if (index < MAX_FIELDS) {
+                starts[index] = fieldStart;
+                ends[index] = i;
+            }
+            if (i > fieldStart) {
+                lastNonEmpty = index;
+            }
+            index++;
+            if (i == to) {
+                break;
+            }
+            fieldStart = i + 1;
+        }
+        return Math.min(lastNonEmpty + 1, MAX_FIELDS + 1);
+    }
+
+    private String field(int index) {
+        int from = trimStart(text, starts[index], ends[index]);
+        return text.substring(from, trimEnd(text, from, ends[index]));
+    }
+
+    private boolean isBlank(int index) {
+        return trimStart(text, starts[index], ends[index]) == ends[index];
+    }
+
+    private <E extends Enum<E>> E match(E[] constants, int index) {
+        int from = trimStart(text, starts[index], ends[index]);
+        int length = trimEnd(text, from, ends[index]) - from;
+        for (E constant : constants) {
+            String name = constant.name();
+            if (name.length() == length && text.regionMatches(true, from, name, 0, length)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 与 Integer.parseInt 接受的写法一致：可带正负号，数字按 Character.digit 识别，溢出视为无效。
+     */
+    private Integer parseInt(int index) {
+        int from = trimStart(text, starts[index], ends[index]);
+        int to = trimEnd(text, from, ends[index]);
+        boolean negative = text.charAt(from) == '-';
+        if (negative || text.charAt(from) == '+') {
+            from++;
+        }
+        if (from == to) {
+            return null;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (digit < 0) {
+                return null;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return null;
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        return value > Integer.MAX_VALUE ? null : (int) value;
+    }
+
+    private Question fail(String message) {
+        this.error = message;
+        return null;
+    }
+
+    private static int trimStart(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
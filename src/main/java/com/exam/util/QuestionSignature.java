@@ -0,0 +1,37 @@
+package com.exam.util;
+
+import com.exam.model.enums.QuestionType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * 题目查重签名：科目、题型、题干和正确答案去除首尾空白并转小写后，以单元分隔符拼接取 SHA-256。
+ * 转小写与题库表默认排序规则下的不区分大小写比较保持一致。
+ */
+public final class QuestionSignature {
+    private static final char SEPARATOR = '\u001F';
+
+    private QuestionSignature() {
+    }
+
+    public static String hash(String subject, QuestionType type, String content, String correctAnswer) {
+        String canonical = normalize(subject)
+                + SEPARATOR + (type == null ? "" : type.name())
+                + SEPARATOR + normalize(content)
+                + SEPARATOR + normalize(correctAnswer);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.exam.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionUtil {
+    private TransactionUtil() {
+    }
+
+    /**
+     * 在当前事务提交后执行回调；没有活动事务时立即执行。
+     * 内存缓存的失效与修补都应走这里，避免并发读取在提交前把旧数据重新装回缓存。
+     */
+    public static void afterCommit(Runnable action) {
+        if (action == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
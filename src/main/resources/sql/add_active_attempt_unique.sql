@@ -0,0 +1,30 @@
+-- 由数据库保证同一学生同一试卷至多一条进行中考试记录，替代应用内的开考锁
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+-- 1. 清理历史重复：同一学生同一试卷保留最新一条进行中记录，其余按超时处理
+UPDATE exam_record er
+    JOIN (
+        SELECT student_id, paper_id, MAX(record_id) AS keep_id
+        FROM exam_record
+        WHERE status = 'IN_PROGRESS'
+        GROUP BY student_id, paper_id
+        HAVING COUNT(*) > 1
+    ) dup ON er.student_id = dup.student_id AND er.paper_id = dup.paper_id
+SET er.status = 'TIMEOUT',
+    er.end_time = NOW()
+WHERE er.status = 'IN_PROGRESS'
+  AND er.record_id <> dup.keep_id;
+
+-- 2. 进行中标记列：IN_PROGRESS 为 1，其余为 NULL（唯一索引允许多个 NULL）
+ALTER TABLE exam_record
+    ADD COLUMN active_attempt TINYINT GENERATED ALWAYS AS (IF(status = 'IN_PROGRESS', 1, NULL)) STORED
+        COMMENT '进行中标记（仅 IN_PROGRESS 为 1），配合唯一索引限制每人每卷一条进行中记录';
+
+-- 3. 唯一索引
+ALTER TABLE exam_record
+    ADD UNIQUE KEY uk_active_attempt (student_id, paper_id, active_attempt);
+
+-- 验证修改
+SHOW INDEX FROM exam_record WHERE Key_name = 'uk_active_attempt';
@@ -0,0 +1,15 @@
+-- 会话注销记录表：注销和因会话数上限被挤掉的会话写入此表，各节点定期读取并丢掉本地缓存的对应会话
+-- 记录保留一小时，由会话清理任务删除
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+CREATE TABLE IF NOT EXISTS auth_session_revocation (
+    revocation_id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '记录ID',
+    token_hash VARCHAR(64) NOT NULL COMMENT '被注销或挤掉的会话令牌哈希',
+    revoked_at TIMESTAMP(3) NOT NULL COMMENT '注销时间',
+    INDEX idx_auth_session_revocation_revoked_at (revoked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='会话注销记录表（各节点据此丢掉本地缓存的会话）';
+
+-- 验证修改
+SHOW CREATE TABLE auth_session_revocation;
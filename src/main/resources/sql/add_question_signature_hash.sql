@@ -0,0 +1,12 @@
+-- 题库表增加查重签名列：导入试卷时按签名批量查找已有题目，不再逐题按 TRIM(content) 全表比较
+-- 已有题目由应用内的 QuestionSignatureBackfill 按 question_id 分批回填；回填完成前导入仍会对未命中的题目按原条件补查
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+ALTER TABLE question
+    ADD COLUMN signature_hash CHAR(64) NULL COMMENT '查重签名（科目、题型、题干、答案规范化后的 SHA-256）' AFTER update_time,
+    ADD INDEX idx_question_signature_hash (signature_hash);
+
+-- 验证修改
+SHOW INDEX FROM question WHERE Key_name = 'idx_question_signature_hash';
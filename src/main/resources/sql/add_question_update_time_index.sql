@@ -0,0 +1,10 @@
+-- 题库表按更新时间建索引：题干检索索引定期探测 MAX(update_time) 并增量读取其他节点或直接 SQL 修改过的题目
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+ALTER TABLE question
+    ADD INDEX idx_question_update_time (update_time);
+
+-- 验证修改
+SHOW INDEX FROM question WHERE Key_name = 'idx_question_update_time';
@@ -0,0 +1,31 @@
+-- 考试记录增加作答统计列：结算时写入，成绩列表不再为每条记录读取作答明细
+-- 已有记录由应用内的 ExamRecordCounterBackfill 按 record_id 分批回填，也可直接执行文末的一次性回填语句
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+ALTER TABLE exam_record
+    ADD COLUMN question_count INT NULL COMMENT '题目数（结算时写入）' AFTER status,
+    ADD COLUMN answered_count INT NULL COMMENT '作答数（结算时写入）' AFTER question_count,
+    ADD COLUMN correct_count INT NULL COMMENT '答对数（结算时写入）' AFTER answered_count,
+    ADD COLUMN wrong_count INT NULL COMMENT '答错数（结算时写入）' AFTER correct_count;
+
+-- 可选：一次性回填已结算记录（数据量大时建议交给应用分批回填）
+-- UPDATE exam_record er
+-- LEFT JOIN (
+--     SELECT ar.record_id,
+--            COUNT(*) AS question_count,
+--            SUM(CASE WHEN TRIM(COALESCE(ar.student_answer, '')) <> '' THEN 1 ELSE 0 END) AS answered_count,
+--            SUM(CASE WHEN ar.is_correct = TRUE THEN 1 ELSE 0 END) AS correct_count,
+--            SUM(CASE WHEN TRIM(COALESCE(ar.student_answer, '')) <> '' AND NOT ar.is_correct <=> TRUE THEN 1 ELSE 0 END) AS wrong_count
+--     FROM answer_record ar
+--     GROUP BY ar.record_id
+-- ) stats ON stats.record_id = er.record_id
+-- SET er.question_count = COALESCE(stats.question_count, 0),
+--     er.answered_count = COALESCE(stats.answered_count, 0),
+--     er.correct_count = COALESCE(stats.correct_count, 0),
+--     er.wrong_count = COALESCE(stats.wrong_count, 0)
+-- WHERE er.status IN ('SUBMITTED', 'TIMEOUT') AND er.question_count IS NULL;
+
+-- 验证修改
+SHOW COLUMNS FROM exam_record LIKE '%_count';
@@ -0,0 +1,10 @@
+-- 学生成绩记录键集分页：按 (create_time, record_id) 倒序定位，翻到第 N 页与第 1 页代价相同
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+ALTER TABLE exam_record
+    ADD INDEX idx_student_create_time (student_id, create_time, record_id);
+
+-- 验证修改
+SHOW INDEX FROM exam_record WHERE Key_name = 'idx_student_create_time';
@@ -0,0 +1,27 @@
+-- 为工作台 GET 接口的 ETag 提供可索引的数据版本：考试记录增加毫秒级 update_time，试卷与题目的 update_time 提升到毫秒精度
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+-- 1. 考试记录更新时间，历史数据以结束/提交/开始时间回填
+ALTER TABLE exam_record
+    ADD COLUMN update_time TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+        COMMENT '更新时间（毫秒精度，用作记录版本水位）';
+
+UPDATE exam_record
+SET update_time = COALESCE(end_time, submit_time, start_time, create_time, CURRENT_TIMESTAMP(3));
+
+ALTER TABLE exam_record
+    ADD INDEX idx_student_update_time (student_id, update_time),
+    ADD INDEX idx_paper_update_time (paper_id, update_time),
+    ADD INDEX idx_update_time (update_time);
+
+-- 2. 同一秒内的多次修改也能区分版本
+ALTER TABLE paper
+    MODIFY COLUMN update_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间';
+
+ALTER TABLE question
+    MODIFY COLUMN update_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间';
+
+-- 验证修改
+SHOW INDEX FROM exam_record WHERE Key_name IN ('idx_student_update_time', 'idx_paper_update_time', 'idx_update_time');
@@ -0,0 +1,14 @@
+-- 教师学生名单：按姓名前缀搜索学生，按学生在索引上汇总记录数、提交数和平均分
+-- 执行日期：2026-10-18
+
+USE exam_system;
+
+ALTER TABLE user
+    ADD INDEX idx_role_real_name (role, real_name);
+
+ALTER TABLE exam_record
+    ADD INDEX idx_student_status_score (student_id, status, score);
+
+-- 验证修改
+SHOW INDEX FROM user WHERE Key_name = 'idx_role_real_name';
+SHOW INDEX FROM exam_record WHERE Key_name = 'idx_student_status_score';
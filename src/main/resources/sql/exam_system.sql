@@ -11,11 +11,18 @@ USE exam_system;
 -- ========================================
 -- 删除表（注意顺序：先删除子表，再删除父表）
 -- ========================================
+DROP TABLE IF EXISTS paper_score_bucket;
+DROP TABLE IF EXISTS paper_score_stats;
+DROP TABLE IF EXISTS student_type_achievement;
+DROP TABLE IF EXISTS student_subject_achievement;
+DROP TABLE IF EXISTS student_achievement;
+DROP TABLE IF EXISTS answer_draft;
 DROP TABLE IF EXISTS answer_record;
 DROP TABLE IF EXISTS exam_record;
 DROP TABLE IF EXISTS paper_question;
 DROP TABLE IF EXISTS paper;
 DROP TABLE IF EXISTS question;
+DROP TABLE IF EXISTS auth_session_revocation;
 DROP TABLE IF EXISTS auth_session;
 DROP TABLE IF EXISTS user;
 
@@ -38,7 +45,8 @@ CREATE TABLE user (
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX idx_student_number (student_number),
     INDEX idx_role (role),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_role_real_name (role, real_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
 
 -- ========================================
@@ -60,10 +68,13 @@ CREATE TABLE question (
     analysis TEXT COMMENT '题目解析',
     creator_id INT COMMENT '创建者ID',
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    update_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    signature_hash CHAR(64) NULL COMMENT '查重签名（科目、题型、题干、答案规范化后的 SHA-256）',
     INDEX idx_question_type (question_type),
     INDEX idx_subject (subject),
     INDEX idx_difficulty (difficulty),
+    INDEX idx_question_signature_hash (signature_hash),
+    INDEX idx_question_update_time (update_time),
     FOREIGN KEY (creator_id) REFERENCES user(user_id) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='题库表';
 
@@ -82,7 +93,7 @@ CREATE TABLE paper (
     is_published BOOLEAN DEFAULT FALSE COMMENT '是否发布',
     creator_id INT COMMENT '创建者ID',
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    update_time TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
     INDEX idx_subject (subject),
     INDEX idx_is_published (is_published),
     FOREIGN KEY (creator_id) REFERENCES user(user_id) ON DELETE SET NULL
@@ -115,10 +126,22 @@ CREATE TABLE exam_record (
     submit_time TIMESTAMP NULL COMMENT '提交时间',
     score DECIMAL(5,2) COMMENT '得分',
     status ENUM('NOT_STARTED', 'IN_PROGRESS', 'SUBMITTED', 'TIMEOUT') DEFAULT 'NOT_STARTED' COMMENT '状态',
+    question_count INT NULL COMMENT '题目数（结算时写入）',
+    answered_count INT NULL COMMENT '作答数（结算时写入）',
+    correct_count INT NULL COMMENT '答对数（结算时写入）',
+    wrong_count INT NULL COMMENT '答错数（结算时写入）',
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    active_attempt TINYINT GENERATED ALWAYS AS (IF(status = 'IN_PROGRESS', 1, NULL)) STORED COMMENT '进行中标记（仅 IN_PROGRESS 为 1），配合唯一索引限制每人每卷一条进行中记录',
+    update_time TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间（毫秒精度，用作记录版本水位）',
     INDEX idx_student_id (student_id),
     INDEX idx_paper_id (paper_id),
     INDEX idx_status (status),
+    INDEX idx_student_create_time (student_id, create_time, record_id),
+    INDEX idx_student_status_score (student_id, status, score),
+    INDEX idx_student_update_time (student_id, update_time),
+    INDEX idx_paper_update_time (paper_id, update_time),
+    INDEX idx_update_time (update_time),
+    UNIQUE KEY uk_active_attempt (student_id, paper_id, active_attempt),
     FOREIGN KEY (student_id) REFERENCES user(user_id) ON DELETE CASCADE,
     FOREIGN KEY (paper_id) REFERENCES paper(paper_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='考试记录表';
@@ -140,6 +163,90 @@ CREATE TABLE answer_record (
     FOREIGN KEY (question_id) REFERENCES question(question_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='答题记录表';
 
+-- ========================================
+-- 7. 作答草稿表 (AnswerDraft)
+-- ========================================
+DROP TABLE IF EXISTS answer_draft;
+CREATE TABLE answer_draft (
+    record_id INT NOT NULL COMMENT '考试记录ID',
+    question_id INT NOT NULL COMMENT '题目ID',
+    draft_answer TEXT COMMENT '暂存答案',
+    updated_at TIMESTAMP NOT NULL COMMENT '最后暂存时间',
+    PRIMARY KEY (record_id, question_id),
+    FOREIGN KEY (record_id) REFERENCES exam_record(record_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='作答草稿表';
+
+-- ========================================
+-- 8. 学生成绩聚合表（结算时累加，缺失时按考试记录重建）
+-- ========================================
+DROP TABLE IF EXISTS student_achievement;
+CREATE TABLE student_achievement (
+    student_id INT PRIMARY KEY COMMENT '学生ID',
+    completed_count INT NOT NULL DEFAULT 0 COMMENT '已结算考试数',
+    scored_count INT NOT NULL DEFAULT 0 COMMENT '有成绩的考试数',
+    score_sum DECIMAL(12,2) NOT NULL DEFAULT 0 COMMENT '成绩总和',
+    best_score DECIMAL(5,2) NULL COMMENT '最高分',
+    pass_count INT NOT NULL DEFAULT 0 COMMENT '及格次数',
+    fail_count INT NOT NULL DEFAULT 0 COMMENT '不及格次数',
+    question_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计题数',
+    answered_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计作答数',
+    correct_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计答对数',
+    update_time TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+    FOREIGN KEY (student_id) REFERENCES user(user_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学生成绩汇总表';
+
+DROP TABLE IF EXISTS student_subject_achievement;
+CREATE TABLE student_subject_achievement (
+    student_id INT NOT NULL COMMENT '学生ID',
+    subject VARCHAR(50) NOT NULL COMMENT '科目',
+    record_count INT NOT NULL DEFAULT 0 COMMENT '已结算考试数',
+    scored_count INT NOT NULL DEFAULT 0 COMMENT '有成绩的考试数',
+    score_sum DECIMAL(12,2) NOT NULL DEFAULT 0 COMMENT '成绩总和',
+    pass_count INT NOT NULL DEFAULT 0 COMMENT '及格次数',
+    fail_count INT NOT NULL DEFAULT 0 COMMENT '不及格次数',
+    question_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计题数',
+    answered_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计作答数',
+    correct_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计答对数',
+    latest_submit_time TIMESTAMP NULL COMMENT '最近一次考试时间',
+    PRIMARY KEY (student_id, subject),
+    FOREIGN KEY (student_id) REFERENCES user(user_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学生科目成绩表';
+
+DROP TABLE IF EXISTS student_type_achievement;
+CREATE TABLE student_type_achievement (
+    student_id INT NOT NULL COMMENT '学生ID',
+    question_type VARCHAR(32) NOT NULL COMMENT '题型（题目已删除时为 OTHER）',
+    total_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计题数',
+    answered_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计作答数',
+    correct_count BIGINT NOT NULL DEFAULT 0 COMMENT '累计答对数',
+    PRIMARY KEY (student_id, question_type),
+    FOREIGN KEY (student_id) REFERENCES user(user_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学生题型作答统计表';
+
+-- ========================================
+-- 9. 试卷成绩分布表（结算时累加，缺失时按考试记录重建）
+-- ========================================
+DROP TABLE IF EXISTS paper_score_stats;
+CREATE TABLE paper_score_stats (
+    paper_id INT PRIMARY KEY COMMENT '试卷ID',
+    built TINYINT(1) NOT NULL DEFAULT 0 COMMENT '分数桶是否已建立（重判后置 0，读取时重建）',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '重建次数',
+    rebuilt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '最近一次重建时间',
+    FOREIGN KEY (paper_id) REFERENCES paper(paper_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='试卷成绩分布标记表';
+
+DROP TABLE IF EXISTS paper_score_bucket;
+CREATE TABLE paper_score_bucket (
+    paper_id INT NOT NULL COMMENT '试卷ID',
+    bucket INT NOT NULL COMMENT '分数桶（成绩向下取整）',
+    record_count INT NOT NULL DEFAULT 0 COMMENT '落入该桶的记录数',
+    score_sum DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '桶内成绩总和',
+    min_score DECIMAL(5,2) NOT NULL COMMENT '桶内最低分',
+    max_score DECIMAL(5,2) NOT NULL COMMENT '桶内最高分',
+    PRIMARY KEY (paper_id, bucket),
+    FOREIGN KEY (paper_id) REFERENCES paper(paper_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='试卷成绩分布桶表';
+
 -- ========================================
 -- 初始化数据
 -- ========================================
@@ -151,6 +258,12 @@ CREATE TABLE answer_record (
 -- 清除所有表的数据
 -- ========================================
 SET FOREIGN_KEY_CHECKS = 0;  -- 禁用外键检查
+TRUNCATE TABLE paper_score_bucket;
+TRUNCATE TABLE paper_score_stats;
+TRUNCATE TABLE student_type_achievement;
+TRUNCATE TABLE student_subject_achievement;
+TRUNCATE TABLE student_achievement;
+TRUNCATE TABLE answer_draft;
 TRUNCATE TABLE answer_record;
 TRUNCATE TABLE exam_record;
 TRUNCATE TABLE paper_question;
@@ -168,5 +281,13 @@ CREATE TABLE auth_session (
     INDEX idx_auth_session_user_role (user_id, role),
     FOREIGN KEY (user_id) REFERENCES user(user_id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='璁よ瘉浼氳瘽琛?;
+
+DROP TABLE IF EXISTS auth_session_revocation;
+CREATE TABLE auth_session_revocation (
+    revocation_id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '记录ID',
+    token_hash VARCHAR(64) NOT NULL COMMENT '被注销或挤掉的会话令牌哈希',
+    revoked_at TIMESTAMP(3) NOT NULL COMMENT '注销时间',
+    INDEX idx_auth_session_revocation_revoked_at (revoked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='会话注销记录表（各节点据此丢掉本地缓存的会话）';
 TRUNCATE TABLE user;
 SET FOREIGN_KEY_CHECKS = 1;  -- 启用外键检查
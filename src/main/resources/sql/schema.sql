@@ -8,3 +8,73 @@ CREATE TABLE IF NOT EXISTS auth_session (
     INDEX idx_auth_session_issued_at (issued_at),
     INDEX idx_auth_session_user_role (user_id, role)
 );
+
+CREATE TABLE IF NOT EXISTS auth_session_revocation (
+    revocation_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    revoked_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_auth_session_revocation_revoked_at (revoked_at)
+);
+
+CREATE TABLE IF NOT EXISTS answer_draft (
+    record_id INT NOT NULL,
+    question_id INT NOT NULL,
+    draft_answer TEXT,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (record_id, question_id)
+);
+
+CREATE TABLE IF NOT EXISTS student_achievement (
+    student_id INT PRIMARY KEY,
+    completed_count INT NOT NULL DEFAULT 0,
+    scored_count INT NOT NULL DEFAULT 0,
+    score_sum DECIMAL(12,2) NOT NULL DEFAULT 0,
+    best_score DECIMAL(5,2) NULL,
+    pass_count INT NOT NULL DEFAULT 0,
+    fail_count INT NOT NULL DEFAULT 0,
+    question_count BIGINT NOT NULL DEFAULT 0,
+    answered_count BIGINT NOT NULL DEFAULT 0,
+    correct_count BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+);
+
+CREATE TABLE IF NOT EXISTS student_subject_achievement (
+    student_id INT NOT NULL,
+    subject VARCHAR(50) NOT NULL,
+    record_count INT NOT NULL DEFAULT 0,
+    scored_count INT NOT NULL DEFAULT 0,
+    score_sum DECIMAL(12,2) NOT NULL DEFAULT 0,
+    pass_count INT NOT NULL DEFAULT 0,
+    fail_count INT NOT NULL DEFAULT 0,
+    question_count BIGINT NOT NULL DEFAULT 0,
+    answered_count BIGINT NOT NULL DEFAULT 0,
+    correct_count BIGINT NOT NULL DEFAULT 0,
+    latest_submit_time TIMESTAMP NULL,
+    PRIMARY KEY (student_id, subject)
+);
+
+CREATE TABLE IF NOT EXISTS student_type_achievement (
+    student_id INT NOT NULL,
+    question_type VARCHAR(32) NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    answered_count BIGINT NOT NULL DEFAULT 0,
+    correct_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (student_id, question_type)
+);
+
+CREATE TABLE IF NOT EXISTS paper_score_stats (
+    paper_id INT PRIMARY KEY,
+    built TINYINT(1) NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    rebuilt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE TABLE IF NOT EXISTS paper_score_bucket (
+    paper_id INT NOT NULL,
+    bucket INT NOT NULL,
+    record_count INT NOT NULL DEFAULT 0,
+    score_sum DECIMAL(14,2) NOT NULL DEFAULT 0,
+    min_score DECIMAL(5,2) NOT NULL,
+    max_score DECIMAL(5,2) NOT NULL,
+    PRIMARY KEY (paper_id, bucket)
+);
@@ -6,10 +6,14 @@ import com.exam.api.controller.StudentAchievementController;
 import com.exam.api.dto.StudentAchievementDtos;
 import com.exam.api.service.StudentAchievementService;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.model.User;
 import com.exam.model.enums.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -33,7 +37,8 @@ class StudentAchievementControllerTest {
         controller = new StudentAchievementController(
                 studentAchievementService,
                 new StudentAchievementAssembler(),
-                userRoleGuard
+                userRoleGuard,
+                mock(WorkspaceEtags.class)
         );
     }
 
@@ -96,7 +101,10 @@ class StudentAchievementControllerTest {
         when(userRoleGuard.requireStudent(1)).thenReturn(student);
         when(studentAchievementService.buildSnapshot(1)).thenReturn(snapshot);
 
-        ApiResponse<StudentAchievementDtos.StudentAchievementPayload> response = controller.getStudentAchievement(1);
+        ApiResponse<StudentAchievementDtos.StudentAchievementPayload> response = controller.getStudentAchievement(
+                1,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse())
+        );
 
         assertTrue(response.isSuccess());
         assertNotNull(response.getData());
@@ -4,21 +4,36 @@ import com.exam.api.assembler.ExamRecordStatisticsAssembler;
 import com.exam.api.assembler.StudentWorkspaceAssembler;
 import com.exam.api.common.ApiResponse;
 import com.exam.api.controller.StudentWorkspaceController;
+import com.exam.api.dto.StudentSaveDraftRequest;
+import com.exam.api.dto.StudentSubmitExamRequest;
 import com.exam.api.dto.StudentWorkspaceDtos;
+import com.exam.api.security.AuthenticatedUser;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.api.support.ExamAccessGuard;
+import com.exam.api.support.ExamPaperViewCache;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.exception.BusinessException;
 import com.exam.model.AnswerRecord;
+import com.exam.model.DataVersion;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
+import com.exam.model.Question;
 import com.exam.model.User;
 import com.exam.model.enums.ExamStatus;
 import com.exam.model.enums.QuestionType;
 import com.exam.model.enums.UserRole;
+import com.exam.service.AnswerKey;
 import com.exam.service.ExamService;
+import com.exam.service.PaperCatalogCache;
 import com.exam.service.PaperService;
+import com.exam.service.SubmissionPipeline;
+import com.exam.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -27,11 +42,16 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +60,8 @@ class StudentWorkspaceControllerTest {
     private ExamService examService;
     private UserRoleGuard userRoleGuard;
     private ExamAccessGuard examAccessGuard;
+    private SubmissionPipeline submissionPipeline;
+    private PaperCatalogCache catalogCache;
     private StudentWorkspaceController controller;
 
     @BeforeEach
@@ -48,12 +70,19 @@ class StudentWorkspaceControllerTest {
         examService = mock(ExamService.class);
         userRoleGuard = mock(UserRoleGuard.class);
         examAccessGuard = mock(ExamAccessGuard.class);
+        submissionPipeline = mock(SubmissionPipeline.class);
+        catalogCache = mock(PaperCatalogCache.class);
+        StudentWorkspaceAssembler assembler = new StudentWorkspaceAssembler(new ExamRecordStatisticsAssembler());
         controller = new StudentWorkspaceController(
                 paperService,
                 examService,
-                new StudentWorkspaceAssembler(new ExamRecordStatisticsAssembler()),
+                assembler,
                 userRoleGuard,
-                examAccessGuard
+                examAccessGuard,
+                submissionPipeline,
+                new ExamPaperViewCache(catalogCache, examService, assembler),
+                new WorkspaceEtags(paperService, examService, mock(UserService.class)),
+                mock(PaperLeaderboardService.class)
         );
     }
 
@@ -85,7 +114,7 @@ class StudentWorkspaceControllerTest {
                 )
         ));
 
-        ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> response = controller.getStudentRecords(1);
+        ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> response = controller.getStudentRecords(1, newWebRequest());
 
         assertTrue(response.isSuccess());
         assertNotNull(response.getData());
@@ -100,21 +129,179 @@ class StudentWorkspaceControllerTest {
         assertEquals(1L, response.getData().records().get(0).wrongCount());
     }
 
+    @Test
+    void getStudentRecordsShouldUseStoredCountersWithoutLoadingAnswerRecords() {
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+        ExamRecord settled = buildRecord(11, 1, buildPaper(101, "Math Mock"), ExamStatus.SUBMITTED, BigDecimal.valueOf(80));
+        settled.setQuestionCount(5);
+        settled.setAnsweredCount(4);
+        settled.setCorrectCount(3);
+        settled.setWrongCount(1);
+        ExamRecord inProgress = buildRecord(12, 1, buildPaper(102, "English Mock"), ExamStatus.IN_PROGRESS, null);
+
+        when(userRoleGuard.requireStudent(1)).thenReturn(student);
+        when(examService.getStudentExamRecordsOptimized(1)).thenReturn(List.of(settled, inProgress));
+
+        ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> response = controller.getStudentRecords(1, newWebRequest());
+
+        assertEquals(3L, response.getData().records().get(0).correctCount());
+        assertEquals(1L, response.getData().records().get(0).wrongCount());
+        assertEquals(0L, response.getData().records().get(1).correctCount());
+        verify(examService, never()).getAnswerRecordsBatch(any());
+    }
+
     @Test
     void startExamShouldValidateUnsupportedQuestionTypesBeforeCreatingRecord() {
         User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
         student.setUserId(1);
         Paper paper = buildPaper(101, "Legacy Paper");
+        paper.setIsPublished(true);
 
         when(userRoleGuard.requireStudent(1)).thenReturn(student);
-        when(examAccessGuard.requirePublishedPaper(101)).thenReturn(paper);
+        when(catalogCache.findPaper(101)).thenReturn(paper);
         doThrow(new BusinessException("当前考试流程仅支持 SINGLE, MULTIPLE, JUDGE 题型，当前试卷包含不支持自动判分的题型：SHORT_ANSWER。请联系老师重新发布仅含客观题的试卷。"))
                 .when(examService).validatePaperSupportsAutoExam(101);
 
         BusinessException exception = assertThrows(BusinessException.class, () -> controller.startExam(1, 101));
 
         assertTrue(exception.getMessage().contains("SHORT_ANSWER"));
+        verify(examService, never()).startOrResumeExam(eq(1), any(Paper.class));
+        verify(examService, never()).startOrResumeExam(1, 101);
+    }
+
+    @Test
+    void startExamShouldServeQuestionsFromCachedPaperView() {
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+        Paper paper = buildPaper(101, "Math Mock");
+        paper.setIsPublished(true);
+        paper.setDuration(60);
+        AnswerKey answerKey = AnswerKey.compile(101, 1L, 0L, List.of(
+                buildQuestion(1001, QuestionType.SINGLE, "A"),
+                buildQuestion(1002, QuestionType.JUDGE, "T")
+        ));
+        ExamRecord record = buildRecord(11, 1, paper, ExamStatus.IN_PROGRESS, null);
+        record.setStartTime(LocalDateTime.now());
+
+        when(userRoleGuard.requireStudent(1)).thenReturn(student);
+        when(catalogCache.findPaper(101)).thenReturn(paper);
+        when(examService.validatePaperSupportsAutoExam(101)).thenReturn(answerKey);
+        when(examService.startOrResumeExam(1, paper)).thenReturn(new ExamService.ExamStartResult(record, false));
+
+        ApiResponse<StudentWorkspaceDtos.StartExamPayload> first = controller.startExam(1, 101);
+        ApiResponse<StudentWorkspaceDtos.StartExamPayload> second = controller.startExam(1, 101);
+
+        assertEquals(List.of(1001, 1002), first.getData().questions().stream()
+                .map(StudentWorkspaceDtos.QuestionExamItem::questionId)
+                .toList());
+        assertSame(first.getData().questions(), second.getData().questions());
+        verify(examService, times(2)).startOrResumeExam(1, paper);
         verify(examService, never()).startOrResumeExam(1, 101);
+        verify(examAccessGuard, never()).requirePublishedPaper(101);
+        verify(paperService, never()).getPaperById(101);
+    }
+
+    @Test
+    void submitExamShouldBuildResultFromSubmissionReportWithoutReloading() {
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+        Paper paper = buildPaper(101, "Math Mock");
+        ExamRecord record = buildRecord(11, 1, paper, ExamStatus.IN_PROGRESS, null);
+        ExamRecord submitted = buildRecord(11, 1, paper, ExamStatus.SUBMITTED, BigDecimal.valueOf(70));
+        submitted.setStartTime(LocalDateTime.of(2026, 4, 10, 9, 0));
+        submitted.setSubmitTime(LocalDateTime.of(2026, 4, 10, 9, 30));
+
+        StudentSubmitExamRequest.AnswerItem item = new StudentSubmitExamRequest.AnswerItem();
+        item.setQuestionId(1001);
+        item.setAnswer("A");
+        StudentSubmitExamRequest request = new StudentSubmitExamRequest();
+        request.setAnswers(List.of(item));
+
+        when(userRoleGuard.requireStudent(1)).thenReturn(student);
+        when(examAccessGuard.requireOwnedRecord(1, 11)).thenReturn(record);
+        when(submissionPipeline.submit(11, Map.of(1001, "A"))).thenReturn(new ExamService.SubmissionReport(
+                submitted,
+                BigDecimal.valueOf(70),
+                List.of(buildAnswerRecord(11, 1001, "A", true), buildAnswerRecord(11, 1002, null, false))
+        ));
+
+        ApiResponse<StudentWorkspaceDtos.StudentSubmitResultPayload> response = controller.submitExam(1, 11, request);
+
+        assertEquals(BigDecimal.valueOf(70), response.getData().result().score());
+        assertEquals("SUBMITTED", response.getData().result().status());
+        assertEquals(2, response.getData().result().questionCount());
+        assertEquals(1L, response.getData().result().correctCount());
+        verify(examService, never()).getExamRecordById(11);
+        verify(examService, never()).getAnswerRecords(11);
+    }
+
+    @Test
+    void saveAnswerDraftsShouldNormalizeBlankAnswersWithoutLoadingRecord() {
+        StudentSubmitExamRequest.AnswerItem first = new StudentSubmitExamRequest.AnswerItem();
+        first.setQuestionId(1001);
+        first.setAnswer(" A ");
+        StudentSubmitExamRequest.AnswerItem second = new StudentSubmitExamRequest.AnswerItem();
+        second.setQuestionId(1002);
+        second.setAnswer("   ");
+        StudentSaveDraftRequest request = new StudentSaveDraftRequest();
+        request.setAnswers(List.of(first, second));
+
+        when(examService.saveAnswerDrafts(1, 11, Map.of(1001, "A", 1002, ""))).thenReturn(2);
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(1, UserRole.STUDENT, LocalDateTime.now().plusHours(1));
+
+        ApiResponse<StudentWorkspaceDtos.SaveDraftPayload> response = controller.saveAnswerDrafts(1, 11, authenticatedUser, request);
+
+        assertEquals(11, response.getData().recordId());
+        assertEquals(2, response.getData().savedCount());
+        verify(userRoleGuard).requireStudent(authenticatedUser);
+        verify(userRoleGuard, never()).requireStudent(any(Integer.class));
+        verify(examAccessGuard, never()).requireOwnedRecord(1, 11);
+    }
+
+    @Test
+    void getStudentRecordsShouldAnswerNotModifiedWhenRecordVersionIsUnchanged() {
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+        Paper paper = buildPaper(101, "Math Mock");
+        ExamRecord record = buildRecord(11, 1, paper, ExamStatus.SUBMITTED, BigDecimal.valueOf(95));
+
+        when(userRoleGuard.requireStudent(1)).thenReturn(student);
+        when(paperService.getPapersVersion()).thenReturn(new DataVersion(1, 101, LocalDateTime.of(2026, 4, 1, 8, 0)));
+        when(examService.getStudentRecordVersion(1)).thenReturn(new DataVersion(1, 11, LocalDateTime.of(2026, 4, 10, 9, 30)));
+        when(examService.getStudentExamRecordsOptimized(1)).thenReturn(List.of(record));
+        when(examService.getAnswerRecordsBatch(List.of(11))).thenReturn(Map.of());
+
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> first = controller.getStudentRecords(
+                1,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/student/1/records"), firstResponse)
+        );
+        String etag = firstResponse.getHeader("ETag");
+
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/student/1/records");
+        revalidation.addHeader("If-None-Match", etag);
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+        ApiResponse<StudentWorkspaceDtos.StudentRecordsPayload> second = controller.getStudentRecords(
+                1,
+                new ServletWebRequest(revalidation, secondResponse)
+        );
+
+        assertNotNull(first);
+        assertNotNull(etag);
+        assertNull(second);
+        assertEquals(304, secondResponse.getStatus());
+        verify(examService, times(1)).getStudentExamRecordsOptimized(1);
+
+        when(examService.getStudentRecordVersion(1)).thenReturn(new DataVersion(2, 12, LocalDateTime.of(2026, 4, 11, 9, 0)));
+        MockHttpServletRequest afterNewRecord = new MockHttpServletRequest("GET", "/api/student/1/records");
+        afterNewRecord.addHeader("If-None-Match", etag);
+        assertNotNull(controller.getStudentRecords(1, new ServletWebRequest(afterNewRecord, new MockHttpServletResponse())));
+    }
+
+    private ServletWebRequest newWebRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
     }
 
     private Paper buildPaper(int paperId, String paperName) {
@@ -127,6 +314,16 @@ class StudentWorkspaceControllerTest {
         return paper;
     }
 
+    private Question buildQuestion(int questionId, QuestionType type, String answer) {
+        Question question = new Question();
+        question.setQuestionId(questionId);
+        question.setQuestionType(type);
+        question.setContent("Question " + questionId);
+        question.setCorrectAnswer(answer);
+        question.setScore(5);
+        return question;
+    }
+
     private ExamRecord buildRecord(Integer recordId, Integer studentId, Paper paper, ExamStatus status, BigDecimal score) {
         ExamRecord record = new ExamRecord();
         record.setRecordId(recordId);
@@ -5,28 +5,48 @@ import com.exam.api.assembler.TeacherWorkspaceAssembler;
 import com.exam.api.common.ApiResponse;
 import com.exam.api.controller.TeacherWorkspaceController;
 import com.exam.api.dto.TeacherWorkspaceDtos;
+import com.exam.api.service.PaperLeaderboardService;
 import com.exam.api.support.ExamAccessGuard;
 import com.exam.api.support.UserRoleGuard;
-import com.exam.model.ExamRecord;
+import com.exam.api.support.WorkspaceEtags;
+import com.exam.model.DataVersion;
 import com.exam.model.Paper;
+import com.exam.model.PaperScoreBucket;
+import com.exam.model.Question;
+import com.exam.model.StudentRecordStats;
 import com.exam.model.User;
-import com.exam.model.enums.ExamStatus;
+import com.exam.model.enums.QuestionType;
 import com.exam.model.enums.UserRole;
 import com.exam.service.ExamService;
+import com.exam.service.PaperAnalysisService;
+import com.exam.service.PaperItemAnalysis;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperScoreDistribution;
 import com.exam.service.PaperService;
+import com.exam.service.QuestionRegradeService;
 import com.exam.service.QuestionService;
+import com.exam.service.ScoreRanking;
 import com.exam.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TeacherWorkspaceControllerTest {
@@ -34,6 +54,8 @@ class TeacherWorkspaceControllerTest {
     private PaperService paperService;
     private ExamService examService;
     private QuestionService questionService;
+    private PaperAnalysisService paperAnalysisService;
+    private PaperLeaderboardService paperLeaderboardService;
     private UserRoleGuard userRoleGuard;
     private ExamAccessGuard examAccessGuard;
     private TeacherWorkspaceController controller;
@@ -44,6 +66,8 @@ class TeacherWorkspaceControllerTest {
         paperService = mock(PaperService.class);
         examService = mock(ExamService.class);
         questionService = mock(QuestionService.class);
+        paperAnalysisService = mock(PaperAnalysisService.class);
+        paperLeaderboardService = mock(PaperLeaderboardService.class);
         userRoleGuard = mock(UserRoleGuard.class);
         examAccessGuard = mock(ExamAccessGuard.class);
         controller = new TeacherWorkspaceController(
@@ -51,9 +75,12 @@ class TeacherWorkspaceControllerTest {
                 paperService,
                 examService,
                 questionService,
+                paperAnalysisService,
+                paperLeaderboardService,
                 new TeacherWorkspaceAssembler(new ExamRecordStatisticsAssembler()),
                 userRoleGuard,
-                examAccessGuard
+                examAccessGuard,
+                new WorkspaceEtags(paperService, examService, userService)
         );
     }
 
@@ -67,33 +94,20 @@ class TeacherWorkspaceControllerTest {
         User studentB = new User("Bob", "2023002", "secret", UserRole.STUDENT);
         studentB.setUserId(2);
 
-        Paper paper = new Paper();
-        paper.setPaperId(101);
-        paper.setPaperName("Math Mock");
-
-        ExamRecord submittedRecord = new ExamRecord();
-        submittedRecord.setRecordId(11);
-        submittedRecord.setStudentId(1);
-        submittedRecord.setPaperId(101);
-        submittedRecord.setPaper(paper);
-        submittedRecord.setStatus(ExamStatus.SUBMITTED);
-        submittedRecord.setScore(BigDecimal.valueOf(80));
-
-        ExamRecord inProgressRecord = new ExamRecord();
-        inProgressRecord.setRecordId(12);
-        inProgressRecord.setStudentId(1);
-        inProgressRecord.setPaperId(101);
-        inProgressRecord.setPaper(paper);
-        inProgressRecord.setStatus(ExamStatus.IN_PROGRESS);
+        StudentRecordStats statsA = new StudentRecordStats();
+        statsA.setStudentId(1);
+        statsA.setRecordCount(2);
+        statsA.setSubmittedCount(1);
+        statsA.setAverageScore(80.0);
 
         when(userRoleGuard.requireTeacher(10)).thenReturn(teacher);
         when(userService.getStudents()).thenReturn(List.of(studentA, studentB));
-        when(examService.getStudentExamRecordsByStudentIds(List.of(1, 2))).thenReturn(Map.of(
-                1, List.of(submittedRecord, inProgressRecord),
-                2, List.of()
-        ));
+        when(examService.getStudentRecordStats(null)).thenReturn(Map.of(1, statsA));
 
-        ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPayload> response = controller.getTeacherStudents(10);
+        ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPayload> response = controller.getTeacherStudents(
+                10,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse())
+        );
 
         assertTrue(response.isSuccess());
         assertNotNull(response.getData());
@@ -105,5 +119,196 @@ class TeacherWorkspaceControllerTest {
         assertEquals(1L, response.getData().students().get(0).submittedCount());
         assertEquals(80.0, response.getData().students().get(0).averageScore(), 0.001);
         assertEquals(0, response.getData().students().get(1).recordCount());
+        verify(examService, never()).getStudentExamRecordsByStudentIds(any());
+    }
+
+    @Test
+    void getTeacherStudentsPageShouldAggregateOnlyCurrentPage() {
+        User teacher = new User("Teacher", "teacher001", "secret", UserRole.TEACHER);
+        teacher.setUserId(10);
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+        StudentRecordStats stats = new StudentRecordStats();
+        stats.setStudentId(1);
+        stats.setRecordCount(3);
+        stats.setSubmittedCount(3);
+        stats.setAverageScore(72.5);
+
+        when(userRoleGuard.requireTeacher(10)).thenReturn(teacher);
+        when(userService.getStudentsPage("Al", null, 1)).thenReturn(new UserService.StudentPage(List.of(student), "next", 5));
+        when(examService.getStudentRecordStats(List.of(1))).thenReturn(Map.of(1, stats));
+
+        ApiResponse<TeacherWorkspaceDtos.TeacherStudentsPagePayload> response = controller.getTeacherStudentsPage(10, "Al", null, 1, null);
+
+        TeacherWorkspaceDtos.TeacherStudentsPagePayload payload = response.getData();
+        assertEquals(5, payload.summary().studentCount());
+        assertEquals(1, payload.students().size());
+        assertEquals(3, payload.students().get(0).recordCount());
+        assertEquals(72.5, payload.students().get(0).averageScore(), 0.001);
+        assertEquals("next", payload.nextCursor());
+        assertTrue(payload.hasMore());
+    }
+
+    @Test
+    void getTeacherStudentsPageShouldProbeRecordVersionOfPageStudentsOnly() {
+        User teacher = new User("Teacher", "teacher001", "secret", UserRole.TEACHER);
+        teacher.setUserId(10);
+        User student = new User("Alice", "2023001", "secret", UserRole.STUDENT);
+        student.setUserId(1);
+
+        when(userRoleGuard.requireTeacher(10)).thenReturn(teacher);
+        when(userService.getStudentsPage(null, null, 20)).thenReturn(new UserService.StudentPage(List.of(student), null, 1));
+        when(examService.getStudentsRecordVersion(List.of(1))).thenReturn(new DataVersion(3, 41, LocalDateTime.of(2026, 4, 10, 9, 30)));
+        when(examService.getStudentRecordStats(List.of(1))).thenReturn(Map.of());
+
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        assertNotNull(controller.getTeacherStudentsPage(
+                10, null, null, 20,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/teacher/10/students/page"), firstResponse)
+        ));
+        MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/teacher/10/students/page");
+        revalidation.addHeader("If-None-Match", firstResponse.getHeader("ETag"));
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+
+        assertNull(controller.getTeacherStudentsPage(10, null, null, 20, new ServletWebRequest(revalidation, secondResponse)));
+        assertEquals(304, secondResponse.getStatus());
+        verify(examService, times(1)).getStudentRecordStats(List.of(1));
+        verify(examService, never()).getRecordVersion();
+    }
+
+    @Test
+    void paperEndpointsShouldProbeRecordVersionOfThatPaperOnly() {
+        when(paperAnalysisService.analyzePaper(101)).thenReturn(new PaperAnalysisService.PaperAnalysis(
+                new Paper(),
+                new PaperItemAnalysis.Result(0, 0D, 0D, 0, List.of())
+        ));
+
+        controller.getPaperAnalysis(10, 101, null);
+
+        verify(examService).getPaperRecordVersion(101);
+        verify(examService, never()).getRecordVersion();
+    }
+
+    @Test
+    void getPaperAnalysisShouldAttachQuestionContentAndRoundIndexes() {
+        Question question = new Question();
+        question.setQuestionId(31);
+        question.setQuestionType(QuestionType.SINGLE);
+        question.setContent("1 + 1 = ?");
+        question.setCorrectAnswer("B");
+        question.setScore(5);
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        paper.setPaperName("Math Mock");
+        paper.setQuestions(List.of(question));
+
+        PaperItemAnalysis.ItemStatistics item = new PaperItemAnalysis.ItemStatistics(
+                0, 31, QuestionType.SINGLE, "B", 3, 2, 0, 0, 2D / 3, 1D, null,
+                List.of(new PaperItemAnalysis.OptionStatistics("B", 2, 1, 0, true))
+        );
+        when(paperAnalysisService.analyzePaper(101)).thenReturn(new PaperAnalysisService.PaperAnalysis(
+                paper,
+                new PaperItemAnalysis.Result(3, 10D / 3, 2D, 1, List.of(item))
+        ));
+
+        ApiResponse<TeacherWorkspaceDtos.PaperAnalysisPayload> response = controller.getPaperAnalysis(10, 101, null);
+
+        TeacherWorkspaceDtos.PaperAnalysisPayload payload = response.getData();
+        assertEquals(3, payload.summary().respondentCount());
+        assertEquals(3.3333D, payload.summary().averageScore());
+        TeacherWorkspaceDtos.ItemAnalysisItem analysisItem = payload.items().get(0);
+        assertEquals(1, analysisItem.index());
+        assertEquals("1 + 1 = ?", analysisItem.content());
+        assertEquals(0.6667D, analysisItem.difficulty());
+        assertEquals(1D, analysisItem.discrimination());
+        assertNull(analysisItem.pointBiserial());
+        assertTrue(analysisItem.options().get(0).correct());
+    }
+
+    @Test
+    void getTeacherPaperDetailShouldIncludeScoreDistribution() {
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        paper.setPaperName("Math Mock");
+        paper.setTotalScore(100);
+        paper.setPassScore(60);
+        paper.setQuestions(List.of());
+        PaperScoreBucket low = new PaperScoreBucket();
+        low.setBucket(40);
+        low.setRecordCount(1);
+        low.setScoreSum(new BigDecimal("40.00"));
+        low.setMinScore(new BigDecimal("40.00"));
+        low.setMaxScore(new BigDecimal("40.00"));
+        PaperScoreBucket high = new PaperScoreBucket();
+        high.setBucket(90);
+        high.setRecordCount(2);
+        high.setScoreSum(new BigDecimal("181.00"));
+        high.setMinScore(new BigDecimal("90.00"));
+        high.setMaxScore(new BigDecimal("91.00"));
+        when(paperService.getPaperById(101)).thenReturn(paper);
+        when(examService.getPaperScoreDistribution(paper)).thenReturn(PaperScoreDistribution.of(List.of(low, high), 100, 60));
+
+        ApiResponse<TeacherWorkspaceDtos.TeacherPaperDetailPayload> response = controller.getTeacherPaperDetail(10, 101, null);
+
+        TeacherWorkspaceDtos.ScoreDistributionItem distribution = response.getData().scoreDistribution();
+        assertEquals(3, distribution.recordCount());
+        assertEquals(2, distribution.passCount());
+        assertEquals(66.7D, distribution.passRate());
+        assertEquals(new BigDecimal("73.67"), distribution.averageScore());
+        assertEquals(10, distribution.bins().size());
+        assertEquals(2, distribution.bins().get(9).count());
+    }
+
+    @Test
+    void getQuestionRegradeProgressShouldExposeProgressCounters() {
+        Question question = new Question();
+        question.setQuestionId(9);
+        QuestionRegradeService.RegradeProgress progress = mock(QuestionRegradeService.RegradeProgress.class);
+        when(progress.getState()).thenReturn(QuestionRegradeService.RegradeState.RUNNING);
+        when(progress.getScannedAnswers()).thenReturn(1200L);
+        when(progress.getChangedAnswers()).thenReturn(35L);
+        when(progress.getRecomputedRecords()).thenReturn(30L);
+        when(questionService.getQuestionById(9)).thenReturn(question);
+        when(questionService.getRegradeProgress(9)).thenReturn(progress);
+
+        ApiResponse<TeacherWorkspaceDtos.QuestionRegradePayload> response = controller.getQuestionRegradeProgress(10, 9);
+
+        TeacherWorkspaceDtos.RegradeProgressItem regrade = response.getData().regrade();
+        assertEquals(9, response.getData().questionId());
+        assertEquals("RUNNING", regrade.state());
+        assertEquals(1200L, regrade.scannedAnswers());
+        assertEquals(35L, regrade.changedAnswers());
+        assertEquals(30L, regrade.recomputedRecords());
+        verify(userRoleGuard).requireTeacher(10);
+    }
+
+    @Test
+    void getPaperLeaderboardShouldAttachStudentNames() {
+        User student = new User("Alice", "2023001", "x", UserRole.STUDENT);
+        student.setUserId(5);
+        PaperLeaderboard.Standings standings = new PaperLeaderboard.Standings(
+                101,
+                3L,
+                2,
+                List.of(
+                        new ScoreRanking.RankedEntry(5, new BigDecimal("95.00"), 1),
+                        new ScoreRanking.RankedEntry(6, new BigDecimal("80.00"), 2)
+                ),
+                null,
+                null,
+                null
+        );
+        when(paperLeaderboardService.getStandings(101, null, 20)).thenReturn(standings);
+        when(paperLeaderboardService.buildView(standings))
+                .thenReturn(new PaperLeaderboardService.LeaderboardView(standings, Map.of(5, student)));
+
+        ApiResponse<TeacherWorkspaceDtos.PaperLeaderboardPayload> response = controller.getPaperLeaderboard(10, 101, 20, null);
+
+        TeacherWorkspaceDtos.PaperLeaderboardPayload payload = response.getData();
+        assertEquals(2, payload.participantCount());
+        assertEquals("Alice", payload.top().get(0).realName());
+        assertEquals("2023001", payload.top().get(0).studentNumber());
+        assertEquals(2, payload.top().get(1).rank());
+        assertNull(payload.top().get(1).realName());
     }
 }
@@ -6,6 +6,7 @@ import com.exam.api.common.ApiResponse;
 import com.exam.api.controller.WorkbenchController;
 import com.exam.api.dto.WorkbenchDtos;
 import com.exam.api.support.UserRoleGuard;
+import com.exam.api.support.WorkspaceEtags;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.User;
@@ -16,6 +17,9 @@ import com.exam.service.PaperService;
 import com.exam.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -45,7 +49,8 @@ class WorkbenchControllerTest {
                 paperService,
                 examService,
                 new StudentWorkspaceAssembler(new ExamRecordStatisticsAssembler()),
-                userRoleGuard
+                userRoleGuard,
+                mock(WorkspaceEtags.class)
         );
     }
 
@@ -66,7 +71,10 @@ class WorkbenchControllerTest {
         when(paperService.getAllPublishedPapersOptimized()).thenReturn(List.of(publishedPaper, ongoingPaper));
         when(examService.getStudentExamRecordsOptimized(1)).thenReturn(List.of(submittedRecord, ongoingRecord));
 
-        ApiResponse<WorkbenchDtos.StudentWorkbenchPayload> response = controller.studentWorkbench(1);
+        ApiResponse<WorkbenchDtos.StudentWorkbenchPayload> response = controller.studentWorkbench(
+                1,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse())
+        );
 
         assertTrue(response.isSuccess());
         assertNotNull(response.getData());
@@ -3,6 +3,7 @@ package com.exam.tests.api.security;
 import com.exam.api.security.AuthTokenService;
 import com.exam.dao.AuthSessionDao;
 import com.exam.model.AuthSession;
+import com.exam.model.AuthSessionRevocation;
 import com.exam.model.User;
 import com.exam.model.enums.UserRole;
 import org.junit.jupiter.api.Test;
@@ -12,14 +13,17 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -121,6 +125,109 @@ class AuthTokenServiceTest {
         assertEquals(0, authTokenService.getActiveSessionCount());
     }
 
+    @Test
+    void authenticatedLookupShouldNotQueryDatabaseOnceCached() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService authTokenService = new AuthTokenService(authSessionDao, Duration.ofHours(12), 10, clock);
+
+        String token = authTokenService.issueToken(buildUser(21, UserRole.STUDENT));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(21, authTokenService.getAuthenticatedUser(token).getUserId());
+        }
+
+        assertEquals(0, authSessionDao.lookups.get());
+    }
+
+    @Test
+    void invalidateTokenShouldDropCachedSession() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService authTokenService = new AuthTokenService(authSessionDao, Duration.ofHours(12), 10, clock);
+
+        String token = authTokenService.issueToken(buildUser(22, UserRole.TEACHER));
+        assertNotNull(authTokenService.getAuthenticatedUser(token));
+
+        authTokenService.invalidateToken(token);
+
+        assertNull(authTokenService.getAuthenticatedUser(token));
+    }
+
+    @Test
+    void unknownTokenShouldBeCachedBriefly() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService authTokenService = new AuthTokenService(authSessionDao, Duration.ofHours(12), 10, clock);
+
+        assertNull(authTokenService.getAuthenticatedUser("unknown-token"));
+        assertNull(authTokenService.getAuthenticatedUser("unknown-token"));
+        assertEquals(1, authSessionDao.lookups.get());
+
+        clock.advance(Duration.ofSeconds(6));
+
+        assertNull(authTokenService.getAuthenticatedUser("unknown-token"));
+        assertEquals(2, authSessionDao.lookups.get());
+    }
+
+    @Test
+    void evictCachedSessionShouldReloadFromDatabase() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService authTokenService = new AuthTokenService(authSessionDao, Duration.ofHours(12), 10, clock);
+
+        String token = authTokenService.issueToken(buildUser(23, UserRole.STUDENT));
+        String tokenHash = authSessionDao.sessions.keySet().iterator().next();
+        // 模拟会话在其他节点被注销：库中已删除，本节点仍有缓存
+        authSessionDao.deleteByTokenHash(tokenHash);
+        assertNotNull(authTokenService.getAuthenticatedUser(token));
+
+        authTokenService.evictCachedSession(tokenHash);
+
+        assertNull(authTokenService.getAuthenticatedUser(token));
+    }
+
+    @Test
+    void cachedSessionShouldBeRecheckedAfterMaxStaleness() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService authTokenService = new AuthTokenService(authSessionDao, Duration.ofHours(12), 10, clock);
+
+        String token = authTokenService.issueToken(buildUser(24, UserRole.STUDENT));
+        authSessionDao.deleteByTokenHash(authSessionDao.sessions.keySet().iterator().next());
+        clock.advance(Duration.ofSeconds(29));
+        assertNotNull(authTokenService.getAuthenticatedUser(token));
+
+        clock.advance(Duration.ofSeconds(2));
+
+        assertNull(authTokenService.getAuthenticatedUser(token));
+        assertEquals(1, authSessionDao.lookups.get());
+    }
+
+    @Test
+    void logoutAndEvictionOnAnotherNodeShouldDropCachedSessions() {
+        MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
+        InMemoryAuthSessionDao authSessionDao = new InMemoryAuthSessionDao(clock);
+        AuthTokenService nodeA = new AuthTokenService(authSessionDao, Duration.ofHours(12), 2, clock);
+        AuthTokenService nodeB = new AuthTokenService(authSessionDao, Duration.ofHours(12), 2, clock);
+        nodeB.syncRevocations();
+
+        String oldestToken = nodeA.issueToken(buildUser(25, UserRole.STUDENT));
+        clock.advance(Duration.ofSeconds(1));
+        String loggedOutToken = nodeA.issueToken(buildUser(26, UserRole.STUDENT));
+        assertNotNull(nodeB.getAuthenticatedUser(oldestToken));
+        assertNotNull(nodeB.getAuthenticatedUser(loggedOutToken));
+
+        nodeA.invalidateToken(loggedOutToken);
+        nodeA.issueToken(buildUser(27, UserRole.TEACHER));
+        nodeA.issueToken(buildUser(28, UserRole.TEACHER));
+        assertNotNull(nodeB.getAuthenticatedUser(oldestToken));
+
+        assertEquals(2, nodeB.syncRevocations());
+        assertNull(nodeB.getAuthenticatedUser(oldestToken));
+        assertNull(nodeB.getAuthenticatedUser(loggedOutToken));
+        assertEquals(0, nodeB.syncRevocations());
+    }
+
     @Test
     void issueTokenShouldRejectUserWithoutId() {
         MutableClock clock = new MutableClock("2026-04-13T10:00:00Z");
@@ -171,6 +278,8 @@ class AuthTokenServiceTest {
 
     private static class InMemoryAuthSessionDao implements AuthSessionDao {
         private final Map<String, AuthSession> sessions = new ConcurrentHashMap<>();
+        private final List<AuthSessionRevocation> revocations = new CopyOnWriteArrayList<>();
+        private final AtomicInteger lookups = new AtomicInteger();
         private final Clock clock;
 
         private InMemoryAuthSessionDao(Clock clock) {
@@ -185,6 +294,7 @@ class AuthTokenServiceTest {
 
         @Override
         public AuthSession findByTokenHash(String tokenHash) {
+            lookups.incrementAndGet();
             AuthSession session = sessions.get(tokenHash);
             return session == null ? null : cloneSession(session);
         }
@@ -222,6 +332,34 @@ class AuthTokenServiceTest {
                     .orElse(null);
         }
 
+        @Override
+        public int insertRevocation(String tokenHash, LocalDateTime revokedAt) {
+            AuthSessionRevocation revocation = new AuthSessionRevocation();
+            revocation.setRevocationId(revocations.size() + 1L);
+            revocation.setTokenHash(tokenHash);
+            revocation.setRevokedAt(revokedAt);
+            revocations.add(revocation);
+            return 1;
+        }
+
+        @Override
+        public List<AuthSessionRevocation> findRevocationsAfter(long afterId, int limit) {
+            return revocations.stream()
+                    .filter(revocation -> revocation.getRevocationId() > afterId)
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public Long findLatestRevocationId() {
+            return revocations.isEmpty() ? null : revocations.get(revocations.size() - 1).getRevocationId();
+        }
+
+        @Override
+        public int deleteRevocationsBefore(LocalDateTime before) {
+            return 0;
+        }
+
         private AuthSession cloneSession(AuthSession source) {
             AuthSession copy = new AuthSession();
             copy.setTokenHash(source.getTokenHash());
@@ -1,31 +1,37 @@
 package com.exam.tests.api.service;
 
 import com.exam.api.service.StudentAchievementService;
-import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
-import com.exam.model.Question;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
 import com.exam.model.enums.ExamStatus;
-import com.exam.model.enums.QuestionType;
 import com.exam.service.ExamService;
+import com.exam.service.StudentAchievementStore;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class StudentAchievementServiceTest {
 
     @Test
-    void buildSnapshotShouldAggregateCompletedRecords() {
+    void buildSnapshotShouldReadStoredAggregateAndRecentTrend() {
         ExamService examService = mock(ExamService.class);
+        StudentAchievementStore achievementStore = mock(StudentAchievementStore.class);
         LocalDateTime fixedNow = LocalDateTime.of(2026, 4, 14, 8, 30);
-        StudentAchievementService service = new StudentAchievementService(examService) {
+        StudentAchievementService service = new StudentAchievementService(examService, achievementStore, 50) {
             @Override
             protected LocalDateTime currentTime() {
                 return fixedNow;
@@ -55,27 +61,38 @@ class StudentAchievementServiceTest {
         timeout.setStartTime(fixedNow.minusMinutes(45));
         timeout.setEndTime(fixedNow.minusMinutes(15));
 
-        ExamRecord inProgress = new ExamRecord(7, 102);
-        inProgress.setRecordId(5003);
-        inProgress.setStatus(ExamStatus.IN_PROGRESS);
-
-        AnswerRecord correct = new AnswerRecord(5001, 1, "A");
-        correct.setIsCorrect(true);
-        correct.setQuestion(question(1, QuestionType.SINGLE));
-
-        AnswerRecord wrong = new AnswerRecord(5001, 2, "B");
-        wrong.setIsCorrect(false);
-        wrong.setQuestion(question(2, QuestionType.MULTIPLE));
-
-        AnswerRecord blank = new AnswerRecord(5002, 3, null);
-        blank.setIsCorrect(false);
-        blank.setQuestion(question(3, QuestionType.JUDGE));
-
-        when(examService.getStudentExamRecordsOptimized(7)).thenReturn(List.of(submitted, timeout, inProgress));
-        when(examService.getAnswerRecordsBatch(List.of(5001, 5002))).thenReturn(Map.of(
-                5001, List.of(correct, wrong),
-                5002, List.of(blank)
+        StudentAchievement summary = new StudentAchievement();
+        summary.setStudentId(7);
+        summary.setCompletedCount(2);
+        summary.setScoredCount(2);
+        summary.setScoreSum(new BigDecimal("80.00"));
+        summary.setBestScore(new BigDecimal("80"));
+        summary.setPassCount(1);
+        summary.setFailCount(1);
+        summary.setQuestionCount(3);
+        summary.setAnsweredCount(2);
+        summary.setCorrectCount(1);
+
+        StudentSubjectAchievement subject = new StudentSubjectAchievement();
+        subject.setSubject("Java");
+        subject.setRecordCount(2);
+        subject.setScoredCount(2);
+        subject.setScoreSum(new BigDecimal("80.00"));
+        subject.setPassCount(1);
+        subject.setFailCount(1);
+        subject.setQuestionCount(3);
+        subject.setAnsweredCount(2);
+        subject.setCorrectCount(1);
+        subject.setLatestSubmitTime(fixedNow.minusMinutes(15));
+
+        when(achievementStore.load(7)).thenReturn(new StudentAchievementStore.Aggregate(
+                summary,
+                List.of(subject),
+                List.of(type("JUDGE", 1, 0, 0), type("SINGLE", 1, 1, 1), type("MULTIPLE", 1, 1, 0))
         ));
+        when(examService.getStudentExamRecordCount(7)).thenReturn(3);
+        when(examService.getStudentInProgressCount(7)).thenReturn(1);
+        when(examService.getRecentSettledRecords(7, 50)).thenReturn(List.of(timeout, submitted));
 
         StudentAchievementService.StudentAchievementSnapshot snapshot = service.buildSnapshot(7);
 
@@ -91,15 +108,49 @@ class StudentAchievementServiceTest {
         assertEquals(1L, snapshot.getSummary().getTotalCorrectCount());
         assertEquals(33.33d, snapshot.getSummary().getAccuracyRate());
         assertEquals(2, snapshot.getScoreTrend().size());
+        assertEquals(5001, snapshot.getScoreTrend().get(0).getRecordId());
+        assertTrue(snapshot.getScoreTrend().get(0).isPassed());
         assertEquals(3, snapshot.getQuestionTypeAccuracy().size());
+        assertEquals("单选题", snapshot.getQuestionTypeAccuracy().stream()
+                .filter(item -> item.getQuestionType().equals("SINGLE"))
+                .findFirst()
+                .orElseThrow()
+                .getLabel());
         assertEquals(1, snapshot.getSubjectPerformance().size());
+        assertEquals(40.0d, snapshot.getSubjectPerformance().get(0).getAverageScore());
         assertEquals(fixedNow, snapshot.getLatestUpdatedAt());
+        verify(examService, never()).getAnswerRecordsBatch(any());
+        verify(examService, never()).getStudentExamRecordsOptimized(any());
+    }
+
+    @Test
+    void buildSnapshotShouldMapUnknownTypesToOther() {
+        ExamService examService = mock(ExamService.class);
+        StudentAchievementStore achievementStore = mock(StudentAchievementStore.class);
+        StudentAchievementService service = new StudentAchievementService(examService, achievementStore, 50);
+
+        StudentAchievement summary = new StudentAchievement();
+        summary.setScoreSum(BigDecimal.ZERO);
+        when(achievementStore.load(8)).thenReturn(new StudentAchievementStore.Aggregate(
+                summary,
+                List.of(),
+                List.of(type("OTHER", 2, 1, 0))
+        ));
+
+        StudentAchievementService.StudentAchievementSnapshot snapshot = service.buildSnapshot(8);
+
+        assertEquals("OTHER", snapshot.getQuestionTypeAccuracy().get(0).getQuestionType());
+        assertEquals("其他题型", snapshot.getQuestionTypeAccuracy().get(0).getLabel());
+        assertEquals(0.0d, snapshot.getSummary().getAverageScore());
+        assertNull(snapshot.getSummary().getBestScore());
     }
 
-    private static Question question(int id, QuestionType questionType) {
-        Question question = new Question();
-        question.setQuestionId(id);
-        question.setQuestionType(questionType);
-        return question;
+    private static StudentTypeAchievement type(String questionType, long total, long answered, long correct) {
+        StudentTypeAchievement type = new StudentTypeAchievement();
+        type.setQuestionType(questionType);
+        type.setTotalCount(total);
+        type.setAnsweredCount(answered);
+        type.setCorrectCount(correct);
+        return type;
     }
 }
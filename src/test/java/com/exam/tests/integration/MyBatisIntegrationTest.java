@@ -75,7 +75,8 @@ class MyBatisIntegrationTest {
                         analysis TEXT,
                         creator_id INT,
                         create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                        update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        signature_hash CHAR(64)
                     )
                     """);
 
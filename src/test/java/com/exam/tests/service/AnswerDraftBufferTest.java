@@ -0,0 +1,114 @@
+package com.exam.tests.service;
+
+import com.exam.dao.AnswerDraftDao;
+import com.exam.model.AnswerDraft;
+import com.exam.service.AnswerDraftBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerDraftBufferTest {
+    private AnswerDraftDao answerDraftDao;
+    private AnswerDraftBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        answerDraftDao = mock(AnswerDraftDao.class);
+        buffer = new AnswerDraftBuffer(answerDraftDao, 3, Clock.systemUTC());
+    }
+
+    @Test
+    void repeatedEditsShouldCoalesceIntoOneRowPerQuestion() {
+        buffer.activate(1, 11, 101);
+        buffer.stage(1, Map.of(1, "A"));
+        buffer.stage(1, Map.of(1, "B", 2, "T"));
+        buffer.stage(1, Map.of(1, "C"));
+
+        assertEquals(Map.of(1, "C", 2, "T"), buffer.pending(1));
+        assertEquals(2, buffer.flush());
+
+        ArgumentCaptor<List<AnswerDraft>> captor = ArgumentCaptor.forClass(List.class);
+        verify(answerDraftDao).upsertBatch(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(buffer.pending(1).isEmpty());
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void flushShouldWriteMultiRowBatches() {
+        for (int recordId = 1; recordId <= 4; recordId++) {
+            buffer.activate(recordId, 10 + recordId, 101);
+            buffer.stage(recordId, Map.of(1, "A", 2, "B"));
+        }
+
+        assertEquals(8, buffer.flush());
+
+        ArgumentCaptor<List<AnswerDraft>> captor = ArgumentCaptor.forClass(List.class);
+        verify(answerDraftDao, times(3)).upsertBatch(captor.capture());
+        assertEquals(List.of(3, 3, 2), captor.getAllValues().stream().map(List::size).toList());
+    }
+
+    @Test
+    void failedFlushShouldKeepDraftsWithoutOverwritingNewerEdits() {
+        buffer.activate(1, 11, 101);
+        buffer.stage(1, Map.of(1, "A", 2, "T"));
+        doThrow(new IllegalStateException("db down")).when(answerDraftDao).upsertBatch(any());
+
+        assertEquals(0, buffer.flush());
+        buffer.stage(1, Map.of(1, "D"));
+
+        assertEquals(Map.of(1, "D", 2, "T"), buffer.pending(1));
+    }
+
+    @Test
+    void discardedRecordShouldNotBeFlushed() {
+        buffer.activate(1, 11, 101);
+        buffer.stage(1, Map.of(1, "A"));
+        buffer.discard(1);
+
+        assertEquals(0, buffer.flush());
+        verify(answerDraftDao, never()).upsertBatch(any());
+        assertNull(buffer.getActiveRecord(1));
+    }
+
+    @Test
+    void flushShouldDropRecordsFinishedElsewhere() {
+        buffer.activate(1, 11, 101);
+        buffer.activate(2, 12, 101);
+        buffer.stage(1, Map.of(1, "A"));
+        buffer.stage(2, Map.of(1, "B"));
+        when(answerDraftDao.findClosedRecordIds(any())).thenReturn(List.of(2));
+
+        assertEquals(2, buffer.flush());
+
+        assertNotNull(buffer.getActiveRecord(1));
+        assertNull(buffer.getActiveRecord(2));
+    }
+
+    @Test
+    void activeRecordShouldReportPassedDeadline() {
+        long now = Clock.systemUTC().millis();
+        AnswerDraftBuffer.ActiveRecord open = buffer.activate(1, 11, 101, now + 60_000L);
+        AnswerDraftBuffer.ActiveRecord closed = buffer.activate(2, 12, 101, now - 1L);
+
+        assertFalse(buffer.isPastDeadline(open));
+        assertTrue(buffer.isPastDeadline(closed));
+    }
+}
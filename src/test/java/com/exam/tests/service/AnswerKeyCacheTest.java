@@ -0,0 +1,96 @@
+package com.exam.tests.service;
+
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKey;
+import com.exam.service.AnswerKeyCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerKeyCacheTest {
+    private AnswerKeyCache answerKeyCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        answerKeyCache = new AnswerKeyCache(Duration.ofMinutes(5), Clock.systemUTC());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void compiledKeyShouldNormalizeAnswersAndIndexQuestions() {
+        AnswerKey key = answerKeyCache.get(101, this::loadPaper);
+
+        assertEquals(3, key.size());
+        assertEquals(20, key.getTotalScore());
+        assertEquals("AC", key.getNormalizedAnswer(key.indexOf(2)));
+        assertTrue(key.isCorrect(key.indexOf(1), " a"));
+        assertTrue(key.isCorrect(key.indexOf(2), "ca"));
+        assertFalse(key.isCorrect(key.indexOf(3), ""));
+        assertEquals(-1, key.indexOf(99));
+    }
+
+    @Test
+    void getShouldLoadOncePerPaper() {
+        AnswerKey first = answerKeyCache.get(101, this::loadPaper);
+        AnswerKey second = answerKeyCache.get(101, this::loadPaper);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateQuestionShouldDropKeysContainingIt() {
+        AnswerKey first = answerKeyCache.get(101, this::loadPaper);
+
+        answerKeyCache.invalidateQuestion(77);
+        assertSame(first, answerKeyCache.get(101, this::loadPaper));
+
+        answerKeyCache.invalidateQuestion(2);
+        AnswerKey reloaded = answerKeyCache.get(101, this::loadPaper);
+
+        assertNotSame(first, reloaded);
+        assertTrue(reloaded.getVersion() > first.getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadShouldNotBeCached() {
+        assertThrows(IllegalStateException.class, () -> answerKeyCache.get(102, paperId -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        answerKeyCache.get(102, this::loadPaper);
+        assertEquals(1, loads.get());
+    }
+
+    private List<Question> loadPaper(Integer paperId) {
+        loads.incrementAndGet();
+        return List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.MULTIPLE, "CA", 10),
+                question(3, QuestionType.JUDGE, "T", 5)
+        );
+    }
+
+    private static Question question(int id, QuestionType type, String answer, int score) {
+        Question question = new Question();
+        question.setQuestionId(id);
+        question.setQuestionType(type);
+        question.setCorrectAnswer(answer);
+        question.setScore(score);
+        return question;
+    }
+}
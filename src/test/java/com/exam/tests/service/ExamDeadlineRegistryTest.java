@@ -0,0 +1,110 @@
+package com.exam.tests.service;
+
+import com.exam.service.ExamDeadlineRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExamDeadlineRegistryTest {
+    private MutableClock clock;
+    private ExamDeadlineRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock("2026-06-20T08:00:00Z");
+        registry = new ExamDeadlineRegistry(Duration.ofSeconds(30), clock);
+    }
+
+    @Test
+    void scheduleExamShouldFireAfterDurationPlusGrace() {
+        LocalDateTime startTime = LocalDateTime.now(clock);
+        registry.scheduleExam(1, startTime, 60);
+
+        clock.advance(Duration.ofMinutes(60));
+        assertTrue(registry.pollExpired().isEmpty());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(List.of(1), registry.pollExpired());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledEntriesShouldFireOnlyOnce() {
+        long now = clock.millis();
+        registry.schedule(1, now + 5_000);
+        registry.schedule(2, now + 5_000);
+        registry.schedule(2, now + 90_000);
+        registry.cancel(1);
+
+        clock.advance(Duration.ofSeconds(10));
+        assertTrue(registry.pollExpired().isEmpty());
+
+        clock.advance(Duration.ofSeconds(80));
+        assertEquals(List.of(2), registry.pollExpired());
+    }
+
+    @Test
+    void deadlinesAcrossWheelLevelsShouldFireOnceDue() {
+        long now = clock.millis();
+        registry.schedule(1, now + 3_000);
+        registry.schedule(2, now + 70_000);
+        registry.schedule(3, now + 5_000_000);
+        registry.schedule(4, now + 400_000_000);
+        registry.schedule(5, now - 60_000);
+
+        clock.advance(Duration.ofSeconds(2));
+        assertEquals(List.of(5), registry.pollExpired());
+
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(Set.of(1, 2), new HashSet<>(registry.pollExpired()));
+
+        clock.advance(Duration.ofDays(1));
+        assertEquals(List.of(3), registry.pollExpired());
+
+        clock.advance(Duration.ofDays(3));
+        assertTrue(registry.pollExpired().isEmpty());
+
+        clock.advance(Duration.ofDays(2));
+        assertEquals(List.of(4), registry.pollExpired());
+        assertEquals(0, registry.size());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant currentInstant;
+        private final ZoneId zoneId = ZoneId.systemDefault();
+
+        private MutableClock(String instantText) {
+            this.currentInstant = Instant.parse(instantText);
+        }
+
+        private void advance(Duration duration) {
+            currentInstant = currentInstant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zoneId;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return currentInstant;
+        }
+    }
+}
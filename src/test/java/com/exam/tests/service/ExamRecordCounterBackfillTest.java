@@ -0,0 +1,31 @@
+package com.exam.tests.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.service.ExamRecordCounterBackfill;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamRecordCounterBackfillTest {
+
+    @Test
+    void backfillShouldAggregateCountersForSettledRecordIdsInTheDatabase() {
+        ExamRecordDao examRecordDao = mock(ExamRecordDao.class);
+        when(examRecordDao.findRecordIdsMissingAnswerCounters(0, 500)).thenReturn(List.of(12, 15));
+        when(examRecordDao.findRecordIdsMissingAnswerCounters(15, 500)).thenReturn(List.of());
+        // 15 号记录在读取后已由结算写入统计，聚合语句只更新 12 号
+        when(examRecordDao.backfillAnswerCounters(List.of(12, 15))).thenReturn(1);
+        ExamRecordCounterBackfill backfill = new ExamRecordCounterBackfill(examRecordDao, 500, 20);
+
+        assertEquals(1, backfill.backfill());
+
+        assertTrue(backfill.isCompleted());
+        verify(examRecordDao).backfillAnswerCounters(List.of(12, 15));
+    }
+}
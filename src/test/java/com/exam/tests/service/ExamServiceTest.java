@@ -1,21 +1,33 @@
 package com.exam.tests.service;
 
+import com.exam.dao.AnswerDraftDao;
 import com.exam.dao.ExamRecordDao;
 import com.exam.dao.PaperDao;
 import com.exam.dao.QuestionDao;
 import com.exam.exception.BusinessException;
+import com.exam.model.AnswerDraft;
 import com.exam.model.AnswerRecord;
 import com.exam.model.ExamRecord;
 import com.exam.model.Paper;
 import com.exam.model.Question;
 import com.exam.model.enums.ExamStatus;
 import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerDraftBuffer;
+import com.exam.service.AnswerKeyCache;
+import com.exam.service.ExamDeadlineRegistry;
 import com.exam.service.ExamService;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperScoreStatsStore;
+import com.exam.service.StudentAchievementStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,12 +35,16 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
@@ -38,13 +54,36 @@ class ExamServiceTest {
     private ExamRecordDao examRecordDao;
     private PaperDao paperDao;
     private QuestionDao questionDao;
+    private AnswerDraftDao answerDraftDao;
+    private AnswerDraftBuffer answerDraftBuffer;
+    private StudentAchievementStore achievementStore;
+    private PaperLeaderboard leaderboard;
+    private PaperScoreStatsStore scoreStatsStore;
 
     @BeforeEach
     void setUp() {
         examRecordDao = mock(ExamRecordDao.class);
         paperDao = mock(PaperDao.class);
         questionDao = mock(QuestionDao.class);
-        examService = new ExamService(examRecordDao, paperDao, questionDao);
+        answerDraftDao = mock(AnswerDraftDao.class);
+        answerDraftBuffer = new AnswerDraftBuffer(answerDraftDao, 500, Clock.systemUTC());
+        AnswerKeyCache answerKeyCache = new AnswerKeyCache(Duration.ofMinutes(5), Clock.systemUTC());
+        ExamDeadlineRegistry deadlineRegistry = new ExamDeadlineRegistry(Duration.ofSeconds(30), Clock.systemUTC());
+        achievementStore = mock(StudentAchievementStore.class);
+        leaderboard = mock(PaperLeaderboard.class);
+        scoreStatsStore = mock(PaperScoreStatsStore.class);
+        examService = new ExamService(
+                examRecordDao,
+                paperDao,
+                questionDao,
+                answerKeyCache,
+                deadlineRegistry,
+                answerDraftDao,
+                answerDraftBuffer,
+                achievementStore,
+                leaderboard,
+                scoreStatsStore
+        );
     }
 
     @Test
@@ -62,7 +101,7 @@ class ExamServiceTest {
         answers.put(2, "CA");
         answers.put(3, "F");
 
-        when(examRecordDao.findByIdForUpdate(5001)).thenReturn(record);
+        when(examRecordDao.findByIdWithPaperForUpdate(5001)).thenReturn(record);
         when(questionDao.findByPaperId(101)).thenReturn(List.of(single, multiple, judge));
         when(examRecordDao.update(any(ExamRecord.class))).thenReturn(1);
 
@@ -74,6 +113,61 @@ class ExamServiceTest {
         verify(examRecordDao).insertAnswerRecordsBatch(captor.capture());
         assertEquals(3, captor.getValue().size());
         verify(examRecordDao).update(any(ExamRecord.class));
+        assertEquals(3, record.getQuestionCount());
+        assertEquals(3, record.getAnsweredCount());
+        assertEquals(2, record.getCorrectCount());
+        assertEquals(1, record.getWrongCount());
+        verify(achievementStore).foldSettledRecords(List.of(5001));
+        verify(scoreStatsStore).foldSettledRecords(List.of(5001));
+        verify(leaderboard).recordSettled(List.of(record));
+    }
+
+    @Test
+    void submitExamWithReportShouldReturnGradedAnswersWithQuestions() {
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(5201);
+        record.setStatus(ExamStatus.IN_PROGRESS);
+        record.setPaper(paper);
+
+        Question single = question(1, QuestionType.SINGLE, "A", 5);
+        Question judge = question(2, QuestionType.JUDGE, "T", 5);
+        when(examRecordDao.findByIdWithPaperForUpdate(5201)).thenReturn(record);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(single, judge));
+
+        ExamService.SubmissionReport report = examService.submitExamWithReport(5201, Map.of(1, "A", 2, "F"));
+
+        assertEquals(new BigDecimal("5"), report.getScore());
+        assertSame(paper, report.getPaper());
+        assertEquals(ExamStatus.SUBMITTED, report.getRecord().getStatus());
+        assertEquals(2, report.getAnswerRecords().size());
+        assertSame(single, report.getAnswerRecords().get(0).getQuestion());
+        assertTrue(report.getAnswerRecords().get(0).getIsCorrect());
+        assertFalse(report.getAnswerRecords().get(1).getIsCorrect());
+        verify(questionDao, never()).findByIds(any());
+    }
+
+    @Test
+    void submitExamShouldReuseCompiledAnswerKeyAcrossSubmissions() {
+        ExamRecord first = new ExamRecord(11, 101);
+        first.setRecordId(5101);
+        first.setStatus(ExamStatus.IN_PROGRESS);
+        ExamRecord second = new ExamRecord(12, 101);
+        second.setRecordId(5102);
+        second.setStatus(ExamStatus.IN_PROGRESS);
+
+        Question single = question(1, QuestionType.SINGLE, " a ", 5);
+        Question multiple = question(2, QuestionType.MULTIPLE, "ca", 10);
+
+        when(examRecordDao.findByIdWithPaperForUpdate(5101)).thenReturn(first);
+        when(examRecordDao.findByIdWithPaperForUpdate(5102)).thenReturn(second);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(single, multiple));
+
+        assertEquals(new BigDecimal("15"), examService.submitExam(5101, Map.of(1, "A", 2, "ac")));
+        assertEquals(new BigDecimal("10"), examService.submitExam(5102, Map.of(1, "B", 2, "CA")));
+
+        verify(questionDao, times(1)).findByPaperId(101);
     }
 
     @Test
@@ -82,7 +176,7 @@ class ExamServiceTest {
         record.setRecordId(5002);
         record.setStatus(ExamStatus.SUBMITTED);
 
-        when(examRecordDao.findByIdForUpdate(5002)).thenReturn(record);
+        when(examRecordDao.findByIdWithPaperForUpdate(5002)).thenReturn(record);
 
         assertThrows(BusinessException.class, () -> examService.submitExam(5002, Map.of()));
         verify(examRecordDao, never()).insertAnswerRecordsBatch(any());
@@ -94,7 +188,7 @@ class ExamServiceTest {
         record.setRecordId(5003);
         record.setStatus(ExamStatus.TIMEOUT);
 
-        when(examRecordDao.findByIdForUpdate(5003)).thenReturn(record);
+        when(examRecordDao.findByIdWithPaperForUpdate(5003)).thenReturn(record);
 
         assertThrows(BusinessException.class, () -> examService.submitExam(5003, Map.of()));
         verify(examRecordDao, never()).insertAnswerRecordsBatch(any());
@@ -108,6 +202,34 @@ class ExamServiceTest {
         assertThrows(BusinessException.class, () -> examService.getStudentExamRecordsPaginated(1, 1, 201));
     }
 
+    @Test
+    void getStudentExamRecordsPageShouldContinueFromOpaqueCursor() {
+        ExamRecord newest = pagedRecord(903, LocalDateTime.of(2026, 4, 12, 9, 0));
+        ExamRecord middle = pagedRecord(902, LocalDateTime.of(2026, 4, 11, 9, 0));
+        ExamRecord oldest = pagedRecord(901, LocalDateTime.of(2026, 4, 11, 9, 0));
+        when(examRecordDao.findByStudentIdWithPaperAfter(11, null, null, 3)).thenReturn(List.of(newest, middle, oldest));
+        when(examRecordDao.findByStudentIdWithPaperAfter(11, LocalDateTime.of(2026, 4, 11, 9, 0), 902, 3))
+                .thenReturn(List.of(oldest));
+
+        ExamService.ExamRecordPage first = examService.getStudentExamRecordsPage(11, null, 2);
+        ExamService.ExamRecordPage second = examService.getStudentExamRecordsPage(11, first.getNextCursor(), 2);
+
+        assertEquals(List.of(903, 902), first.getRecords().stream().map(ExamRecord::getRecordId).toList());
+        assertTrue(first.hasMore());
+        assertEquals(List.of(901), second.getRecords().stream().map(ExamRecord::getRecordId).toList());
+        assertFalse(second.hasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getStudentExamRecordsPageShouldRejectInvalidInput() {
+        assertThrows(BusinessException.class, () -> examService.getStudentExamRecordsPage(null, null, 10));
+        assertThrows(BusinessException.class, () -> examService.getStudentExamRecordsPage(11, null, 0));
+        assertThrows(BusinessException.class, () -> examService.getStudentExamRecordsPage(11, null, 201));
+        assertThrows(BusinessException.class, () -> examService.getStudentExamRecordsPage(11, "not-a-cursor", 10));
+        verify(examRecordDao, never()).findByStudentIdWithPaperAfter(any(), any(), any(), anyInt());
+    }
+
     @Test
     void getStudentExamRecordsByStudentIdsShouldDelegateBatchQuery() {
         ExamRecord record = new ExamRecord(11, 101);
@@ -137,13 +259,27 @@ class ExamServiceTest {
 
         when(paperDao.findById(101)).thenReturn(paper);
         when(questionDao.findByPaperId(101)).thenReturn(List.of(supported));
+        when(examRecordDao.insert(any(ExamRecord.class))).thenThrow(new DuplicateKeyException("uk_active_attempt"));
         when(examRecordDao.findInProgressByStudentIdAndPaperId(11, 101, ExamStatus.IN_PROGRESS)).thenReturn(existingRecord);
 
         ExamService.ExamStartResult result = examService.startOrResumeExam(11, 101);
 
         assertTrue(result.isResumed());
         assertEquals(8001, result.getRecord().getRecordId());
-        verify(examRecordDao, never()).insert(any(ExamRecord.class));
+        assertSame(paper, result.getRecord().getPaper());
+    }
+
+    @Test
+    void startOrResumeExamShouldAskForRetryWhenConflictingRecordAlreadyFinished() {
+        com.exam.model.Paper paper = new com.exam.model.Paper();
+        paper.setPaperId(101);
+
+        when(paperDao.findById(101)).thenReturn(paper);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(question(1, QuestionType.SINGLE, "A", 5)));
+        when(examRecordDao.insert(any(ExamRecord.class))).thenThrow(new DuplicateKeyException("uk_active_attempt"));
+        when(examRecordDao.findInProgressByStudentIdAndPaperId(11, 101, ExamStatus.IN_PROGRESS)).thenReturn(null);
+
+        assertThrows(BusinessException.class, () -> examService.startOrResumeExam(11, 101));
     }
 
     @Test
@@ -154,14 +290,51 @@ class ExamServiceTest {
 
         when(paperDao.findById(101)).thenReturn(paper);
         when(questionDao.findByPaperId(101)).thenReturn(List.of(supported));
-        when(examRecordDao.findInProgressByStudentIdAndPaperId(11, 101, ExamStatus.IN_PROGRESS)).thenReturn(null);
-        when(examRecordDao.insert(any(ExamRecord.class))).thenReturn(8002);
+        doAnswer(invocation -> {
+            ExamRecord inserted = invocation.getArgument(0);
+            inserted.setRecordId(8002);
+            return 1;
+        }).when(examRecordDao).insert(any(ExamRecord.class));
 
         ExamService.ExamStartResult result = examService.startOrResumeExam(11, 101);
 
         assertFalse(result.isResumed());
         assertEquals(8002, result.getRecord().getRecordId());
+        assertEquals(ExamStatus.IN_PROGRESS, result.getRecord().getStatus());
         verify(examRecordDao).insert(any(ExamRecord.class));
+        verify(examRecordDao, never()).findInProgressByStudentIdAndPaperId(11, 101, ExamStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void startOrResumeExamWithCachedPaperShouldSkipPaperAndQuestionQueriesOnceKeyIsCached() {
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(question(1, QuestionType.SINGLE, "A", 5)));
+        when(examRecordDao.insertIfPaperPublished(any(ExamRecord.class))).thenReturn(1);
+        examService.validatePaperSupportsAutoExam(101);
+
+        ExamService.ExamStartResult result = examService.startOrResumeExam(11, paper);
+
+        assertFalse(result.isResumed());
+        assertSame(paper, result.getRecord().getPaper());
+        verify(paperDao, never()).findById(101);
+        verify(questionDao, times(1)).findByPaperId(101);
+    }
+
+    @Test
+    void startOrResumeExamWithCachedPaperShouldRejectPaperUnpublishedInDatabase() {
+        // 本实例缓存中仍是已发布，数据库中已被其他实例取消发布
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        paper.setIsPublished(true);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(question(1, QuestionType.SINGLE, "A", 5)));
+        when(examRecordDao.insertIfPaperPublished(any(ExamRecord.class))).thenReturn(0);
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> examService.startOrResumeExam(11, paper));
+
+        assertEquals("Paper is not published", exception.getMessage());
+        verify(examRecordDao, never()).insert(any(ExamRecord.class));
+        verify(examRecordDao, never()).findInProgressByStudentIdAndPaperId(11, 101, ExamStatus.IN_PROGRESS);
     }
 
     @Test
@@ -214,7 +387,7 @@ class ExamServiceTest {
 
         Question unsupported = question(5, QuestionType.SHORT_ANSWER, "封装", 10);
 
-        when(examRecordDao.findByIdForUpdate(5010)).thenReturn(record);
+        when(examRecordDao.findByIdWithPaperForUpdate(5010)).thenReturn(record);
         when(questionDao.findByPaperId(101)).thenReturn(List.of(unsupported));
 
         BusinessException exception = assertThrows(BusinessException.class, () -> examService.submitExam(5010, Map.of(5, "封装")));
@@ -224,6 +397,183 @@ class ExamServiceTest {
         verify(examRecordDao, never()).update(any(ExamRecord.class));
     }
 
+    @Test
+    void settleExpiredExamsShouldSettleLockedRecordsInOneBatch() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 6, 20, 10, 0);
+        ExamRecord first = new ExamRecord(11, 101);
+        first.setRecordId(7101);
+        first.setStatus(ExamStatus.IN_PROGRESS);
+        ExamRecord second = new ExamRecord(12, 101);
+        second.setRecordId(7102);
+        second.setStatus(ExamStatus.IN_PROGRESS);
+
+        when(examRecordDao.lockOverdueInProgressRecords(List.of(7101, 7102, 7103), cutoff)).thenReturn(List.of(first, second));
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.JUDGE, "T", 5)
+        ));
+
+        List<Integer> settled = examService.settleExpiredExams(List.of(7101, 7102, 7103), cutoff);
+
+        assertEquals(List.of(7101, 7102), settled);
+        ArgumentCaptor<List<AnswerRecord>> answersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(examRecordDao).insertAnswerRecordsBatch(answersCaptor.capture());
+        assertEquals(4, answersCaptor.getValue().size());
+        ArgumentCaptor<List<ExamRecord>> recordsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(examRecordDao).markTimedOutBatch(recordsCaptor.capture(), any(LocalDateTime.class));
+        assertEquals(2, recordsCaptor.getValue().size());
+        assertEquals(BigDecimal.ZERO, recordsCaptor.getValue().get(0).getScore());
+        verify(questionDao, times(1)).findByPaperId(101);
+        verify(examRecordDao, never()).update(any(ExamRecord.class));
+    }
+
+    @Test
+    void submitExamsBatchShouldCommitGroupWithOneInsertAndOneUpdate() {
+        ExamRecord first = new ExamRecord(11, 101);
+        first.setRecordId(7301);
+        first.setStatus(ExamStatus.IN_PROGRESS);
+        ExamRecord second = new ExamRecord(12, 101);
+        second.setRecordId(7302);
+        second.setStatus(ExamStatus.IN_PROGRESS);
+        ExamRecord finished = new ExamRecord(13, 101);
+        finished.setRecordId(7303);
+        finished.setStatus(ExamStatus.SUBMITTED);
+
+        when(examRecordDao.findByIdsWithPaperForUpdate(any())).thenReturn(List.of(first, second, finished));
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.JUDGE, "T", 5)
+        ));
+
+        List<ExamService.SubmissionOutcome> outcomes = examService.submitExamsBatch(List.of(
+                new ExamService.SubmissionRequest(7301, Map.of(1, "A", 2, "T")),
+                new ExamService.SubmissionRequest(7302, Map.of(1, "B")),
+                new ExamService.SubmissionRequest(7303, Map.of(1, "A")),
+                new ExamService.SubmissionRequest(7301, Map.of(1, "A"))
+        ));
+
+        assertEquals(new BigDecimal("10"), outcomes.get(0).getScore());
+        assertEquals(BigDecimal.ZERO, outcomes.get(1).getScore());
+        assertFalse(outcomes.get(2).isSuccess());
+        assertFalse(outcomes.get(3).isSuccess());
+        ArgumentCaptor<List<AnswerRecord>> answersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(examRecordDao).insertAnswerRecordsBatch(answersCaptor.capture());
+        assertEquals(4, answersCaptor.getValue().size());
+        ArgumentCaptor<List<ExamRecord>> recordsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(examRecordDao).markSubmittedBatch(recordsCaptor.capture());
+        assertEquals(2, recordsCaptor.getValue().size());
+        verify(answerDraftDao).deleteByRecordIds(List.of(7301, 7302));
+        verify(examRecordDao, never()).update(any(ExamRecord.class));
+    }
+
+    @Test
+    void saveAnswerDraftsShouldLoadRecordOnceAndStageOnlyPaperQuestions() {
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(7201);
+        record.setStatus(ExamStatus.IN_PROGRESS);
+
+        when(examRecordDao.findByIdWithPaper(7201)).thenReturn(record);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.JUDGE, "T", 5)
+        ));
+
+        assertEquals(1, examService.saveAnswerDrafts(11, 7201, Map.of(1, "B", 99, "A")));
+        assertEquals(2, examService.saveAnswerDrafts(11, 7201, Map.of(1, "A", 2, "F")));
+
+        assertEquals(Map.of(1, "A", 2, "F"), examService.getAnswerDrafts(7201));
+        verify(examRecordDao, times(1)).findByIdWithPaper(7201);
+        verify(answerDraftDao, never()).upsertBatch(any());
+        assertThrows(BusinessException.class, () -> examService.saveAnswerDrafts(12, 7201, Map.of(1, "C")));
+    }
+
+    @Test
+    void saveAnswerDraftsShouldRejectFinishedRecord() {
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(7202);
+        record.setStatus(ExamStatus.SUBMITTED);
+
+        when(examRecordDao.findByIdWithPaper(7202)).thenReturn(record);
+
+        assertThrows(BusinessException.class, () -> examService.saveAnswerDrafts(11, 7202, Map.of(1, "A")));
+        assertTrue(answerDraftBuffer.pending(7202).isEmpty());
+    }
+
+    @Test
+    void saveAnswerDraftsShouldRejectRecordSettledElsewhereAndDropBufferedDrafts() {
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(7203);
+        record.setStatus(ExamStatus.IN_PROGRESS);
+
+        when(examRecordDao.findByIdWithPaper(7203)).thenReturn(record);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(question(1, QuestionType.SINGLE, "A", 5)));
+        assertEquals(1, examService.saveAnswerDrafts(11, 7203, Map.of(1, "A")));
+
+        // 其他实例已交卷：刷新时发现记录已结束并丢弃，下次保存重新查库
+        ExamRecord submitted = new ExamRecord(11, 101);
+        submitted.setRecordId(7203);
+        submitted.setStatus(ExamStatus.SUBMITTED);
+        when(answerDraftDao.findClosedRecordIds(any())).thenReturn(List.of(7203));
+        answerDraftBuffer.flush();
+        assertNull(answerDraftBuffer.getActiveRecord(7203));
+        when(examRecordDao.findByIdWithPaper(7203)).thenReturn(submitted);
+
+        BusinessException exception = assertThrows(
+                BusinessException.class,
+                () -> examService.saveAnswerDrafts(11, 7203, Map.of(1, "B"))
+        );
+        assertEquals("Exam already submitted", exception.getMessage());
+        assertTrue(answerDraftBuffer.pending(7203).isEmpty());
+    }
+
+    @Test
+    void saveAnswerDraftsShouldRejectAfterDeadline() {
+        Paper paper = new Paper();
+        paper.setPaperId(101);
+        paper.setDuration(60);
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(7204);
+        record.setStatus(ExamStatus.IN_PROGRESS);
+        record.setStartTime(LocalDateTime.now().minusMinutes(61));
+        record.setPaper(paper);
+
+        when(examRecordDao.findByIdWithPaper(7204)).thenReturn(record);
+
+        BusinessException exception = assertThrows(
+                BusinessException.class,
+                () -> examService.saveAnswerDrafts(11, 7204, Map.of(1, "A"))
+        );
+        assertEquals("Exam time is over", exception.getMessage());
+        assertTrue(answerDraftBuffer.pending(7204).isEmpty());
+    }
+
+    @Test
+    void timeoutSubmitShouldGradeSavedDrafts() {
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(7003);
+        record.setStatus(ExamStatus.IN_PROGRESS);
+
+        when(examRecordDao.findByIdWithPaper(7003)).thenReturn(record);
+        when(examRecordDao.findByIdForUpdate(7003)).thenReturn(record);
+        when(questionDao.findByPaperId(101)).thenReturn(List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.JUDGE, "T", 5)
+        ));
+        when(answerDraftDao.findByRecordIds(List.of(7003))).thenReturn(List.of(
+                new AnswerDraft(7003, 1, "A", LocalDateTime.now()),
+                new AnswerDraft(7003, 2, "T", LocalDateTime.now())
+        ));
+        examService.saveAnswerDrafts(11, 7003, Map.of(2, "F"));
+
+        examService.timeoutSubmit(7003);
+
+        ArgumentCaptor<ExamRecord> recordCaptor = ArgumentCaptor.forClass(ExamRecord.class);
+        verify(examRecordDao).update(recordCaptor.capture());
+        assertEquals(ExamStatus.TIMEOUT, recordCaptor.getValue().getStatus());
+        assertEquals(new BigDecimal("5"), recordCaptor.getValue().getScore());
+        verify(answerDraftDao).deleteByRecordId(7003);
+    }
+
     @Test
     void timeoutSubmitShouldReturnWhenRecordNotInProgress() {
         ExamRecord record = new ExamRecord(11, 101);
@@ -261,4 +611,11 @@ class ExamServiceTest {
         q.setOptionB("B");
         return q;
     }
+
+    private ExamRecord pagedRecord(int recordId, LocalDateTime createTime) {
+        ExamRecord record = new ExamRecord(11, 101);
+        record.setRecordId(recordId);
+        record.setCreateTime(createTime);
+        return record;
+    }
 }
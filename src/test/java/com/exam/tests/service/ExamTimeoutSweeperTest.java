@@ -0,0 +1,104 @@
+package com.exam.tests.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.service.ExamDeadlineRegistry;
+import com.exam.service.ExamService;
+import com.exam.service.ExamTimeoutSweeper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExamTimeoutSweeperTest {
+    private MutableClock clock;
+    private ExamRecordDao examRecordDao;
+    private ExamService examService;
+    private ExamTimeoutSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock("2026-06-20T08:00:00Z");
+        examRecordDao = mock(ExamRecordDao.class);
+        examService = mock(ExamService.class);
+        ExamDeadlineRegistry registry = new ExamDeadlineRegistry(Duration.ofSeconds(30), clock);
+        // batchSize = 1，兜底扫描每段最多取 10 条
+        sweeper = new ExamTimeoutSweeper(examRecordDao, examService, registry, 1, 60_000L, 1_000L, clock);
+    }
+
+    @Test
+    void dbScanShouldAdvancePastRecordsThatCannotBeSettled() {
+        // 1..25 号记录的试卷不支持自动判分，每次都结算不了；26 号可以结算
+        List<Integer> overdue = IntStream.rangeClosed(1, 26).boxed().toList();
+        when(examRecordDao.findOverdueInProgressRecordIds(any(LocalDateTime.class), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    int afterRecordId = invocation.getArgument(1);
+                    int limit = invocation.getArgument(2);
+                    return overdue.stream().filter(id -> id > afterRecordId).limit(limit).toList();
+                });
+        when(examService.settleExpiredExams(any(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Integer> recordIds = invocation.getArgument(0);
+                    return new ArrayList<>(recordIds.stream().filter(id -> id == 26).toList());
+                });
+
+        assertEquals(0, sweeper.sweep());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(0, sweeper.sweep());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, sweeper.sweep());
+
+        verify(examRecordDao).findOverdueInProgressRecordIds(any(LocalDateTime.class), eq(0), eq(10));
+        verify(examRecordDao).findOverdueInProgressRecordIds(any(LocalDateTime.class), eq(10), eq(10));
+        verify(examRecordDao).findOverdueInProgressRecordIds(any(LocalDateTime.class), eq(20), eq(10));
+
+        // 扫到末尾后从头开始
+        clock.advance(Duration.ofMinutes(1));
+        sweeper.sweep();
+        verify(examRecordDao, times(2)).findOverdueInProgressRecordIds(any(LocalDateTime.class), eq(0), eq(10));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant currentInstant;
+        private final ZoneId zoneId = ZoneId.systemDefault();
+
+        private MutableClock(String instantText) {
+            this.currentInstant = Instant.parse(instantText);
+        }
+
+        private void advance(Duration duration) {
+            currentInstant = currentInstant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zoneId;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return currentInstant;
+        }
+    }
+}
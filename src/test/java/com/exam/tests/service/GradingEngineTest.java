@@ -0,0 +1,72 @@
+package com.exam.tests.service;
+
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKey;
+import com.exam.service.GradingEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradingEngineTest {
+
+    @Test
+    void encodeOptionsShouldMapLettersToBits() {
+        assertEquals(0b1101, GradingEngine.encodeOptions(" dca "));
+        assertEquals(0, GradingEngine.encodeOptions("  "));
+        assertEquals(GradingEngine.NO_MASK, GradingEngine.encodeOptions("AAC"));
+        assertEquals(GradingEngine.NO_MASK, GradingEngine.encodeOptions("A,C"));
+        assertEquals(1 << 25, GradingEngine.encodeOptions("z"));
+    }
+
+    @Test
+    void gradeShouldMatchLegacyStringSemantics() {
+        AnswerKey answerKey = AnswerKey.compile(1, 1L, 0L, List.of(
+                question(1, QuestionType.SINGLE, "A", 5),
+                question(2, QuestionType.MULTIPLE, "ACD", 10),
+                question(3, QuestionType.JUDGE, "T", 5),
+                question(4, QuestionType.JUDGE, "正确", 5),
+                question(5, QuestionType.SINGLE, "AB", 5)
+        ));
+
+        boolean[] correct = new boolean[answerKey.size()];
+        int total = GradingEngine.grade(answerKey, new String[]{"a", "dca", "F", " 正确 ", "BA"}, correct);
+
+        assertEquals(20, total);
+        assertArrayEquals(new boolean[]{true, true, false, true, false}, correct);
+        assertFalse(answerKey.isCorrect(1, "ACDD"));
+        assertFalse(answerKey.isCorrect(1, "AC"));
+        assertTrue(answerKey.isCorrect(4, " ab "));
+    }
+
+    @Test
+    void gradeBatchShouldReturnTotalsInSubmissionOrder() {
+        AnswerKey answerKey = AnswerKey.compile(1, 1L, 0L, List.of(
+                question(1, QuestionType.SINGLE, "B", 3),
+                question(2, QuestionType.MULTIPLE, "BC", 7)
+        ));
+
+        int[] totals = GradingEngine.gradeBatch(answerKey, List.of(
+                new String[]{"B", "CB"},
+                new String[]{"C", "BC"},
+                new String[]{null, null},
+                new String[]{"B"}
+        ));
+
+        assertArrayEquals(new int[]{10, 7, 0, 3}, totals);
+    }
+
+    private static Question question(int id, QuestionType type, String answer, int score) {
+        Question question = new Question();
+        question.setQuestionId(id);
+        question.setQuestionType(type);
+        question.setCorrectAnswer(answer);
+        question.setScore(score);
+        return question;
+    }
+}
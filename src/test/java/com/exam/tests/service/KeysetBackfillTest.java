@@ -0,0 +1,70 @@
+package com.exam.tests.service;
+
+import com.exam.service.KeysetBackfill;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetBackfillTest {
+
+    @Test
+    void runShouldWalkKeysInBatchesAndStopOnceNothingIsPending() {
+        Map<Integer, List<Integer>> pendingAfter = Map.of(0, List.of(3, 7), 7, List.of(9), 9, List.of());
+        List<Integer> cursors = new ArrayList<>();
+        KeysetBackfill<Integer> backfill = new KeysetBackfill<>(
+                "Test",
+                2,
+                2,
+                (afterKey, limit) -> {
+                    cursors.add(afterKey);
+                    return pendingAfter.get(afterKey);
+                },
+                List::size,
+                key -> key
+        );
+
+        assertEquals(3, backfill.run());
+        assertFalse(backfill.isCompleted());
+
+        assertEquals(0, backfill.run());
+        assertTrue(backfill.isCompleted());
+
+        assertEquals(0, backfill.run());
+        assertEquals(List.of(0, 7, 9), cursors);
+    }
+
+    @Test
+    void runShouldRetryTheSameBatchAfterAFailedWrite() {
+        List<Integer> cursors = new ArrayList<>();
+        int[] writes = {0};
+        KeysetBackfill<Integer> backfill = new KeysetBackfill<>(
+                "Test",
+                10,
+                5,
+                (afterKey, limit) -> {
+                    cursors.add(afterKey);
+                    return afterKey == 0 ? List.of(4) : List.of();
+                },
+                rows -> {
+                    if (writes[0]++ == 0) {
+                        throw new IllegalStateException("lock wait timeout");
+                    }
+                    return rows.size();
+                },
+                key -> key
+        );
+
+        assertEquals(0, backfill.run());
+        assertFalse(backfill.isCompleted());
+
+        assertEquals(1, backfill.run());
+        assertTrue(backfill.isCompleted());
+        assertEquals(List.of(0, 0, 4), cursors);
+    }
+}
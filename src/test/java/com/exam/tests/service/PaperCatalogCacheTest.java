@@ -0,0 +1,98 @@
+package com.exam.tests.service;
+
+import com.exam.dao.PaperDao;
+import com.exam.model.Paper;
+import com.exam.service.PaperCatalogCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaperCatalogCacheTest {
+    private PaperDao paperDao;
+    private PaperCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        paperDao = mock(PaperDao.class);
+        Clock clock = Clock.fixed(Instant.parse("2026-04-13T10:00:00Z"), ZoneId.of("UTC"));
+        catalogCache = new PaperCatalogCache(paperDao, Duration.ofMinutes(1), clock);
+    }
+
+    @Test
+    void repeatedReadsShouldHitDatabaseOnce() {
+        when(paperDao.findAllWithQuestionStats()).thenReturn(List.of(paper(2, true), paper(1, false)));
+
+        List<Paper> published = catalogCache.getPublishedPapers();
+        List<Paper> all = catalogCache.getAllPapers();
+        catalogCache.getPublishedPapers();
+
+        assertEquals(1, published.size());
+        assertEquals(2, all.size());
+        assertEquals(2, all.get(0).getPaperId());
+        verify(paperDao, times(1)).findAllWithQuestionStats();
+        assertThrows(UnsupportedOperationException.class, () -> all.add(paper(3, true)));
+    }
+
+    @Test
+    void refreshPaperShouldPatchSnapshotWithoutFullReload() {
+        when(paperDao.findAllWithQuestionStats()).thenReturn(List.of(paper(2, false), paper(1, true)));
+        catalogCache.getAllPapers();
+
+        Paper republished = paper(2, true);
+        when(paperDao.findWithQuestionStatsById(2)).thenReturn(republished);
+        catalogCache.refreshPaper(2);
+
+        List<Paper> published = catalogCache.getPublishedPapers();
+        assertEquals(2, published.size());
+        assertSame(republished, catalogCache.findPaper(2));
+        verify(paperDao, times(1)).findAllWithQuestionStats();
+    }
+
+    @Test
+    void removePaperShouldDropItFromSnapshot() {
+        when(paperDao.findAllWithQuestionStats()).thenReturn(List.of(paper(2, true), paper(1, true)));
+        catalogCache.getAllPapers();
+
+        catalogCache.removePaper(2);
+
+        assertNull(catalogCache.findPaper(2));
+        assertFalse(catalogCache.getPublishedPapers().stream().anyMatch(paper -> paper.getPaperId() == 2));
+    }
+
+    @Test
+    void invalidateShouldForceReloadOnNextRead() {
+        when(paperDao.findAllWithQuestionStats()).thenReturn(List.of(paper(1, true)));
+        catalogCache.getAllPapers();
+
+        when(paperDao.findAllWithQuestionStats()).thenReturn(List.of(paper(3, true), paper(1, true)));
+        catalogCache.invalidate();
+
+        assertTrue(catalogCache.getAllPapers().stream().anyMatch(paper -> paper.getPaperId() == 3));
+        verify(paperDao, times(2)).findAllWithQuestionStats();
+    }
+
+    private static Paper paper(int paperId, boolean published) {
+        Paper paper = new Paper();
+        paper.setPaperId(paperId);
+        paper.setPaperName("Paper " + paperId);
+        paper.setSubject("Java");
+        paper.setIsPublished(published);
+        return paper;
+    }
+}
@@ -0,0 +1,119 @@
+package com.exam.tests.service;
+
+import com.exam.model.PaperAnswerRow;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKey;
+import com.exam.service.GradingEngine;
+import com.exam.service.PaperItemAnalysis;
+import com.exam.service.PaperResponseMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaperItemAnalysisTest {
+    private static final AnswerKey ANSWER_KEY = AnswerKey.compile(1, 1L, 0L, List.of(
+            question(11, QuestionType.SINGLE, "A"),
+            question(12, QuestionType.MULTIPLE, "AC")
+    ));
+
+    @Test
+    void builderShouldStoreAnswersByQuestionColumn() {
+        PaperResponseMatrix matrix = sampleMatrix();
+
+        assertEquals(4, matrix.getRespondentCount());
+        assertEquals(2, matrix.getQuestionCount());
+        assertEquals(10D, matrix.getTotal(0));
+        assertEquals(0b1, matrix.getMask(0, 1));
+        assertEquals(0b101, matrix.getMask(1, 2));
+        assertEquals(0, matrix.getMask(0, 3));
+        assertEquals(GradingEngine.NO_MASK, matrix.getMask(1, 3));
+        assertTrue(matrix.isCorrect(1, 2));
+        assertFalse(matrix.isCorrect(0, 2));
+    }
+
+    @Test
+    void analyzeShouldComputeDifficultyDiscriminationAndPointBiserial() {
+        PaperItemAnalysis.Result result = PaperItemAnalysis.analyze(sampleMatrix());
+
+        assertEquals(4, result.getRespondentCount());
+        assertEquals(5D, result.getMeanScore(), 1e-9);
+        assertEquals(Math.sqrt(12.5D), result.getScoreStdDev(), 1e-9);
+        assertEquals(1, result.getGroupSize());
+
+        PaperItemAnalysis.ItemStatistics single = result.getItems().get(0);
+        assertEquals(11, single.getQuestionId());
+        assertEquals(2, single.getCorrectCount());
+        assertEquals(1, single.getBlankCount());
+        assertEquals(0.5D, single.getDifficulty(), 1e-9);
+        assertEquals(1D, single.getDiscrimination(), 1e-9);
+        assertEquals(Math.sqrt(0.5D), single.getPointBiserial(), 1e-9);
+        assertEquals(List.of("A", "B", "C", "D"), single.getOptions().stream().map(PaperItemAnalysis.OptionStatistics::getOption).toList());
+        PaperItemAnalysis.OptionStatistics optionA = single.getOptions().get(0);
+        assertEquals(2, optionA.getCount());
+        assertEquals(1, optionA.getUpperCount());
+        assertEquals(0, optionA.getLowerCount());
+        assertTrue(optionA.isCorrect());
+        assertEquals(1, single.getOptions().get(1).getCount());
+        assertFalse(single.getOptions().get(1).isCorrect());
+
+        PaperItemAnalysis.ItemStatistics multiple = result.getItems().get(1);
+        assertEquals(1, multiple.getUnrecognizedCount());
+        assertEquals(3, multiple.getOptions().get(0).getCount());
+        assertEquals(2, multiple.getOptions().get(2).getCount());
+        assertTrue(multiple.getOptions().get(2).isCorrect());
+    }
+
+    @Test
+    void analyzeShouldLeaveUndefinedIndexesEmpty() {
+        PaperResponseMatrix.Builder builder = PaperResponseMatrix.builder(ANSWER_KEY);
+        builder.accept(row(1, 11, "A", true, "5"));
+
+        PaperItemAnalysis.Result result = PaperItemAnalysis.analyze(builder.build());
+
+        PaperItemAnalysis.ItemStatistics single = result.getItems().get(0);
+        assertEquals(1D, single.getDifficulty());
+        assertNull(single.getDiscrimination());
+        assertNull(single.getPointBiserial());
+        assertEquals(0D, result.getItems().get(1).getDifficulty());
+    }
+
+    private static PaperResponseMatrix sampleMatrix() {
+        PaperResponseMatrix.Builder builder = PaperResponseMatrix.builder(ANSWER_KEY);
+        builder.accept(row(1, 11, "A", true, "10"));
+        builder.accept(row(1, 12, "AC", true, "10"));
+        builder.accept(row(1, 99, "B", false, "10"));
+        builder.accept(row(2, 11, "a", true, "5"));
+        builder.accept(row(2, 12, "A", false, "5"));
+        builder.accept(row(3, 11, "B", false, "5"));
+        builder.accept(row(3, 12, "CA", true, "5"));
+        builder.accept(row(4, 11, " ", false, "0"));
+        builder.accept(row(4, 12, "?", false, "0"));
+        return builder.build();
+    }
+
+    private static PaperAnswerRow row(int recordId, int questionId, String answer, boolean correct, String recordScore) {
+        PaperAnswerRow row = new PaperAnswerRow();
+        row.setRecordId(recordId);
+        row.setQuestionId(questionId);
+        row.setStudentAnswer(answer);
+        row.setCorrect(correct);
+        row.setRecordScore(new BigDecimal(recordScore));
+        return row;
+    }
+
+    private static Question question(int id, QuestionType type, String answer) {
+        Question question = new Question();
+        question.setQuestionId(id);
+        question.setQuestionType(type);
+        question.setCorrectAnswer(answer);
+        question.setScore(5);
+        return question;
+    }
+}
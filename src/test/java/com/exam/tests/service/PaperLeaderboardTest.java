@@ -0,0 +1,130 @@
+package com.exam.tests.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.dao.PaperDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.ExamRecord;
+import com.exam.model.Paper;
+import com.exam.model.PaperScoreStamp;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperScoreStatsStore;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaperLeaderboardTest {
+    private ExamRecordDao examRecordDao;
+    private PaperScoreStatsStore scoreStatsStore;
+    private PaperLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        examRecordDao = mock(ExamRecordDao.class);
+        PaperDao paperDao = mock(PaperDao.class);
+        Paper paper = new Paper();
+        paper.setPaperId(7);
+        paper.setTotalScore(100);
+        when(paperDao.findById(7)).thenReturn(paper);
+        scoreStatsStore = mock(PaperScoreStatsStore.class);
+        when(scoreStatsStore.loadStamp(7)).thenReturn(stamp(1, 3));
+        when(scoreStatsStore.loadStamp(8)).thenThrow(new BusinessException("Paper does not exist"));
+        leaderboard = new PaperLeaderboard(examRecordDao, paperDao, scoreStatsStore, 10);
+
+        doAnswer(invocation -> {
+            ResultHandler<ExamRecord> handler = invocation.getArgument(1);
+            feed(handler, record(1, 7, "88"));
+            feed(handler, record(2, 7, "95"));
+            feed(handler, record(3, 7, "70"));
+            return null;
+        }).when(examRecordDao).scanPaperBestScores(eq(7), any());
+    }
+
+    @Test
+    void getStandingsShouldLoadOnceAndApplySettledRecords() {
+        PaperLeaderboard.Standings first = leaderboard.getStandings(7, 1, 2);
+
+        assertEquals(3, first.getParticipantCount());
+        assertEquals(2, first.getRank());
+        assertEquals(List.of(2, 1), first.getTop().stream().map(entry -> entry.getStudentId()).toList());
+
+        leaderboard.recordSettled(List.of(record(3, 7, "99"), record(4, 7, "50"), record(5, 8, "100")));
+        when(scoreStatsStore.loadStamp(7)).thenReturn(stamp(1, 5));
+        PaperLeaderboard.Standings second = leaderboard.getStandings(7, 1, 2);
+
+        assertEquals(4, second.getParticipantCount());
+        assertEquals(3, second.getRank());
+        assertEquals(List.of(3, 2), second.getTop().stream().map(entry -> entry.getStudentId()).toList());
+        assertNotEquals(first.getVersion(), second.getVersion());
+        verify(examRecordDao, times(1)).scanPaperBestScores(eq(7), any());
+    }
+
+    @Test
+    void invalidatePaperShouldReloadOnNextRead() {
+        leaderboard.getStandings(7, null, 3);
+        leaderboard.invalidatePaper(7);
+
+        PaperLeaderboard.Standings standings = leaderboard.getStandings(7, 9, 3);
+
+        assertNull(standings.getRank());
+        assertNull(standings.getPercentile());
+        verify(examRecordDao, times(2)).scanPaperBestScores(eq(7), any());
+    }
+
+    @Test
+    void getStandingsShouldReloadWhenPersistedStampMovesWithoutLocalSettlement() {
+        leaderboard.getStandings(7, null, 3);
+        leaderboard.getStandings(7, null, 3);
+        verify(examRecordDao, times(1)).scanPaperBestScores(eq(7), any());
+
+        when(scoreStatsStore.loadStamp(7)).thenReturn(stamp(1, 4));
+        leaderboard.getStandings(7, null, 3);
+        leaderboard.getStandings(7, null, 3);
+        verify(examRecordDao, times(2)).scanPaperBestScores(eq(7), any());
+
+        when(scoreStatsStore.loadStamp(7)).thenReturn(stamp(2, 4));
+        leaderboard.getStandings(7, null, 3);
+        verify(examRecordDao, times(3)).scanPaperBestScores(eq(7), any());
+    }
+
+    @Test
+    void getStandingsShouldRejectMissingPaperAndOversizedLimit() {
+        assertThrows(BusinessException.class, () -> leaderboard.getStandings(8, null, 5));
+        assertThrows(BusinessException.class, () -> leaderboard.getStandings(7, null, 11));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void feed(ResultHandler<ExamRecord> handler, ExamRecord row) {
+        ResultContext<ExamRecord> context = mock(ResultContext.class);
+        when(context.getResultObject()).thenReturn(row);
+        handler.handleResult(context);
+    }
+
+    private static PaperScoreStamp stamp(long version, long recordCount) {
+        PaperScoreStamp stamp = new PaperScoreStamp();
+        stamp.setVersion(version);
+        stamp.setRecordCount(recordCount);
+        return stamp;
+    }
+
+    private static ExamRecord record(int studentId, int paperId, String score) {
+        ExamRecord record = new ExamRecord(studentId, paperId);
+        record.setScore(new BigDecimal(score));
+        return record;
+    }
+}
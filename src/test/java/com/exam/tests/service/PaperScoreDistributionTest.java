@@ -0,0 +1,63 @@
+package com.exam.tests.service;
+
+import com.exam.model.PaperScoreBucket;
+import com.exam.service.PaperScoreDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PaperScoreDistributionTest {
+
+    @Test
+    void ofShouldSummarizeBucketsAndCountPassesExactly() {
+        PaperScoreDistribution distribution = PaperScoreDistribution.of(List.of(
+                bucket(45, 1, "45.5", "45.5", "45.5"),
+                bucket(59, 2, "119.4", "59.5", "59.9"),
+                bucket(60, 1, "60", "60", "60"),
+                bucket(88, 2, "177", "88", "89"),
+                bucket(100, 1, "100", "100", "100")
+        ), 100, 60);
+
+        assertEquals(7, distribution.getRecordCount());
+        assertEquals(new BigDecimal("71.70"), distribution.getAverageScore());
+        assertEquals(0, new BigDecimal("45.5").compareTo(distribution.getMinScore()));
+        assertEquals(0, new BigDecimal("100").compareTo(distribution.getMaxScore()));
+        assertEquals(4, distribution.getPassCount());
+        assertEquals(new BigDecimal("60.00"), distribution.getMedianScore());
+        assertEquals(new BigDecimal("93.40"), distribution.getP90Score());
+
+        assertEquals(10, distribution.getBins().size());
+        assertEquals(1, distribution.getBins().get(4).getCount());
+        assertEquals(2, distribution.getBins().get(5).getCount());
+        assertEquals(1, distribution.getBins().get(6).getCount());
+        assertEquals(3, distribution.getBins().get(8).getCount() + distribution.getBins().get(9).getCount());
+        assertEquals(100, distribution.getBins().get(9).getUpper());
+    }
+
+    @Test
+    void ofShouldReturnEmptySummaryWithoutSettledScores() {
+        PaperScoreDistribution distribution = PaperScoreDistribution.of(List.of(), 15, null);
+
+        assertEquals(0, distribution.getRecordCount());
+        assertNull(distribution.getAverageScore());
+        assertNull(distribution.getMedianScore());
+        assertNull(distribution.getPassCount());
+        assertEquals(8, distribution.getBins().size());
+        assertEquals(15, distribution.getBins().get(7).getUpper());
+    }
+
+    private static PaperScoreBucket bucket(int bucket, int count, String sum, String min, String max) {
+        PaperScoreBucket row = new PaperScoreBucket();
+        row.setPaperId(7);
+        row.setBucket(bucket);
+        row.setRecordCount(count);
+        row.setScoreSum(new BigDecimal(sum));
+        row.setMinScore(new BigDecimal(min));
+        row.setMaxScore(new BigDecimal(max));
+        return row;
+    }
+}
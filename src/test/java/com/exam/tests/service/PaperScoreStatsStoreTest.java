@@ -0,0 +1,96 @@
+package com.exam.tests.service;
+
+import com.exam.dao.PaperScoreStatsDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.Paper;
+import com.exam.service.PaperScoreDistribution;
+import com.exam.service.PaperScoreStatsStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaperScoreStatsStoreTest {
+    private PaperScoreStatsDao statsDao;
+    private PaperScoreStatsStore store;
+
+    @BeforeEach
+    void setUp() {
+        statsDao = mock(PaperScoreStatsDao.class);
+        store = new PaperScoreStatsStore(statsDao, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void loadShouldReadStoredBucketsWithoutRebuilding() {
+        when(statsDao.findMarker(7)).thenReturn(7);
+        when(statsDao.findBuckets(7)).thenReturn(List.of());
+
+        PaperScoreDistribution distribution = store.load(paper(7));
+
+        assertEquals(0, distribution.getRecordCount());
+        verify(statsDao, never()).claimMarker(any());
+        verify(statsDao, never()).insertBucketsFromRecords(any());
+    }
+
+    @Test
+    void loadShouldRebuildMissingBucketsLockingRecordsBeforeMarker() {
+        when(statsDao.findMarker(7)).thenReturn(null);
+        when(statsDao.lockMarker(7)).thenReturn(false);
+        when(statsDao.findBuckets(7)).thenReturn(List.of());
+
+        store.load(paper(7));
+
+        InOrder order = inOrder(statsDao);
+        order.verify(statsDao).lockPaperRecords(7);
+        order.verify(statsDao).claimMarker(7);
+        order.verify(statsDao).lockMarker(7);
+        order.verify(statsDao).deleteBucketsByPaperId(7);
+        order.verify(statsDao).insertBucketsFromRecords(7);
+        order.verify(statsDao).markBuilt(7);
+        order.verify(statsDao).findBuckets(7);
+    }
+
+    @Test
+    void loadShouldSkipRebuildWhenAnotherRequestBuiltMarkerFirst() {
+        when(statsDao.findMarker(7)).thenReturn(null);
+        when(statsDao.lockMarker(7)).thenReturn(true);
+        when(statsDao.findBuckets(7)).thenReturn(List.of());
+
+        store.load(paper(7));
+
+        verify(statsDao, never()).insertBucketsFromRecords(any());
+        verify(statsDao, never()).markBuilt(any());
+    }
+
+    @Test
+    void loadShouldRejectMissingPaperAndSkipEmptyFolds() {
+        when(statsDao.lockMarker(8)).thenReturn(null);
+
+        assertThrows(BusinessException.class, () -> store.load(paper(8)));
+        store.foldSettledRecords(List.of());
+        store.invalidateRecords(null);
+
+        verify(statsDao, never()).markBuilt(any());
+        verify(statsDao, never()).foldBuckets(any());
+        verify(statsDao, never()).invalidateByRecordIds(any());
+    }
+
+    private static Paper paper(int paperId) {
+        Paper paper = new Paper();
+        paper.setPaperId(paperId);
+        paper.setTotalScore(100);
+        paper.setPassScore(60);
+        return paper;
+    }
+}
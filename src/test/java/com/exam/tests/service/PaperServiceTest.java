@@ -3,22 +3,32 @@ package com.exam.tests.service;
 import com.exam.dao.PaperDao;
 import com.exam.dao.QuestionDao;
 import com.exam.exception.BusinessException;
+import com.exam.exception.QuestionImportException;
 import com.exam.model.Paper;
 import com.exam.model.Question;
 import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKeyCache;
+import com.exam.service.PaperCatalogCache;
+import com.exam.service.PaperLeaderboard;
 import com.exam.service.PaperService;
+import com.exam.service.QuestionSearchIndex;
+import com.exam.service.QuestionSignatureBackfill;
+import com.exam.service.StudentAchievementStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -29,12 +39,27 @@ class PaperServiceTest {
     private PaperService paperService;
     private PaperDao paperDao;
     private QuestionDao questionDao;
+    private PaperCatalogCache catalogCache;
+    private AnswerKeyCache answerKeyCache;
+    private StudentAchievementStore achievementStore;
+    private PaperLeaderboard leaderboard;
+    private QuestionSearchIndex searchIndex;
+    private QuestionSignatureBackfill signatureBackfill;
 
     @BeforeEach
     void setUp() {
         paperDao = mock(PaperDao.class);
         questionDao = mock(QuestionDao.class);
-        paperService = new PaperService(paperDao, questionDao);
+        catalogCache = mock(PaperCatalogCache.class);
+        answerKeyCache = mock(AnswerKeyCache.class);
+        achievementStore = mock(StudentAchievementStore.class);
+        leaderboard = mock(PaperLeaderboard.class);
+        searchIndex = mock(QuestionSearchIndex.class);
+        signatureBackfill = mock(QuestionSignatureBackfill.class);
+        paperService = new PaperService(
+                paperDao, questionDao, catalogCache, answerKeyCache, achievementStore, leaderboard, searchIndex,
+                signatureBackfill
+        );
     }
 
     @Test
@@ -107,26 +132,62 @@ class PaperServiceTest {
         existingQuestion.setContent("existing");
 
         Question importedExisting = buildQuestion(0, 5);
-        importedExisting.setContent("existing");
+        importedExisting.setContent(" Existing ");
         Question importedNew = buildQuestion(0, 10);
         importedNew.setContent("new-one");
+        Question importedDuplicate = buildQuestion(0, 10);
+        importedDuplicate.setContent("NEW-ONE");
 
-        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "existing", "A"))
-                .thenReturn(existingQuestion);
-        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "new-one", "A"))
-                .thenReturn(null);
-        when(questionDao.insert(same(importedNew))).thenReturn(20);
+        when(signatureBackfill.isCompleted()).thenReturn(true);
+        when(questionDao.findBySignatureHashes(any())).thenReturn(List.of(existingQuestion));
+        assignIdsOnInsertBatch(20);
         when(paperDao.insert(eq(paper))).thenReturn(300);
 
-        PaperService.ImportPaperResult result = paperService.importPaper(paper, List.of(importedExisting, importedNew));
+        PaperService.ImportPaperResult result = paperService.importPaper(
+                paper, List.of(importedExisting, importedNew, importedDuplicate)
+        );
 
         assertEquals(300, result.getPaperId());
-        assertEquals(2, result.getSourceQuestionCount());
+        assertEquals(3, result.getSourceQuestionCount());
         assertEquals(2, result.getLinkedQuestionCount());
         assertEquals(1, result.getCreatedQuestionCount());
-        assertEquals(1, result.getReusedQuestionCount());
+        assertEquals(2, result.getReusedQuestionCount());
         assertEquals(15, paper.getTotalScore());
+        verify(questionDao).findBySignatureHashes(
+                Set.of(importedExisting.getSignatureHash(), importedNew.getSignatureHash())
+        );
+        verify(questionDao).insertBatch(List.of(importedNew));
+        verify(questionDao, never()).findByExactSignature(any(), any(), any(), any());
+        verify(questionDao, never()).insert(any(Question.class));
         verify(paperDao).addPaperQuestionsBatch(300, List.of(10, 20));
+        verify(searchIndex).upsert(importedNew);
+        verify(searchIndex, never()).upsert(existingQuestion);
+    }
+
+    @Test
+    void importPaperShouldFallBackToExactLookupUntilSignaturesAreBackfilled() {
+        Paper paper = buildPaper();
+        Question legacyQuestion = buildQuestion(10, 5);
+        legacyQuestion.setContent("legacy");
+
+        Question importedLegacy = buildQuestion(0, 5);
+        importedLegacy.setContent("legacy");
+        Question importedNew = buildQuestion(0, 10);
+        importedNew.setContent("new-one");
+
+        when(signatureBackfill.isCompleted()).thenReturn(false);
+        when(questionDao.findBySignatureHashes(any())).thenReturn(List.of());
+        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "legacy", "A"))
+                .thenReturn(legacyQuestion);
+        assignIdsOnInsertBatch(20);
+        when(paperDao.insert(eq(paper))).thenReturn(301);
+
+        PaperService.ImportPaperResult result = paperService.importPaper(paper, List.of(importedLegacy, importedNew));
+
+        assertEquals(1, result.getCreatedQuestionCount());
+        assertEquals(1, result.getReusedQuestionCount());
+        verify(questionDao).insertBatch(List.of(importedNew));
+        verify(paperDao).addPaperQuestionsBatch(301, List.of(10, 20));
     }
 
     @Test
@@ -135,9 +196,9 @@ class PaperServiceTest {
         Question imported = buildQuestion(0, 5);
         imported.setContent("imported");
 
-        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "imported", "A"))
-                .thenReturn(null);
-        when(questionDao.insert(same(imported))).thenReturn(21);
+        when(signatureBackfill.isCompleted()).thenReturn(true);
+        when(questionDao.findBySignatureHashes(any())).thenReturn(List.of());
+        assignIdsOnInsertBatch(21);
         doThrow(new RuntimeException("paper insert fail"))
                 .when(paperDao).insert(eq(paper));
 
@@ -153,10 +214,9 @@ class PaperServiceTest {
         Question importedNew = buildQuestion(0, 10);
         importedNew.setContent("new-one");
 
-        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "existing", "A")).thenReturn(null);
-        when(questionDao.findByExactSignature("Java", QuestionType.SINGLE, "new-one", "A")).thenReturn(null);
-        when(questionDao.insert(same(importedExisting))).thenReturn(10);
-        when(questionDao.insert(same(importedNew))).thenReturn(20);
+        when(signatureBackfill.isCompleted()).thenReturn(true);
+        when(questionDao.findBySignatureHashes(any())).thenReturn(List.of());
+        assignIdsOnInsertBatch(10);
 
         BusinessException exception = assertThrows(
                 BusinessException.class,
@@ -167,6 +227,65 @@ class PaperServiceTest {
         verify(paperDao, never()).insert(any(Paper.class));
     }
 
+    @Test
+    void importPaperStreamingShouldPersistChunksAndSumLinkedScores() {
+        Paper paper = buildPaper();
+        Question existingQuestion = buildQuestion(10, 5);
+        existingQuestion.setContent("existing");
+
+        when(signatureBackfill.isCompleted()).thenReturn(true);
+        when(questionDao.findBySignatureHashes(any())).thenReturn(List.of(existingQuestion));
+        assignIdsOnInsertBatch(20);
+        assignIdOnPaperInsert(400);
+        when(paperDao.appendPaperQuestions(eq(400), any(), eq(1))).thenReturn(2);
+        when(paperDao.sumQuestionScores(400)).thenReturn(15);
+
+        PaperService.ImportPaperResult result = paperService.importPaperStreaming(
+                paper,
+                new StringReader(String.join("\n",
+                        "# comment",
+                        "SINGLE|Java|existing|A|B|||A|5|EASY|",
+                        "SINGLE|Java|new-one|A|B|||A|10|EASY|",
+                        "SINGLE|Java|NEW-ONE|A|B|||A|10|EASY|"
+                )),
+                7
+        );
+
+        assertEquals(400, result.getPaperId());
+        assertEquals(3, result.getSourceQuestionCount());
+        assertEquals(2, result.getLinkedQuestionCount());
+        assertEquals(1, result.getCreatedQuestionCount());
+        assertEquals(2, result.getReusedQuestionCount());
+        assertEquals(15, paper.getTotalScore());
+        verify(paperDao).appendPaperQuestions(400, List.of(10, 20), 1);
+        verify(paperDao).update(paper);
+    }
+
+    @Test
+    void importPaperStreamingShouldRejectWithLineReportAndStopPersisting() {
+        Paper paper = buildPaper();
+        assignIdOnPaperInsert(401);
+
+        QuestionImportException exception = assertThrows(
+                QuestionImportException.class,
+                () -> paperService.importPaperStreaming(
+                        paper,
+                        new StringReader(String.join("\n",
+                                "SINGLE|Java|first|A|B|||A|5|EASY|",
+                                "SINGLE|Java|broken",
+                                "SINGLE|Java|third|A|B|||A|0|EASY|"
+                        )),
+                        7
+                )
+        );
+
+        assertEquals(2, exception.getErrorCount());
+        assertEquals(List.of(2, 3), exception.getErrors().stream().map(QuestionImportException.LineError::lineNumber).toList());
+        verify(questionDao, never()).insertBatch(any());
+        verify(paperDao, never()).appendPaperQuestions(any(), any(), anyInt());
+        verify(paperDao, never()).update(any(Paper.class));
+    }
+
     @Test
     void updatePaperShouldRejectPassScoreGreaterThanTotalScore() {
         Paper paper = buildPaper();
@@ -183,6 +302,45 @@ class PaperServiceTest {
         verify(paperDao, never()).update(any(Paper.class));
     }
 
+    @Test
+    void publishedCatalogShouldBeServedFromSnapshot() {
+        Paper published = buildPaper();
+        published.setPaperId(7);
+        when(catalogCache.getPublishedPapers()).thenReturn(List.of(published));
+
+        List<Paper> papers = paperService.getAllPublishedPapersOptimized();
+
+        assertEquals(List.of(published), papers);
+        verify(paperDao, never()).findAllPublishedWithQuestionStats();
+    }
+
+    @Test
+    void publishAndDeleteShouldPatchCatalogSnapshot() {
+        paperService.publishPaper(7);
+        paperService.unpublishPaper(8);
+        paperService.deletePaper(9);
+
+        verify(paperDao).updatePublishStatus(7, true);
+        verify(catalogCache).refreshPaper(7);
+        verify(catalogCache).refreshPaper(8);
+        verify(catalogCache).removePaper(9);
+        verify(answerKeyCache).invalidatePaper(9);
+        verify(achievementStore).invalidatePaper(9);
+        verify(leaderboard).invalidatePaper(9);
+    }
+
+    @Test
+    void createPaperShouldInvalidateCatalogSnapshot() {
+        Paper paper = buildPaper();
+        Question q1 = buildQuestion(1, 5);
+        when(questionDao.findByIds(any())).thenReturn(Map.of(1, q1));
+        when(paperDao.insert(eq(paper))).thenReturn(202);
+
+        paperService.createPaper(paper, List.of(1));
+
+        verify(catalogCache).invalidate();
+    }
+
     private static Paper buildPaper() {
         Paper paper = new Paper();
         paper.setPaperName("Java Test");
@@ -192,6 +350,26 @@ class PaperServiceTest {
         return paper;
     }
 
+    private void assignIdOnPaperInsert(int paperId) {
+        doAnswer(invocation -> {
+            Paper inserted = invocation.getArgument(0);
+            inserted.setPaperId(paperId);
+            return 1;
+        }).when(paperDao).insert(any(Paper.class));
+    }
+
+    private void assignIdsOnInsertBatch(int firstId) {
+        doAnswer(invocation -> {
+            List<Question> questions = invocation.getArgument(0);
+            int nextId = firstId;
+            for (Question question : questions) {
+                question.setQuestionId(nextId);
+                nextId += 10;
+            }
+            return questions.size();
+        }).when(questionDao).insertBatch(any());
+    }
+
     private static Question buildQuestion(int id, int score) {
         Question q = new Question();
         q.setQuestionId(id);
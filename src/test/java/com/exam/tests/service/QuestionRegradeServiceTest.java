@@ -0,0 +1,187 @@
+package com.exam.tests.service;
+
+import com.exam.dao.ExamRecordDao;
+import com.exam.dao.QuestionDao;
+import com.exam.exception.BusinessException;
+import com.exam.model.AnswerRecord;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.PaperLeaderboard;
+import com.exam.service.PaperScoreStatsStore;
+import com.exam.service.QuestionRegradeService;
+import com.exam.service.StudentAchievementStore;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionRegradeServiceTest {
+    private ExamRecordDao examRecordDao;
+    private QuestionDao questionDao;
+    private StudentAchievementStore achievementStore;
+    private PaperLeaderboard leaderboard;
+    private PaperScoreStatsStore scoreStatsStore;
+    private QuestionRegradeService regradeService;
+
+    @BeforeEach
+    void setUp() {
+        examRecordDao = mock(ExamRecordDao.class);
+        questionDao = mock(QuestionDao.class);
+        achievementStore = mock(StudentAchievementStore.class);
+        leaderboard = mock(PaperLeaderboard.class);
+        scoreStatsStore = mock(PaperScoreStatsStore.class);
+        regradeService = new QuestionRegradeService(
+                examRecordDao,
+                questionDao,
+                achievementStore,
+                leaderboard,
+                scoreStatsStore,
+                mock(PlatformTransactionManager.class),
+                2,
+                Executors.newSingleThreadExecutor()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        regradeService.shutdown();
+    }
+
+    @Test
+    void regradeShouldWriteOnlyChangedRowsInChunks() {
+        Question question = new Question();
+        question.setQuestionId(9);
+        question.setQuestionType(QuestionType.SINGLE);
+        question.setCorrectAnswer("B");
+        question.setScore(5);
+        when(questionDao.findById(9)).thenReturn(question);
+
+        when(examRecordDao.streamAnswerRecordsByQuestionId(9, 0)).thenReturn(new ListCursor(List.of(
+                answer(1, 100, "A", true, "5.00"),
+                answer(2, 101, "B", false, "0.00"),
+                answer(3, 102, "C", false, "0.00"),
+                answer(4, 103, "b", false, "0.00"),
+                answer(5, 104, "A", true, "5.00")
+        )));
+        when(examRecordDao.streamAnswerRecordsByQuestionId(9, 5)).thenReturn(new ListCursor(List.of()));
+        when(examRecordDao.findPaperIdsByRecordIds(any(Collection.class))).thenReturn(List.of(7));
+
+        QuestionRegradeService.RegradeProgress progress = regradeService.regrade(9);
+
+        assertEquals(QuestionRegradeService.RegradeState.COMPLETED, progress.getState());
+        assertEquals(5, progress.getScannedAnswers());
+        assertEquals(4, progress.getChangedAnswers());
+        assertEquals(4, progress.getRecomputedRecords());
+
+        ArgumentCaptor<List<AnswerRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(examRecordDao, times(2)).updateAnswerGrades(captor.capture());
+        verify(examRecordDao, times(2)).recomputeScoresByRecordIds(any(Collection.class));
+        verify(achievementStore, times(2)).invalidateRecords(any(Collection.class));
+        verify(scoreStatsStore, times(2)).invalidateRecords(any(Collection.class));
+        verify(leaderboard, times(2)).invalidatePapers(List.of(7));
+        AnswerRecord regraded = captor.getAllValues().get(0).get(1);
+        assertEquals(2, regraded.getAnswerId());
+        assertTrue(regraded.getIsCorrect());
+        assertEquals(0, new BigDecimal("5").compareTo(regraded.getScore()));
+    }
+
+    @Test
+    void regradeShouldCompleteWithoutWritesWhenQuestionIsGone() {
+        when(questionDao.findById(10)).thenReturn(null);
+
+        QuestionRegradeService.RegradeProgress progress = regradeService.regrade(10);
+
+        assertEquals(QuestionRegradeService.RegradeState.COMPLETED, progress.getState());
+        verify(examRecordDao, never()).streamAnswerRecordsByQuestionId(eq(10), anyInt());
+        verify(examRecordDao, never()).updateAnswerGrades(any());
+        assertFalse(progress.getScannedAnswers() > 0);
+    }
+
+    @Test
+    void syncRegradeShouldBeRejectedWhileAsyncRegradeIsQueued() {
+        // 不执行任务的线程池，让异步重判停在排队状态
+        QuestionRegradeService queuedService = new QuestionRegradeService(
+                examRecordDao,
+                questionDao,
+                achievementStore,
+                leaderboard,
+                scoreStatsStore,
+                mock(PlatformTransactionManager.class),
+                2,
+                mock(ExecutorService.class)
+        );
+
+        QuestionRegradeService.RegradeProgress queued = queuedService.regradeAsync(11);
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> queuedService.regrade(11));
+        assertEquals("Question regrade is already in progress", exception.getMessage());
+        assertSame(queued, queuedService.getProgress(11));
+        assertEquals(QuestionRegradeService.RegradeState.QUEUED, queued.getState());
+        verify(questionDao, never()).findById(11);
+    }
+
+    private static AnswerRecord answer(int answerId, int recordId, String studentAnswer, boolean correct, String score) {
+        AnswerRecord answerRecord = new AnswerRecord(recordId, 9, studentAnswer);
+        answerRecord.setAnswerId(answerId);
+        answerRecord.setIsCorrect(correct);
+        answerRecord.setScore(new BigDecimal(score));
+        return answerRecord;
+    }
+
+    private static final class ListCursor implements Cursor<AnswerRecord> {
+        private final List<AnswerRecord> rows;
+        private boolean open = true;
+
+        private ListCursor(List<AnswerRecord> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return !open;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public Iterator<AnswerRecord> iterator() {
+            return rows.iterator();
+        }
+    }
+}
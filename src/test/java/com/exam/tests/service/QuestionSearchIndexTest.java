@@ -0,0 +1,174 @@
+package com.exam.tests.service;
+
+import com.exam.dao.QuestionDao;
+import com.exam.model.Question;
+import com.exam.model.QuestionBankStamp;
+import com.exam.model.enums.Difficulty;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.QuestionSearchIndex;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionSearchIndexTest {
+    private static final LocalDateTime BUILT_AT = LocalDateTime.of(2026, 10, 18, 9, 0);
+
+    private QuestionDao questionDao;
+    private QuestionSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        questionDao = mock(QuestionDao.class);
+        when(questionDao.probeBankStamp()).thenReturn(stamp(BUILT_AT, 4, 4));
+        doAnswer(invocation -> {
+            ResultHandler<Question> handler = invocation.getArgument(0);
+            feed(handler, question(1, "数学", QuestionType.SINGLE, Difficulty.EASY, "函数 f(x) 的定义域是"));
+            feed(handler, question(2, "数学", QuestionType.JUDGE, null, "奇函数的图像关于原点对称"));
+            feed(handler, question(3, "Java", QuestionType.SINGLE, Difficulty.HARD, "Which keyword declares a Java constant?"));
+            feed(handler, question(4, "数学", QuestionType.SINGLE, Difficulty.MEDIUM, "函数综合题：数列与函数，求函数的最小值"));
+            return null;
+        }).when(questionDao).scanSearchRows(any());
+        index = new QuestionSearchIndex(questionDao, true);
+        index.rebuild();
+    }
+
+    @Test
+    void searchShouldMatchWholeKeywordAndCountExactly() {
+        QuestionSearchIndex.Page page = index.search("函数", null, null, null, 0, 10, false);
+
+        assertTrue(index.isReady());
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of(1, 2, 4), page.getQuestionIds());
+        assertEquals(List.of(4), index.search("最小值", "数学", QuestionType.SINGLE, null, 0, 10, false).getQuestionIds());
+        assertEquals(List.of(4), index.search("函", null, null, Difficulty.MEDIUM, 1, 10, false).getQuestionIds());
+        assertEquals(0, index.search("函数数", null, null, null, 0, 10, false).getTotal());
+        assertEquals(List.of(3), index.search("JAVA CONST", "java", null, null, 0, 10, false).getQuestionIds());
+    }
+
+    @Test
+    void searchShouldPageAndOrderByRelevanceOnRequest() {
+        assertEquals(List.of(2), index.search("函数", null, null, null, 1, 1, false).getQuestionIds());
+        assertEquals(List.of(1, 4, 2), index.search("函数", null, null, null, 0, 10, true).getQuestionIds());
+    }
+
+    @Test
+    void upsertAndRemoveShouldKeepPostingsCurrent() {
+        index.upsert(question(1, "数学", QuestionType.SINGLE, Difficulty.EASY, "求导数"));
+        index.upsert(question(9, "数学", QuestionType.SINGLE, Difficulty.EASY, "复合函数求导"));
+        index.remove(4);
+
+        assertEquals(List.of(2, 9), index.search("函数", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(List.of(1, 9), index.search("求导", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void reconcileShouldReadQuestionsWrittenElsewhereSinceWatermark() {
+        assertFalse(index.reconcile());
+
+        when(questionDao.probeBankStamp()).thenReturn(stamp(BUILT_AT.plusSeconds(30), 5, 5));
+        doAnswer(invocation -> {
+            ResultHandler<Question> handler = invocation.getArgument(1);
+            feed(handler, question(2, "数学", QuestionType.JUDGE, null, "偶函数的图像关于 y 轴对称"));
+            feed(handler, question(5, "数学", QuestionType.SINGLE, Difficulty.EASY, "反函数的定义"));
+            return null;
+        }).when(questionDao).scanSearchRowsUpdatedSince(eq(BUILT_AT.minusMinutes(1)), any());
+
+        assertTrue(index.reconcile());
+        assertEquals(List.of(1, 2, 4, 5), index.search("函数", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(List.of(2), index.search("偶函数", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(0, index.search("奇函数", null, null, null, 0, 10, false).getTotal());
+        verify(questionDao, times(1)).scanSearchRows(any());
+    }
+
+    @Test
+    void reconcileShouldRebuildWhenQuestionsWereDeletedElsewhere() {
+        when(questionDao.probeBankStamp()).thenReturn(stamp(BUILT_AT, 4, 3));
+
+        assertTrue(index.reconcile());
+
+        verify(questionDao).scanSearchRowsUpdatedSince(eq(BUILT_AT.minusMinutes(1)), any());
+        verify(questionDao, times(2)).scanSearchRows(any());
+    }
+
+    @Test
+    void rebuildShouldKeepServingSearchesAndLocalWritesDuringScan() {
+        doAnswer(invocation -> {
+            ResultHandler<Question> handler = invocation.getArgument(0);
+            feed(handler, question(1, "数学", QuestionType.SINGLE, Difficulty.EASY, "函数 f(x) 的定义域是"));
+            // 扫描期间检索仍用旧表，不等待重建完成
+            QuestionSearchIndex.Page during = CompletableFuture
+                    .supplyAsync(() -> index.search("函数", null, null, null, 0, 10, false))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(1, 2, 4), during.getQuestionIds());
+            // 扫描期间本实例提交的变更在换入新表时保留，不被扫描读到的旧行覆盖
+            index.upsert(question(1, "数学", QuestionType.SINGLE, Difficulty.EASY, "求导数"));
+            index.upsert(question(6, "数学", QuestionType.SINGLE, Difficulty.EASY, "幂函数的性质"));
+            return null;
+        }).when(questionDao).scanSearchRows(any());
+
+        index.rebuild();
+
+        assertEquals(List.of(6), index.search("函数", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(List.of(1), index.search("求导", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void reconcileShouldNotOverwriteQuestionsChangedLocallyDuringScan() {
+        when(questionDao.probeBankStamp()).thenReturn(stamp(BUILT_AT.plusSeconds(30), 4, 4));
+        doAnswer(invocation -> {
+            ResultHandler<Question> handler = invocation.getArgument(1);
+            index.upsert(question(2, "数学", QuestionType.JUDGE, null, "偶函数的图像关于 y 轴对称"));
+            feed(handler, question(2, "数学", QuestionType.JUDGE, null, "奇函数的图像关于原点对称"));
+            return null;
+        }).when(questionDao).scanSearchRowsUpdatedSince(eq(BUILT_AT.minusMinutes(1)), any());
+
+        assertTrue(index.reconcile());
+
+        assertEquals(List.of(2), index.search("偶函数", null, null, null, 0, 10, false).getQuestionIds());
+        assertEquals(0, index.search("奇函数", null, null, null, 0, 10, false).getTotal());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void feed(ResultHandler<Question> handler, Question row) {
+        ResultContext<Question> context = mock(ResultContext.class);
+        when(context.getResultObject()).thenReturn(row);
+        handler.handleResult(context);
+    }
+
+    private static QuestionBankStamp stamp(LocalDateTime maxUpdateTime, int maxQuestionId, int questionCount) {
+        QuestionBankStamp stamp = new QuestionBankStamp();
+        stamp.setMaxUpdateTime(maxUpdateTime);
+        stamp.setMaxQuestionId(maxQuestionId);
+        stamp.setQuestionCount(questionCount);
+        return stamp;
+    }
+
+    private static Question question(int questionId, String subject, QuestionType type, Difficulty difficulty, String content) {
+        Question question = new Question();
+        question.setQuestionId(questionId);
+        question.setSubject(subject);
+        question.setQuestionType(type);
+        question.setDifficulty(difficulty);
+        question.setContent(content);
+        return question;
+    }
+}
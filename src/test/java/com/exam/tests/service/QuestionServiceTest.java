@@ -4,11 +4,16 @@ import com.exam.dao.QuestionDao;
 import com.exam.exception.BusinessException;
 import com.exam.model.Question;
 import com.exam.model.enums.QuestionType;
+import com.exam.service.AnswerKeyCache;
+import com.exam.service.QuestionRegradeService;
+import com.exam.service.QuestionSearchIndex;
 import com.exam.service.QuestionService;
+import com.exam.service.StudentAchievementStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,11 +21,19 @@ import static org.mockito.Mockito.*;
 class QuestionServiceTest {
     private QuestionService questionService;
     private QuestionDao questionDao;
+    private AnswerKeyCache answerKeyCache;
+    private QuestionRegradeService regradeService;
+    private StudentAchievementStore achievementStore;
+    private QuestionSearchIndex searchIndex;
 
     @BeforeEach
     void setUp() {
         questionDao = mock(QuestionDao.class);
-        questionService = new QuestionService(questionDao);
+        answerKeyCache = mock(AnswerKeyCache.class);
+        regradeService = mock(QuestionRegradeService.class);
+        achievementStore = mock(StudentAchievementStore.class);
+        searchIndex = mock(QuestionSearchIndex.class);
+        questionService = new QuestionService(questionDao, answerKeyCache, regradeService, achievementStore, searchIndex);
     }
 
     @Test
@@ -84,6 +97,85 @@ class QuestionServiceTest {
         assertTrue(exception.getMessage().contains("BLANK"));
     }
 
+    @Test
+    void updateAndDeleteQuestionShouldInvalidateAnswerKeys() {
+        Question question = validQuestion();
+        question.setQuestionId(42);
+        when(questionDao.update(question)).thenReturn(1);
+        when(questionDao.delete(43)).thenReturn(1);
+
+        questionService.updateQuestion(question);
+        questionService.deleteQuestion(43);
+
+        verify(answerKeyCache).invalidateQuestion(42);
+        verify(answerKeyCache).invalidateQuestion(43);
+        verify(achievementStore).invalidateQuestion(43);
+        verify(searchIndex).upsert(question);
+        verify(searchIndex).remove(43);
+    }
+
+    @Test
+    void searchQuestionsShouldUseIndexForKeywordsOnceReady() {
+        Question first = validQuestion();
+        first.setQuestionId(7);
+        Question second = validQuestion();
+        second.setQuestionId(3);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("Java", "Java", null, null, 0, 10, false))
+                .thenReturn(new QuestionSearchIndex.Page(2, List.of(3, 7)));
+        when(searchIndex.search("Java", "Java", null, null, 0, 0, false))
+                .thenReturn(new QuestionSearchIndex.Page(2, List.of()));
+        when(questionDao.findByIds(List.of(3, 7))).thenReturn(Map.of(7, first, 3, second));
+
+        List<Question> questions = questionService.searchQuestions("Java", "Java", null, null, 0, 10);
+
+        assertEquals(List.of(3, 7), questions.stream().map(Question::getQuestionId).toList());
+        assertEquals(2, questionService.countQuestions("Java", "Java", null, null));
+        verify(questionDao, never()).search(any(), any(), any(), any(), anyInt(), anyInt());
+        verify(questionDao, never()).countQuestions(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchQuestionsShouldQueryDaoWithoutKeywordOrIndex() {
+        when(searchIndex.isReady()).thenReturn(false);
+
+        questionService.searchQuestions("Java", null, null, null, 0, 10);
+        when(searchIndex.isReady()).thenReturn(true);
+        questionService.countQuestions(" ", "Java", null, null);
+
+        verify(questionDao).search("Java", null, null, null, 0, 10);
+        verify(questionDao).countQuestions(" ", "Java", null, null);
+        verify(searchIndex, never()).search(any(), any(), any(), any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void updateQuestionShouldQueueRegradeOnlyWhenGradingChanges() {
+        Question stored = validQuestion();
+        stored.setQuestionId(50);
+        when(questionDao.findById(50)).thenReturn(stored);
+        when(questionDao.update(any(Question.class))).thenReturn(1);
+
+        Question reworded = validQuestion();
+        reworded.setQuestionId(50);
+        reworded.setContent("What is the JVM?");
+        reworded.setCorrectAnswer(" a ");
+        questionService.updateQuestion(reworded);
+        verify(regradeService, never()).regradeAsync(50);
+
+        Question corrected = validQuestion();
+        corrected.setQuestionId(50);
+        corrected.setCorrectAnswer("B");
+        questionService.updateQuestion(corrected);
+        verify(regradeService).regradeAsync(50);
+        verify(achievementStore, never()).invalidateQuestion(50);
+
+        Question retyped = validQuestion();
+        retyped.setQuestionId(50);
+        retyped.setQuestionType(QuestionType.MULTIPLE);
+        questionService.updateQuestion(retyped);
+        verify(achievementStore).invalidateQuestion(50);
+    }
+
     private static Question validQuestion() {
         Question question = new Question();
         question.setQuestionType(QuestionType.SINGLE);
@@ -0,0 +1,54 @@
+package com.exam.tests.service;
+
+import com.exam.dao.QuestionDao;
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.service.QuestionSignatureBackfill;
+import com.exam.util.QuestionSignature;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionSignatureBackfillTest {
+
+    @Test
+    void backfillShouldWriteSignaturesComputedFromLoadedColumns() {
+        QuestionDao questionDao = mock(QuestionDao.class);
+        Question legacy = question(31, "数学", QuestionType.SINGLE, "  1 + 1 = ?  ", "B");
+        Question duplicate = question(40, "数学", QuestionType.SINGLE, "1 + 1 = ?", "B");
+        List<Question> batch = List.of(legacy, duplicate);
+        when(questionDao.findQuestionsMissingSignature(0, 500)).thenReturn(batch);
+        when(questionDao.findQuestionsMissingSignature(40, 500)).thenReturn(List.of());
+        when(questionDao.backfillSignatureHashes(batch)).thenReturn(2);
+        QuestionSignatureBackfill backfill = new QuestionSignatureBackfill(questionDao, 500, 20);
+        assertFalse(backfill.isCompleted());
+
+        assertEquals(2, backfill.backfill());
+
+        assertTrue(backfill.isCompleted());
+        ArgumentCaptor<List<Question>> captor = ArgumentCaptor.forClass(List.class);
+        verify(questionDao).backfillSignatureHashes(captor.capture());
+        List<Question> written = captor.getValue();
+        assertEquals(QuestionSignature.hash("数学", QuestionType.SINGLE, "1 + 1 = ?", "B"), written.get(0).getSignatureHash());
+        // 规范化后相同的题目得到相同签名，回填后导题查重可以按签名命中
+        assertEquals(written.get(0).getSignatureHash(), written.get(1).getSignatureHash());
+    }
+
+    private static Question question(int questionId, String subject, QuestionType type, String content, String correctAnswer) {
+        Question question = new Question();
+        question.setQuestionId(questionId);
+        question.setSubject(subject);
+        question.setQuestionType(type);
+        question.setContent(content);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+}
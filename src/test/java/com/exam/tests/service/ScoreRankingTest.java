@@ -0,0 +1,68 @@
+package com.exam.tests.service;
+
+import com.exam.service.ScoreRanking;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreRankingTest {
+
+    @Test
+    void recordShouldKeepBestScorePerStudentAndShareRankOnTies() {
+        ScoreRanking ranking = new ScoreRanking(100, 3);
+
+        assertTrue(ranking.record(1, new BigDecimal("80")));
+        assertTrue(ranking.record(2, new BigDecimal("92.5")));
+        assertTrue(ranking.record(3, new BigDecimal("80.00")));
+        assertTrue(ranking.record(4, new BigDecimal("60")));
+        assertFalse(ranking.record(1, new BigDecimal("75")));
+
+        assertEquals(4, ranking.size());
+        assertEquals(0, new BigDecimal("80").compareTo(ranking.bestScore(1)));
+        assertEquals(1, ranking.rankOf(2));
+        assertEquals(2, ranking.rankOf(1));
+        assertEquals(2, ranking.rankOf(3));
+        assertEquals(4, ranking.rankOf(4));
+        assertEquals(50D, ranking.percentileOf(1), 1e-9);
+        assertEquals(87.5D, ranking.percentileOf(2), 1e-9);
+        assertEquals(0, ranking.rankOf(9));
+        assertNull(ranking.percentileOf(9));
+    }
+
+    @Test
+    void topShouldFollowImprovementsAndEvictTheLowestEntry() {
+        ScoreRanking ranking = new ScoreRanking(100, 2);
+        ranking.record(1, new BigDecimal("70"));
+        ranking.record(2, new BigDecimal("90"));
+        ranking.record(3, new BigDecimal("80"));
+
+        assertEquals(List.of(2, 3), ranking.top(2).stream().map(ScoreRanking.RankedEntry::getStudentId).toList());
+
+        ranking.record(1, new BigDecimal("95"));
+        List<ScoreRanking.RankedEntry> top = ranking.top(5);
+
+        assertEquals(List.of(1, 2), top.stream().map(ScoreRanking.RankedEntry::getStudentId).toList());
+        assertEquals(0, new BigDecimal("95").compareTo(top.get(0).getScore()));
+        assertEquals(2, top.get(1).getRank());
+        assertEquals(3, ranking.rankOf(3));
+    }
+
+    @Test
+    void recordShouldGrowBucketsForScoresAboveTheExpectedMaximum() {
+        ScoreRanking ranking = new ScoreRanking(10, 5);
+        ranking.record(1, new BigDecimal("8"));
+        ranking.record(2, new BigDecimal("120.25"));
+        ranking.record(3, new BigDecimal("-3"));
+
+        assertEquals(1, ranking.rankOf(2));
+        assertEquals(2, ranking.rankOf(1));
+        assertEquals(3, ranking.rankOf(3));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ranking.bestScore(3)));
+    }
+}
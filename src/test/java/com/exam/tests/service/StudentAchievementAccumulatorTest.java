@@ -0,0 +1,118 @@
+package com.exam.tests.service;
+
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.StudentAchievement;
+import com.exam.model.StudentSubjectAchievement;
+import com.exam.model.StudentTypeAchievement;
+import com.exam.service.StudentAchievementAccumulator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StudentAchievementAccumulatorTest {
+
+    @Test
+    void subjectsDifferingOnlyInCaseShouldMergeUnderFirstSpelling() {
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(7);
+        AchievementAnswerRow row = new AchievementAnswerRow();
+
+        feed(accumulator, row, 1, "Java", "90", 60, LocalDateTime.of(2026, 3, 1, 10, 0), 11, "SINGLE", true, true);
+        feed(accumulator, row, 2, " java", "50", 60, LocalDateTime.of(2026, 3, 4, 10, 0), 12, "SINGLE", true, false);
+        feed(accumulator, row, 3, "JAVA ", "70", 60, LocalDateTime.of(2026, 3, 2, 10, 0), 13, "SINGLE", false, false);
+
+        List<StudentSubjectAchievement> subjects = accumulator.toSubjects();
+        assertEquals(1, subjects.size());
+        StudentSubjectAchievement java = subjects.get(0);
+        assertEquals("Java", java.getSubject());
+        assertEquals(3, java.getRecordCount());
+        assertEquals(2, java.getPassCount());
+        assertEquals(1, java.getFailCount());
+        assertEquals(0, new BigDecimal("210").compareTo(java.getScoreSum()));
+        assertEquals(3L, java.getQuestionCount());
+        assertEquals(LocalDateTime.of(2026, 3, 4, 10, 0), java.getLatestSubmitTime());
+    }
+
+    @Test
+    void acceptShouldCountRecordsOnceAndAnswersPerRow() {
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(7);
+        AchievementAnswerRow row = new AchievementAnswerRow();
+
+        feed(accumulator, row, 1, " 数学 ", "85", 60, LocalDateTime.of(2026, 3, 1, 10, 0), 11, "SINGLE", true, true);
+        feed(accumulator, row, 1, " 数学 ", "85", 60, LocalDateTime.of(2026, 3, 1, 10, 0), 12, "MULTIPLE", true, false);
+        feed(accumulator, row, 2, "数学", "40", 60, LocalDateTime.of(2026, 3, 5, 10, 0), 13, null, false, false);
+        feed(accumulator, row, 3, "", null, null, LocalDateTime.of(2026, 3, 2, 10, 0), null, null, false, false);
+
+        StudentAchievement summary = accumulator.toSummary();
+        assertEquals(7, summary.getStudentId());
+        assertEquals(3, summary.getCompletedCount());
+        assertEquals(2, summary.getScoredCount());
+        assertEquals(0, new BigDecimal("125").compareTo(summary.getScoreSum()));
+        assertEquals(0, new BigDecimal("85").compareTo(summary.getBestScore()));
+        assertEquals(1, summary.getPassCount());
+        assertEquals(2, summary.getFailCount());
+        assertEquals(3L, summary.getQuestionCount());
+        assertEquals(2L, summary.getAnsweredCount());
+        assertEquals(1L, summary.getCorrectCount());
+
+        List<StudentSubjectAchievement> subjects = accumulator.toSubjects();
+        assertEquals(2, subjects.size());
+        StudentSubjectAchievement math = subjects.get(0);
+        assertEquals("数学", math.getSubject());
+        assertEquals(2, math.getRecordCount());
+        assertEquals(3L, math.getQuestionCount());
+        assertEquals(LocalDateTime.of(2026, 3, 5, 10, 0), math.getLatestSubmitTime());
+        StudentSubjectAchievement unknown = subjects.get(1);
+        assertEquals("未分类科目", unknown.getSubject());
+        assertEquals(1, unknown.getRecordCount());
+        assertEquals(0, unknown.getScoredCount());
+        assertEquals(0L, unknown.getQuestionCount());
+
+        List<StudentTypeAchievement> types = accumulator.toTypes();
+        assertEquals(List.of("SINGLE", "MULTIPLE", "OTHER"), types.stream().map(StudentTypeAchievement::getQuestionType).toList());
+        assertEquals(1L, types.get(0).getCorrectCount());
+        assertEquals(0L, types.get(2).getAnsweredCount());
+    }
+
+    @Test
+    void emptyAccumulatorShouldProduceZeroSummary() {
+        StudentAchievementAccumulator accumulator = new StudentAchievementAccumulator(3);
+
+        StudentAchievement summary = accumulator.toSummary();
+
+        assertEquals(0, summary.getCompletedCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getScoreSum()));
+        assertNull(summary.getBestScore());
+        assertEquals(0, accumulator.toSubjects().size());
+        assertEquals(0, accumulator.toTypes().size());
+    }
+
+    private static void feed(
+            StudentAchievementAccumulator accumulator,
+            AchievementAnswerRow row,
+            Integer recordId,
+            String subject,
+            String score,
+            Integer passScore,
+            LocalDateTime recordTime,
+            Integer answerId,
+            String questionType,
+            boolean answered,
+            boolean correct
+    ) {
+        row.setRecordId(recordId);
+        row.setSubject(subject);
+        row.setScore(score == null ? null : new BigDecimal(score));
+        row.setPassScore(passScore);
+        row.setRecordTime(recordTime);
+        row.setAnswerId(answerId);
+        row.setQuestionType(questionType);
+        row.setAnswered(answered);
+        row.setCorrect(correct);
+        accumulator.accept(row);
+    }
+}
@@ -0,0 +1,190 @@
+package com.exam.tests.service;
+
+import com.exam.dao.StudentAchievementDao;
+import com.exam.model.AchievementAnswerRow;
+import com.exam.model.StudentAchievement;
+import com.exam.service.StudentAchievementStore;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentAchievementStoreTest {
+    private StudentAchievementDao achievementDao;
+    private StudentAchievementStore store;
+
+    @BeforeEach
+    void setUp() {
+        achievementDao = mock(StudentAchievementDao.class);
+        store = new StudentAchievementStore(achievementDao, mock(PlatformTransactionManager.class), false, 2);
+    }
+
+    @Test
+    void loadShouldReadStoredAggregateWithoutRebuilding() {
+        StudentAchievement summary = new StudentAchievement();
+        when(achievementDao.findSummary(7)).thenReturn(summary);
+        when(achievementDao.findSubjects(7)).thenReturn(List.of());
+        when(achievementDao.findTypes(7)).thenReturn(List.of());
+
+        StudentAchievementStore.Aggregate aggregate = store.load(7);
+
+        assertSame(summary, aggregate.getSummary());
+        verify(achievementDao, never()).lockStudent(any());
+        verify(achievementDao, never()).streamSettledAnswerRows(any());
+    }
+
+    @Test
+    void loadShouldRebuildMissingAggregateUnderStudentLock() {
+        StudentAchievement rebuilt = new StudentAchievement();
+        when(achievementDao.findSummary(7)).thenReturn(null, null, rebuilt);
+        when(achievementDao.lockStudent(7)).thenReturn(7);
+        ListCursor cursor = new ListCursor(List.of(
+                row(1, "数学", "80", 60, 101, "SINGLE", true, true),
+                row(1, "数学", "80", 60, 102, "MULTIPLE", true, false),
+                row(2, "英语", "50", 60, null, null, false, false)
+        ));
+        when(achievementDao.streamSettledAnswerRows(7)).thenReturn(cursor);
+
+        StudentAchievementStore.Aggregate aggregate = store.load(7);
+
+        assertNotNull(aggregate);
+        assertSame(rebuilt, aggregate.getSummary());
+        assertFalse(cursor.isOpen());
+        InOrder order = inOrder(achievementDao);
+        order.verify(achievementDao).lockStudent(7);
+        order.verify(achievementDao).lockStudentRecords(7);
+        order.verify(achievementDao).deleteByStudentId(7);
+        order.verify(achievementDao).streamSettledAnswerRows(7);
+        ArgumentCaptor<StudentAchievement> summary = ArgumentCaptor.forClass(StudentAchievement.class);
+        order.verify(achievementDao).insertSummary(summary.capture());
+        order.verify(achievementDao).insertSubjects(any());
+        order.verify(achievementDao).insertTypes(any());
+        assertEquals(2, summary.getValue().getCompletedCount());
+        assertEquals(1, summary.getValue().getPassCount());
+        assertEquals(2L, summary.getValue().getQuestionCount());
+    }
+
+    @Test
+    void rebuildShouldWriteEmptySummaryForStudentWithoutSettledRecords() {
+        when(achievementDao.lockStudent(4)).thenReturn(4);
+        when(achievementDao.streamSettledAnswerRows(4)).thenReturn(new ListCursor(List.of()));
+
+        assertTrue(store.rebuild(4));
+
+        ArgumentCaptor<StudentAchievement> summary = ArgumentCaptor.forClass(StudentAchievement.class);
+        verify(achievementDao).insertSummary(summary.capture());
+        assertEquals(0, summary.getValue().getCompletedCount());
+        verify(achievementDao, never()).insertSubjects(any());
+        verify(achievementDao, never()).insertTypes(any());
+    }
+
+    @Test
+    void loadShouldReturnNullForUnknownStudent() {
+        when(achievementDao.lockStudent(9)).thenReturn(null);
+
+        assertNull(store.load(9));
+        verify(achievementDao, never()).insertSummary(any());
+    }
+
+    @Test
+    void foldShouldSkipDetailTablesWhenNoSummaryWasUpdated() {
+        when(achievementDao.foldSummary(List.of(11))).thenReturn(0);
+        store.foldSettledRecords(List.of(11));
+        verify(achievementDao, never()).foldSubjects(any());
+
+        when(achievementDao.foldSummary(List.of(12))).thenReturn(1);
+        store.foldSettledRecords(List.of(12));
+        verify(achievementDao).foldSubjects(List.of(12));
+        verify(achievementDao).foldTypes(List.of(12));
+    }
+
+    @Test
+    void rebuildAllShouldWalkStudentsInBatches() {
+        when(achievementDao.findStudentIdsAfter(0, 2)).thenReturn(List.of(3, 5));
+        when(achievementDao.findStudentIdsAfter(5, 2)).thenReturn(List.of(8));
+        when(achievementDao.findStudentIdsAfter(8, 2)).thenReturn(List.of());
+        when(achievementDao.lockStudent(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(achievementDao.streamSettledAnswerRows(anyInt())).thenAnswer(invocation -> new ListCursor(List.of()));
+
+        assertEquals(3, store.rebuildAll());
+        verify(achievementDao).streamSettledAnswerRows(3);
+        verify(achievementDao).streamSettledAnswerRows(5);
+        verify(achievementDao).streamSettledAnswerRows(8);
+    }
+
+    private static AchievementAnswerRow row(
+            Integer recordId,
+            String subject,
+            String score,
+            Integer passScore,
+            Integer answerId,
+            String questionType,
+            boolean answered,
+            boolean correct
+    ) {
+        AchievementAnswerRow row = new AchievementAnswerRow();
+        row.setRecordId(recordId);
+        row.setSubject(subject);
+        row.setScore(new BigDecimal(score));
+        row.setPassScore(passScore);
+        row.setAnswerId(answerId);
+        row.setQuestionType(questionType);
+        row.setAnswered(answered);
+        row.setCorrect(correct);
+        return row;
+    }
+
+    private static final class ListCursor implements Cursor<AchievementAnswerRow> {
+        private final List<AchievementAnswerRow> rows;
+        private boolean open = true;
+
+        private ListCursor(List<AchievementAnswerRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return !open;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public Iterator<AchievementAnswerRow> iterator() {
+            return rows.iterator();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.exam.tests.service;
+
+import com.exam.exception.BusinessException;
+import com.exam.model.ExamRecord;
+import com.exam.service.ExamService;
+import com.exam.service.SubmissionPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubmissionPipelineTest {
+    private ExamService examService;
+    private SubmissionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        examService = mock(ExamService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void disabledPipelineShouldSubmitDirectly() {
+        pipeline = new SubmissionPipeline(examService, false, 10, 1, 10, 1000);
+        when(examService.submitExamWithReport(1, Map.of(1, "A"))).thenReturn(report(new BigDecimal("5")));
+
+        assertEquals(new BigDecimal("5"), pipeline.submit(1, Map.of(1, "A")).getScore());
+        verify(examService, never()).submitExamsBatch(anyList());
+    }
+
+    @Test
+    void queuedSubmissionsShouldBeCommittedAsOneGroup() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> groupSizes = new ArrayList<>();
+        when(examService.submitExamsBatch(anyList())).thenAnswer(invocation -> {
+            List<ExamService.SubmissionRequest> requests = invocation.getArgument(0);
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            groupSizes.add(requests.size());
+            List<ExamService.SubmissionOutcome> outcomes = new ArrayList<>();
+            for (ExamService.SubmissionRequest request : requests) {
+                outcomes.add(request.getRecordId() == 3
+                        ? ExamService.SubmissionOutcome.failure("Exam already submitted")
+                        : ExamService.SubmissionOutcome.success(report(BigDecimal.valueOf(request.getRecordId()))));
+            }
+            return outcomes;
+        });
+        pipeline = new SubmissionPipeline(examService, true, 10, 1, 10, 5000);
+
+        CompletableFuture<ExamService.SubmissionReport> first = pipeline.submitAsync(1, Map.of());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ExamService.SubmissionReport> second = pipeline.submitAsync(2, Map.of());
+        CompletableFuture<ExamService.SubmissionReport> third = pipeline.submitAsync(3, Map.of());
+        release.countDown();
+
+        assertEquals(BigDecimal.ONE, first.get(5, TimeUnit.SECONDS).getScore());
+        assertEquals(BigDecimal.valueOf(2), second.get(5, TimeUnit.SECONDS).getScore());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BusinessException.class, failure.getCause());
+        assertEquals(List.of(1, 2), groupSizes);
+    }
+
+    @Test
+    void fullQueueShouldRejectNewSubmissions() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(examService.submitExamsBatch(anyList())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<ExamService.SubmissionRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(request -> ExamService.SubmissionOutcome.success(report(BigDecimal.ZERO))).toList();
+        });
+        pipeline = new SubmissionPipeline(examService, true, 1, 1, 10, 5000);
+
+        pipeline.submitAsync(1, Map.of());
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        pipeline.submitAsync(2, Map.of());
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> pipeline.submitAsync(3, Map.of()));
+        assertTrue(exception.getMessage().contains("queue is full"));
+        release.countDown();
+    }
+
+    @Test
+    void failedGroupShouldFallBackToSingleSubmissions() throws Exception {
+        when(examService.submitExamsBatch(anyList())).thenThrow(new IllegalStateException("deadlock"));
+        when(examService.submitExamWithReport(any(), any())).thenReturn(report(BigDecimal.TEN));
+        pipeline = new SubmissionPipeline(examService, true, 10, 1, 10, 5000);
+
+        assertEquals(BigDecimal.TEN, pipeline.submit(7, Map.of(1, "A")).getScore());
+        verify(examService).submitExamWithReport(7, Map.of(1, "A"));
+    }
+
+    private ExamService.SubmissionReport report(BigDecimal score) {
+        return new ExamService.SubmissionReport(new ExamRecord(), score, List.of());
+    }
+}
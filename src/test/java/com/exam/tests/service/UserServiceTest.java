@@ -2,6 +2,7 @@ package com.exam.tests.service;
 
 import com.exam.dao.UserDao;
 import com.exam.exception.AuthenticationException;
+import com.exam.exception.BusinessException;
 import com.exam.model.User;
 import com.exam.model.enums.UserRole;
 import com.exam.service.UserService;
@@ -9,6 +10,8 @@ import com.exam.util.PasswordUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -113,4 +116,47 @@ class UserServiceTest {
         assertTrue(updateUser.getPassword().startsWith("PBKDF2$"));
         verify(userDao).update(updateUser);
     }
+
+    @Test
+    void getStudentsPageShouldFetchOneExtraRowAndReturnCursor() {
+        User first = new User("Alice", "2023001", "x", UserRole.STUDENT);
+        first.setUserId(5);
+        User second = new User("Alan", "2023002", "x", UserRole.STUDENT);
+        second.setUserId(9);
+        User extra = new User("Alex", "2023003", "x", UserRole.STUDENT);
+        extra.setUserId(12);
+        when(userDao.findStudentsAfter(null, "Al", 3)).thenReturn(List.of(first, second, extra));
+        when(userDao.countStudents("Al")).thenReturn(7);
+
+        UserService.StudentPage page = userService.getStudentsPage(" Al ", null, 2);
+
+        assertEquals(List.of(first, second), page.getStudents());
+        assertTrue(page.hasMore());
+        assertEquals(7, page.getTotalCount());
+
+        when(userDao.findStudentsAfter(9, "Al", 3)).thenReturn(List.of(extra));
+        UserService.StudentPage next = userService.getStudentsPage("Al", page.getNextCursor(), 2);
+
+        assertEquals(List.of(extra), next.getStudents());
+        assertFalse(next.hasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getStudentsPageShouldEscapeLikeWildcards() {
+        when(userDao.findStudentsAfter(null, "a\\_\\%\\\\", 21)).thenReturn(List.of());
+
+        UserService.StudentPage page = userService.getStudentsPage("a_%\\", null, 20);
+
+        assertTrue(page.getStudents().isEmpty());
+        verify(userDao).countStudents("a\\_\\%\\\\");
+    }
+
+    @Test
+    void getStudentsPageShouldRejectInvalidArguments() {
+        assertThrows(BusinessException.class, () -> userService.getStudentsPage(null, null, 0));
+        assertThrows(BusinessException.class, () -> userService.getStudentsPage(null, null, 201));
+        assertThrows(BusinessException.class, () -> userService.getStudentsPage(null, "not-a-cursor!", 20));
+        verify(userDao, never()).findStudentsAfter(any(), any(), anyInt());
+    }
 }
@@ -0,0 +1,94 @@
+package com.exam.tests.tools;
+
+import com.exam.tools.QuestionBankLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionBankLoaderTest {
+    @TempDir
+    Path bankRoot;
+
+    @Test
+    void dryRunShouldParseAllBankTypesAndSkipDuplicatesAcrossFiles() throws Exception {
+        Path subject = Files.createDirectories(bankRoot.resolve("数据结构"));
+        Files.writeString(subject.resolve("a.txt"), String.join("\n",
+                "\uFEFF# 选择",
+                "SINGLE|数据结构|栈的特点是？|先进先出|后进先出|随机存取|顺序存取|B|5|EASY|",
+                "BLANK|数据结构|队列的特点是____|||||先进先出|5|EASY|",
+                "SINGLE|数据结构|缺少字段"
+        ), StandardCharsets.UTF_8);
+        Files.writeString(subject.resolve("b.txt"),
+                "single|数据结构| 栈的特点是？ |先进先出|后进先出|随机存取|顺序存取|b|5|EASY|\n", StandardCharsets.UTF_8);
+        Files.writeString(subject.resolve("notes.md"), "SINGLE|ignored", StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        QuestionBankLoader.Report report = new QuestionBankLoader(null, null, 1, new PrintStream(output, true, StandardCharsets.UTF_8))
+                .load(List.of(bankRoot));
+
+        assertEquals(2, report.files());
+        assertEquals(4, report.dataLines());
+        assertEquals(2, report.inserted());
+        assertEquals(1, report.duplicates());
+        assertEquals(1, report.errors());
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("第 4 行"));
+    }
+
+    @Test
+    void backfillShouldSkipAndReportQuestionsWithUnknownType() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement select = mock(PreparedStatement.class);
+        PreparedStatement update = mock(PreparedStatement.class);
+        ResultSet firstBatch = mock(ResultSet.class);
+        ResultSet emptyBatch = mock(ResultSet.class);
+        when(connection.prepareStatement(contains("SELECT question_id"))).thenReturn(select);
+        when(connection.prepareStatement(contains("UPDATE question"))).thenReturn(update);
+        when(select.executeQuery()).thenReturn(firstBatch, emptyBatch);
+        when(firstBatch.next()).thenReturn(true, true, false);
+        when(firstBatch.getInt(1)).thenReturn(3, 4);
+        when(firstBatch.getString(2)).thenReturn("Java");
+        when(firstBatch.getString(3)).thenReturn("LEGACY_TYPE", "SINGLE");
+        when(firstBatch.getString(4)).thenReturn("What is JVM?");
+        when(firstBatch.getString(5)).thenReturn("A");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        QuestionBankLoader.Report report = new QuestionBankLoader(connection, null, 10, new PrintStream(output, true, StandardCharsets.UTF_8))
+                .load(List.of(bankRoot));
+
+        assertEquals(1, report.backfilledSignatures());
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("题目 3 的题型 LEGACY_TYPE 无法识别"));
+        verify(update).setInt(2, 4);
+        verify(update, never()).setInt(2, 3);
+        verify(update, times(1)).addBatch();
+        verify(select).setInt(1, 4);
+        verify(connection, times(2)).prepareStatement(contains("SELECT question_id"));
+        verify(connection, times(1)).prepareStatement(contains("UPDATE question"));
+        verify(connection, never()).rollback();
+        verify(connection).commit();
+    }
+
+    @Test
+    void readBankShouldStripByteOrderMark() throws Exception {
+        Path file = Files.writeString(bankRoot.resolve("bank.txt"), "\uFEFFSINGLE|Java", StandardCharsets.UTF_8);
+
+        assertEquals("SINGLE|Java", QuestionBankLoader.readBank(file));
+    }
+}
@@ -1,9 +1,12 @@
 package com.exam.tests.util;
 
+import com.exam.exception.QuestionImportException;
 import com.exam.model.Question;
 import com.exam.util.QuestionImportUtil;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,6 +43,57 @@ class QuestionImportUtilTest {
         assertEquals("Java", questions.get(0).getSubject());
     }
 
+    @Test
+    void parseShouldReportInvalidLinesAndKeepReading() throws Exception {
+        List<Integer> questionLines = new ArrayList<>();
+        List<Integer> errorLines = new ArrayList<>();
+
+        int dataLines = QuestionImportUtil.parse(
+                new StringReader(String.join("\n",
+                        "# 注释",
+                        "SINGLE|Java|Java 中用于定义常量的关键字是？|const|final|static|let|B|5|EASY|",
+                        "SINGLE|Java|缺少字段",
+                        "",
+                        "JUDGE|Java|Java 支持类的多继承|正确|错误|||B|abc|EASY|",
+                        "JUDGE|Java|Java 不支持类的多继承|正确|错误|||A|5|EASY|"
+                )),
+                1,
+                new QuestionImportUtil.LineHandler() {
+                    @Override
+                    public void onQuestion(int lineNumber, Question question) {
+                        questionLines.add(lineNumber);
+                    }
+
+                    @Override
+                    public void onError(int lineNumber, String message) {
+                        errorLines.add(lineNumber);
+                    }
+                }
+        );
+
+        assertEquals(4, dataLines);
+        assertEquals(List.of(2, 6), questionLines);
+        assertEquals(List.of(3, 5), errorLines);
+    }
+
+    @Test
+    void parseTextShouldKeepLineNumbersAcrossParallelSegments() {
+        String valid = "SINGLE|Java|Java 中用于定义常量的关键字是？|const|final|static|let|B|5|EASY|final 用于定义常量";
+        StringBuilder source = new StringBuilder();
+        for (int i = 1; i <= 20000; i++) {
+            source.append(i % 5000 == 0 ? "SINGLE|Java|缺少字段" : valid).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+
+        QuestionImportUtil.ParseResult result = QuestionImportUtil.parseText(source.toString(), 1);
+
+        assertEquals(20000, result.dataLines());
+        assertEquals(19996, result.questions().size());
+        assertEquals(
+                List.of(5000, 10000, 15000, 20000),
+                result.errors().stream().map(QuestionImportException.LineError::lineNumber).toList()
+        );
+    }
+
     @Test
     void buildTemplateContentShouldClearlyMarkUnsupportedExtendedTypes() {
         String template = QuestionImportUtil.buildTemplateContent();
@@ -0,0 +1,57 @@
+package com.exam.tests.util;
+
+import com.exam.model.Question;
+import com.exam.model.enums.Difficulty;
+import com.exam.model.enums.QuestionType;
+import com.exam.util.QuestionLineParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionLineParserTest {
+
+    @Test
+    void parseShouldReadFieldsWithinTheGivenRange() {
+        String text = "# 注释\n multiple | Java |哪些是访问修饰符？|public|private|protected|final| abc | 10 | hard |解析\n";
+        int start = text.indexOf('\n') + 1;
+        QuestionLineParser parser = new QuestionLineParser();
+
+        Question question = parser.parse(text, start, text.length() - 1, 7);
+
+        assertNotNull(question);
+        assertEquals(QuestionType.MULTIPLE, question.getQuestionType());
+        assertEquals("Java", question.getSubject());
+        assertEquals("哪些是访问修饰符？", question.getContent());
+        assertEquals("final", question.getOptionD());
+        assertEquals("ABC", question.getCorrectAnswer());
+        assertEquals(10, question.getScore());
+        assertEquals(Difficulty.HARD, question.getDifficulty());
+        assertEquals("解析", question.getAnalysis());
+        assertEquals(7, question.getCreatorId());
+        assertTrue(QuestionLineParser.isBlankOrComment(text, 0, start - 1));
+    }
+
+    @Test
+    void parseShouldFollowSplitRulesAndReportErrorsWithoutThrowing() {
+        QuestionLineParser parser = new QuestionLineParser();
+
+        String judgeLine = "JUDGE|Java|Java 支持多继承|正确|错误|||B|||";
+        Question judge = parser.parse(judgeLine, 0, judgeLine.length(), null);
+        assertNotNull(judge);
+        assertEquals(5, judge.getScore());
+        assertEquals(Difficulty.MEDIUM, judge.getDifficulty());
+        assertEquals("", judge.getAnalysis());
+
+        String tooShort = "SINGLE|Java|题干|A|B|||";
+        assertNull(parser.parse(tooShort, 0, tooShort.length(), null));
+        assertTrue(parser.getError().contains("至少需要 8 个字段"));
+
+        String badScore = "SINGLE|Java|题干|A|B|||A|5分";
+        assertNull(parser.parse(badScore, 0, badScore.length(), null));
+        assertEquals("分值必须是数字", parser.getError());
+
+        String unsupported = "WRITING|英语|写作|||||A";
+        assertNull(parser.parse(unsupported, 0, unsupported.length(), null));
+        assertTrue(parser.getError().contains("暂不支持：WRITING"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.exam.tests.util;
+
+import com.exam.model.Question;
+import com.exam.model.enums.QuestionType;
+import com.exam.util.QuestionSignature;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSignatureTest {
+
+    @Test
+    void hashShouldIgnoreSurroundingWhitespaceAndCase() {
+        String hash = QuestionSignature.hash("Java", QuestionType.SINGLE, "What is JVM?", "A");
+        assertEquals(64, hash.length());
+        assertEquals(hash, QuestionSignature.hash(" java ", QuestionType.SINGLE, "what is jvm? ", "a"));
+    }
+
+    @Test
+    void hashShouldDistinguishTypeAndFieldBoundaries() {
+        assertNotEquals(
+                QuestionSignature.hash("Java", QuestionType.SINGLE, "content", "A"),
+                QuestionSignature.hash("Java", QuestionType.MULTIPLE, "content", "A")
+        );
+        assertNotEquals(
+                QuestionSignature.hash("Java", QuestionType.SINGLE, "ab", "c"),
+                QuestionSignature.hash("Java", QuestionType.SINGLE, "a", "bc")
+        );
+    }
+
+    @Test
+    void questionShouldCacheSignatureUntilSignedFieldChanges() {
+        Question question = new Question(QuestionType.SINGLE, "Java", "What is JVM?", "A", 5);
+        String hash = question.getSignatureHash();
+
+        assertSame(hash, question.getSignatureHash());
+        question.setScore(10);
+        assertSame(hash, question.getSignatureHash());
+
+        question.setCorrectAnswer("B");
+        assertEquals(QuestionSignature.hash("Java", QuestionType.SINGLE, "What is JVM?", "B"), question.getSignatureHash());
+        question.setContent("What is JRE?");
+        assertEquals(QuestionSignature.hash("Java", QuestionType.SINGLE, "What is JRE?", "B"), question.getSignatureHash());
+    }
+}